@@ -0,0 +1,252 @@
+package tonegod.emitter;
+
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.RenderManager;
+import com.jme3.renderer.ViewPort;
+import com.jme3.scene.Node;
+import com.jme3.scene.control.AbstractControl;
+import com.jme3.util.SafeArrayList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The pool of one-shot effect instances of a template emitter. Instances are cloned from the template once and are
+ * reused, so acquiring an effect doesn't allocate particles, meshes or materials. An acquired instance is attached to
+ * the parent node and is released back to the pool automatically when it isn't alive anymore and all its particles
+ * are dead, so the template should have a limited emitter life.
+ *
+ * @author JavaSaBr
+ */
+public class EffectPool {
+
+    /**
+     * The control to release a finished instance back to the pool.
+     */
+    private static final class ReleaseControl extends AbstractControl {
+
+        /**
+         * The pool of the instance.
+         */
+        @NotNull
+        private final EffectPool pool;
+
+        private ReleaseControl(@NotNull EffectPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        protected void controlUpdate(float tpf) {
+
+            ParticleEmitterNode emitterNode = (ParticleEmitterNode) getSpatial();
+
+            if (emitterNode.isEnabled() && !emitterNode.isAlive() && emitterNode.getActiveParticleCount() == 0) {
+                pool.release(emitterNode);
+            }
+        }
+
+        @Override
+        protected void controlRender(@NotNull RenderManager renderManager, @NotNull ViewPort viewPort) {
+        }
+    }
+
+    /**
+     * The template of instances.
+     */
+    @NotNull
+    private final ParticleEmitterNode template;
+
+    /**
+     * The node to attach acquired instances.
+     */
+    @NotNull
+    private final Node parent;
+
+    /**
+     * The instances which can be acquired.
+     */
+    @NotNull
+    private final SafeArrayList<ParticleEmitterNode> free;
+
+    /**
+     * The acquired instances.
+     */
+    @NotNull
+    private final SafeArrayList<ParticleEmitterNode> used;
+
+    /**
+     * The max count of instances of this pool.
+     */
+    private int maxSize;
+
+    /**
+     * The count of created instances.
+     */
+    private int size;
+
+    /**
+     * Creates a pool and clones the count of instances in advance.
+     *
+     * @param template the template of instances, it should be initialized before.
+     * @param parent   the node to attach acquired instances.
+     * @param size     the count of instances to create in advance.
+     */
+    public EffectPool(@NotNull ParticleEmitterNode template, @NotNull Node parent, int size) {
+
+        if (size < 0) {
+            throw new IllegalArgumentException("The size " + size + " can't be negative.");
+        }
+
+        this.template = template;
+        this.parent = parent;
+        this.free = new SafeArrayList<>(ParticleEmitterNode.class);
+        this.used = new SafeArrayList<>(ParticleEmitterNode.class);
+        this.maxSize = Math.max(size, 1);
+
+        for (int i = 0; i < size; i++) {
+            free.add(createInstance());
+        }
+    }
+
+    /**
+     * Creates a new instance of the template.
+     *
+     * @return the new instance.
+     */
+    protected @NotNull ParticleEmitterNode createInstance() {
+
+        ParticleEmitterNode emitterNode = template.clone();
+        emitterNode.setEnabled(false);
+        emitterNode.killAllParticles();
+        emitterNode.addControl(new ReleaseControl(this));
+
+        size++;
+
+        return emitterNode;
+    }
+
+    /**
+     * Acquires an instance, reseeds and resets it and starts emitting at the position. A new instance is created
+     * when all instances are acquired and the pool didn't reach the max size.
+     *
+     * @param position the local translation of the instance in the parent node.
+     * @return the started instance or null if all instances are acquired.
+     */
+    public @Nullable ParticleEmitterNode acquire(@NotNull Vector3f position) {
+
+        ParticleEmitterNode emitterNode;
+
+        if (!free.isEmpty()) {
+            emitterNode = free.remove(free.size() - 1);
+        } else if (size < maxSize) {
+            emitterNode = createInstance();
+        } else {
+            return null;
+        }
+
+        // clones keep the random streams of the template, so every acquired effect gets its own seed
+        emitterNode.reseed();
+        emitterNode.setLocalTranslation(position);
+        emitterNode.reset();
+        emitterNode.setEnabled(true);
+
+        parent.attachChild(emitterNode);
+        used.add(emitterNode);
+
+        return emitterNode;
+    }
+
+    /**
+     * Stops the acquired instance and returns it to the pool.
+     *
+     * @param emitterNode the acquired instance.
+     */
+    public void release(@NotNull ParticleEmitterNode emitterNode) {
+
+        if (!used.remove(emitterNode)) {
+            return;
+        }
+
+        emitterNode.setEnabled(false);
+        emitterNode.killAllParticles();
+        emitterNode.removeFromParent();
+
+        free.add(emitterNode);
+    }
+
+    /**
+     * Stops all acquired instances and returns them to the pool.
+     */
+    public void releaseAll() {
+        for (ParticleEmitterNode emitterNode : used.getArray()) {
+            release(emitterNode);
+        }
+    }
+
+    /**
+     * Gets the template of instances.
+     *
+     * @return the template.
+     */
+    public @NotNull ParticleEmitterNode getTemplate() {
+        return template;
+    }
+
+    /**
+     * Gets the node to attach acquired instances.
+     *
+     * @return the parent node.
+     */
+    public @NotNull Node getParent() {
+        return parent;
+    }
+
+    /**
+     * Sets the max count of instances of this pool.
+     *
+     * @param maxSize the max count of instances.
+     */
+    public void setMaxSize(int maxSize) {
+
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The max size " + maxSize + " should be positive.");
+        }
+
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the max count of instances of this pool.
+     *
+     * @return the max count of instances.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the count of created instances.
+     *
+     * @return the count of created instances.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the count of instances which can be acquired without creating new ones.
+     *
+     * @return the count of free instances.
+     */
+    public int getFreeCount() {
+        return free.size();
+    }
+
+    /**
+     * Gets the count of acquired instances.
+     *
+     * @return the count of acquired instances.
+     */
+    public int getUsedCount() {
+        return used.size();
+    }
+}
@@ -0,0 +1,299 @@
+package tonegod.emitter;
+
+import static java.lang.Class.forName;
+import com.jme3.export.*;
+import com.jme3.util.SafeArrayList;
+import com.jme3.util.clone.Cloner;
+import com.jme3.util.clone.JmeCloneable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tonegod.emitter.influencers.ParticleInfluencer;
+
+import java.io.IOException;
+
+/**
+ * The level of detail policy of an emitter. It's a set of distance bands, every band reduces emission, occupancy
+ * and update frequency of emitters which are farther from the camera than the band's distance.
+ *
+ * @author JavaSaBr
+ */
+public class EmitterLod implements Cloneable, JmeCloneable, Savable {
+
+    /**
+     * The distance band of the level of detail.
+     */
+    public static class Band implements Savable {
+
+        @NotNull
+        private static final String[] EMPTY_NAMES = new String[0];
+
+        /**
+         * The distance from which this band is used.
+         */
+        private float distance;
+
+        /**
+         * The scale of emissions per second.
+         */
+        private float emissionScale;
+
+        /**
+         * The scale of max particles which can be active.
+         */
+        private float particleScale;
+
+        /**
+         * The divisor of update frequency, particles are updated every N-th frame with the accumulated time.
+         */
+        private int updateDivisor;
+
+        /**
+         * The types of influencers which aren't updated in this band.
+         */
+        @NotNull
+        private Class<?>[] disabledInfluencers;
+
+        public Band() {
+            this.emissionScale = 1F;
+            this.particleScale = 1F;
+            this.updateDivisor = 1;
+            this.disabledInfluencers = new Class<?>[0];
+        }
+
+        public Band(
+                float distance,
+                float emissionScale,
+                float particleScale,
+                int updateDivisor,
+                @NotNull Class<?>... disabledInfluencers
+        ) {
+
+            if (distance < 0F) {
+                throw new IllegalArgumentException("The distance " + distance + " can't be negative.");
+            } else if (emissionScale < 0F) {
+                throw new IllegalArgumentException("The emission scale " + emissionScale + " can't be negative.");
+            } else if (particleScale < 0F || particleScale > 1F) {
+                throw new IllegalArgumentException("The particle scale " + particleScale + " should be in [0, 1].");
+            } else if (updateDivisor < 1) {
+                throw new IllegalArgumentException("The update divisor " + updateDivisor + " should be positive.");
+            }
+
+            for (Class<?> type : disabledInfluencers) {
+                if (!ParticleInfluencer.class.isAssignableFrom(type)) {
+                    throw new IllegalArgumentException("The type " + type + " isn't a particle influencer.");
+                }
+            }
+
+            this.distance = distance;
+            this.emissionScale = emissionScale;
+            this.particleScale = particleScale;
+            this.updateDivisor = updateDivisor;
+            this.disabledInfluencers = disabledInfluencers.clone();
+        }
+
+        /**
+         * Gets the distance from which this band is used.
+         *
+         * @return the distance.
+         */
+        public float getDistance() {
+            return distance;
+        }
+
+        /**
+         * Gets the scale of emissions per second.
+         *
+         * @return the scale of emissions per second.
+         */
+        public float getEmissionScale() {
+            return emissionScale;
+        }
+
+        /**
+         * Gets the scale of max particles which can be active.
+         *
+         * @return the scale of max particles.
+         */
+        public float getParticleScale() {
+            return particleScale;
+        }
+
+        /**
+         * Gets the divisor of update frequency.
+         *
+         * @return the divisor of update frequency.
+         */
+        public int getUpdateDivisor() {
+            return updateDivisor;
+        }
+
+        /**
+         * Returns true if the influencer isn't updated in this band.
+         *
+         * @param influencer the influencer.
+         * @return true if the influencer is disabled.
+         */
+        public boolean isDisabled(@NotNull ParticleInfluencer<?> influencer) {
+
+            Class<?> type = influencer.getClass();
+
+            for (Class<?> disabled : disabledInfluencers) {
+                if (disabled.isAssignableFrom(type)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public void write(@NotNull JmeExporter exporter) throws IOException {
+
+            String[] names = new String[disabledInfluencers.length];
+
+            for (int i = 0; i < names.length; i++) {
+                names[i] = disabledInfluencers[i].getName();
+            }
+
+            OutputCapsule capsule = exporter.getCapsule(this);
+            capsule.write(distance, "distance", 0F);
+            capsule.write(emissionScale, "emissionScale", 1F);
+            capsule.write(particleScale, "particleScale", 1F);
+            capsule.write(updateDivisor, "updateDivisor", 1);
+            capsule.write(names, "disabledInfluencers", EMPTY_NAMES);
+        }
+
+        @Override
+        public void read(@NotNull JmeImporter importer) throws IOException {
+
+            InputCapsule capsule = importer.getCapsule(this);
+            distance = capsule.readFloat("distance", 0F);
+            emissionScale = capsule.readFloat("emissionScale", 1F);
+            particleScale = capsule.readFloat("particleScale", 1F);
+            updateDivisor = capsule.readInt("updateDivisor", 1);
+
+            String[] names = capsule.readStringArray("disabledInfluencers", EMPTY_NAMES);
+            disabledInfluencers = new Class<?>[names.length];
+
+            try {
+                for (int i = 0; i < names.length; i++) {
+                    disabledInfluencers[i] = forName(names[i]);
+                }
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @NotNull
+    private static final Band[] EMPTY_BANDS = new Band[0];
+
+    /**
+     * The bands sorted by distance.
+     */
+    @NotNull
+    private SafeArrayList<Band> bands;
+
+    public EmitterLod() {
+        this(EMPTY_BANDS);
+    }
+
+    public EmitterLod(@NotNull Band... bands) {
+        this.bands = new SafeArrayList<>(Band.class);
+        for (Band band : bands) {
+            addBand(band);
+        }
+    }
+
+    /**
+     * Adds the band, bands are kept sorted by distance.
+     *
+     * @param band the band.
+     */
+    public void addBand(@NotNull Band band) {
+
+        int index = 0;
+
+        for (Band other : bands.getArray()) {
+            if (other.getDistance() > band.getDistance()) {
+                break;
+            }
+            index++;
+        }
+
+        bands.add(index, band);
+    }
+
+    /**
+     * Removes the band.
+     *
+     * @param band the band.
+     */
+    public void removeBand(@NotNull Band band) {
+        bands.remove(band);
+    }
+
+    /**
+     * Gets the bands sorted by distance.
+     *
+     * @return the bands.
+     */
+    public @NotNull SafeArrayList<Band> getBands() {
+        return bands;
+    }
+
+    /**
+     * Gets the band for the distance from the camera.
+     *
+     * @param distance the distance from the camera.
+     * @return the band or null if the emitter should use full detail.
+     */
+    public @Nullable Band getBand(float distance) {
+
+        Band result = null;
+
+        for (Band band : bands.getArray()) {
+            if (band.getDistance() > distance) {
+                break;
+            }
+            result = band;
+        }
+
+        return result;
+    }
+
+    @Override
+    public @NotNull EmitterLod jmeClone() {
+        try {
+            return (EmitterLod) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void cloneFields(@NotNull Cloner cloner, @NotNull Object original) {
+        SafeArrayList<Band> bands = new SafeArrayList<>(Band.class);
+        bands.addAll(this.bands);
+        this.bands = bands;
+    }
+
+    @Override
+    public void write(@NotNull JmeExporter exporter) throws IOException {
+        OutputCapsule capsule = exporter.getCapsule(this);
+        capsule.write(bands.getArray(), "bands", EMPTY_BANDS);
+    }
+
+    @Override
+    public void read(@NotNull JmeImporter importer) throws IOException {
+
+        InputCapsule capsule = importer.getCapsule(this);
+        Savable[] readBands = capsule.readSavableArray("bands", EMPTY_BANDS);
+
+        bands.clear();
+
+        for (Savable band : readBands) {
+            addBand((Band) band);
+        }
+    }
+}
@@ -2,28 +2,35 @@ package tonegod.emitter;
 
 import static java.util.Objects.requireNonNull;
 import static tonegod.emitter.util.RandomUtils.nextRandomInt;
+import com.jme3.animation.Skeleton;
 import com.jme3.export.*;
-import com.jme3.math.FastMath;
+import com.jme3.math.Matrix4f;
 import com.jme3.math.Quaternion;
 import com.jme3.math.Triangle;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.Mesh;
-import com.jme3.scene.Node;
+import com.jme3.scene.VertexBuffer;
 import com.jme3.util.clone.Cloner;
-import com.jme3.util.clone.JmeCloneable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import tonegod.emitter.util.RandomUtils;
+import tonegod.emitter.shapes.AbstractEmitterShape;
+import tonegod.emitter.util.AliasTable;
 
 import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.util.Map;
 import java.util.Random;
+import java.util.WeakHashMap;
 
 /**
  * The type Emitter mesh.
  *
  * @author t0neg0d, JavaSaBr
  */
-public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
+public class EmitterMesh extends AbstractEmitterShape {
 
     /**
      * The enum Direction type.
@@ -79,6 +86,318 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
         }
     }
 
+    /**
+     * The count of floats per triangle in the table of transformed triangles: 3 vertices, the center and the normal.
+     */
+    private static final int TRIANGLE_STRIDE = 15;
+
+    /**
+     * The tables of triangles of shape meshes which are shared by all emitter meshes with the same shape mesh.
+     */
+    @NotNull
+    private static final Map<Mesh, TriangleTable> TRIANGLE_TABLES = new WeakHashMap<>();
+
+    /**
+     * The table of triangles of a shape mesh. The vertices are read from the mesh once and the last transformed
+     * triangles are kept, so emitters with the same shape mesh and the same rotation and scale share them.
+     */
+    private static final class TriangleTable {
+
+        /**
+         * The data of the position buffer which the vertices were read from.
+         */
+        @Nullable
+        private Buffer positions;
+
+        /**
+         * The vertices of triangles in the mesh space, 9 floats per triangle.
+         */
+        @NotNull
+        private float[] vertices;
+
+        /**
+         * The rotation of the transformed triangles.
+         */
+        @NotNull
+        private final Quaternion rotation;
+
+        /**
+         * The scale of the transformed triangles.
+         */
+        @NotNull
+        private final Vector3f scale;
+
+        /**
+         * The transformed triangles or null if they weren't built.
+         */
+        @Nullable
+        private float[] triangles;
+
+        /**
+         * The transformed triangles of the area table.
+         */
+        @Nullable
+        private float[] areaTriangles;
+
+        /**
+         * The table to sample the transformed triangles by their areas.
+         */
+        @Nullable
+        private AliasTable areaTable;
+
+        /**
+         * The generation of this table, it's incremented when the cached triangles are dropped.
+         */
+        private volatile int generation;
+
+        private TriangleTable() {
+            this.vertices = new float[0];
+            this.rotation = new Quaternion();
+            this.scale = new Vector3f();
+        }
+
+        /**
+         * Gets the triangles of the mesh transformed by the rotation and the scale, the returned array isn't changed
+         * later so it can be kept by the caller.
+         *
+         * @param mesh      the mesh.
+         * @param positions the current data of the position buffer of the mesh.
+         * @param rotation  the rotation.
+         * @param scale     the scale.
+         * @return the transformed triangles.
+         */
+        private synchronized @NotNull float[] getTriangles(
+                @NotNull Mesh mesh,
+                @NotNull Buffer positions,
+                @NotNull Quaternion rotation,
+                @NotNull Vector3f scale
+        ) {
+
+            if (this.positions != positions) {
+                readVertices(mesh);
+                this.positions = positions;
+                this.triangles = null;
+            }
+
+            float[] triangles = this.triangles;
+
+            if (triangles != null && this.rotation.equals(rotation) && this.scale.equals(scale)) {
+                return triangles;
+            }
+
+            triangles = transform(rotation, scale);
+
+            this.triangles = triangles;
+            this.rotation.set(rotation);
+            this.scale.set(scale);
+
+            return triangles;
+        }
+
+        /**
+         * Drops the read vertices and the transformed triangles, they are rebuilt from the mesh by the next request.
+         */
+        private synchronized void invalidate() {
+            this.positions = null;
+            this.triangles = null;
+            this.areaTriangles = null;
+            this.areaTable = null;
+            this.generation++;
+        }
+
+        /**
+         * Gets the table to sample the transformed triangles by their areas, it's built once for the triangles.
+         *
+         * @param triangles the transformed triangles.
+         * @return the area table.
+         */
+        private synchronized @NotNull AliasTable getAreaTable(@NotNull float[] triangles) {
+
+            AliasTable areaTable = this.areaTable;
+
+            if (areaTable != null && areaTriangles == triangles) {
+                return areaTable;
+            }
+
+            areaTable = createAreaTable(triangles);
+
+            this.areaTable = areaTable;
+            this.areaTriangles = triangles;
+
+            return areaTable;
+        }
+
+        private void readVertices(@NotNull Mesh mesh) {
+
+            int triangleCount = mesh.getTriangleCount();
+
+            Vector3f vertex1 = new Vector3f();
+            Vector3f vertex2 = new Vector3f();
+            Vector3f vertex3 = new Vector3f();
+
+            float[] vertices = new float[triangleCount * 9];
+
+            for (int i = 0, offset = 0; i < triangleCount; i++, offset += 9) {
+
+                mesh.getTriangle(i, vertex1, vertex2, vertex3);
+
+                vertices[offset] = vertex1.x;
+                vertices[offset + 1] = vertex1.y;
+                vertices[offset + 2] = vertex1.z;
+                vertices[offset + 3] = vertex2.x;
+                vertices[offset + 4] = vertex2.y;
+                vertices[offset + 5] = vertex2.z;
+                vertices[offset + 6] = vertex3.x;
+                vertices[offset + 7] = vertex3.y;
+                vertices[offset + 8] = vertex3.z;
+            }
+
+            this.vertices = vertices;
+        }
+
+        private @NotNull float[] transform(@NotNull Quaternion rotation, @NotNull Vector3f scale) {
+
+            float[] vertices = this.vertices;
+            int triangleCount = vertices.length / 9;
+
+            float[] triangles = new float[triangleCount * TRIANGLE_STRIDE];
+
+            Vector3f vertex1 = new Vector3f();
+            Vector3f vertex2 = new Vector3f();
+            Vector3f vertex3 = new Vector3f();
+            Vector3f normal = new Vector3f();
+
+            for (int i = 0; i < triangleCount; i++) {
+
+                int from = i * 9;
+                int to = i * TRIANGLE_STRIDE;
+
+                vertex1.set(vertices[from], vertices[from + 1], vertices[from + 2]).multLocal(scale);
+                vertex2.set(vertices[from + 3], vertices[from + 4], vertices[from + 5]).multLocal(scale);
+                vertex3.set(vertices[from + 6], vertices[from + 7], vertices[from + 8]).multLocal(scale);
+
+                writeTriangle(triangles, to, rotation, vertex1, vertex2, vertex3, normal);
+            }
+
+            return triangles;
+        }
+    }
+
+    /**
+     * Rotates the scaled vertices of the triangle and writes the triangle with its center and normal to the table.
+     *
+     * @param triangles the table of transformed triangles.
+     * @param offset    the offset of the triangle in the table.
+     * @param rotation  the rotation.
+     * @param vertex1   the first scaled vertex.
+     * @param vertex2   the second scaled vertex.
+     * @param vertex3   the third scaled vertex.
+     * @param normal    the vector to calculate the normal.
+     */
+    private static void writeTriangle(
+            @NotNull float[] triangles,
+            int offset,
+            @NotNull Quaternion rotation,
+            @NotNull Vector3f vertex1,
+            @NotNull Vector3f vertex2,
+            @NotNull Vector3f vertex3,
+            @NotNull Vector3f normal
+    ) {
+
+        rotation.multLocal(vertex1);
+        rotation.multLocal(vertex2);
+        rotation.multLocal(vertex3);
+
+        normal.set(vertex2).subtractLocal(vertex1)
+                .crossLocal(vertex3.x - vertex1.x, vertex3.y - vertex1.y, vertex3.z - vertex1.z)
+                .normalizeLocal();
+
+        triangles[offset] = vertex1.x;
+        triangles[offset + 1] = vertex1.y;
+        triangles[offset + 2] = vertex1.z;
+        triangles[offset + 3] = vertex2.x;
+        triangles[offset + 4] = vertex2.y;
+        triangles[offset + 5] = vertex2.z;
+        triangles[offset + 6] = vertex3.x;
+        triangles[offset + 7] = vertex3.y;
+        triangles[offset + 8] = vertex3.z;
+        triangles[offset + 9] = (vertex1.x + vertex2.x + vertex3.x) / 3F;
+        triangles[offset + 10] = (vertex1.y + vertex2.y + vertex3.y) / 3F;
+        triangles[offset + 11] = (vertex1.z + vertex2.z + vertex3.z) / 3F;
+        triangles[offset + 12] = normal.x;
+        triangles[offset + 13] = normal.y;
+        triangles[offset + 14] = normal.z;
+    }
+
+    /**
+     * Creates the table to sample the transformed triangles by their areas.
+     *
+     * @param triangles the transformed triangles.
+     * @return the area table.
+     */
+    private static @NotNull AliasTable createAreaTable(@NotNull float[] triangles) {
+
+        int triangleCount = triangles.length / TRIANGLE_STRIDE;
+        float[] areas = new float[triangleCount];
+
+        Vector3f edge1 = new Vector3f();
+        Vector3f edge2 = new Vector3f();
+
+        for (int i = 0, offset = 0; i < triangleCount; i++, offset += TRIANGLE_STRIDE) {
+
+            edge1.set(triangles[offset + 3] - triangles[offset],
+                    triangles[offset + 4] - triangles[offset + 1],
+                    triangles[offset + 5] - triangles[offset + 2]);
+            edge2.set(triangles[offset + 6] - triangles[offset],
+                    triangles[offset + 7] - triangles[offset + 1],
+                    triangles[offset + 8] - triangles[offset + 2]);
+
+            areas[i] = edge1.crossLocal(edge2).length() * 0.5F;
+        }
+
+        return new AliasTable(areas);
+    }
+
+    /**
+     * Gets the shared table of triangles of the mesh.
+     *
+     * @param mesh the mesh.
+     * @return the table of triangles.
+     */
+    private static @NotNull TriangleTable getTriangleTable(@NotNull Mesh mesh) {
+        synchronized (TRIANGLE_TABLES) {
+
+            TriangleTable table = TRIANGLE_TABLES.get(mesh);
+
+            if (table == null) {
+                table = new TriangleTable();
+                TRIANGLE_TABLES.put(mesh, table);
+            }
+
+            return table;
+        }
+    }
+
+    /**
+     * Drops the cached triangles of the mesh, it should be called when vertices of the mesh were changed in the
+     * same buffer. Replacing the data of the position buffer is detected automatically.
+     *
+     * @param mesh the mesh.
+     */
+    public static void invalidateTriangles(@NotNull Mesh mesh) {
+
+        TriangleTable table;
+
+        synchronized (TRIANGLE_TABLES) {
+            table = TRIANGLE_TABLES.get(mesh);
+        }
+
+        // the table is kept to let emitter meshes which use it see the new generation
+        if (table != null) {
+            table.invalidate();
+        }
+    }
+
     /**
      * The triangle.
      */
@@ -86,32 +405,97 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
     private Triangle triangle;
 
     /**
-     * The emitter node.
+     * The mesh.
+     */
+    @Nullable
+    private Mesh mesh;
+
+    /**
+     * The transformed triangles of the mesh, they are taken from the shared table of triangles.
      */
     @Nullable
-    private ParticleEmitterNode emitterNode;
+    private float[] triangles;
 
     /**
-     * The mesh.
+     * The table to sample the transformed triangles by their areas.
      */
     @Nullable
-    private Mesh mesh;
+    private AliasTable areaTable;
+
+    /**
+     * The transformed triangles of the area table.
+     */
+    @Nullable
+    private float[] areaTriangles;
+
+    /**
+     * The data of the position buffer of the transformed triangles.
+     */
+    @Nullable
+    private Buffer trianglesPositions;
+
+    /**
+     * The shared table of the transformed triangles or null if the triangles weren't taken from it.
+     */
+    @Nullable
+    private TriangleTable trianglesTable;
+
+    /**
+     * The generation of the shared table of the transformed triangles.
+     */
+    private int trianglesGeneration;
 
+    /**
+     * The skeleton to deform the mesh or null if the mesh isn't skinned.
+     */
+    @Nullable
+    private Skeleton skeleton;
+
+    /**
+     * The indexes of vertices of triangles of the skinned mesh, 3 per triangle.
+     */
     @NotNull
-    private Node pointNode;
+    private int[] skinnedIndexes;
 
+    /**
+     * The deformed positions of vertices of the skinned mesh in the mesh space, 3 floats per vertex.
+     */
     @NotNull
-    private Node node1;
+    private float[] skinnedPositions;
+
+    /**
+     * The version of the deformed positions, it's incremented by every snapshot of the current pose.
+     */
+    private int skinnedVersion;
 
+    /**
+     * The version of the deformed positions of the transformed triangles.
+     */
+    private int trianglesVersion;
+
+    /**
+     * The version of the deformed positions of the area table.
+     */
+    private int areaVersion;
+
+    /**
+     * The rotation of the transformed triangles.
+     */
     @NotNull
-    private Node node2;
+    private Quaternion trianglesRotation;
 
+    /**
+     * The scale of the transformed triangles.
+     */
     @NotNull
-    private Node node3;
+    private Vector3f trianglesScale;
 
     @NotNull
     private Vector3f triangleNormal;
 
+    @NotNull
+    private Vector3f triangleCenter;
+
     @NotNull
     private Vector3f point1;
 
@@ -131,16 +515,7 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
     private Vector3f resultInterpolation;
 
     @NotNull
-    private Vector3f tempDirection;
-
-    @NotNull
-    private Vector3f tempDirection2;
-
-    @NotNull
-    private Quaternion tempQuaternion;
-
-    @NotNull
-    private Quaternion tempQuaternion2;
+    private Vector3f tempNormal;
 
     /**
      * The triangle index.
@@ -159,24 +534,19 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
 
     public EmitterMesh() {
         this.triangle = new Triangle();
-        this.pointNode = new Node();
-        this.node1 = new Node();
-        this.node2 = new Node();
-        this.node3 = new Node();
-        this.pointNode.attachChild(node1);
-        this.pointNode.attachChild(node2);
-        this.pointNode.attachChild(node3);
+        this.trianglesRotation = new Quaternion();
+        this.trianglesScale = new Vector3f();
         this.point1 = new Vector3f();
         this.point2 = new Vector3f();
         this.point3 = new Vector3f();
         this.interpolationA = new Vector3f();
         this.interpolationB = new Vector3f();
         this.resultInterpolation = new Vector3f();
-        this.tempDirection = new Vector3f();
-        this.tempDirection2 = new Vector3f();
-        this.tempQuaternion = new Quaternion();
-        this.tempQuaternion2 = new Quaternion();
+        this.tempNormal = new Vector3f();
         this.triangleNormal = new Vector3f();
+        this.triangleCenter = new Vector3f();
+        this.skinnedIndexes = new int[0];
+        this.skinnedPositions = new float[0];
     }
 
     /**
@@ -186,18 +556,133 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
      * @param mesh        The mesh to use as the emitter shape
      */
     public void setShape(@NotNull ParticleEmitterNode emitterNode, @NotNull Mesh mesh) {
+        setShape(emitterNode, mesh, null);
+    }
+
+    /**
+     * Sets the skinned mesh to use as the emitter shape, particles are emitted from the current pose of the mesh
+     * which is deformed by the skeleton.
+     *
+     * @param emitterNode the emitter node.
+     * @param mesh        the mesh to use as the emitter shape.
+     * @param skeleton    the skeleton to deform the mesh or null if the mesh isn't skinned.
+     * @see #updateSkinning()
+     */
+    public void setShape(@NotNull ParticleEmitterNode emitterNode, @NotNull Mesh mesh, @Nullable Skeleton skeleton) {
+
+        if (skeleton != null && (mesh.getBuffer(VertexBuffer.Type.BoneIndex) == null
+                || mesh.getBuffer(VertexBuffer.Type.BoneWeight) == null)) {
+            throw new IllegalArgumentException("The mesh doesn't have bone indexes and weights.");
+        }
+
         this.emitterNode = emitterNode;
         this.mesh = mesh;
+        this.skeleton = skeleton;
         this.triangleCount = mesh.getTriangleCount();
+        this.triangles = null;
+        this.trianglesTable = null;
+        this.areaTable = null;
+
+        if (skeleton == null) {
+            this.skinnedIndexes = new int[0];
+            this.skinnedPositions = new float[0];
+            return;
+        }
+
+        int[] indexes = new int[triangleCount * 3];
+        int[] triangle = new int[3];
+
+        for (int i = 0; i < triangleCount; i++) {
+            mesh.getTriangle(i, triangle);
+            indexes[i * 3] = triangle[0];
+            indexes[i * 3 + 1] = triangle[1];
+            indexes[i * 3 + 2] = triangle[2];
+        }
+
+        this.skinnedIndexes = indexes;
+        this.skinnedPositions = new float[mesh.getVertexCount() * 3];
+
+        updateSkinning();
     }
 
     /**
-     * Sets the emitter node.
+     * Gets the skeleton which deforms the mesh.
      *
-     * @param emitterNode the emitter node.
+     * @return the skeleton or null if the mesh isn't skinned.
      */
-    public void setEmitterNode(@NotNull ParticleEmitterNode emitterNode) {
-        this.emitterNode = emitterNode;
+    public @Nullable Skeleton getSkeleton() {
+        return skeleton;
+    }
+
+    /**
+     * Takes the snapshot of the current pose of the skinned mesh, all emissions until the next snapshot use it. The
+     * emitter node calls it once per frame before simulating particles.
+     */
+    public void updateSkinning() {
+
+        Skeleton skeleton = this.skeleton;
+
+        if (skeleton == null) {
+            return;
+        }
+
+        Mesh mesh = getMesh();
+        Matrix4f[] offsetMatrices = skeleton.computeSkinningMatrices();
+
+        VertexBuffer bindPosition = mesh.getBuffer(VertexBuffer.Type.BindPosePosition);
+
+        if (bindPosition == null) {
+            bindPosition = mesh.getBuffer(VertexBuffer.Type.Position);
+        }
+
+        FloatBuffer positions = (FloatBuffer) bindPosition.getData();
+        FloatBuffer weights = (FloatBuffer) mesh.getBuffer(VertexBuffer.Type.BoneWeight).getData();
+        Buffer boneIndexes = mesh.getBuffer(VertexBuffer.Type.BoneIndex).getData();
+
+        ByteBuffer byteIndexes = boneIndexes instanceof ByteBuffer ? (ByteBuffer) boneIndexes : null;
+        ShortBuffer shortIndexes = boneIndexes instanceof ShortBuffer ? (ShortBuffer) boneIndexes : null;
+
+        int maxWeights = mesh.getMaxNumWeights() > 0 ? mesh.getMaxNumWeights() : 4;
+        float[] skinnedPositions = this.skinnedPositions;
+        int vertexCount = skinnedPositions.length / 3;
+
+        for (int i = 0; i < vertexCount; i++) {
+
+            float x = positions.get(i * 3);
+            float y = positions.get(i * 3 + 1);
+            float z = positions.get(i * 3 + 2);
+
+            float resultX = 0;
+            float resultY = 0;
+            float resultZ = 0;
+
+            for (int w = 0, offset = i * 4; w < maxWeights; w++, offset++) {
+
+                float weight = weights.get(offset);
+
+                if (weight == 0) {
+                    continue;
+                }
+
+                int boneIndex = byteIndexes != null ? byteIndexes.get(offset) & 0xFF : shortIndexes.get(offset) & 0xFFFF;
+                Matrix4f matrix = offsetMatrices[boneIndex];
+
+                resultX += (matrix.m00 * x + matrix.m01 * y + matrix.m02 * z + matrix.m03) * weight;
+                resultY += (matrix.m10 * x + matrix.m11 * y + matrix.m12 * z + matrix.m13) * weight;
+                resultZ += (matrix.m20 * x + matrix.m21 * y + matrix.m22 * z + matrix.m23) * weight;
+            }
+
+            skinnedPositions[i * 3] = resultX;
+            skinnedPositions[i * 3 + 1] = resultY;
+            skinnedPositions[i * 3 + 2] = resultZ;
+        }
+
+        skinnedVersion++;
+    }
+
+    @Override
+    public void update() {
+        updateSkinning();
     }
 
     /**
@@ -205,22 +690,20 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
      *
      * @return The particle emitter shape mesh
      */
+    @Override
     public @NotNull Mesh getMesh() {
         return requireNonNull(mesh);
     }
 
-    /**
-     * Gets emitter node.
-     *
-     * @return the emitter node.
-     */
-    public @NotNull ParticleEmitterNode getEmitterNode() {
-        return requireNonNull(emitterNode);
+    @Override
+    public @NotNull Vector3f getCenter() {
+        return getMesh().getBound().getCenter();
     }
 
     /**
      * Selects interpolationA random face as the next particle emission point
      */
+    @Override
     public void setNext() {
 
         ParticleEmitterNode emitterNode = getEmitterNode();
@@ -239,18 +722,14 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
             }
 
             triangleIndex = currentTriangle;
+        } else if (emitterNode.isAreaWeightedEmission()) {
+            triangleIndex = getAreaTable().sample(emitterNode.getRandom());
         } else {
-            Random random = RandomUtils.getRandom();
+            Random random = emitterNode.getRandom();
             triangleIndex = random.nextInt(triangleCount);
         }
 
-        mesh.getTriangle(triangleIndex, triangle);
-
-        calculateTransform();
-
-        triangle.setNormal(triangleNormal);
-        triangle.calculateCenter();
-        triangle.calculateNormal();
+        loadTriangle(triangleIndex);
     }
 
     /**
@@ -258,34 +737,155 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
      *
      * @param triangleIndex The index of the face to set as the particle emission point
      */
+    @Override
     public void setNext(final int triangleIndex) {
+        loadTriangle(triangleIndex);
+    }
 
-        Mesh mesh = getMesh();
-        mesh.getTriangle(triangleIndex, triangle);
+    /**
+     * Loads the transformed triangle from the table of triangles to the current triangle.
+     *
+     * @param triangleIndex the triangle's index.
+     */
+    private void loadTriangle(int triangleIndex) {
 
-        calculateTransform();
+        float[] triangles = getTriangles();
+        int offset = triangleIndex * TRIANGLE_STRIDE;
 
         Triangle triangle = getTriangle();
-        triangle.setNormal(triangleNormal);
-        triangle.calculateCenter();
-        triangle.calculateNormal();
+        triangle.set(0, triangles[offset], triangles[offset + 1], triangles[offset + 2]);
+        triangle.set(1, triangles[offset + 3], triangles[offset + 4], triangles[offset + 5]);
+        triangle.set(2, triangles[offset + 6], triangles[offset + 7], triangles[offset + 8]);
+        triangle.setCenter(triangleCenter.set(triangles[offset + 9], triangles[offset + 10], triangles[offset + 11]));
+        triangle.setNormal(triangleNormal.set(triangles[offset + 12], triangles[offset + 13], triangles[offset + 14]));
     }
 
-    private void calculateTransform() {
+    /**
+     * Gets the table to sample the transformed triangles by their areas, the table is shared with other emitter
+     * meshes with the same shape mesh, rotation and scale.
+     *
+     * @return the area table.
+     */
+    private @NotNull AliasTable getAreaTable() {
+
+        float[] triangles = getTriangles();
+        AliasTable areaTable = this.areaTable;
+
+        if (areaTable != null && areaTriangles == triangles && areaVersion == trianglesVersion) {
+            return areaTable;
+        }
+
+        if (skeleton != null) {
+            areaTable = createAreaTable(triangles);
+        } else {
+            areaTable = getTriangleTable(getMesh()).getAreaTable(triangles);
+        }
+
+        this.areaTable = areaTable;
+        this.areaTriangles = triangles;
+        this.areaVersion = trianglesVersion;
+
+        return areaTable;
+    }
+
+    /**
+     * Gets the triangles of the mesh transformed by the rotation and the scale of the emitter node, they are
+     * rebuilt only when the rotation, the scale or the mesh is changed.
+     *
+     * @return the transformed triangles.
+     */
+    private @NotNull float[] getTriangles() {
 
         ParticleEmitterNode emitterNode = getEmitterNode();
 
-        node1.setLocalTranslation(triangle.get1());
-        node2.setLocalTranslation(triangle.get2());
-        node3.setLocalTranslation(triangle.get3());
+        if (skeleton != null) {
+            return getSkinnedTriangles(emitterNode.getSimulationRotation(), emitterNode.getSimulationScale());
+        }
+
+        Mesh mesh = getMesh();
 
-        pointNode.setLocalRotation(emitterNode.getLocalRotation());
-        pointNode.setLocalScale(emitterNode.getLocalScale());
+        Buffer positions = mesh.getBuffer(VertexBuffer.Type.Position).getData();
+        Quaternion rotation = emitterNode.getSimulationRotation();
+        Vector3f scale = emitterNode.getSimulationScale();
 
-        Triangle triangle = getTriangle();
-        triangle.set1(node1.getWorldTranslation());
-        triangle.set2(node2.getWorldTranslation());
-        triangle.set3(node3.getWorldTranslation());
+        float[] triangles = this.triangles;
+        TriangleTable table = this.trianglesTable;
+
+        if (triangles != null && table != null && trianglesGeneration == table.generation
+                && trianglesPositions == positions && trianglesRotation.equals(rotation)
+                && trianglesScale.equals(scale)) {
+            return triangles;
+        }
+
+        table = getTriangleTable(mesh);
+
+        // the generation is taken before the triangles to rebuild them again if they are invalidated meanwhile
+        int generation = table.generation;
+
+        triangles = table.getTriangles(mesh, positions, rotation, scale);
+
+        this.triangles = triangles;
+        this.trianglesTable = table;
+        this.trianglesGeneration = generation;
+        this.trianglesPositions = positions;
+        this.trianglesRotation.set(rotation);
+        this.trianglesScale.set(scale);
+
+        return triangles;
+    }
+
+    /**
+     * Gets the triangles of the last snapshot of the skinned mesh transformed by the rotation and the scale, they
+     * are rebuilt in the own table of this emitter mesh once per snapshot when they are needed.
+     *
+     * @param rotation the rotation.
+     * @param scale    the scale.
+     * @return the transformed triangles.
+     */
+    private @NotNull float[] getSkinnedTriangles(@NotNull Quaternion rotation, @NotNull Vector3f scale) {
+
+        float[] triangles = this.triangles;
+
+        if (triangles != null && trianglesVersion == skinnedVersion && trianglesRotation.equals(rotation)
+                && trianglesScale.equals(scale)) {
+            return triangles;
+        }
+
+        int[] indexes = skinnedIndexes;
+        int triangleCount = indexes.length / 3;
+
+        if (triangles == null || triangles.length != triangleCount * TRIANGLE_STRIDE) {
+            triangles = new float[triangleCount * TRIANGLE_STRIDE];
+        }
+
+        float[] positions = skinnedPositions;
+
+        Vector3f vertex1 = point1;
+        Vector3f vertex2 = point2;
+        Vector3f vertex3 = point3;
+        Vector3f normal = tempNormal;
+
+        for (int i = 0; i < triangleCount; i++) {
+
+            int index1 = indexes[i * 3] * 3;
+            int index2 = indexes[i * 3 + 1] * 3;
+            int index3 = indexes[i * 3 + 2] * 3;
+
+            vertex1.set(positions[index1], positions[index1 + 1], positions[index1 + 2]).multLocal(scale);
+            vertex2.set(positions[index2], positions[index2 + 1], positions[index2 + 2]).multLocal(scale);
+            vertex3.set(positions[index3], positions[index3 + 1], positions[index3 + 2]).multLocal(scale);
+
+            writeTriangle(triangles, i * TRIANGLE_STRIDE, rotation, vertex1, vertex2, vertex3, normal);
+        }
+
+        this.triangles = triangles;
+        this.trianglesVersion = skinnedVersion;
+        this.trianglesTable = null;
+        this.trianglesPositions = null;
+        this.trianglesRotation.set(rotation);
+        this.trianglesScale.set(scale);
+
+        return triangles;
     }
 
     /**
@@ -293,6 +893,7 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
      *
      * @return the triangle index
      */
+    @Override
     public int getTriangleIndex() {
         return triangleIndex;
     }
@@ -302,6 +903,7 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
      *
      * @return the normal of current triangle.
      */
+    @Override
     public @NotNull Vector3f getNormal() {
         return triangle.getNormal();
     }
@@ -311,6 +913,7 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
      *
      * @return A Vector3f representing the local translation of the selected emission point
      */
+    @Override
     public @NotNull Vector3f getNextTranslation() {
         return triangle.getCenter();
     }
@@ -329,11 +932,12 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
      *
      * @return the random translation.
      */
+    @Override
     public @NotNull Vector3f calcRandomTranslation() {
 
         Triangle triangle = getTriangle();
         Vector3f center = triangle.getCenter();
-        Random random = RandomUtils.getRandom();
+        Random random = getEmitterNode().getRandom();
 
         switch (nextRandomInt(random, 1, 3)) {
             case 1: {
@@ -364,119 +968,20 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
         return resultInterpolation;
     }
 
-    /**
-     * Calculates a normal of the selected emission point.
-     *
-     * @return the normal of the selected emission point
-     */
-    public @NotNull Vector3f calcNextDirection() {
-
-        ParticleEmitterNode emitterNode = getEmitterNode();
-
-        switch (emitterNode.getDirectionType()) {
-            case NORMAL: {
-                return getDirectionNormal();
-            }
-            case NORMAL_NEGATE: {
-                return getDirectionNormal().negateLocal();
-            }
-            case RANDOM: {
-                return calcDirectionRandom();
-            }
-            case RANDOM_TANGENT: {
-                return calcDirectionRandomTangent();
-            }
-            case RANDOM_NORMAL_ALIGNED: {
-
-                Vector3f directionRandom = calcDirectionRandom();
-
-                if (directionRandom.dot(getDirectionNormal()) < 0) {
-                    directionRandom.negateLocal();
-                }
-
-                return directionRandom;
-            }
-            case RANDOM_NORMAL_NEGATE: {
-
-                Vector3f directionRandom = calcDirectionRandom();
-
-                if (directionRandom.dot(getDirectionNormal()) > 0) {
-                    directionRandom.negateLocal();
-                }
-
-                return directionRandom;
-            }
-            default: {
-                return tempDirection;
-            }
-        }
-    }
-
-    /**
-     * Gets the direction normal.
-     *
-     * @return the direction normal.
-     */
-    private @NotNull Vector3f getDirectionNormal() {
-        return triangle.getNormal();
-    }
-
-    /**
-     * Calculates a random direction.
-     *
-     * @return the random direction.
-     */
-    private @NotNull Vector3f calcDirectionRandom() {
-
-        Random random = RandomUtils.getRandom();
-
-        tempQuaternion.fromAngles(
-                random.nextFloat() * FastMath.TWO_PI,
-                random.nextFloat() * FastMath.TWO_PI,
-                random.nextFloat() * FastMath.TWO_PI
-        );
-        tempQuaternion.mult(Vector3f.UNIT_Y, tempDirection);
-
-        return tempDirection;
-    }
-
-    /**
-     * Calculates a direction random target.
-     *
-     * @return the direction random target.
-     */
-    private @NotNull Vector3f calcDirectionRandomTangent() {
-
-        Random random = RandomUtils.getRandom();
-        Vector3f normal = getNormal();
-
-        tempQuaternion2.lookAt(normal, Vector3f.UNIT_Y);
-        tempQuaternion2.mult(Vector3f.UNIT_Y, tempDirection2);
-
-        tempQuaternion.fromAngleAxis(random.nextFloat() * 360 * FastMath.DEG_TO_RAD, normal);
-        tempQuaternion.mult(tempDirection2, tempDirection);
-
-        return tempDirection;
-    }
-
     @Override
     public EmitterMesh clone() {
-        try {
-            return (EmitterMesh) super.clone();
-        } catch (final CloneNotSupportedException e) {
-            throw new RuntimeException(e);
-        }
+        return (EmitterMesh) super.clone();
     }
 
     @Override
     public EmitterMesh jmeClone() {
-        return clone();
+        return (EmitterMesh) super.jmeClone();
     }
 
     @Override
     public void cloneFields(@NotNull Cloner cloner, @NotNull Object original) {
+        super.cloneFields(cloner, original);
         mesh = cloner.clone(mesh);
-        emitterNode = cloner.clone(emitterNode);
         triangle = cloner.clone(triangle);
         point1 = cloner.clone(point1);
         point2 = cloner.clone(point2);
@@ -484,18 +989,21 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
         interpolationA = cloner.clone(interpolationA);
         interpolationB = cloner.clone(interpolationB);
         resultInterpolation = cloner.clone(resultInterpolation);
-        pointNode = cloner.clone(pointNode);
-        node1 = cloner.clone(node1);
-        node2 = cloner.clone(node2);
-        node3 = cloner.clone(node3);
-        tempQuaternion = cloner.clone(tempQuaternion);
-        tempQuaternion2 = cloner.clone(tempQuaternion2);
-        tempDirection = cloner.clone(tempDirection);
-        tempDirection2 = cloner.clone(tempDirection2);
+        trianglesRotation = cloner.clone(trianglesRotation);
+        trianglesScale = cloner.clone(trianglesScale);
+        triangleNormal = cloner.clone(triangleNormal);
+        triangleCenter = cloner.clone(triangleCenter);
+        skeleton = cloner.clone(skeleton);
+        skinnedPositions = skinnedPositions.clone();
+        triangles = null;
+        trianglesTable = null;
+        areaTable = null;
+        tempNormal = cloner.clone(tempNormal);
     }
 
     @Override
     public void write(@NotNull JmeExporter exporter) throws IOException {
+        super.write(exporter);
         OutputCapsule capsule = exporter.getCapsule(this);
         capsule.write(mesh, "mesh", null);
         capsule.write(triangle, "triangle", null);
@@ -505,14 +1013,13 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
         capsule.write(interpolationA, "interpolationA", null);
         capsule.write(interpolationB, "interpolationB", null);
         capsule.write(resultInterpolation, "resultInterpolation", null);
-        capsule.write(pointNode, "pointNode", null);
-        capsule.write(tempDirection, "tempDirection", null);
         capsule.write(triangleCount, "triangleCount", 1);
         capsule.write(currentTriangle, "currentTriangle", 0);
     }
 
     @Override
     public void read(@NotNull final JmeImporter importer) throws IOException {
+        super.read(importer);
         InputCapsule capsule = importer.getCapsule(this);
         mesh = (Mesh) capsule.readSavable("mesh", null);
         triangle = (Triangle) capsule.readSavable("triangle", capsule.readSavable("triStore", null));
@@ -522,8 +1029,6 @@ public class EmitterMesh implements Cloneable, JmeCloneable, Savable {
         interpolationA = (Vector3f) capsule.readSavable("interpolationA", capsule.readSavable("a", null));
         interpolationB = (Vector3f) capsule.readSavable("interpolationB", capsule.readSavable("b", null));
         resultInterpolation = (Vector3f) capsule.readSavable("resultInterpolation", capsule.readSavable("result", null));
-        pointNode = (Node) capsule.readSavable("pointNode", capsule.readSavable("p", null));
-        tempDirection = (Vector3f) capsule.readSavable("tempDirection", capsule.readSavable("tempDir", null));
         triangleCount = capsule.readInt("triangleCount", capsule.readInt("triCount", 1));
         currentTriangle = capsule.readInt("currentTriangle", capsule.readInt("currentTri", 1));
     }
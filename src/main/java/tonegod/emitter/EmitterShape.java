@@ -0,0 +1,109 @@
+package tonegod.emitter;
+
+import com.jme3.export.Savable;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Mesh;
+import com.jme3.util.clone.JmeCloneable;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface for implementing shapes which particles are emitted from. A shape selects the next emission point
+ * with its normal in the space of the emitter node, the point is rotated and scaled by the emitter node.
+ *
+ * @author JavaSaBr
+ * @see EmitterMesh
+ * @see tonegod.emitter.shapes.AbstractAnalyticEmitterShape
+ */
+public interface EmitterShape extends Savable, Cloneable, JmeCloneable {
+
+    /**
+     * Sets the emitter node of this shape.
+     *
+     * @param emitterNode the emitter node.
+     */
+    void setEmitterNode(@NotNull ParticleEmitterNode emitterNode);
+
+    /**
+     * Gets the emitter node of this shape.
+     *
+     * @return the emitter node.
+     */
+    @NotNull ParticleEmitterNode getEmitterNode();
+
+    /**
+     * Updates this shape once per frame before simulating particles.
+     */
+    void update();
+
+    /**
+     * Selects the next emission point.
+     */
+    void setNext();
+
+    /**
+     * Selects the emission point by its index which was returned by {@link #getTriangleIndex()}.
+     *
+     * @param index the index of the emission point.
+     */
+    void setNext(int index);
+
+    /**
+     * Gets the index of the selected emission point, for mesh shapes it's the index of the triangle.
+     *
+     * @return the index of the selected emission point.
+     */
+    int getTriangleIndex();
+
+    /**
+     * Gets the selected emission point.
+     *
+     * @return the selected emission point.
+     */
+    @NotNull Vector3f getNextTranslation();
+
+    /**
+     * Gets the normal of the selected emission point.
+     *
+     * @return the normal.
+     */
+    @NotNull Vector3f getNormal();
+
+    /**
+     * Calculates a random offset from the selected emission point inside of its face.
+     *
+     * @return the random offset.
+     */
+    @NotNull Vector3f calcRandomTranslation();
+
+    /**
+     * Calculates a direction of a particle from the selected emission point by the direction type of the emitter
+     * node.
+     *
+     * @return the direction.
+     */
+    @NotNull Vector3f calcNextDirection();
+
+    /**
+     * Gets the center of this shape in the space of the shape.
+     *
+     * @return the center.
+     */
+    @NotNull Vector3f getCenter();
+
+    /**
+     * Samples the count of random emission points with their normals, 3 floats per point are written to the
+     * arrays from the start.
+     *
+     * @param count     the count of points.
+     * @param positions the array to store positions.
+     * @param normals   the array to store normals.
+     */
+    void sample(int count, @NotNull float[] positions, @NotNull float[] normals);
+
+    /**
+     * Gets the mesh of this shape, it's used to show this shape in the test mode.
+     *
+     * @return the mesh.
+     */
+    @NotNull Mesh getMesh();
+}
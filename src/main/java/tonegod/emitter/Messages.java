@@ -38,6 +38,10 @@ public class Messages {
     public static final String BILLBOARD_MODE_UNIT_Y;
     public static final String BILLBOARD_MODE_UNIT_Z;
 
+    public static final String OFFSCREEN_MODE_UPDATE;
+    public static final String OFFSCREEN_MODE_SUSPEND;
+    public static final String OFFSCREEN_MODE_CATCH_UP;
+
     public static final String INTERPOLATION_LINEAR;
     public static final String INTERPOLATION_FADE;
     public static final String INTERPOLATION_SINE;
@@ -165,6 +169,10 @@ public class Messages {
         BILLBOARD_MODE_UNIT_Y = bundle.getString("BillboardMode.UnitY");
         BILLBOARD_MODE_UNIT_Z = bundle.getString("BillboardMode.UnitZ");
 
+        OFFSCREEN_MODE_UPDATE = bundle.getString("OffscreenMode.Update");
+        OFFSCREEN_MODE_SUSPEND = bundle.getString("OffscreenMode.Suspend");
+        OFFSCREEN_MODE_CATCH_UP = bundle.getString("OffscreenMode.CatchUp");
+
         PARTICLE_INFLUENCER_ALPHA = bundle.getString("ParticleInfluencer.Alpha");
         PARTICLE_INFLUENCER_COLOR = bundle.getString("ParticleInfluencer.Color");
         PARTICLE_INFLUENCER_DESTINATION = bundle.getString("ParticleInfluencer.Destination");
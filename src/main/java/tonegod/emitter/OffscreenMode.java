@@ -0,0 +1,52 @@
+package tonegod.emitter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The list of modes of updating emitters which weren't rendered by any camera in the previous frame.
+ *
+ * @author JavaSaBr
+ */
+public enum OffscreenMode {
+    /**
+     * Particles are updated as usual.
+     */
+    UPDATE(Messages.OFFSCREEN_MODE_UPDATE),
+    /**
+     * Particles are frozen while the emitter isn't visible, only the emitter's time is updated.
+     */
+    SUSPEND(Messages.OFFSCREEN_MODE_SUSPEND),
+    /**
+     * Particles are frozen while the emitter isn't visible and the suspended time is fast-forwarded by a limited
+     * count of coarse steps when the emitter becomes visible.
+     */
+    CATCH_UP(Messages.OFFSCREEN_MODE_CATCH_UP);
+
+    @NotNull
+    private static final OffscreenMode[] VALUES = values();
+
+    /**
+     * Value of offscreen mode.
+     *
+     * @param index the index
+     * @return the offscreen mode
+     */
+    public static @NotNull OffscreenMode valueOf(int index) {
+        return VALUES[index];
+    }
+
+    /**
+     * The UI name.
+     */
+    @NotNull
+    private final String uiName;
+
+    OffscreenMode(@NotNull String uiName) {
+        this.uiName = uiName;
+    }
+
+    @Override
+    public String toString() {
+        return uiName;
+    }
+}
@@ -6,6 +6,7 @@ import static tonegod.emitter.material.ParticlesMaterial.PROP_TEXTURE;
 import com.jme3.animation.AnimChannel;
 import com.jme3.animation.AnimControl;
 import com.jme3.animation.LoopMode;
+import com.jme3.animation.Skeleton;
 import com.jme3.asset.AssetManager;
 import com.jme3.asset.MaterialKey;
 import com.jme3.export.*;
@@ -16,13 +17,16 @@ import com.jme3.material.RenderState.BlendMode;
 import com.jme3.material.RenderState.FaceCullMode;
 import com.jme3.math.ColorRGBA;
 import com.jme3.math.Matrix3f;
+import com.jme3.math.Quaternion;
 import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
 import com.jme3.renderer.Camera;
 import com.jme3.renderer.RenderManager;
 import com.jme3.renderer.ViewPort;
 import com.jme3.renderer.queue.RenderQueue.Bucket;
 import com.jme3.scene.Mesh;
 import com.jme3.scene.Node;
+import com.jme3.scene.Spatial.CullHint;
 import com.jme3.system.Annotations.Internal;
 import com.jme3.texture.Image;
 import com.jme3.texture.Texture;
@@ -36,6 +40,9 @@ import org.jetbrains.annotations.Nullable;
 import tonegod.emitter.EmitterMesh.DirectionType;
 import tonegod.emitter.geometry.EmitterShapeGeometry;
 import tonegod.emitter.geometry.ParticleGeometry;
+import tonegod.emitter.geometry.ParticleInstancedGeometry;
+import tonegod.emitter.influencers.BatchParticleInfluencer;
+import tonegod.emitter.influencers.ParallelParticleInfluencer;
 import tonegod.emitter.influencers.ParticleInfluencer;
 import tonegod.emitter.interpolation.Interpolation;
 import tonegod.emitter.material.ParticlesMaterial;
@@ -43,11 +50,18 @@ import tonegod.emitter.node.ParticleNode;
 import tonegod.emitter.node.TestParticleEmitterNode;
 import tonegod.emitter.particle.*;
 import tonegod.emitter.shapes.TriangleEmitterShape;
+import tonegod.emitter.util.ParticleRandom;
+import tonegod.emitter.util.RandomUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The implementation of a {@link Node} to emit particles.
@@ -60,14 +74,53 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     @NotNull
     private static final ParticleInfluencer[] EMPTY_INFLUENCERS = new ParticleInfluencer[0];
 
-    @NotNull
-    private static final ParticleData[] EMPTY_PARTICLE_DATA = new ParticleData[0];
-
     /**
      * The default particle data arrays size.
      */
     private static final int DEFAULT_PARTICLE_DATA_SIZE;
 
+    /**
+     * The default size of a chunk of particles to update them in parallel.
+     */
+    private static final int DEFAULT_PARALLEL_CHUNK_SIZE = 4096;
+
+    /**
+     * The default capacity of the buffer of particle events which is created for the first event listener.
+     */
+    private static final int DEFAULT_EVENT_CAPACITY = 256;
+
+    /**
+     * The default maximum time which is fast-forwarded when an offscreen emitter becomes visible.
+     */
+    private static final float DEFAULT_MAX_CATCH_UP_TIME = 1F;
+
+    /**
+     * The default time of a coarse step of fast-forwarding an offscreen emitter.
+     */
+    private static final float DEFAULT_CATCH_UP_STEP = 0.1F;
+
+    /**
+     * The frame time which is used before the first update.
+     */
+    private static final float DEFAULT_FRAME_TIME = 1F / 60F;
+
+    /**
+     * The default maximum count of fixed steps per frame.
+     */
+    private static final int DEFAULT_MAX_SUB_STEPS = 5;
+
+    /**
+     * The pool to update particles in parallel.
+     */
+    @NotNull
+    static final ForkJoinPool PARALLEL_POOL = new ForkJoinPool();
+
+    @NotNull
+    private static final ParticleData[] EMPTY_PARTICLE_DATA = new ParticleData[0];
+
+    @NotNull
+    private static final int[] EMPTY_INFLUENCER_SLOTS = new int[0];
+
     static {
         DEFAULT_PARTICLE_DATA_SIZE = Integer.parseInt(System.getProperty(
                 "tonegod.emitter.ParticleEmitterNode.particleDataSize", "4"));
@@ -79,6 +132,21 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     @NotNull
     protected SafeArrayList<ParticleInfluencer<?>> influencers;
 
+    /**
+     * The data ids of influencers by their indexes in the chain. The data id of an influencer is stable while it's
+     * in the chain, so inserting, removing and reordering influencers doesn't touch particles data.
+     */
+    @NotNull
+    protected int[] influencerSlots;
+
+    /**
+     * The influencers which the data ids of {@link #influencerSlots} belong to, it's the array of the chain of
+     * influencers from the last update of the data ids. Particles are processed by these influencers, so direct
+     * changes of the chain are applied only after updating the data ids.
+     */
+    @NotNull
+    protected ParticleInfluencer<?>[] slotInfluencers;
+
     /**
      * The flags of this emitter.
      */
@@ -101,11 +169,6 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
 
     /** ------------EMITTER------------ **/
 
-    /**
-     * The next index of particle to emit.
-     */
-    protected int nextIndex;
-
     /**
      * The target interval.
      */
@@ -172,6 +235,11 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     protected boolean sequentialSkipPattern;
 
+    /**
+     * The flag of selecting emission faces with probabilities proportional to their areas.
+     */
+    protected boolean areaWeightedEmission;
+
     /**
      * The Velocity stretching.
      */
@@ -204,7 +272,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      * The emitter shape.
      */
     @NotNull
-    protected EmitterMesh emitterShape;
+    protected EmitterShape emitterShape;
 
     /**
      * The test emitter node.
@@ -233,6 +301,13 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     @NotNull
     protected ParticleGeometry particleGeometry;
 
+    /**
+     * The geometry to draw the instanced particles data mesh, it's used instead of the particles geometry to pass
+     * the count of particles to the renderer.
+     */
+    @Nullable
+    protected ParticleInstancedGeometry particleInstancedGeometry;
+
     /**
      * The particles test node.
      */
@@ -259,10 +334,16 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     /** ------------PARTICLES MESH DATA------------ **/
 
     /**
-     * The array of particles.
+     * The store of particles state.
      */
     @NotNull
-    protected ParticleData[] particles;
+    protected ParticleStore particleStore;
+
+    /**
+     * The cursor to access to particles in the store.
+     */
+    @NotNull
+    protected ParticleData particleData;
 
     /**
      * The class type of the using {@link ParticleDataMesh}.
@@ -283,10 +364,285 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     protected Mesh particleMeshTemplate;
 
     /**
-     * The active count of particles.
+     * The active count of particles, the active particles are packed in the range
+     * [activeParticleStart, activeParticleStart + activeParticleCount) wrapped around the end of the store.
      */
     protected int activeParticleCount;
 
+    /**
+     * The index of the first active particle, it's always 0 when the ring layout isn't used.
+     */
+    protected int activeParticleStart;
+
+    /**
+     * The flag of using the ring layout of particles. Particles with a constant lifetime die in the order they were
+     * emitted, so they are kept as a FIFO ring where the oldest particle is at {@link #activeParticleStart}.
+     */
+    protected boolean ringLayout;
+
+    /**
+     * The flag of killing a particle out of the FIFO order while the ring layout is used.
+     */
+    protected boolean ringBroken;
+
+    /**
+     * The flag of keeping the packed layout after the ring layout was broken, the ring layout is used again only
+     * when there are no active particles.
+     */
+    protected boolean ringDisabled;
+
+    /**
+     * The flag of updating particles, deactivated particles are compacted by the update loop in this case.
+     */
+    protected boolean updatingParticles;
+
+    /**
+     * The flag of updating particles in parallel.
+     */
+    protected boolean parallelUpdate;
+
+    /**
+     * The size of a chunk of particles which is updated by one task of the parallel update, emitters with less
+     * active particles are updated in the current thread.
+     */
+    protected int parallelChunkSize;
+
+    /**
+     * The cursors of chunks of the parallel update, every cursor has own temp objects of influencers.
+     */
+    @NotNull
+    protected ParticleData[] parallelCursors;
+
+    /**
+     * The fixed time step of the simulation, 0 means that particles are updated by the frame's time.
+     */
+    protected float fixedTimeStep;
+
+    /**
+     * The maximum count of fixed steps per frame.
+     */
+    protected int maxSubSteps;
+
+    /**
+     * The frame time which isn't simulated by fixed steps yet.
+     */
+    protected float accumulatedTime;
+
+    /**
+     * The blend factor between the previous and the current positions of particles to render them between fixed
+     * steps.
+     */
+    protected float interpolationAlpha;
+
+    /**
+     * The flag of simulating particles in a background thread.
+     */
+    protected boolean asyncUpdate;
+
+    /**
+     * The last snapshot of particles which was published by the simulation thread.
+     */
+    @NotNull
+    protected AtomicReference<ParticleSnapshot> publishedSnapshot;
+
+    /**
+     * The snapshot which is filled by the simulation thread to be published after the simulation step.
+     */
+    @NotNull
+    protected ParticleSnapshot simulationSnapshot;
+
+    /**
+     * The snapshot which is rendered in the current frame.
+     */
+    @NotNull
+    protected ParticleSnapshot renderSnapshot;
+
+    /**
+     * The level of detail policy.
+     */
+    @Nullable
+    protected EmitterLod emitterLod;
+
+    /**
+     * The current band of the level of detail.
+     */
+    @Nullable
+    protected EmitterLod.Band lodBand;
+
+    /**
+     * The nearest distance from cameras which rendered this emitter.
+     */
+    protected float lodDistance;
+
+    /**
+     * The flag of measuring the distance from a camera in the current frame.
+     */
+    protected boolean lodDistanceMeasured;
+
+    /**
+     * The time of frames which were skipped by the update divisor of the level of detail.
+     */
+    protected float lodSkippedTime;
+
+    /**
+     * The count of frames which were skipped by the update divisor of the level of detail.
+     */
+    protected int lodSkippedFrames;
+
+    /**
+     * The mode of updating this emitter while it isn't rendered.
+     */
+    @NotNull
+    protected OffscreenMode offscreenMode;
+
+    /**
+     * The maximum time which is fast-forwarded when this emitter becomes visible.
+     */
+    protected float maxCatchUpTime;
+
+    /**
+     * The time of a coarse step of fast-forwarding.
+     */
+    protected float catchUpStep;
+
+    /**
+     * The flag of rendering this emitter by any camera since the last update, it's true for new and reset emitters
+     * to not suspend them before the first render pass.
+     */
+    protected boolean rendered;
+
+    /**
+     * The flag of suspending the simulation in the current frame because this emitter isn't visible.
+     */
+    protected boolean offscreenSuspended;
+
+    /**
+     * The time which wasn't simulated because this emitter wasn't visible.
+     */
+    protected float suspendedTime;
+
+    /**
+     * The time of the last updated frame.
+     */
+    protected float frameTime;
+
+    /**
+     * The flag of saving the state of active particles with this emitter.
+     */
+    protected boolean persistParticles;
+
+    /**
+     * The flag of putting this emitter to sleep when it's finished.
+     */
+    protected boolean autoSleep;
+
+    /**
+     * The flag of sleeping this emitter, a dormant emitter isn't simulated, rendered and bounded until it's woken.
+     */
+    protected boolean dormant;
+
+    /**
+     * The buffer of lifecycle events of particles or null if events are disabled.
+     */
+    @Nullable
+    protected ParticleEventBuffer eventBuffer;
+
+    /**
+     * The listeners of lifecycle events of particles.
+     */
+    @NotNull
+    protected SafeArrayList<ParticleEventListener> eventListeners;
+
+    /**
+     * The loaded state of particles which should be restored after initializing.
+     */
+    @Nullable
+    protected ParticleStore savedParticles;
+
+    /**
+     * The index of the first loaded active particle.
+     */
+    protected int savedParticleStart;
+
+    /**
+     * The count of loaded active particles.
+     */
+    protected int savedParticleCount;
+
+    /**
+     * The count of frames which are simulated by the current step, the emission catches up all of them.
+     */
+    protected int simulatedFrames;
+
+    /**
+     * The offset directions of the edge emission point of particles of the current spawned batch.
+     */
+    @NotNull
+    protected float[] spawnDirections;
+
+    /**
+     * The temp vector to spawn particles.
+     */
+    @NotNull
+    protected Vector3f spawnDirection;
+
+    /**
+     * The seed of random streams of this emitter.
+     */
+    protected long randomSeed;
+
+    /**
+     * The random stream of this emitter which is used for sampling the emitter shape.
+     */
+    @NotNull
+    protected ParticleRandom random;
+
+    /**
+     * The count of spawned particles, it's used to seed the random stream of every spawned particle.
+     */
+    protected long spawnCounter;
+
+    /**
+     * The manager which updates this emitter instead of the scene graph traversal.
+     */
+    @Nullable
+    protected ParticleSystemManager systemManager;
+
+    /**
+     * The flag of rendering the snapshot which was published by the simulation thread in the current frame.
+     */
+    protected boolean asyncFrame;
+
+    /**
+     * The running simulation task.
+     */
+    @Nullable
+    protected volatile ForkJoinTask<?> simulationTask;
+
+    /**
+     * The thread which runs the simulation task.
+     */
+    @Nullable
+    protected volatile Thread simulationThread;
+
+    /**
+     * The world translation of this emitter which is used by the simulation.
+     */
+    @NotNull
+    protected Vector3f simulationTranslation;
+
+    /**
+     * The local rotation of this emitter which is used by the simulation.
+     */
+    @NotNull
+    protected Quaternion simulationRotation;
+
+    /**
+     * The local scale of this emitter which is used by the simulation.
+     */
+    @NotNull
+    protected Vector3f simulationScale;
+
     /**
      * The maximum count of particles.
      */
@@ -465,7 +821,8 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
 
     public ParticleEmitterNode() {
         setName("Emitter Node");
-        this.particles = EMPTY_PARTICLE_DATA;
+        this.particleStore = new ParticleStore(0);
+        this.particleData = new ParticleData(particleStore);
         this.textureParamName = "Texture";
         this.inverseRotation = Matrix3f.IDENTITY.clone();
         this.targetInterval = 0.00015f;
@@ -475,6 +832,8 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
         this.directionType = DirectionType.RANDOM;
         this.interpolation = Interpolation.LINEAR;
         this.influencers = createInfluencersList();
+        this.influencerSlots = EMPTY_INFLUENCER_SLOTS;
+        this.slotInfluencers = influencers.getArray();
         this.particleDataMeshType = ParticleDataTriMesh.class;
         this.emitterShape = new EmitterMesh();
         this.particleGeometry = new ParticleGeometry("Particle Geometry");
@@ -500,6 +859,27 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
         this.particlesAnimBlendTime = 1;
         this.particlesAnimLoopMode = LoopMode.Loop;
         this.particleDataSize = DEFAULT_PARTICLE_DATA_SIZE;
+        this.parallelChunkSize = DEFAULT_PARALLEL_CHUNK_SIZE;
+        this.parallelCursors = EMPTY_PARTICLE_DATA;
+        this.maxSubSteps = DEFAULT_MAX_SUB_STEPS;
+        this.interpolationAlpha = 1F;
+        this.simulatedFrames = 1;
+        this.frameTime = DEFAULT_FRAME_TIME;
+        this.randomSeed = RandomUtils.newSeed();
+        this.random = new ParticleRandom(randomSeed);
+        this.spawnDirections = new float[0];
+        this.spawnDirection = new Vector3f();
+        this.offscreenMode = OffscreenMode.UPDATE;
+        this.eventListeners = new SafeArrayList<>(ParticleEventListener.class);
+        this.maxCatchUpTime = DEFAULT_MAX_CATCH_UP_TIME;
+        this.catchUpStep = DEFAULT_CATCH_UP_STEP;
+        this.publishedSnapshot = new AtomicReference<>(new ParticleSnapshot());
+        this.simulationSnapshot = new ParticleSnapshot();
+        this.renderSnapshot = new ParticleSnapshot();
+        this.simulationTranslation = new Vector3f();
+        this.rendered = true;
+        this.simulationRotation = new Quaternion();
+        this.simulationScale = new Vector3f(1F, 1F, 1F);
         attachChild(particleNode);
         reset();
         setEmissionsPerSecond(100);
@@ -555,7 +935,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
             createTestMaterial(getAssetManager());
         }
 
-        EmitterMesh emitterShape = getEmitterShape();
+        EmitterShape emitterShape = getEmitterShape();
 
         emitterShapeTestGeometry = new EmitterShapeGeometry("Emitter Shape Test Geometry");
         emitterShapeTestGeometry.setMesh(emitterShape.getMesh());
@@ -608,6 +988,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setEmitterDelay(float emitterDelay) {
         this.emitterDelay = emitterDelay;
+        wakeUp();
     }
 
     /**
@@ -635,6 +1016,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setEmitterLife(float emitterLife) {
         this.emitterLife = emitterLife;
+        wakeUp();
     }
 
     /**
@@ -644,6 +1026,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     protected void setEmittedTime(float emittedTime) {
         this.emittedTime = emittedTime;
+        wakeUp();
     }
 
     /**
@@ -683,8 +1066,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
             return;
         }
 
-        killAllParticles();
-        initParticles();
+        resizeParticles(maxParticles);
     }
 
     /**
@@ -774,19 +1156,19 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
             particleTestGeometry.setMesh(getParticleDataMesh());
         }
 
+        updateInstancedGeometry();
+
         if (!isEmitterInitialized()) {
             return;
         }
 
-        if (isEnabled()) {
-            killAllParticles();
-        }
+        waitForSimulation();
 
-        initParticles();
+        ParticleDataMesh dataMesh = getParticleDataMesh();
+        dataMesh.initialize(this, particleStore.getCapacity());
+        dataMesh.setImagesXY(getSpriteColCount(), getSpriteRowCount());
 
-        if (isEnabled()) {
-            emitAllParticles();
-        }
+        requireUpdate();
     }
 
     /**
@@ -832,13 +1214,25 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      * Creates and initializes particles.
      */
     protected void initParticles() {
+        waitForSimulation();
 
-        particles = new ParticleData[maxParticles];
+        particleStore = new ParticleStore(maxParticles);
+        particleData = new ParticleData(particleStore);
+        parallelCursors = EMPTY_PARTICLE_DATA;
+        publishedSnapshot.set(new ParticleSnapshot());
+        simulationSnapshot = new ParticleSnapshot();
+        renderSnapshot = new ParticleSnapshot();
+        asyncFrame = false;
+
+        activeParticleCount = 0;
+        activeParticleStart = 0;
+        ringBroken = false;
+        ringDisabled = false;
 
         for (int i = 0; i < maxParticles; i++) {
-            particles[i] = new ParticleData(this);
-            particles[i].index = i;
-            particles[i].reset(this);
+            particleData.index = i;
+            onCreated(particleData);
+            resetInfluencers(particleData);
         }
 
         ParticleDataMesh dataMesh = getParticleDataMesh();
@@ -847,34 +1241,121 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     }
 
     /**
-     * Sets the particle emitter shape to the specified mesh
+     * Changes the capacity of particles keeping the live particles. When the new capacity is less than the count of
+     * live particles, the particles with the least remaining life are killed.
      *
-     * @param mesh The Mesh to use as the particle emitter shape
+     * @param capacity the new capacity of particles.
      */
-    public final void changeEmitterShapeMesh(@NotNull Mesh mesh) {
+    protected void resizeParticles(int capacity) {
+        waitForSimulation();
 
-        emitterShape.setShape(this, mesh);
+        ParticleStore store = this.particleStore;
+        int prevCapacity = store.getCapacity();
 
-        if (emitterShapeTestGeometry != null) {
-            emitterShapeTestGeometry.setMesh(mesh);
+        if (capacity == prevCapacity) {
+            return;
         }
 
-        requiresUpdate = true;
+        // the live particles are moved to the range [0, activeParticleCount), the packed layout doesn't keep
+        // any order of particles
+        usePackedLayout();
+
+        int excess = activeParticleCount - capacity;
+
+        if (excess > 0) {
+
+            // the particles with the least remaining life go first
+            sortParticlesByLife();
+
+            // the longest living particles are rotated to the front in place, the others are moved after them
+            store.reverse(0, excess);
+            store.reverse(excess, activeParticleCount);
+            store.reverse(0, activeParticleCount);
+
+            while (activeParticleCount > capacity) {
+                resetParticle(activeParticleCount - 1);
+            }
+        }
+
+        store.resize(capacity);
+
+        ParticleData particleData = new ParticleData(store);
+
+        for (int i = prevCapacity; i < capacity; i++) {
+            particleData.index = i;
+            onCreated(particleData);
+            resetInfluencers(particleData);
+        }
+
+        getParticleDataMesh().resize(capacity);
+        updateParticlesLayout();
+
+        requireUpdate();
     }
 
     /**
-     * Returns the current ParticleData Emitter's EmitterMesh
+     * Sets the particle emitter shape to the specified mesh
      *
-     * @return the EmitterMesh containing the specified shape Mesh
+     * @param mesh The Mesh to use as the particle emitter shape
      */
-    public @NotNull EmitterMesh getEmitterShape() {
-        return emitterShape;
+    public final void changeEmitterShapeMesh(@NotNull Mesh mesh) {
+        changeEmitterShapeMesh(mesh, null);
     }
 
     /**
-     * Specifies the number of times the particle emitter will emit particles over the course of one second
+     * Sets the particle emitter shape to the specified skinned mesh, particles are emitted from the current pose of
+     * the mesh which is deformed by the skeleton. The pose is taken once per frame before simulating particles. The
+     * skeleton isn't saved with this emitter.
      *
-     * @param emissionsPerSecond The number of particle emissions per second
+     * @param mesh     the mesh to use as the particle emitter shape.
+     * @param skeleton the skeleton to deform the mesh or null if the mesh isn't skinned.
+     */
+    public final void changeEmitterShapeMesh(@NotNull Mesh mesh, @Nullable Skeleton skeleton) {
+        waitForSimulation();
+
+        EmitterShape emitterShape = this.emitterShape;
+
+        if (!(emitterShape instanceof EmitterMesh)) {
+            emitterShape = new EmitterMesh();
+        }
+
+        ((EmitterMesh) emitterShape).setShape(this, mesh, skeleton);
+        changeEmitterShape(emitterShape);
+    }
+
+    /**
+     * Sets the particle emitter shape, for example one of analytic shapes from the package
+     * {@link tonegod.emitter.shapes} which sample emission points without looking up triangles of a mesh.
+     *
+     * @param emitterShape the emitter shape.
+     */
+    public final void changeEmitterShape(@NotNull EmitterShape emitterShape) {
+        waitForSimulation();
+
+        emitterShape.setEmitterNode(this);
+
+        this.emitterShape = emitterShape;
+
+        if (emitterShapeTestGeometry != null) {
+            emitterShapeTestGeometry.setMesh(emitterShape.getMesh());
+        }
+
+        requireUpdate();
+    }
+
+    /**
+     * Returns the current ParticleData Emitter's emitter shape
+     *
+     * @return the emitter shape
+     */
+    public @NotNull EmitterShape getEmitterShape() {
+        return emitterShape;
+    }
+
+    /**
+     * Specifies the number of times the particle emitter will emit particles over the course of one second
+     *
+     * @param emissionsPerSecond The number of particle emissions per second
      */
     public void setEmissionsPerSecond(float emissionsPerSecond) {
 
@@ -886,7 +1367,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
         this.targetInterval = 1f / emissionsPerSecond;
 
         resetInterval();
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -905,7 +1386,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setParticlesPerEmission(int particlesPerEmission) {
         this.particlesPerEmission = particlesPerEmission;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -945,7 +1426,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setStaticParticles(boolean useStaticParticles) {
         this.staticParticles = useStaticParticles;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -957,6 +1438,297 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
         return staticParticles;
     }
 
+    /**
+     * Sets the fixed time step of the simulation. Particles are updated by steps of this time, the rest of the
+     * frame time is accumulated for next frames and particles are rendered between their previous and current
+     * positions. It allows to update distant emitters with a low rate and still render them smoothly.
+     *
+     * @param fixedTimeStep the fixed time step in seconds or 0 to update particles by the frame's time.
+     */
+    public void setFixedTimeStep(float fixedTimeStep) {
+
+        if (fixedTimeStep < 0F) {
+            throw new IllegalArgumentException("The fixed time step " + fixedTimeStep + " can't be negative.");
+        }
+
+        this.fixedTimeStep = fixedTimeStep;
+        this.accumulatedTime = 0F;
+        this.interpolationAlpha = 1F;
+    }
+
+    /**
+     * Gets the fixed time step of the simulation.
+     *
+     * @return the fixed time step in seconds or 0 if particles are updated by the frame's time.
+     */
+    public float getFixedTimeStep() {
+        return fixedTimeStep;
+    }
+
+    /**
+     * Sets the maximum count of fixed steps per frame, the frame time which exceeds this limit is dropped.
+     *
+     * @param maxSubSteps the maximum count of fixed steps per frame.
+     */
+    public void setMaxSubSteps(int maxSubSteps) {
+
+        if (maxSubSteps < 1) {
+            throw new IllegalArgumentException("The max sub steps " + maxSubSteps + " should be positive.");
+        }
+
+        this.maxSubSteps = maxSubSteps;
+    }
+
+    /**
+     * Gets the maximum count of fixed steps per frame.
+     *
+     * @return the maximum count of fixed steps per frame.
+     */
+    public int getMaxSubSteps() {
+        return maxSubSteps;
+    }
+
+    /**
+     * Gets the blend factor between the previous and the current positions of particles which should be used to
+     * render particles, it's always 1 if the fixed time step isn't used.
+     *
+     * @return the blend factor.
+     */
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
+
+    /**
+     * Enables or disables updating particles in parallel. The active particles are split to chunks which are updated
+     * by tasks of a shared {@link ForkJoinPool}, emitting particles and updating the mesh are still done in the
+     * current thread. The parallel update isn't used when any influencer doesn't support it.
+     *
+     * @param parallelUpdate true to update particles in parallel.
+     * @see ParallelParticleInfluencer#isParallelUpdateSupported(ParticleEmitterNode)
+     */
+    public void setParallelUpdate(boolean parallelUpdate) {
+        this.parallelUpdate = parallelUpdate;
+    }
+
+    /**
+     * Returns true if particles are updated in parallel.
+     *
+     * @return true if particles are updated in parallel.
+     */
+    public boolean isParallelUpdate() {
+        return parallelUpdate;
+    }
+
+    /**
+     * Sets the level of detail policy. The band is chosen once per frame by the nearest distance from cameras
+     * which rendered this emitter in the previous frame.
+     *
+     * @param emitterLod the level of detail policy or null to use full detail.
+     */
+    public void setEmitterLod(@Nullable EmitterLod emitterLod) {
+        this.emitterLod = emitterLod;
+        this.lodBand = null;
+        this.lodSkippedTime = 0F;
+        this.lodSkippedFrames = 0;
+    }
+
+    /**
+     * Gets the level of detail policy.
+     *
+     * @return the level of detail policy or null.
+     */
+    public @Nullable EmitterLod getEmitterLod() {
+        return emitterLod;
+    }
+
+    /**
+     * Gets the current band of the level of detail.
+     *
+     * @return the current band or null if full detail is used.
+     */
+    public @Nullable EmitterLod.Band getLodBand() {
+        return lodBand;
+    }
+
+    /**
+     * Sets the mode of updating this emitter while it isn't rendered by any camera.
+     *
+     * @param offscreenMode the offscreen mode.
+     */
+    public void setOffscreenMode(@NotNull OffscreenMode offscreenMode) {
+        this.offscreenMode = offscreenMode;
+    }
+
+    /**
+     * Gets the mode of updating this emitter while it isn't rendered by any camera.
+     *
+     * @return the offscreen mode.
+     */
+    public @NotNull OffscreenMode getOffscreenMode() {
+        return offscreenMode;
+    }
+
+    /**
+     * Sets the maximum time which is fast-forwarded when this emitter becomes visible in the
+     * {@link OffscreenMode#CATCH_UP} mode, the rest of the suspended time only ages the emitter.
+     *
+     * @param maxCatchUpTime the maximum time in seconds.
+     */
+    public void setMaxCatchUpTime(float maxCatchUpTime) {
+
+        if (maxCatchUpTime < 0F) {
+            throw new IllegalArgumentException("The max catch up time " + maxCatchUpTime + " can't be negative.");
+        }
+
+        this.maxCatchUpTime = maxCatchUpTime;
+    }
+
+    /**
+     * Gets the maximum time which is fast-forwarded when this emitter becomes visible.
+     *
+     * @return the maximum time in seconds.
+     */
+    public float getMaxCatchUpTime() {
+        return maxCatchUpTime;
+    }
+
+    /**
+     * Sets the time of a coarse step of fast-forwarding the suspended time.
+     *
+     * @param catchUpStep the time of a step in seconds.
+     */
+    public void setCatchUpStep(float catchUpStep) {
+
+        if (catchUpStep <= 0F) {
+            throw new IllegalArgumentException("The catch up step " + catchUpStep + " should be positive.");
+        }
+
+        this.catchUpStep = catchUpStep;
+    }
+
+    /**
+     * Gets the time of a coarse step of fast-forwarding the suspended time.
+     *
+     * @return the time of a step in seconds.
+     */
+    public float getCatchUpStep() {
+        return catchUpStep;
+    }
+
+    /**
+     * Enables or disables simulating particles in a background thread. The simulation of a frame is started in
+     * {@link #updateLogicalState(float)} and runs while the rest of the scene is updated, the mesh is built in
+     * {@link #runControlRender(RenderManager, ViewPort)} from the snapshot which was published by the previous
+     * simulation step, so particles are rendered with one frame of latency. The particles state shouldn't be
+     * read directly while the simulation is running, use {@link #waitForSimulation()} before. The asynchronous
+     * update isn't used when any influencer doesn't support the parallel update.
+     *
+     * @param asyncUpdate true to simulate particles in a background thread.
+     * @see ParallelParticleInfluencer#isParallelUpdateSupported(ParticleEmitterNode)
+     */
+    public void setAsyncUpdate(boolean asyncUpdate) {
+        waitForSimulation();
+        this.asyncUpdate = asyncUpdate;
+    }
+
+    /**
+     * Returns true if particles are simulated in a background thread.
+     *
+     * @return true if particles are simulated in a background thread.
+     */
+    public boolean isAsyncUpdate() {
+        return asyncUpdate;
+    }
+
+    /**
+     * Waits for the running simulation step if particles are simulated in a background thread.
+     */
+    public void waitForSimulation() {
+
+        ForkJoinTask<?> task = simulationTask;
+
+        if (task == null || simulationThread == Thread.currentThread()) {
+            return;
+        }
+
+        task.join();
+        simulationTask = null;
+    }
+
+    /**
+     * Gets the world translation of this emitter which should be used to initialize particles, it's captured
+     * before starting the simulation in a background thread.
+     *
+     * @return the world translation for the simulation.
+     */
+    public @NotNull Vector3f getSimulationTranslation() {
+        return simulationThread == Thread.currentThread() ? simulationTranslation : getWorldTranslation();
+    }
+
+    /**
+     * Gets the local rotation of this emitter which should be used to spawn and update particles, it's captured
+     * before starting the simulation, so the simulation doesn't read the scene graph from other threads.
+     *
+     * @return the local rotation for the simulation.
+     */
+    public @NotNull Quaternion getSimulationRotation() {
+        return isSimulationTransformUsed() ? simulationRotation : getLocalRotation();
+    }
+
+    /**
+     * Gets the local scale of this emitter which should be used to spawn and update particles, it's captured
+     * before starting the simulation, so the simulation doesn't read the scene graph from other threads.
+     *
+     * @return the local scale for the simulation.
+     */
+    public @NotNull Vector3f getSimulationScale() {
+        return isSimulationTransformUsed() ? simulationScale : getLocalScale();
+    }
+
+    /**
+     * Returns true if the current thread runs the simulation or particles are updated, the transform of this emitter
+     * should be taken from the captured one then.
+     *
+     * @return true if the captured transform should be used.
+     */
+    protected boolean isSimulationTransformUsed() {
+        return updatingParticles || simulationThread == Thread.currentThread();
+    }
+
+    /**
+     * Captures the transform of this emitter for the simulation, should be called from the render thread before
+     * starting the simulation.
+     */
+    protected void captureSimulationTransform() {
+        simulationTranslation.set(getWorldTranslation());
+        simulationRotation.set(getLocalRotation());
+        simulationScale.set(getLocalScale());
+    }
+
+    /**
+     * Sets the size of a chunk of particles which is updated by one task of the parallel update. Emitters which
+     * have not more active particles than this size are updated in the current thread.
+     *
+     * @param parallelChunkSize the size of a chunk of particles.
+     */
+    public void setParallelChunkSize(int parallelChunkSize) {
+
+        if (parallelChunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size " + parallelChunkSize + " should be positive.");
+        }
+
+        this.parallelChunkSize = parallelChunkSize;
+    }
+
+    /**
+     * Gets the size of a chunk of particles which is updated by one task of the parallel update.
+     *
+     * @return the size of a chunk of particles.
+     */
+    public int getParallelChunkSize() {
+        return parallelChunkSize;
+    }
+
     /**
      * Enables or disables to use of particle stretching
      *
@@ -964,7 +1736,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setVelocityStretching(boolean useVelocityStretching) {
         this.velocityStretching = useVelocityStretching;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -983,7 +1755,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setVelocityStretchFactor(float velocityStretchFactor) {
         this.velocityStretchFactor = velocityStretchFactor;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1002,7 +1774,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setForcedStretchAxis(@NotNull ForcedStretchAxis axis) {
         this.stretchAxis = axis;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1021,7 +1793,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setEmissionPoint(@NotNull EmissionPoint emissionPoint) {
         this.emissionPoint = emissionPoint;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1041,7 +1813,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setParticlesFollowEmitter(boolean particlesFollowEmitter) {
         this.particlesFollowEmitter = particlesFollowEmitter;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1061,7 +1833,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setRandomEmissionPoint(boolean useRandomEmissionPoint) {
         this.randomEmissionPoint = useRandomEmissionPoint;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1082,7 +1854,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setSequentialEmissionFace(boolean useSequentialEmissionFace) {
         this.sequentialEmissionFace = useSequentialEmissionFace;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1102,7 +1874,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setSequentialSkipPattern(boolean useSequentialSkipPattern) {
         this.sequentialSkipPattern = useSequentialSkipPattern;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1114,6 +1886,29 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
         return sequentialSkipPattern;
     }
 
+    /**
+     * For use with emitter shapes that contain faces of different sizes. By default, every face is selected for
+     * emission with the same probability, so small faces emit denser than big ones. Use this to select faces with
+     * probabilities proportional to their areas to get the uniform density of particles over the emitter shape.
+     * Sequential emission has priority over this.
+     *
+     * @param areaWeightedEmission true to select faces by their areas.
+     */
+    public void setAreaWeightedEmission(boolean areaWeightedEmission) {
+        this.areaWeightedEmission = areaWeightedEmission;
+        requireUpdate();
+    }
+
+    /**
+     * Returns if faces of the emitter shape are selected for emission with probabilities proportional to their
+     * areas.
+     *
+     * @return true if faces are selected by their areas.
+     */
+    public boolean isAreaWeightedEmission() {
+        return areaWeightedEmission;
+    }
+
     /**
      * Sets the default interpolation for the emitter will use
      *
@@ -1121,7 +1916,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setInterpolation(@NotNull Interpolation interpolation) {
         this.interpolation = interpolation;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1142,7 +1937,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     public void setLifeMinMax(float lifeMin, float lifeMax) {
         this.lifeMin = lifeMin;
         this.lifeMax = lifeMax;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1153,7 +1948,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     public void setLifeMinMax(Vector2f life) {
         this.lifeMin = life.getX();
         this.lifeMax = life.getY();
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1164,7 +1959,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     public void setLife(float life) {
         this.lifeMin = life;
         this.lifeMax = life;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1174,7 +1969,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setLifeMax(float lifeMax) {
         this.lifeMax = lifeMax;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1202,7 +1997,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setLifeMin(float lifeMin) {
         this.lifeMin = lifeMin;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1224,7 +2019,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     public void setForceMinMax(float forceMin, float forceMax) {
         this.forceMin = forceMin;
         this.forceMax = forceMax;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1236,7 +2031,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     public void setForceMinMax(@NotNull Vector2f force) {
         this.forceMin = force.getX();
         this.forceMax = force.getY();
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1248,7 +2043,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     public void setForce(float force) {
         this.forceMin = force;
         this.forceMax = force;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1259,7 +2054,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setForceMin(float forceMin) {
         this.forceMin = forceMin;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1270,7 +2065,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setForceMax(float forceMax) {
         this.forceMax = forceMax;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1325,10 +2120,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      * @param influencer the particle influencer.
      */
     public void addInfluencer(@NotNull ParticleInfluencer<?> influencer) {
-        influencers.add(influencer);
-        initializeInfluencerData(influencer, influencers.size() - 1);
-        initializeInfluencer(influencer, influencers.size() - 1);
-        requiresUpdate = true;
+        addInfluencer(influencer, influencers.size());
     }
 
     /**
@@ -1368,30 +2160,29 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void addInfluencer(@NotNull ParticleInfluencer<?> influencer, int index) {
 
-        SafeArrayList<ParticleInfluencer<?>> influencers = getInfluencers();
-        List<ParticleInfluencer<?>> temp = new ArrayList<>();
-
-        for (int i = 0; i < index; i++) {
-            temp.add(influencers.get(i));
+        if (index < 0 || index > influencers.size()) {
+            throw new IllegalArgumentException("The index " + index + " is out of the chain of influencers.");
         }
 
-        temp.add(influencer);
+        waitForSimulation();
+        updateInfluencerSlots();
 
-        for (int i = influencers.size() - 1; i >= index; i--) {
-            moveInfluencerData(i, i + 1);
-        }
+        int dataId = nextInfluencerSlot();
+        int[] slots = new int[influencerSlots.length + 1];
 
-        initializeInfluencerData(influencer, temp.size() - 1);
-        initializeInfluencer(influencer, temp.size() - 1);
+        System.arraycopy(influencerSlots, 0, slots, 0, index);
+        System.arraycopy(influencerSlots, index, slots, index + 1, influencerSlots.length - index);
 
-        for (int i = index, length = influencers.size(); i < length; i++) {
-            temp.add(influencers.get(i));
-        }
+        slots[index] = dataId;
 
-        influencers.clear();
-        influencers.addAll(temp);
+        influencerSlots = slots;
+        influencers.add(index, influencer);
+        slotInfluencers = influencers.getArray();
 
-        requiresUpdate = true;
+        initializeInfluencerData(influencer, dataId);
+        initializeInfluencer(influencer, dataId);
+
+        requireUpdate();
     }
 
     /**
@@ -1400,6 +2191,8 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      * @param influencer the influencer to remove.
      */
     public void removeInfluencer(@NotNull ParticleInfluencer<?> influencer) {
+        waitForSimulation();
+        updateInfluencerSlots();
         removeInfluencer(influencers.indexOf(influencer));
     }
 
@@ -1414,88 +2207,208 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
             return;
         }
 
-        storeInfluencerData(influencers.get(index), index);
+        waitForSimulation();
+        updateInfluencerSlots();
 
-        for (int i = index, length = influencers.size(); i < length; i++) {
-            moveInfluencerData(i + 1, i);
-        }
+        int dataId = influencerSlots[index];
+
+        storeInfluencerData(influencers.get(index), dataId);
+        particleStore.removeData(dataId);
+
+        int[] slots = new int[influencerSlots.length - 1];
 
+        System.arraycopy(influencerSlots, 0, slots, 0, index);
+        System.arraycopy(influencerSlots, index + 1, slots, index, slots.length - index);
+
+        influencerSlots = slots;
         influencers.remove(index);
-        requiresUpdate = true;
-    }
+        slotInfluencers = influencers.getArray();
 
-    /**
-     * Initializes influencer for all particles data.
-     *
-     * @param influencer the influencer.
-     * @param index      the influencer's index.
-     */
-    protected void initializeInfluencer(@NotNull ParticleInfluencer<?> influencer, int index) {
-        for (ParticleData particleData : particles) {
-            influencer.initialize(this, particleData, index);
-        }
+        requireUpdate();
     }
 
     /**
-     * Initializes influencer's data for all particles data.
+     * Moves the influencer to the new position in the chain of influencers. The influencer keeps its data, so
+     * particles data isn't touched.
      *
-     * @param influencer the influencer.
-     * @param index      the influencer's index.
+     * @param prevIndex the current index of the influencer.
+     * @param newIndex  the new index of the influencer.
      */
-    protected void initializeInfluencerData(@NotNull ParticleInfluencer<?> influencer, int index) {
+    public void moveInfluencer(int prevIndex, int newIndex) {
 
-        if (!influencer.isUsedDataObject()) {
+        if (prevIndex < 0 || prevIndex >= influencers.size()) {
+            throw new IllegalArgumentException("The index " + prevIndex + " is out of the chain of influencers.");
+        } else if (newIndex < 0 || newIndex >= influencers.size()) {
+            throw new IllegalArgumentException("The index " + newIndex + " is out of the chain of influencers.");
+        } else if (prevIndex == newIndex) {
             return;
         }
 
-        for (ParticleData particleData : particles) {
-            particleData.initializeData(influencer, index, getParticleDataSize());
-        }
-    }
+        waitForSimulation();
+        updateInfluencerSlots();
 
-    /**
-     * Moves influencer's data from previous index to the next index.
-     *
-     * @param prevIndex the prev index.
-     * @param newIndex  the new index.
-     */
-    protected void moveInfluencerData(int prevIndex, int newIndex) {
+        int[] slots = influencerSlots.clone();
+        int dataId = slots[prevIndex];
 
-        final int dataSize = getParticleDataSize();
+        if (prevIndex < newIndex) {
+            System.arraycopy(slots, prevIndex + 1, slots, prevIndex, newIndex - prevIndex);
+        } else {
+            System.arraycopy(slots, newIndex, slots, newIndex + 1, prevIndex - newIndex);
+        }
 
-        for (final ParticleData particleData : particles) {
+        slots[newIndex] = dataId;
 
-            if (!particleData.hasData(prevIndex)) {
-                particleData.removeData(newIndex);
-                continue;
-            }
+        influencerSlots = slots;
+        influencers.add(newIndex, influencers.remove(prevIndex));
+        slotInfluencers = influencers.getArray();
 
-            Object data = particleData.getData(prevIndex);
-            particleData.reserveDataSlot(newIndex, dataSize);
-            particleData.setData(newIndex, data);
-            particleData.removeData(prevIndex);
-        }
+        requireUpdate();
     }
 
     /**
-     * Stores unused influencer's data .
+     * Gets the data id of the influencer by its index in the chain of influencers.
      *
-     * @param influencer   the influencer.
-     * @param currentIndex the current index.
+     * @param index the influencer's index.
+     * @return the influencer's data id.
      */
-    protected void storeInfluencerData(@NotNull ParticleInfluencer<?> influencer, int currentIndex) {
+    public int getInfluencerDataId(int index) {
+        updateInfluencerSlots();
+        return influencerSlots[index];
+    }
 
-        if (!influencer.isUsedDataObject()) {
+    /**
+     * Updates the data ids of influencers if the chain of influencers was changed directly through
+     * {@link #getInfluencers()}. Kept influencers keep their data ids, the data of removed influencers is released
+     * and added influencers are initialized. It should be called from the render thread while particles aren't
+     * simulated.
+     */
+    protected void updateInfluencerSlots() {
+
+        ParticleInfluencer<?>[] array = influencers.getArray();
+        ParticleInfluencer<?>[] previous = slotInfluencers;
+
+        if (array == previous) {
             return;
         }
 
-        for (ParticleData particleData : particles) {
-            influencer.storeUsedData(this, particleData, currentIndex);
+        int[] previousSlots = influencerSlots;
+        int[] slots = new int[array.length];
+        boolean[] kept = new boolean[previous.length];
+
+        for (int i = 0; i < array.length; i++) {
+
+            slots[i] = -1;
+
+            for (int j = 0; j < previous.length; j++) {
+                if (!kept[j] && previous[j] == array[i]) {
+                    slots[i] = previousSlots[j];
+                    kept[j] = true;
+                    break;
+                }
+            }
         }
-    }
 
-    /**
-     * Returns the current chain of particle influencers.
+        for (int j = 0; j < previous.length; j++) {
+            if (!kept[j]) {
+                storeInfluencerData(previous[j], previousSlots[j]);
+                particleStore.removeData(previousSlots[j]);
+            }
+        }
+
+        influencerSlots = slots;
+        slotInfluencers = array;
+
+        for (int i = 0; i < array.length; i++) {
+            if (slots[i] == -1) {
+                slots[i] = nextInfluencerSlot();
+                initializeInfluencerData(array[i], slots[i]);
+                initializeInfluencer(array[i], slots[i]);
+            }
+        }
+
+        requireUpdate();
+    }
+
+    /**
+     * Finds the lowest data id which isn't used by influencers.
+     *
+     * @return the free data id.
+     */
+    protected int nextInfluencerSlot() {
+
+        int[] slots = influencerSlots;
+
+        for (int dataId = 0; ; dataId++) {
+
+            boolean used = false;
+
+            for (int slot : slots) {
+                if (slot == dataId) {
+                    used = true;
+                    break;
+                }
+            }
+
+            if (!used) {
+                return dataId;
+            }
+        }
+    }
+
+    /**
+     * Initializes influencer for all particles data.
+     *
+     * @param influencer the influencer.
+     * @param dataId     the influencer's data id.
+     */
+    protected void initializeInfluencer(@NotNull ParticleInfluencer<?> influencer, int dataId) {
+        ParticleData particleData = new ParticleData(particleStore);
+
+        for (int i = 0, length = particleStore.getCapacity(); i < length; i++) {
+            particleData.index = i;
+            influencer.initialize(this, particleData, dataId);
+        }
+    }
+
+    /**
+     * Initializes influencer's data for all particles data.
+     *
+     * @param influencer the influencer.
+     * @param dataId     the influencer's data id.
+     */
+    protected void initializeInfluencerData(@NotNull ParticleInfluencer<?> influencer, int dataId) {
+
+        ParticleData particleData = new ParticleData(particleStore);
+
+        for (int i = 0, length = particleStore.getCapacity(); i < length; i++) {
+            particleData.index = i;
+            influencer.createData(this, particleData, dataId);
+        }
+    }
+
+    /**
+     * Stores unused influencer's data .
+     *
+     * @param influencer the influencer.
+     * @param dataId     the influencer's data id.
+     */
+    protected void storeInfluencerData(@NotNull ParticleInfluencer<?> influencer, int dataId) {
+
+        if (!influencer.isUsedDataObject()) {
+            return;
+        }
+
+        ParticleData particleData = new ParticleData(particleStore);
+
+        for (int i = 0, length = particleStore.getCapacity(); i < length; i++) {
+            particleData.index = i;
+            influencer.storeUsedData(this, particleData, dataId);
+        }
+    }
+
+    /**
+     * Returns the current chain of particle influencers. Changes of the returned list are applied by the next
+     * update of this emitter, the methods to add, remove and move influencers apply them at once.
      *
      * @return the collection of particle influencers.
      */
@@ -1543,8 +2456,9 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      * Remove all influencers.
      */
     public void removeAllInfluencers() {
-        influencers.clear();
-        requiresUpdate = true;
+        for (int i = influencers.size() - 1; i >= 0; i--) {
+            removeInfluencer(i);
+        }
     }
 
     /**
@@ -1625,7 +2539,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
         ParticleDataMesh particleDataMesh = getParticleDataMesh();
         particleDataMesh.setImagesXY(spriteCols, spriteRows);
 
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1698,7 +2612,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
         }
 
         particleNode.setMaterial(material);
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1735,7 +2649,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
      */
     public void setBillboardMode(@NotNull BillboardMode billboardMode) {
         this.billboardMode = billboardMode;
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1852,6 +2766,13 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
 
         initParticles();
 
+        ParticleStore savedParticles = this.savedParticles;
+
+        if (savedParticles != null) {
+            this.savedParticles = null;
+            restoreParticles(savedParticles, savedParticleStart, savedParticleCount);
+        }
+
         Material material = getMaterial();
         MatParamTexture textureParam = material.getTextureParam(textureParamName);
         Texture texture = textureParam.getTextureValue();
@@ -1878,7 +2799,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
         }
 
         ParticleDataMesh particleDataMesh = getParticleDataMesh();
-        EmitterMesh emitterShape = getEmitterShape();
+        EmitterShape emitterShape = getEmitterShape();
 
         particleGeometry.setMesh(particleDataMesh);
 
@@ -1890,6 +2811,8 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
             emitterShapeTestGeometry.setMesh(emitterShape.getMesh());
         }
 
+        updateInstancedGeometry();
+
         particleNode.setMaterial(material);
 
         if (particleTestNode != null && testMat != null) {
@@ -1948,7 +2871,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
             emitterShapeTestGeometry = null;
         }
 
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -1978,7 +2901,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
             particleTestGeometry = null;
         }
 
-        requiresUpdate = true;
+        requireUpdate();
     }
 
     /**
@@ -2002,7 +2925,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     @Override
     public void updateGeometricState() {
 
-        if (isEmitterInitialized() && (isEnabled() || postRequiresUpdate)) {
+        if (isEmitterInitialized() && ((isEnabled() && !dormant) || postRequiresUpdate)) {
             particleGeometry.updateModelBound();
 
             if (particleTestGeometry != null) {
@@ -2019,6 +2942,10 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     public void updateLogicalState(float tpf) {
         super.updateLogicalState(tpf);
 
+        if (systemManager != null) {
+            return;
+        }
+
         boolean enabled = isEnabled();
 
         if (!enabled) {
@@ -2027,345 +2954,1800 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
             return;
         }
 
-        emittedTime += tpf;
+        waitForSimulation();
+        updateInfluencerSlots();
+        dispatchEvents();
 
-        for (ParticleData particleData : particles) {
-            if (particleData.isActive()) {
-                particleData.update(this, tpf);
-            }
+        if (updateDormant()) {
+            return;
         }
 
-        currentInterval += (tpf <= targetInterval) ? tpf : targetInterval;
-        if (currentInterval <= targetInterval) {
+        updateLod();
+        updateVisibility();
+
+        emitterShape.update();
+
+        if (!isNeedAsyncUpdate()) {
+            asyncFrame = false;
+            captureSimulationTransform();
+            simulate(tpf);
             return;
         }
 
-        boolean delayIsReady = emitterDelay == 0F || emittedTime >= emitterDelay;
-        boolean emitterIsAlive = isAlive();
+        ParticleSnapshot published = publishedSnapshot.get();
 
-        if (delayIsReady && emitterIsAlive) {
-            for (int i = 0, count = calcParticlesPerEmission(); i < count; i++) {
-                emitNextParticle();
-            }
+        if (!published.hasStore()) {
+            published.copy(particleStore, activeParticleStart, activeParticleCount, interpolationAlpha);
         }
 
-        currentInterval -= targetInterval;
+        renderSnapshot = published;
+        asyncFrame = true;
+        captureSimulationTransform();
+        simulationTask = PARALLEL_POOL.submit(new SimulationTask(this, tpf));
     }
 
     /**
-     * Updates influencers for the particle data.
-     *
-     * @param particleData the particle data.
-     * @param tpf          the tpf.
+     * Chooses the band of the level of detail by the distance which was measured in the previous frame.
      */
-    @Internal
-    public void updateInfluencers(@NotNull ParticleData particleData, float tpf) {
+    protected void updateLod() {
 
-        ParticleInfluencer[] influencers = getInfluencers()
-                .getArray();
+        EmitterLod emitterLod = getEmitterLod();
 
-        for (int i = 0; i < influencers.length; i++) {
-            influencers[i].update(this, particleData, i, tpf);
+        if (emitterLod == null) {
+            lodBand = null;
+        } else if (lodDistanceMeasured) {
+            lodBand = emitterLod.getBand(lodDistance);
         }
+
+        lodDistanceMeasured = false;
     }
 
     /**
-     * Handle the new created particle data.
-     *
-     * @param particleData the particle data.
+     * Suspends the simulation in the current frame if this emitter wasn't rendered since the last update.
      */
-    @Internal
-    public void onCreated(@NotNull ParticleData particleData) {
-
-        ParticleInfluencer[] influencers = getInfluencers()
-                .getArray();
-
-        for (int i = 0; i < influencers.length; i++) {
-            influencers[i].createData(this, particleData, i);
-        }
+    protected void updateVisibility() {
+        offscreenSuspended = offscreenMode != OffscreenMode.UPDATE && !rendered;
+        rendered = false;
     }
 
     /**
-     * Initializes influencers for the particle data.
-     *
-     * @param particleData the particle data.
+     * Resumes the simulation after this emitter was suspended. The suspended time ages the emitter, the last part of
+     * it is fast-forwarded by coarse steps in the {@link OffscreenMode#CATCH_UP} mode. Particles which were active
+     * before suspending are killed when the suspended time is longer than the max life of particles, because all of
+     * them would be dead already.
      */
-    @Internal
-    public void initializeInfluencers(@NotNull ParticleData particleData) {
+    protected void resumeSimulation() {
 
-        ParticleInfluencer[] influencers = getInfluencers()
-                .getArray();
+        float time = suspendedTime;
+        suspendedTime = 0F;
 
-        for (int i = 0; i < influencers.length; i++) {
-            influencers[i].initialize(this, particleData, i);
+        if (offscreenMode != OffscreenMode.CATCH_UP) {
+            emittedTime += time;
+            return;
         }
-    }
-
-    /**
-     * Resets influencers for the particle data.
-     *
-     * @param particleData the particle data.
-     */
-    @Internal
-    public void resetInfluencers(@NotNull ParticleData particleData) {
 
-        ParticleInfluencer[] influencers = getInfluencers()
-                .getArray();
+        float catchUpTime = Math.min(time, maxCatchUpTime);
 
-        for (int i = 0; i < influencers.length; i++) {
-            influencers[i].reset(this, particleData, i);
+        if (time >= lifeMax) {
+            killAllParticles();
+            catchUpTime = Math.min(catchUpTime, lifeMax);
         }
-    }
 
-    protected int calcParticlesPerEmission() {
-        return (int) (currentInterval / targetInterval * particlesPerEmission);
+        emittedTime += time - catchUpTime;
+
+        fastForward(catchUpTime, catchUpStep);
     }
 
     /**
-     * Emits the next available (non-active) particle.
+     * Fast-forwards the simulation by coarse steps without updating the mesh. The emission during a step is split
+     * to frames of the last frame time, so the count of emitted particles doesn't depend on the step.
+     *
+     * @param time the time to simulate.
+     * @param step the maximum time of a step.
      */
-    public void emitNextParticle() {
+    protected void fastForward(float time, float step) {
 
-        if (nextIndex == -1 || nextIndex >= maxParticles) {
+        if (time <= 0F) {
             return;
         }
 
-        particles[nextIndex].initialize(this);
-
-        int searchIndex = nextIndex;
-        int initIndex = nextIndex;
-        int loop = 0;
+        int steps = Math.max(1, (int) Math.ceil(time / step));
+        float stepTime = time / steps;
 
-        while (particles[searchIndex].isActive()) {
-            searchIndex++;
-            if (searchIndex > particles.length - 1) {
-                searchIndex = 0;
-                loop++;
-            }
-            if (searchIndex == initIndex && loop == 1) {
-                searchIndex = -1;
-                break;
+        simulatedFrames = Math.max(1, (int) (stepTime / Math.max(frameTime, getEmissionInterval())));
+        try {
+            for (int i = 0; i < steps; i++) {
+                updateSimulation(stepTime);
             }
+        } finally {
+            simulatedFrames = 1;
         }
 
-        nextIndex = searchIndex;
+        saveActivePositions();
     }
 
     /**
-     * Emits all non-active particles.
+     * Fast-forwards this emitter to start an effect in the steady state. Particles are simulated by coarse steps
+     * without updating the mesh and bounds, particles which should be emitted during a step are emitted at once.
+     *
+     * @param seconds the time to simulate.
+     * @param step    the maximum time of a step.
+     * @see #setPersistParticles(boolean)
      */
-    public void emitAllParticles() {
+    public void prewarm(float seconds, float step) {
 
-        for (ParticleData data : particles) {
-            if (!data.isActive()) {
-                data.initialize(this);
-            }
+        if (seconds < 0F) {
+            throw new IllegalArgumentException("The prewarm time " + seconds + " can't be negative.");
+        } else if (step <= 0F) {
+            throw new IllegalArgumentException("The prewarm step " + step + " should be positive.");
         }
 
-        requiresUpdate = true;
+        waitForSimulation();
+        updateInfluencerSlots();
+
+        if (!isEmitterInitialized() && !initialize()) {
+            return;
+        }
+
+        fastForward(seconds, step);
+        requireUpdate();
     }
 
     /**
-     * Emits the specified number of particles.
+     * Sets true to save the state of active particles with this emitter, so a prewarmed effect is loaded in the
+     * steady state. The per-particle state of influencers isn't saved, it's initialized again and aged by the age
+     * of particles for the influencers which support the parallel update.
      *
-     * @param count the number of particles to emit.
+     * @param persistParticles true to save the state of active particles.
      */
-    public void emitNumParticles(int count) {
-
-        int counter = 0;
-
-        for (ParticleData data : particles) {
-
-            if (!data.isActive() && counter < count) {
-                data.initialize(this);
-                counter++;
-            }
-
-            if (counter > count) {
-                break;
-            }
-        }
-
-        requiresUpdate = true;
+    public void setPersistParticles(boolean persistParticles) {
+        this.persistParticles = persistParticles;
     }
 
     /**
-     * Clears all current particles, setting them to inactive.
+     * Returns true if the state of active particles is saved with this emitter.
+     *
+     * @return true if the state of active particles is saved.
      */
-    public void killAllParticles() {
-        for (ParticleData data : particles) {
-            data.reset(this);
-        }
-        requiresUpdate = true;
+    public boolean isPersistParticles() {
+        return persistParticles;
     }
 
     /**
-     * Deactivates and resets the specified particle.
+     * Sets true to put this emitter to sleep when its life is over and all its particles are dead. A dormant emitter
+     * isn't simulated, its mesh and bounds aren't updated and the system manager skips it. It's woken by emitting
+     * particles, resetting or changing properties of this emitter. It's disabled by default.
      *
-     * @param toKill the particle to reset.
+     * @param autoSleep true to put this emitter to sleep when it's finished.
      */
-    public void killParticle(@NotNull ParticleData toKill) {
-        for (ParticleData data : particles) {
-            if (data == toKill) toKill.reset(this);
+    public void setAutoSleep(boolean autoSleep) {
+        this.autoSleep = autoSleep;
+
+        if (!autoSleep) {
+            wakeUp();
         }
-        requiresUpdate = true;
     }
 
     /**
-     * Returns the number of active particles.
+     * Returns true if this emitter is put to sleep when it's finished.
      *
-     * @return the active particle count.
+     * @return true if this emitter is put to sleep when it's finished.
      */
-    public int getActiveParticleCount() {
-        return activeParticleCount;
+    public boolean isAutoSleep() {
+        return autoSleep;
     }
 
     /**
-     * Notify about a new particle was activated.
+     * Returns true if this emitter is sleeping.
+     *
+     * @return true if this emitter is sleeping.
      */
-    @Internal
-    public void notifyParticleActivated() {
-        activeParticleCount++;
+    public boolean isDormant() {
+        return dormant;
     }
 
     /**
-     * Notify about a particle was deactivated.
+     * Wakes this emitter up if it's sleeping, the emitter falls asleep again in the next frame if it's still
+     * finished.
      */
-    @Internal
-    public void notifyParticleDeactivated() {
-        if (activeParticleCount < 0) return;
-        activeParticleCount--;
+    public void wakeUp() {
+        dormant = false;
     }
 
     /**
-     * Deactivates and resets the specified particle.
-     *
-     * @param index the index of the particle to reset.
+     * Marks this emitter to update its mesh in the next frame and wakes it up.
      */
-    public void killParticle(int index) {
-        particles[index].reset(this);
+    protected void requireUpdate() {
         requiresUpdate = true;
+        dormant = false;
     }
 
     /**
-     * Resets all particle data and the current emission interval.
+     * Puts this emitter to sleep if it's finished, the mesh is updated once more to hide the last particles.
+     *
+     * @return true if this emitter is dormant.
      */
-    public void reset() {
-        killAllParticles();
-        resetInterval();
-        emittedTime = 0;
+    protected boolean updateDormant() {
+
+        if (dormant) {
+            return true;
+        } else if (!autoSleep || isAlive() || activeParticleCount > 0) {
+            return false;
+        }
+
+        dormant = true;
+        asyncFrame = false;
         requiresUpdate = true;
+
+        return true;
     }
 
     /**
-     * Resets the current emission interval.
+     * Sets the capacity of the buffer of lifecycle events of particles, when more events are written during a frame
+     * the oldest ones are lost.
+     *
+     * @param eventCapacity the capacity of the buffer or 0 to disable events.
      */
-    public void resetInterval() {
-        currentInterval = targetInterval;
+    public void setEventCapacity(int eventCapacity) {
+
+        if (eventCapacity < 0) {
+            throw new IllegalArgumentException("The event capacity " + eventCapacity + " can't be negative.");
+        }
+
+        waitForSimulation();
+
+        if (eventCapacity == getEventCapacity()) {
+            return;
+        }
+
+        eventBuffer = eventCapacity == 0 ? null : new ParticleEventBuffer(eventCapacity);
     }
-    
+
     /**
-     * Gets if the emitter is alive (it is still emitting particles) or
-     * if it has already ended (reached it max life).
+     * Gets the capacity of the buffer of lifecycle events of particles.
      *
-     * @return if the emitter is currently alive.
+     * @return the capacity of the buffer or 0 if events are disabled.
      */
-    public boolean isAlive() {
-        return emitterLife == 0F || emittedTime < emitterLife;
+    public int getEventCapacity() {
+        return eventBuffer == null ? 0 : eventBuffer.getCapacity();
     }
 
     /**
-     * This method should not be called.
-     * Particles call this method to help track the next available particle index.
+     * Gets the buffer of lifecycle events of particles. The buffer contains the events which were written since
+     * the previous update of this emitter.
      *
-     * @param index the index of the particle that was just reset.
+     * @return the buffer or null if events are disabled.
      */
-    @Internal
-    public void setNextIndex(int index) {
-        if (index >= nextIndex && nextIndex != -1) return;
-        nextIndex = index;
+    public @Nullable ParticleEventBuffer getEventBuffer() {
+        return eventBuffer;
     }
 
     /**
-     * Sets the particle data size. It's an initial size of particle's data arrays.
+     * Adds the listener of lifecycle events of particles, events are enabled with the default capacity if they
+     * were disabled. Listeners are not cloned and saved with this emitter.
      *
-     * @return the particle data size.
+     * @param listener the listener.
      */
-    public int getParticleDataSize() {
-        return particleDataSize;
+    public void addEventListener(@NotNull ParticleEventListener listener) {
+
+        if (eventBuffer == null) {
+            setEventCapacity(DEFAULT_EVENT_CAPACITY);
+        }
+
+        eventListeners.add(listener);
     }
 
     /**
-     * Gets the particle data size. It's an initial size of particle's data arrays.
+     * Removes the listener of lifecycle events of particles.
      *
-     * @param particleDataSize the particle data size.
+     * @param listener the listener.
      */
-    public void setParticleDataSize(int particleDataSize) {
-        this.particleDataSize = particleDataSize;
+    public void removeEventListener(@NotNull ParticleEventListener listener) {
+        eventListeners.remove(listener);
     }
 
-    @Override
-    public void runControlRender(@NotNull RenderManager renderManager, @NotNull ViewPort viewPort) {
-        super.runControlRender(renderManager, viewPort);
+    /**
+     * Writes the lifecycle event of the particle if events are enabled.
+     *
+     * @param type  the type of the event.
+     * @param index the particle's index.
+     * @see ParticleEventBuffer
+     */
+    @Internal
+    public void notifyParticleEvent(int type, int index) {
+
+        ParticleEventBuffer eventBuffer = this.eventBuffer;
 
-        if (!isEmitterInitialized() || (!isEnabled() && !requiresUpdate)) {
+        if (eventBuffer == null) {
             return;
         }
 
-        Camera camera = viewPort.getCamera();
-        ParticleDataMesh particleDataMesh = getParticleDataMesh();
-        Material material = getMaterial();
-
-        if (particleDataMesh.getClass() == ParticleDataPointMesh.class) {
+        ParticleStore store = particleStore;
 
-            float c = camera.getProjectionMatrix().m00;
-            c *= camera.getWidth() * 0.5f;
+        float x = store.posX[index];
+        float y = store.posY[index];
+        float z = store.posZ[index];
 
-            // send attenuation params
-            material.setFloat(ParticlesMaterial.PROP_QUADRATIC, c);
-        }
+        if (!particlesFollowEmitter) {
+            x += store.initPosX[index];
+            y += store.initPosY[index];
+            z += store.initPosZ[index];
+        } else {
 
-        particleDataMesh.updateParticleData(particles, camera, inverseRotation);
+            Vector3f translation = updatingParticles ? simulationTranslation : getSimulationTranslation();
 
-        if (requiresUpdate) {
-            requiresUpdate = false;
-            postRequiresUpdate = true;
+            x += translation.x;
+            y += translation.y;
+            z += translation.z;
         }
-    }
 
-    @Override
-    public void write(@NotNull JmeExporter exporter) throws IOException {
+        eventBuffer.write(type, index, x, y, z, store.velX[index], store.velY[index], store.velZ[index]);
+    }
 
-        int childIndex = getChildIndex(particleNode);
-        int testIndex = emitterTestNode == null ? -1 : getChildIndex(emitterTestNode);
+    /**
+     * Notifies the listeners about the events which were written since the previous update and clears the buffer.
+     */
+    protected void dispatchEvents() {
 
-        detachChild(particleNode);
+        ParticleEventBuffer eventBuffer = this.eventBuffer;
 
-        if (testIndex != -1) {
-            detachChild(emitterTestNode);
+        if (eventBuffer == null || eventBuffer.isEmpty()) {
+            return;
         }
 
-        super.write(exporter);
-
-        attachChildAt(particleNode, childIndex);
-
-        if (testIndex != -1) {
-            attachChildAt(emitterTestNode, testIndex);
+        for (ParticleEventListener listener : eventListeners.getArray()) {
+            listener.onParticleEvents(this, eventBuffer);
         }
 
-        OutputCapsule capsule = exporter.getCapsule(this);
-
-        capsule.write(influencers.toArray(new ParticleInfluencer[influencers.size()]), "influencers", EMPTY_INFLUENCERS);
-        capsule.write(enabled, "enabled", true);
+        eventBuffer.clear();
+    }
 
-        // EMITTER
+    /**
+     * Sets the seed of random streams of this emitter. Emitters with the same seed and settings produce the same
+     * particles regardless of using the parallel or the asynchronous update. Clones keep the seed of the original
+     * emitter, use {@link #reseed()} to make them produce different particles.
+     *
+     * @param randomSeed the seed.
+     */
+    public void setRandomSeed(long randomSeed) {
+        waitForSimulation();
+        this.randomSeed = randomSeed;
+        this.random.setSeed(randomSeed);
+        this.spawnCounter = 0;
+    }
+
+    /**
+     * Sets a new random seed to this emitter.
+     *
+     * @see #setRandomSeed(long)
+     */
+    public void reseed() {
+        setRandomSeed(RandomUtils.newSeed());
+    }
+
+    /**
+     * Gets the seed of random streams of this emitter.
+     *
+     * @return the seed.
+     */
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    /**
+     * Gets the random stream of this emitter, it should be used only by the emission.
+     *
+     * @return the random stream.
+     */
+    public @NotNull ParticleRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Gets the next value of the counter of spawned particles.
+     *
+     * @return the next value of the counter.
+     */
+    @Internal
+    public long nextSpawnCounter() {
+        return spawnCounter++;
+    }
+
+    /**
+     * Restores the loaded state of particles to the new initialized store.
+     *
+     * @param saved the loaded state of particles.
+     * @param start the index of the first active particle.
+     * @param count the count of active particles.
+     */
+    protected void restoreParticles(@NotNull ParticleStore saved, int start, int count) {
+
+        ParticleStore store = particleStore;
+        int capacity = store.getCapacity();
+
+        if (saved.getCapacity() != capacity || count > capacity) {
+            return;
+        }
+
+        store.copyState(saved, 0, capacity);
+
+        activeParticleStart = start;
+        activeParticleCount = count;
+        ringBroken = false;
+
+        ParticleData particleData = this.particleData;
+        ParticleInfluencer[] influencers = slotInfluencers;
+        int[] slots = influencerSlots;
+
+        for (int n = 0; n < count; n++) {
+
+            int index = getActiveParticleIndex(n);
+            particleData.index = index;
+
+            initializeInfluencers(particleData);
+
+            // the state of influencers which don't touch the scene is aged to the particle's age
+            for (float age = store.startLife[index] - store.life[index]; age > 0F; age -= catchUpStep) {
+
+                float tpf = Math.min(age, catchUpStep);
+
+                for (int i = 0; i < influencers.length; i++) {
+                    if (isParallelUpdateSupported(influencers[i])) {
+                        influencers[i].update(this, particleData, slots[i], tpf);
+                    }
+                }
+            }
+        }
+
+        // the influencers could change the particles state during initializing
+        store.copyState(saved, 0, capacity);
+
+        if (!ringLayout) {
+            usePackedLayout();
+        }
+
+        requireUpdate();
+    }
+
+    /**
+     * Returns true if the influencer should be updated in the current band of the level of detail.
+     *
+     * @param influencer the influencer.
+     * @return true if the influencer should be updated.
+     */
+    protected boolean isInfluencerUpdated(@NotNull ParticleInfluencer<?> influencer) {
+        EmitterLod.Band band = lodBand;
+        return band == null || !band.isDisabled(influencer);
+    }
+
+    /**
+     * Returns true if the influencer can be updated from several threads, the influencers which don't implement
+     * {@link ParallelParticleInfluencer} are considered as not supporting it.
+     *
+     * @param influencer the influencer.
+     * @return true if the influencer supports parallel updating.
+     */
+    protected boolean isParallelUpdateSupported(@NotNull ParticleInfluencer<?> influencer) {
+        return influencer instanceof ParallelParticleInfluencer &&
+                ((ParallelParticleInfluencer<?>) influencer).isParallelUpdateSupported(this);
+    }
+
+    /**
+     * Returns true if particles should be simulated in a background thread.
+     *
+     * @return true if particles should be simulated in a background thread.
+     */
+    protected boolean isNeedAsyncUpdate() {
+        return asyncUpdate && isBackgroundUpdateSupported();
+    }
+
+    /**
+     * Returns true if particles of this emitter can be updated outside of the render thread, it's true when all
+     * influencers support the parallel update.
+     *
+     * @return true if particles can be updated outside of the render thread.
+     */
+    public boolean isBackgroundUpdateSupported() {
+
+        ParticleInfluencer[] influencers = slotInfluencers;
+
+        for (ParticleInfluencer influencer : influencers) {
+            if (isInfluencerUpdated(influencer) && !isParallelUpdateSupported(influencer)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Prepares this emitter to be updated by the system manager, should be called from the render thread.
+     *
+     * @return true if particles of this emitter should be updated.
+     */
+    @Internal
+    public boolean prepareManagedUpdate() {
+
+        if (!isEnabled()) {
+            return false;
+        } else if (!isEmitterInitialized() && !initialize()) {
+            return false;
+        }
+
+        waitForSimulation();
+        updateInfluencerSlots();
+        dispatchEvents();
+
+        if (updateDormant()) {
+            return false;
+        }
+
+        updateLod();
+        updateVisibility();
+
+        emitterShape.update();
+
+        asyncFrame = false;
+        captureSimulationTransform();
+        return true;
+    }
+
+    /**
+     * Updates particles of this emitter by the system manager, can be called from a thread of the pool when
+     * {@link #isBackgroundUpdateSupported()} is true.
+     *
+     * @param tpf the time per frame.
+     */
+    @Internal
+    public void runManagedUpdate(float tpf) {
+
+        simulationThread = Thread.currentThread();
+        try {
+            simulate(tpf);
+        } finally {
+            simulationThread = null;
+        }
+    }
+
+    /**
+     * Sets the manager which updates this emitter instead of the scene graph traversal.
+     *
+     * @param systemManager the system manager or null.
+     */
+    @Internal
+    public void setSystemManager(@Nullable ParticleSystemManager systemManager) {
+        waitForSimulation();
+        this.systemManager = systemManager;
+    }
+
+    /**
+     * Gets the manager which updates this emitter instead of the scene graph traversal.
+     *
+     * @return the system manager or null.
+     */
+    public @Nullable ParticleSystemManager getSystemManager() {
+        return systemManager;
+    }
+
+    /**
+     * Simulates particles in the simulation thread and publishes the snapshot of them.
+     *
+     * @param tpf the time per frame.
+     */
+    protected void runAsyncSimulation(float tpf) {
+
+        simulationThread = Thread.currentThread();
+        try {
+
+            simulate(tpf);
+
+            ParticleSnapshot snapshot = simulationSnapshot;
+            snapshot.copy(particleStore, activeParticleStart, activeParticleCount, interpolationAlpha);
+
+            simulationSnapshot = publishedSnapshot.getAndSet(snapshot);
+
+        } finally {
+            simulationThread = null;
+        }
+    }
+
+    /**
+     * Simulates particles by the frame's time or by fixed steps.
+     *
+     * @param tpf the time per frame.
+     */
+    protected void simulate(float tpf) {
+
+        if (offscreenSuspended) {
+            suspendedTime += tpf;
+            return;
+        }
+
+        frameTime = tpf;
+
+        if (suspendedTime > 0F) {
+            resumeSimulation();
+        }
+
+        EmitterLod.Band band = lodBand;
+        int frames = 1;
+
+        if (band != null && band.getUpdateDivisor() > 1) {
+
+            lodSkippedTime += tpf;
+
+            if (++lodSkippedFrames < band.getUpdateDivisor()) {
+                return;
+            }
+
+            tpf = lodSkippedTime;
+            frames = lodSkippedFrames;
+            lodSkippedTime = 0F;
+            lodSkippedFrames = 0;
+
+        } else if (lodSkippedFrames > 0) {
+            tpf += lodSkippedTime;
+            frames += lodSkippedFrames;
+            lodSkippedTime = 0F;
+            lodSkippedFrames = 0;
+        }
+
+        if (fixedTimeStep <= 0F) {
+            interpolationAlpha = 1F;
+            simulatedFrames = frames;
+            updateSimulation(tpf);
+            simulatedFrames = 1;
+            return;
+        }
+
+        accumulatedTime += tpf;
+
+        for (int i = 0; i < maxSubSteps && accumulatedTime >= fixedTimeStep; i++) {
+            saveActivePositions();
+            updateSimulation(fixedTimeStep);
+            accumulatedTime -= fixedTimeStep;
+        }
+
+        // the time which exceeds the limit of steps is dropped to not accumulate lag
+        if (accumulatedTime >= fixedTimeStep) {
+            accumulatedTime %= fixedTimeStep;
+        }
+
+        interpolationAlpha = accumulatedTime / fixedTimeStep;
+    }
+
+    /**
+     * Saves positions of the active particles as their previous positions, particles which are emitted later
+     * initialize their previous positions themselves.
+     */
+    protected void saveActivePositions() {
+
+        ParticleStore store = this.particleStore;
+
+        int capacity = store.getCapacity();
+        int end = activeParticleStart + activeParticleCount;
+
+        if (end <= capacity) {
+            store.savePositions(activeParticleStart, end);
+        } else {
+            store.savePositions(activeParticleStart, capacity);
+            store.savePositions(0, end - capacity);
+        }
+    }
+
+    /**
+     * Updates particles and emits new particles by the simulation step.
+     *
+     * @param tpf the time of the simulation step.
+     */
+    protected void updateSimulation(float tpf) {
+
+        emittedTime += tpf;
+
+        updateParticlesLayout();
+
+        if (ringLayout) {
+            updateRingParticles(tpf);
+        } else {
+            updatePackedParticles(tpf);
+        }
+
+        float interval = getEmissionInterval();
+
+        if (Float.isInfinite(interval)) {
+            return;
+        }
+
+        boolean delayIsReady = emitterDelay == 0F || emittedTime >= emitterDelay;
+        boolean emitterIsAlive = isAlive();
+
+        // the frames which were merged by the level of detail are emitted as separated frames
+        float frameTime = tpf / simulatedFrames;
+
+        for (int frame = 0; frame < simulatedFrames; frame++) {
+
+            currentInterval += (frameTime <= interval) ? frameTime : interval;
+            if (currentInterval <= interval) {
+                continue;
+            }
+
+            if (delayIsReady && emitterIsAlive) {
+                spawnParticles(Math.min(calcParticlesPerEmission(), getParticleLimit() - activeParticleCount));
+            }
+
+            currentInterval -= interval;
+        }
+    }
+
+    /**
+     * Gets the interval between emissions which is scaled by the current band of the level of detail.
+     *
+     * @return the interval between emissions.
+     */
+    protected float getEmissionInterval() {
+        EmitterLod.Band band = lodBand;
+        return band == null ? targetInterval : targetInterval / band.getEmissionScale();
+    }
+
+    /**
+     * Gets the count of particles which can be active by the current band of the level of detail.
+     *
+     * @return the count of particles.
+     */
+    protected int getParticleLimit() {
+        EmitterLod.Band band = lodBand;
+        int capacity = particleStore.getCapacity();
+        return band == null ? capacity : (int) (capacity * band.getParticleScale());
+    }
+
+    /**
+     * Updates influencers for the particle data.
+     *
+     * @param particleData the particle data.
+     * @param tpf          the tpf.
+     */
+    @Internal
+    public void updateInfluencers(@NotNull ParticleData particleData, float tpf) {
+
+        ParticleInfluencer[] influencers = slotInfluencers;
+        int[] slots = influencerSlots;
+
+        for (int i = 0; i < influencers.length; i++) {
+            if (isInfluencerUpdated(influencers[i])) {
+                influencers[i].update(this, particleData, slots[i], tpf);
+            }
+        }
+    }
+
+    /**
+     * Handle the new created particle data.
+     *
+     * @param particleData the particle data.
+     */
+    @Internal
+    public void onCreated(@NotNull ParticleData particleData) {
+
+        ParticleInfluencer[] influencers = slotInfluencers;
+        int[] slots = influencerSlots;
+
+        for (int i = 0; i < influencers.length; i++) {
+            influencers[i].createData(this, particleData, slots[i]);
+        }
+    }
+
+    /**
+     * Initializes influencers for the particle data.
+     *
+     * @param particleData the particle data.
+     */
+    @Internal
+    public void initializeInfluencers(@NotNull ParticleData particleData) {
+
+        ParticleInfluencer[] influencers = slotInfluencers;
+        int[] slots = influencerSlots;
+
+        for (int i = 0; i < influencers.length; i++) {
+            influencers[i].initialize(this, particleData, slots[i]);
+        }
+    }
+
+    /**
+     * Resets influencers for the particle data.
+     *
+     * @param particleData the particle data.
+     */
+    @Internal
+    public void resetInfluencers(@NotNull ParticleData particleData) {
+
+        ParticleInfluencer[] influencers = slotInfluencers;
+        int[] slots = influencerSlots;
+
+        for (int i = 0; i < influencers.length; i++) {
+            influencers[i].reset(this, particleData, slots[i]);
+        }
+    }
+
+    /**
+     * Updates particles which are packed in the range [0, activeParticleCount).
+     *
+     * @param tpf the time per frame.
+     */
+    protected void updatePackedParticles(float tpf) {
+
+        boolean[] active = particleStore.active;
+
+        updatingParticles = true;
+        try {
+
+            if (isNeedParallelUpdate()) {
+                updateParticlesInParallel(tpf);
+            } else {
+                updateActiveParticles(particleData, 0, activeParticleCount, tpf);
+            }
+
+            // we go from the end to swap already updated particles into the places of dead particles
+            for (int i = activeParticleCount - 1; i >= 0; i--) {
+                if (!active[i]) {
+                    releaseParticle(i);
+                }
+            }
+
+        } finally {
+            updatingParticles = false;
+        }
+    }
+
+    /**
+     * Updates particles which are kept as a FIFO ring. The oldest particles are expired from the start of the ring
+     * while their life is ending, all other particles are known to outlive this frame.
+     *
+     * @param tpf the time per frame.
+     */
+    protected void updateRingParticles(float tpf) {
+
+        float[] life = particleStore.life;
+
+        while (activeParticleCount > 0 && life[activeParticleStart] <= tpf) {
+            life[activeParticleStart] -= tpf;
+            resetParticle(activeParticleStart);
+        }
+
+        updatingParticles = true;
+        try {
+
+            if (isNeedParallelUpdate()) {
+                updateParticlesInParallel(tpf);
+            } else {
+                updateActiveParticles(particleData, 0, activeParticleCount, tpf);
+            }
+
+        } finally {
+            updatingParticles = false;
+        }
+
+        if (ringBroken) {
+            breakRingLayout();
+        }
+    }
+
+    /**
+     * Updates the active particles in the range [from, to) of positions from the first active particle, the range
+     * is split to one or two ranges of the store when the active particles are wrapped around the end of the store.
+     *
+     * @param particleData the cursor to update particles.
+     * @param from         the first position (inclusive).
+     * @param to           the last position (exclusive).
+     * @param tpf          the time per frame.
+     */
+    protected void updateActiveParticles(@NotNull ParticleData particleData, int from, int to, float tpf) {
+
+        int first = getActiveParticleIndex(from);
+        int length = to - from;
+        int tail = Math.min(length, particleStore.getCapacity() - first);
+
+        updateParticles(particleData, first, first + tail, tpf);
+
+        if (tail < length) {
+            updateParticles(particleData, 0, length - tail, tpf);
+        }
+    }
+
+    /**
+     * Updates the active particles in the range [from, to) of the store. Every step is done for the whole range
+     * at once: updating life of particles, updating influencers and updating positions. Influencers which implement
+     * {@link BatchParticleInfluencer} update the whole range by one call, other influencers are updated for every
+     * particle. The dead particles are only deactivated and should be compacted by the caller.
+     *
+     * @param particleData the cursor to update particles.
+     * @param from         the first index (inclusive).
+     * @param to           the last index (exclusive).
+     * @param tpf          the time per frame.
+     */
+    protected void updateParticles(@NotNull ParticleData particleData, int from, int to, float tpf) {
+
+        ParticleStore store = particleData.getStore();
+        boolean[] active = store.active;
+
+        if (!staticParticles) {
+            updateParticlesLife(particleData, from, to, tpf);
+        }
+
+        ParticleInfluencer[] influencers = slotInfluencers;
+        int[] slots = influencerSlots;
+
+        for (int n = 0; n < influencers.length; n++) {
+
+            ParticleInfluencer influencer = influencers[n];
+            int dataId = slots[n];
+
+            if (!isInfluencerUpdated(influencer)) {
+                continue;
+            } else if (influencer instanceof BatchParticleInfluencer) {
+                ((BatchParticleInfluencer) influencer)
+                    .updateBatch(this, store, particleData.getTempVars(), dataId, from, to, tpf);
+                continue;
+            }
+
+            for (int i = from; i < to; i++) {
+                if (active[i]) {
+                    particleData.index = i;
+                    influencer.update(this, particleData, dataId, tpf);
+                }
+            }
+        }
+
+        float[] posX = store.posX;
+        float[] posY = store.posY;
+        float[] posZ = store.posZ;
+        float[] velX = store.velX;
+        float[] velY = store.velY;
+        float[] velZ = store.velZ;
+
+        for (int i = from; i < to; i++) {
+            if (active[i]) {
+                posX[i] += velX[i] * tpf;
+                posY[i] += velY[i] * tpf;
+                posZ[i] += velZ[i] * tpf;
+            }
+        }
+
+        if (staticParticles) {
+            for (int i = from; i < to; i++) {
+                if (active[i]) {
+                    particleData.index = i;
+                    particleData.updateStaticPosition(this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates life and blend values of the active particles in the range [from, to) of the store, the particles
+     * which reach the end of their life are reset. The ring layout expires its particles before the update, so the
+     * end of life isn't checked for the ring.
+     *
+     * @param particleData the cursor to reset particles.
+     * @param from         the first index (inclusive).
+     * @param to           the last index (exclusive).
+     * @param tpf          the time per frame.
+     */
+    protected void updateParticlesLife(@NotNull ParticleData particleData, int from, int to, float tpf) {
+
+        ParticleStore store = particleData.getStore();
+        Interpolation interpolation = getInterpolation();
+
+        boolean[] active = store.active;
+        float[] life = store.life;
+        float[] startLife = store.startLife;
+        float[] blend = store.blend;
+        float[] interpBlend = store.interpBlend;
+
+        // the loop is unswitched by this flag, so the ring doesn't pay for the check of every particle
+        boolean expiring = !ringLayout;
+
+        for (int i = from; i < to; i++) {
+
+            if (!active[i]) {
+                continue;
+            }
+
+            float currentLife = life[i] - tpf;
+            life[i] = currentLife;
+
+            if (expiring && currentLife <= 0) {
+                particleData.index = i;
+                particleData.reset(this);
+                continue;
+            }
+
+            float currentBlend = (startLife[i] - currentLife) / startLife[i];
+
+            blend[i] = currentBlend;
+            interpBlend[i] = interpolation.apply(currentBlend);
+        }
+    }
+
+    /**
+     * Returns true if the active particles should be updated in parallel.
+     *
+     * @return true if the active particles should be updated in parallel.
+     */
+    protected boolean isNeedParallelUpdate() {
+
+        if (!parallelUpdate || activeParticleCount <= parallelChunkSize) {
+            return false;
+        }
+
+        return isBackgroundUpdateSupported();
+    }
+
+    /**
+     * Updates the active particles by chunks in the parallel pool, the dead particles are only deactivated and
+     * should be compacted by the caller.
+     *
+     * @param tpf the time per frame.
+     */
+    protected void updateParticlesInParallel(float tpf) {
+
+        int chunkSize = parallelChunkSize;
+        int chunks = (activeParticleCount + chunkSize - 1) / chunkSize;
+
+        if (parallelCursors.length < chunks) {
+
+            ParticleData[] cursors = Arrays.copyOf(parallelCursors, chunks);
+
+            for (int i = parallelCursors.length; i < chunks; i++) {
+                cursors[i] = new ParticleData(particleStore);
+            }
+
+            parallelCursors = cursors;
+        }
+
+        UpdateParticlesTask task = new UpdateParticlesTask(this, tpf, 0, chunks);
+
+        if (ForkJoinTask.inForkJoinPool()) {
+            task.invoke();
+        } else {
+            PARALLEL_POOL.invoke(task);
+        }
+    }
+
+    /**
+     * Updates a chunk of the active particles, can be called from several threads at the same time for different
+     * chunks.
+     *
+     * @param chunk the chunk's index.
+     * @param tpf   the time per frame.
+     */
+    protected void updateParticlesChunk(int chunk, float tpf) {
+
+        int from = chunk * parallelChunkSize;
+        int to = Math.min(from + parallelChunkSize, activeParticleCount);
+
+        updateActiveParticles(parallelCursors[chunk], from, to, tpf);
+    }
+
+    /**
+     * The task to update a range of chunks of the active particles.
+     */
+    private static final class UpdateParticlesTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The emitter node.
+         */
+        @NotNull
+        private final ParticleEmitterNode emitterNode;
+
+        /**
+         * The time per frame.
+         */
+        private final float tpf;
+
+        /**
+         * The range of chunks [from, to).
+         */
+        private final int from;
+        private final int to;
+
+        private UpdateParticlesTask(@NotNull ParticleEmitterNode emitterNode, float tpf, int from, int to) {
+            this.emitterNode = emitterNode;
+            this.tpf = tpf;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from == 1) {
+                emitterNode.updateParticlesChunk(from, tpf);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+
+            invokeAll(new UpdateParticlesTask(emitterNode, tpf, from, middle),
+                    new UpdateParticlesTask(emitterNode, tpf, middle, to));
+        }
+    }
+
+    /**
+     * The task to simulate particles of an emitter in a background thread.
+     */
+    private static final class SimulationTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The emitter node.
+         */
+        @NotNull
+        private final ParticleEmitterNode emitterNode;
+
+        /**
+         * The time per frame.
+         */
+        private final float tpf;
+
+        private SimulationTask(@NotNull ParticleEmitterNode emitterNode, float tpf) {
+            this.emitterNode = emitterNode;
+            this.tpf = tpf;
+        }
+
+        @Override
+        protected void compute() {
+            emitterNode.runAsyncSimulation(tpf);
+        }
+    }
+
+    /**
+     * Chooses the layout of particles according to the current settings of this emitter.
+     */
+    protected void updateParticlesLayout() {
+
+        boolean needRing = lifeMin == lifeMax && !staticParticles;
+
+        if (ringDisabled) {
+            if (activeParticleCount > 0) {
+                needRing = false;
+            } else {
+                ringDisabled = false;
+            }
+        }
+
+        if (needRing == ringLayout) {
+            return;
+        }
+
+        if (needRing) {
+            useRingLayout();
+        } else {
+            usePackedLayout();
+        }
+    }
+
+    /**
+     * Switches to the packed layout because a particle was killed out of the FIFO order, the packed layout is kept
+     * until there are no active particles to not switch layouts back and forth.
+     */
+    protected void breakRingLayout() {
+        usePackedLayout();
+        ringDisabled = true;
+    }
+
+    /**
+     * Moves active particles to the range [0, activeParticleCount) keeping their order and stops using the ring
+     * layout. Particles which were killed out of the FIFO order are released here as well. Particles are moved in
+     * place without allocating.
+     */
+    protected void usePackedLayout() {
+
+        ParticleStore store = this.particleStore;
+
+        boolean[] active = store.active;
+        int capacity = store.getCapacity();
+        int start = activeParticleStart;
+        int count = 0;
+
+        // the active particles are moved to the first positions of the ring
+        for (int n = 0, i = start; n < activeParticleCount; n++, i++) {
+
+            if (i == capacity) {
+                i = 0;
+            }
+
+            if (!active[i]) {
+                continue;
+            }
+
+            int target = start + count < capacity ? start + count : start + count - capacity;
+
+            if (target != i) {
+                store.swap(i, target);
+            }
+
+            count++;
+        }
+
+        // the ring is rotated to start from 0
+        if (start != 0 && count > 0) {
+            int end = start + count > capacity ? capacity : start + count;
+            store.reverse(0, start);
+            store.reverse(start, end);
+            store.reverse(0, end);
+        }
+
+        activeParticleCount = count;
+        activeParticleStart = 0;
+        ringLayout = false;
+        ringBroken = false;
+    }
+
+    /**
+     * Sorts active particles by their remaining life in place and starts using the ring layout.
+     */
+    protected void useRingLayout() {
+        sortParticlesByLife();
+        activeParticleStart = 0;
+        ringLayout = true;
+        ringBroken = false;
+    }
+
+    /**
+     * Sorts the particles in the range [0, activeParticleCount) by their remaining life in place, the particle with
+     * the least remaining life goes first.
+     */
+    protected void sortParticlesByLife() {
+
+        ParticleStore store = this.particleStore;
+        float[] life = store.life;
+        int count = activeParticleCount;
+
+        boolean sorted = true;
+
+        for (int i = 1; i < count && sorted; i++) {
+            sorted = life[i - 1] <= life[i];
+        }
+
+        // particles which are already in the FIFO order keep their order
+        if (!sorted) {
+
+            // heap sort to not allocate, the particle with the max life goes to the end on every step
+            for (int i = count / 2 - 1; i >= 0; i--) {
+                siftDown(store, life, i, count);
+            }
+
+            for (int end = count - 1; end > 0; end--) {
+                store.swap(0, end);
+                siftDown(store, life, 0, end);
+            }
+        }
+    }
+
+    /**
+     * Moves the particle down the max heap of particles by their remaining life.
+     *
+     * @param store the particles store.
+     * @param life  the column of remaining life.
+     * @param index the index of the particle.
+     * @param size  the size of the heap.
+     */
+    private static void siftDown(@NotNull ParticleStore store, @NotNull float[] life, int index, int size) {
+
+        while (true) {
+
+            int child = index * 2 + 1;
+
+            if (child >= size) {
+                return;
+            } else if (child + 1 < size && life[child + 1] > life[child]) {
+                child++;
+            }
+
+            if (life[index] >= life[child]) {
+                return;
+            }
+
+            store.swap(index, child);
+            index = child;
+        }
+    }
+
+    /**
+     * Gets the index of the first active particle. Active particles take {@link #getActiveParticleCount()} slots of
+     * the store from this index, wrapping around the end of the store.
+     *
+     * @return the index of the first active particle.
+     */
+    public int getActiveParticleStart() {
+        return activeParticleStart;
+    }
+
+    /**
+     * Gets the store's index of the n-th active particle.
+     *
+     * @param n the number of the active particle.
+     * @return the index in the store.
+     */
+    protected int getActiveParticleIndex(int n) {
+
+        int index = activeParticleStart + n;
+        int capacity = particleStore.getCapacity();
+
+        return index >= capacity ? index - capacity : index;
+    }
+
+    protected int calcParticlesPerEmission() {
+        return (int) (currentInterval / getEmissionInterval() * particlesPerEmission);
+    }
+
+    /**
+     * Emits the next available (non-active) particle.
+     */
+    public void emitNextParticle() {
+
+        waitForSimulation();
+
+        if (activeParticleCount < getParticleLimit()) {
+            spawnBatch(1);
+        }
+    }
+
+    /**
+     * Emits all non-active particles.
+     */
+    public void emitAllParticles() {
+        spawnBatch(particleStore.getCapacity());
+    }
+
+    /**
+     * Emits the specified number of particles.
+     *
+     * @param count the number of particles to emit.
+     */
+    public void emitNumParticles(int count) {
+        spawnBatch(count);
+    }
+
+    /**
+     * Emits the specified number of particles by one batch, it's much faster than emitting particles one by one for
+     * big bursts.
+     *
+     * @param count the number of particles to emit.
+     * @return the number of emitted particles which is limited by non-active particles.
+     */
+    public int spawnBatch(int count) {
+        waitForSimulation();
+        updateInfluencerSlots();
+
+        int spawned = spawnParticles(count);
+
+        requireUpdate();
+
+        return spawned;
+    }
+
+    /**
+     * Spawns the particles by steps for the whole batch: the own state of all particles is initialized by one pass
+     * over the emitter shape, then every influencer initializes all particles, then the positions are finished.
+     *
+     * @param count the number of particles to spawn.
+     * @return the number of spawned particles.
+     */
+    protected int spawnParticles(int count) {
+
+        ParticleStore store = this.particleStore;
+        int capacity = store.getCapacity();
+
+        count = Math.min(count, capacity - activeParticleCount);
+
+        if (count < 1) {
+            return 0;
+        }
+
+        if (spawnDirections.length < count * 3) {
+            spawnDirections = new float[Math.max(count, capacity) * 3];
+        }
+
+        ParticleData particleData = this.particleData;
+        Vector3f direction = this.spawnDirection;
+        float[] directions = this.spawnDirections;
+
+        int current = particleData.index;
+        int first = getActiveParticleIndex(activeParticleCount);
+
+        for (int n = 0, index = first; n < count; n++, index++) {
+
+            if (index == capacity) {
+                index = 0;
+            }
+
+            particleData.index = index;
+            particleData.spawn(this, direction);
+
+            directions[n * 3] = direction.x;
+            directions[n * 3 + 1] = direction.y;
+            directions[n * 3 + 2] = direction.z;
+        }
+
+        ParticleInfluencer[] influencers = slotInfluencers;
+        int[] slots = influencerSlots;
+
+        for (int i = 0; i < influencers.length; i++) {
+
+            ParticleInfluencer influencer = influencers[i];
+
+            for (int n = 0, index = first; n < count; n++, index++) {
+
+                if (index == capacity) {
+                    index = 0;
+                }
+
+                particleData.index = index;
+                influencer.initialize(this, particleData, slots[i]);
+            }
+        }
+
+        for (int n = 0, index = first; n < count; n++, index++) {
+
+            if (index == capacity) {
+                index = 0;
+            }
+
+            particleData.index = index;
+            particleData.finishSpawn(direction.set(directions[n * 3], directions[n * 3 + 1], directions[n * 3 + 2]));
+        }
+
+        particleData.index = current;
+
+        return count;
+    }
+
+    /**
+     * Clears all current particles, setting them to inactive.
+     */
+    public void killAllParticles() {
+        waitForSimulation();
+        while (activeParticleCount > 0) {
+            resetParticle(getActiveParticleIndex(activeParticleCount - 1));
+        }
+        requireUpdate();
+    }
+
+    /**
+     * Deactivates and resets the specified particle.
+     *
+     * @param toKill the particle to reset.
+     */
+    public void killParticle(@NotNull ParticleData toKill) {
+        waitForSimulation();
+        if (toKill.getStore() == particleStore && toKill.isActive()) toKill.reset(this);
+        requireUpdate();
+    }
+
+    /**
+     * Returns the number of active particles.
+     *
+     * @return the active particle count.
+     */
+    public int getActiveParticleCount() {
+        return activeParticleCount;
+    }
+
+    /**
+     * Notify about a new particle was activated.
+     */
+    @Internal
+    public void notifyParticleActivated() {
+        activeParticleCount++;
+    }
+
+    /**
+     * Notify about a particle was deactivated.
+     *
+     * @param index the index of the deactivated particle.
+     */
+    @Internal
+    public void notifyParticleDeactivated(int index) {
+
+        if (updatingParticles) {
+            // the update loop will compact the particle itself
+            ringBroken = ringLayout;
+            return;
+        }
+
+        if (!ringLayout) {
+            releaseParticle(index);
+        } else if (index == activeParticleStart) {
+            activeParticleStart = activeParticleCount == 1 ? 0 : getActiveParticleIndex(1);
+            activeParticleCount--;
+        } else if (index == getActiveParticleIndex(activeParticleCount - 1)) {
+            activeParticleCount--;
+        } else {
+            breakRingLayout();
+        }
+    }
+
+    /**
+     * Releases the slot of the deactivated particle by moving the last active particle to its place.
+     *
+     * @param index the index of the deactivated particle.
+     */
+    protected void releaseParticle(int index) {
+
+        int last = --activeParticleCount;
+
+        if (index != last) {
+            particleStore.swap(index, last);
+        }
+    }
+
+    /**
+     * Deactivates and resets the specified particle.
+     *
+     * @param index the index of the particle to reset.
+     */
+    public void killParticle(int index) {
+        waitForSimulation();
+        if (particleStore.active[index]) {
+            resetParticle(index);
+        }
+        requireUpdate();
+    }
+
+    /**
+     * Initializes the particle by the index without moving the current cursor.
+     *
+     * @param index the particle's index.
+     */
+    protected void initializeParticle(int index) {
+        ParticleData particleData = this.particleData;
+        int current = particleData.index;
+        particleData.index = index;
+        particleData.initialize(this);
+        particleData.index = current;
+    }
+
+    /**
+     * Resets the particle by the index without moving the current cursor.
+     *
+     * @param index the particle's index.
+     */
+    protected void resetParticle(int index) {
+        ParticleData particleData = this.particleData;
+        int current = particleData.index;
+        particleData.index = index;
+        particleData.reset(this);
+        particleData.index = current;
+    }
+
+    /**
+     * Gets the store of particles state.
+     *
+     * @return the store of particles state.
+     */
+    public @NotNull ParticleStore getParticleStore() {
+        return particleStore;
+    }
+
+    /**
+     * Resets all particle data and the current emission interval.
+     */
+    public void reset() {
+        killAllParticles();
+        resetInterval();
+        emittedTime = 0;
+        rendered = true;
+        requireUpdate();
+    }
+
+    /**
+     * Resets the current emission interval.
+     */
+    public void resetInterval() {
+        currentInterval = targetInterval;
+    }
+    
+    /**
+     * Gets if the emitter is alive (it is still emitting particles) or
+     * if it has already ended (reached it max life).
+     *
+     * @return if the emitter is currently alive.
+     */
+    public boolean isAlive() {
+        return emitterLife == 0F || emittedTime < emitterLife;
+    }
+
+    /**
+     * Sets the particle data size. It's an initial size of particle's data arrays.
+     *
+     * @return the particle data size.
+     */
+    public int getParticleDataSize() {
+        return particleDataSize;
+    }
+
+    /**
+     * Gets the particle data size. It's an initial size of particle's data arrays.
+     *
+     * @param particleDataSize the particle data size.
+     */
+    public void setParticleDataSize(int particleDataSize) {
+        this.particleDataSize = particleDataSize;
+    }
+
+    @Override
+    public void runControlRender(@NotNull RenderManager renderManager, @NotNull ViewPort viewPort) {
+        super.runControlRender(renderManager, viewPort);
+
+        // this method is called only for emitters which passed the frustum culling
+        rendered = true;
+
+        if (!isEmitterInitialized() || ((!isEnabled() || dormant) && !requiresUpdate)) {
+            return;
+        }
+
+        Camera camera = viewPort.getCamera();
+        ParticleDataMesh particleDataMesh = getParticleDataMesh();
+
+        if (emitterLod != null) {
+
+            float distance = camera.getLocation().distance(getWorldTranslation());
+
+            if (!lodDistanceMeasured || distance < lodDistance) {
+                lodDistance = distance;
+                lodDistanceMeasured = true;
+            }
+        }
+        Material material = getMaterial();
+
+        if (particleDataMesh.getClass() == ParticleDataPointMesh.class) {
+
+            float c = camera.getProjectionMatrix().m00;
+            c *= camera.getWidth() * 0.5f;
+
+            // send attenuation params
+            material.setFloat(ParticlesMaterial.PROP_QUADRATIC, c);
+        }
+
+        updateInstancing(material, particleDataMesh);
+
+        ParticleSnapshot snapshot = renderSnapshot;
+
+        if (!asyncFrame) {
+            snapshot.view(particleStore, activeParticleStart, activeParticleCount, interpolationAlpha);
+        }
+
+        particleDataMesh.updateParticleData(snapshot, camera, inverseRotation);
+
+        // the next frame shouldn't see particles in the middle of the simulation
+        waitForSimulation();
+
+        if (requiresUpdate) {
+            requiresUpdate = false;
+            postRequiresUpdate = true;
+        }
+    }
+
+    /**
+     * Draws the instanced particles data mesh by the instanced geometry which passes the count of particles to the
+     * renderer, the particles geometry keeps the mesh, but it's culled while the instanced geometry is used.
+     */
+    protected void updateInstancedGeometry() {
+
+        ParticleDataMesh particleDataMesh = this.particleDataMesh;
+
+        if (particleDataMesh instanceof ParticleDataInstancedMesh) {
+
+            if (particleInstancedGeometry == null) {
+                particleInstancedGeometry = new ParticleInstancedGeometry("Particle Instanced Geometry");
+                particleNode.attachChild(particleInstancedGeometry);
+            }
+
+            particleInstancedGeometry.setMesh(particleDataMesh);
+
+            if (material != null) {
+                particleInstancedGeometry.setMaterial(material);
+            }
+
+            particleGeometry.setCullHint(CullHint.Always);
+
+        } else if (particleInstancedGeometry != null) {
+            particleNode.detachChild(particleInstancedGeometry);
+            particleInstancedGeometry = null;
+            particleGeometry.setCullHint(CullHint.Inherit);
+        }
+    }
+
+    /**
+     * Enables the define of instancing in the material if it's supported by the material and the particles data mesh
+     * is instanced.
+     *
+     * @param material         the material.
+     * @param particleDataMesh the particles data mesh.
+     */
+    protected void updateInstancing(@NotNull Material material, @NotNull ParticleDataMesh particleDataMesh) {
+
+        String name = ParticlesMaterial.PROP_INSTANCING;
+
+        if (material.getMaterialDef().getMaterialParam(name) == null) {
+            return;
+        }
+
+        boolean instancing = particleDataMesh instanceof ParticleDataInstancedMesh;
+
+        if (instancing == (material.getParam(name) != null)) {
+            return;
+        }
+
+        if (instancing) {
+            material.setBoolean(name, true);
+        } else {
+            material.clearParam(name);
+        }
+    }
+
+    @Override
+    public void write(@NotNull JmeExporter exporter) throws IOException {
+        waitForSimulation();
+
+        int childIndex = getChildIndex(particleNode);
+        int testIndex = emitterTestNode == null ? -1 : getChildIndex(emitterTestNode);
+
+        detachChild(particleNode);
+
+        if (testIndex != -1) {
+            detachChild(emitterTestNode);
+        }
+
+        super.write(exporter);
+
+        attachChildAt(particleNode, childIndex);
+
+        if (testIndex != -1) {
+            attachChildAt(emitterTestNode, testIndex);
+        }
+
+        OutputCapsule capsule = exporter.getCapsule(this);
+
+        capsule.write(influencers.toArray(new ParticleInfluencer[influencers.size()]), "influencers", EMPTY_INFLUENCERS);
+        capsule.write(enabled, "enabled", true);
+
+        // EMITTER
         capsule.write(emitterShape, "emitterShape", null);
         capsule.write(emissionsPerSecond, "emissionsPerSecond", 0);
         capsule.write(particlesPerEmission, "particlesPerEmission", 0);
         capsule.write(staticParticles, "staticParticles", false);
+        capsule.write(parallelUpdate, "parallelUpdate", false);
+        capsule.write(asyncUpdate, "asyncUpdate", false);
+        capsule.write(emitterLod, "emitterLod", null);
+        capsule.write(offscreenMode.ordinal(), "offscreenMode", 0);
+        capsule.write(maxCatchUpTime, "maxCatchUpTime", DEFAULT_MAX_CATCH_UP_TIME);
+        capsule.write(catchUpStep, "catchUpStep", DEFAULT_CATCH_UP_STEP);
+        // the flag tells the seed 0 apart from emitters which were saved before seeding
+        capsule.write(true, "randomSeeded", false);
+        capsule.write(randomSeed, "randomSeed", 0L);
+        capsule.write(spawnCounter, "spawnCounter", 0L);
+        capsule.write(persistParticles, "persistParticles", false);
+        capsule.write(autoSleep, "autoSleep", false);
+        capsule.write(getEventCapacity(), "eventCapacity", 0);
+
+        if (persistParticles && activeParticleCount > 0) {
+            capsule.write(particleStore, "particleStore", null);
+            capsule.write(activeParticleStart, "activeParticleStart", 0);
+            capsule.write(activeParticleCount, "activeParticleCount", 0);
+            capsule.write(emittedTime, "emittedTime", 0F);
+            capsule.write(currentInterval, "currentInterval", 0F);
+        }
+        capsule.write(parallelChunkSize, "parallelChunkSize", DEFAULT_PARALLEL_CHUNK_SIZE);
+        capsule.write(fixedTimeStep, "fixedTimeStep", 0F);
+        capsule.write(maxSubSteps, "maxSubSteps", DEFAULT_MAX_SUB_STEPS);
         capsule.write(randomEmissionPoint, "randomEmissionPoint", false);
         capsule.write(sequentialEmissionFace, "sequentialEmissionFace", false);
         capsule.write(sequentialSkipPattern, "sequentialSkipPattern", false);
+        capsule.write(areaWeightedEmission, "areaWeightedEmission", false);
         capsule.write(velocityStretching, "velocityStretching", false);
         capsule.write(velocityStretchFactor, "velocityStretchFactor", 0);
         capsule.write(stretchAxis.ordinal(), "stretchAxis", 0);
@@ -2424,7 +4806,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
         setEnabled(capsule.readBoolean("enabled", true));
 
         // EMITTER
-        emitterShape = (EmitterMesh) capsule.readSavable("emitterShape", null);
+        emitterShape = (EmitterShape) capsule.readSavable("emitterShape", null);
         emitterShape.setEmitterNode(this);
         try {
             setEmissionsPerSecond(capsule.readFloat("emissionsPerSecond", 0F));
@@ -2435,9 +4817,39 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
 
         setParticlesPerEmission(capsule.readInt("particlesPerEmission", 0));
         setStaticParticles(capsule.readBoolean("staticParticles", false));
+        setParallelUpdate(capsule.readBoolean("parallelUpdate", false));
+        setAsyncUpdate(capsule.readBoolean("asyncUpdate", false));
+        setEmitterLod((EmitterLod) capsule.readSavable("emitterLod", null));
+        setOffscreenMode(OffscreenMode.valueOf(capsule.readInt("offscreenMode", 0)));
+        setMaxCatchUpTime(capsule.readFloat("maxCatchUpTime", DEFAULT_MAX_CATCH_UP_TIME));
+        setCatchUpStep(capsule.readFloat("catchUpStep", DEFAULT_CATCH_UP_STEP));
+
+        if (capsule.readBoolean("randomSeeded", false)) {
+            setRandomSeed(capsule.readLong("randomSeed", 0L));
+        } else {
+            setRandomSeed(RandomUtils.newSeed());
+        }
+
+        spawnCounter = capsule.readLong("spawnCounter", 0L);
+        setPersistParticles(capsule.readBoolean("persistParticles", false));
+        setAutoSleep(capsule.readBoolean("autoSleep", false));
+        setEventCapacity(capsule.readInt("eventCapacity", 0));
+
+        savedParticles = (ParticleStore) capsule.readSavable("particleStore", null);
+
+        if (savedParticles != null) {
+            savedParticleStart = capsule.readInt("activeParticleStart", 0);
+            savedParticleCount = capsule.readInt("activeParticleCount", 0);
+            emittedTime = capsule.readFloat("emittedTime", 0F);
+            currentInterval = capsule.readFloat("currentInterval", 0F);
+        }
+        setParallelChunkSize(capsule.readInt("parallelChunkSize", DEFAULT_PARALLEL_CHUNK_SIZE));
+        setFixedTimeStep(capsule.readFloat("fixedTimeStep", 0F));
+        setMaxSubSteps(capsule.readInt("maxSubSteps", DEFAULT_MAX_SUB_STEPS));
         setRandomEmissionPoint(capsule.readBoolean("randomEmissionPoint", false));
         setSequentialEmissionFace(capsule.readBoolean("sequentialEmissionFace", false));
         setSequentialSkipPattern(capsule.readBoolean("sequentialSkipPattern", false));
+        setAreaWeightedEmission(capsule.readBoolean("areaWeightedEmission", false));
         setVelocityStretching(capsule.readBoolean("velocityStretching", false));
         setVelocityStretchFactor(capsule.readFloat("velocityStretchFactor", 0F));
         setForcedStretchAxis(ForcedStretchAxis.valueOf(capsule.readInt("stretchAxis", ForcedStretchAxis.X.ordinal())));
@@ -2488,6 +4900,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
 
     @Override
     public @NotNull ParticleEmitterNode jmeClone() {
+        waitForSimulation();
         return (ParticleEmitterNode) super.jmeClone();
     }
 
@@ -2502,20 +4915,49 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
         super.cloneFields(cloner, original);
 
         influencers = cloner.clone(influencers);
+        influencerSlots = influencerSlots.clone();
 
         for (int i = 0; i < influencers.size(); i++) {
             influencers.set(i, cloner.clone(influencers.get(i)));
         }
 
+        // the chain could be changed directly after the last update of data ids
+        ParticleInfluencer<?>[] previous = slotInfluencers;
+        slotInfluencers = new ParticleInfluencer<?>[previous.length];
+
+        for (int i = 0; i < previous.length; i++) {
+            slotInfluencers[i] = cloner.clone(previous[i]);
+        }
+
         emitterShape = cloner.clone(emitterShape);
         emitterShapeTestGeometry = null;
         emitterTestNode = null;
 
-        ParticleData[] old = particles;
-        particles = cloner.clone(particles);
+        particleStore = cloner.clone(particleStore);
+        particleData = new ParticleData(particleStore);
+        parallelCursors = EMPTY_PARTICLE_DATA;
+        publishedSnapshot = new AtomicReference<>(new ParticleSnapshot());
+        simulationSnapshot = new ParticleSnapshot();
+        renderSnapshot = new ParticleSnapshot();
+        simulationTranslation = simulationTranslation.clone();
+        rendered = true;
+        simulationRotation = simulationRotation.clone();
+        simulationScale = simulationScale.clone();
+        asyncFrame = false;
+        simulationTask = null;
+        simulationThread = null;
+        systemManager = null;
+        emitterLod = cloner.clone(emitterLod);
+        spawnDirections = new float[0];
+        spawnDirection = new Vector3f();
+        // the clone continues the random streams of the original, reseeding is left to the user
+        random = random.copy();
+        eventBuffer = eventBuffer == null ? null : new ParticleEventBuffer(eventBuffer.getCapacity());
+        eventListeners = new SafeArrayList<>(ParticleEventListener.class);
 
         ParticleGeometry oldGeometry = particleGeometry;
         particleGeometry = cloner.clone(particleGeometry);
+        particleInstancedGeometry = cloner.clone(particleInstancedGeometry);
         particleNode = cloner.clone(particleNode);
 
         particleTestGeometry = null;
@@ -2539,6 +4981,9 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
         ParticleDataMesh dataMesh = getParticleDataMesh();
         dataMesh.initialize(this, maxParticles);
         dataMesh.setImagesXY(getSpriteColCount(), getSpriteRowCount());
+
+        // the instanced geometry could share the mesh of the original emitter after shallow cloning
+        updateInstancedGeometry();
     }
 
     @Override
@@ -2554,6 +4999,7 @@ public class ParticleEmitterNode extends Node implements JmeCloneable, Cloneable
     @Override
     protected void setTransformRefresh() {
         super.setTransformRefresh();
+        // the mesh and bounds are refreshed without waking a dormant emitter up
         requiresUpdate = true;
     }
 }
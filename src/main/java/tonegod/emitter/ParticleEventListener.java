@@ -0,0 +1,22 @@
+package tonegod.emitter;
+
+import org.jetbrains.annotations.NotNull;
+import tonegod.emitter.particle.ParticleEventBuffer;
+
+/**
+ * The interface for implementing listeners of lifecycle events of particles. The emitter node notifies its listeners
+ * once per frame in the update thread with all events which were written since the previous notification.
+ *
+ * @author JavaSaBr
+ */
+public interface ParticleEventListener {
+
+    /**
+     * Handles the events of the emitter node, the buffer is cleared after notifying all listeners so the events
+     * shouldn't be kept.
+     *
+     * @param emitterNode the emitter node.
+     * @param events      the buffer with the events.
+     */
+    void onParticleEvents(@NotNull ParticleEmitterNode emitterNode, @NotNull ParticleEventBuffer events);
+}
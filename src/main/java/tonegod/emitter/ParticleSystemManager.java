@@ -0,0 +1,394 @@
+package tonegod.emitter;
+
+import com.jme3.app.Application;
+import com.jme3.app.state.BaseAppState;
+import com.jme3.util.SafeArrayList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The app state to update all registered emitters in one phase instead of updating every emitter during the scene
+ * graph traversal. Emitters which can be updated outside of the render thread are grouped by count of their active
+ * particles and the groups are updated by tasks of a shared {@link ForkJoinPool}. Meshes of emitters are still
+ * built per viewport in {@link ParticleEmitterNode#runControlRender(com.jme3.renderer.RenderManager,
+ * com.jme3.renderer.ViewPort)}, so culled emitters don't update their meshes. Registered emitters are updated even
+ * if they are detached from the scene, so they should be unregistered before.
+ *
+ * @author JavaSaBr
+ */
+public class ParticleSystemManager extends BaseAppState {
+
+    /**
+     * The default count of particles which are updated by one task.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 4096;
+
+    @NotNull
+    private static final ParticleEmitterNode[] EMPTY_EMITTERS = new ParticleEmitterNode[0];
+
+    /**
+     * The registered emitters.
+     */
+    @NotNull
+    private final SafeArrayList<ParticleEmitterNode> emitters;
+
+    /**
+     * The pool to update emitters.
+     */
+    @NotNull
+    private final ForkJoinPool pool;
+
+    /**
+     * The emitters to update in the pool in the current frame.
+     */
+    @NotNull
+    private ParticleEmitterNode[] backgroundEmitters;
+
+    /**
+     * The bounds of groups of background emitters, the group N is [bounds[N], bounds[N + 1]).
+     */
+    @NotNull
+    private int[] groupBounds;
+
+    /**
+     * The scale of the time of all emitters.
+     */
+    private float timeScale;
+
+    /**
+     * The count of particles which are updated by one task.
+     */
+    private int batchSize;
+
+    /**
+     * The flag of pausing all emitters.
+     */
+    private boolean paused;
+
+    /**
+     * The count of emitters which were updated in the last frame.
+     */
+    private int updatedEmitterCount;
+
+    /**
+     * The count of active particles of all emitters after the last frame.
+     */
+    private int activeParticleCount;
+
+    /**
+     * The time of the last update phase in nanoseconds.
+     */
+    private long updateTime;
+
+    public ParticleSystemManager() {
+        this.emitters = new SafeArrayList<>(ParticleEmitterNode.class);
+        this.pool = ParticleEmitterNode.PARALLEL_POOL;
+        this.backgroundEmitters = EMPTY_EMITTERS;
+        this.groupBounds = new int[2];
+        this.timeScale = 1F;
+        this.batchSize = DEFAULT_BATCH_SIZE;
+    }
+
+    /**
+     * Registers the emitter to be updated by this manager.
+     *
+     * @param emitterNode the emitter node.
+     */
+    public void register(@NotNull ParticleEmitterNode emitterNode) {
+
+        ParticleSystemManager current = emitterNode.getSystemManager();
+
+        if (current == this) {
+            return;
+        } else if (current != null) {
+            current.unregister(emitterNode);
+        }
+
+        emitterNode.setSystemManager(this);
+        emitters.add(emitterNode);
+    }
+
+    /**
+     * Unregisters the emitter, it will be updated during the scene graph traversal again.
+     *
+     * @param emitterNode the emitter node.
+     */
+    public void unregister(@NotNull ParticleEmitterNode emitterNode) {
+        if (emitters.remove(emitterNode)) {
+            emitterNode.setSystemManager(null);
+        }
+    }
+
+    /**
+     * Unregisters all emitters.
+     */
+    public void unregisterAll() {
+
+        for (ParticleEmitterNode emitterNode : emitters.getArray()) {
+            emitterNode.setSystemManager(null);
+        }
+
+        emitters.clear();
+    }
+
+    /**
+     * Gets the registered emitters.
+     *
+     * @return the registered emitters.
+     */
+    public @NotNull SafeArrayList<ParticleEmitterNode> getEmitters() {
+        return emitters;
+    }
+
+    /**
+     * Sets the scale of the time of all emitters.
+     *
+     * @param timeScale the scale of the time.
+     */
+    public void setTimeScale(float timeScale) {
+
+        if (timeScale < 0F) {
+            throw new IllegalArgumentException("The time scale " + timeScale + " can't be negative.");
+        }
+
+        this.timeScale = timeScale;
+    }
+
+    /**
+     * Gets the scale of the time of all emitters.
+     *
+     * @return the scale of the time.
+     */
+    public float getTimeScale() {
+        return timeScale;
+    }
+
+    /**
+     * Pauses or resumes all emitters.
+     *
+     * @param paused true to pause all emitters.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Returns true if all emitters are paused.
+     *
+     * @return true if all emitters are paused.
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Sets the count of particles which are updated by one task, emitters with less particles are grouped.
+     *
+     * @param batchSize the count of particles.
+     */
+    public void setBatchSize(int batchSize) {
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size " + batchSize + " should be positive.");
+        }
+
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the count of particles which are updated by one task.
+     *
+     * @return the count of particles.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Gets the count of registered emitters.
+     *
+     * @return the count of registered emitters.
+     */
+    public int getEmitterCount() {
+        return emitters.size();
+    }
+
+    /**
+     * Gets the count of emitters which were updated in the last frame.
+     *
+     * @return the count of updated emitters.
+     */
+    public int getUpdatedEmitterCount() {
+        return updatedEmitterCount;
+    }
+
+    /**
+     * Gets the count of active particles of all emitters after the last frame.
+     *
+     * @return the count of active particles.
+     */
+    public int getActiveParticleCount() {
+        return activeParticleCount;
+    }
+
+    /**
+     * Gets the time of the last update phase.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long getUpdateTime() {
+        return updateTime;
+    }
+
+    @Override
+    public void update(float tpf) {
+
+        if (paused) {
+            updatedEmitterCount = 0;
+            updateTime = 0;
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        float scaledTpf = tpf * timeScale;
+
+        ParticleEmitterNode[] array = emitters.getArray();
+
+        if (backgroundEmitters.length < array.length) {
+            backgroundEmitters = new ParticleEmitterNode[array.length];
+            groupBounds = new int[array.length + 1];
+        }
+
+        int updated = 0;
+        int background = 0;
+        int groups = 0;
+        int groupParticles = 0;
+
+        for (ParticleEmitterNode emitterNode : array) {
+
+            if (!emitterNode.prepareManagedUpdate()) {
+                continue;
+            }
+
+            updated++;
+
+            if (!emitterNode.isBackgroundUpdateSupported()) {
+                emitterNode.runManagedUpdate(scaledTpf);
+                continue;
+            }
+
+            backgroundEmitters[background++] = emitterNode;
+            groupParticles += emitterNode.getActiveParticleCount() + 1;
+
+            if (groupParticles >= batchSize) {
+                groupBounds[++groups] = background;
+                groupParticles = 0;
+            }
+        }
+
+        if (groupParticles > 0) {
+            groupBounds[++groups] = background;
+        }
+
+        if (groups == 1) {
+            for (int i = 0; i < background; i++) {
+                backgroundEmitters[i].runManagedUpdate(scaledTpf);
+            }
+        } else if (groups > 1) {
+            pool.invoke(new UpdateEmittersTask(backgroundEmitters, groupBounds, scaledTpf, 0, groups));
+        }
+
+        Arrays.fill(backgroundEmitters, 0, background, null);
+
+        int activeParticles = 0;
+
+        for (ParticleEmitterNode emitterNode : array) {
+            activeParticles += emitterNode.getActiveParticleCount();
+        }
+
+        this.updatedEmitterCount = updated;
+        this.activeParticleCount = activeParticles;
+        this.updateTime = System.nanoTime() - startTime;
+    }
+
+    @Override
+    protected void initialize(@NotNull Application app) {
+    }
+
+    @Override
+    protected void cleanup(@NotNull Application app) {
+        unregisterAll();
+    }
+
+    @Override
+    protected void onEnable() {
+    }
+
+    @Override
+    protected void onDisable() {
+    }
+
+    /**
+     * The task to update groups of emitters.
+     */
+    private static final class UpdateEmittersTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The emitters to update.
+         */
+        @NotNull
+        private final ParticleEmitterNode[] emitters;
+
+        /**
+         * The bounds of groups of emitters.
+         */
+        @NotNull
+        private final int[] bounds;
+
+        /**
+         * The time per frame.
+         */
+        private final float tpf;
+
+        /**
+         * The range of groups [from, to).
+         */
+        private final int from;
+        private final int to;
+
+        private UpdateEmittersTask(
+                @NotNull ParticleEmitterNode[] emitters,
+                @NotNull int[] bounds,
+                float tpf,
+                int from,
+                int to
+        ) {
+            this.emitters = emitters;
+            this.bounds = bounds;
+            this.tpf = tpf;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from == 1) {
+                for (int i = bounds[from], last = bounds[to]; i < last; i++) {
+                    emitters[i].runManagedUpdate(tpf);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+
+            invokeAll(new UpdateEmittersTask(emitters, bounds, tpf, from, middle),
+                    new UpdateEmittersTask(emitters, bounds, tpf, middle, to));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package tonegod.emitter;
+
+import com.jme3.math.Vector3f;
+import org.jetbrains.annotations.NotNull;
+import tonegod.emitter.particle.ParticleEventBuffer;
+import tonegod.emitter.particle.ParticleStore;
+
+/**
+ * The binding which spawns particles of a child emitter at places of lifecycle events of particles of a parent
+ * emitter, for example splashes where raindrops die or sparks where particles bounce. All events of a frame are
+ * handled by one batch spawn of the child emitter, the emitter shape of the child is used relative to the place of
+ * every event.
+ * <pre>
+ * parent.addEventListener(new SubEmitter(splashes, ParticleEventBuffer.EVENT_DEATH));
+ * </pre>
+ * The child emitter usually has 0 particles per emission to not emit particles itself. Only the position and the
+ * velocity which are stored in an event are used, the particle's index of the event can already refer to another
+ * particle of the parent emitter after swap-removing dead particles.
+ *
+ * @author JavaSaBr
+ */
+public class SubEmitter implements ParticleEventListener {
+
+    /**
+     * The child emitter to spawn particles.
+     */
+    @NotNull
+    private final ParticleEmitterNode emitterNode;
+
+    /**
+     * The position of the current event relative to the child emitter.
+     */
+    @NotNull
+    private final Vector3f position;
+
+    /**
+     * The inherited velocity of the current event.
+     */
+    @NotNull
+    private final Vector3f velocity;
+
+    /**
+     * The mask of types of handled events.
+     */
+    private int eventMask;
+
+    /**
+     * The count of particles to spawn per event.
+     */
+    private int particlesPerEvent;
+
+    /**
+     * The factor of the event's velocity which is added to velocities of spawned particles.
+     */
+    private float inheritVelocity;
+
+    /**
+     * Creates a binding which spawns one particle per event.
+     *
+     * @param emitterNode the child emitter.
+     * @param eventMask   the mask of types of handled events.
+     * @see ParticleEventBuffer#EVENT_DEATH
+     * @see ParticleEventBuffer#EVENT_KILL
+     * @see ParticleEventBuffer#EVENT_COLLISION
+     */
+    public SubEmitter(@NotNull ParticleEmitterNode emitterNode, int eventMask) {
+        this.emitterNode = emitterNode;
+        this.eventMask = eventMask;
+        this.particlesPerEvent = 1;
+        this.position = new Vector3f();
+        this.velocity = new Vector3f();
+    }
+
+    @Override
+    public void onParticleEvents(@NotNull ParticleEmitterNode source, @NotNull ParticleEventBuffer events) {
+
+        int size = events.size();
+        int eventMask = this.eventMask;
+        int matched = 0;
+
+        for (int n = 0; n < size; n++) {
+            if ((events.getType(n) & eventMask) != 0) {
+                matched++;
+            }
+        }
+
+        if (matched == 0) {
+            return;
+        }
+
+        ParticleEmitterNode emitterNode = this.emitterNode;
+        emitterNode.waitForSimulation();
+
+        int first = emitterNode.getActiveParticleCount();
+        int count = Math.min(matched * particlesPerEvent, emitterNode.getParticleLimit() - first);
+
+        if (count <= 0) {
+            return;
+        }
+
+        int spawned = emitterNode.spawnBatch(count);
+
+        ParticleStore store = emitterNode.getParticleStore();
+        Vector3f origin = emitterNode.getWorldTranslation();
+
+        for (int n = 0, k = 0; n < size && k < spawned; n++) {
+
+            if ((events.getType(n) & eventMask) == 0) {
+                continue;
+            }
+
+            events.getPosition(n, position).subtractLocal(origin);
+            events.getVelocity(n, velocity).multLocal(inheritVelocity);
+
+            for (int i = 0; i < particlesPerEvent && k < spawned; i++, k++) {
+
+                int index = emitterNode.getActiveParticleIndex(first + k);
+
+                store.posX[index] += position.x;
+                store.posY[index] += position.y;
+                store.posZ[index] += position.z;
+                store.prevPosX[index] = store.posX[index];
+                store.prevPosY[index] = store.posY[index];
+                store.prevPosZ[index] = store.posZ[index];
+                store.spawnX[index] += position.x;
+                store.spawnY[index] += position.y;
+                store.spawnZ[index] += position.z;
+                store.velX[index] += velocity.x;
+                store.velY[index] += velocity.y;
+                store.velZ[index] += velocity.z;
+            }
+        }
+    }
+
+    /**
+     * Gets the child emitter.
+     *
+     * @return the child emitter.
+     */
+    public @NotNull ParticleEmitterNode getEmitterNode() {
+        return emitterNode;
+    }
+
+    /**
+     * Sets the mask of types of handled events.
+     *
+     * @param eventMask the mask of types of handled events.
+     */
+    public void setEventMask(int eventMask) {
+        this.eventMask = eventMask;
+    }
+
+    /**
+     * Gets the mask of types of handled events.
+     *
+     * @return the mask of types of handled events.
+     */
+    public int getEventMask() {
+        return eventMask;
+    }
+
+    /**
+     * Sets the count of particles to spawn per event.
+     *
+     * @param particlesPerEvent the count of particles.
+     */
+    public void setParticlesPerEvent(int particlesPerEvent) {
+
+        if (particlesPerEvent < 1) {
+            throw new IllegalArgumentException("The count of particles " + particlesPerEvent + " should be positive.");
+        }
+
+        this.particlesPerEvent = particlesPerEvent;
+    }
+
+    /**
+     * Gets the count of particles to spawn per event.
+     *
+     * @return the count of particles.
+     */
+    public int getParticlesPerEvent() {
+        return particlesPerEvent;
+    }
+
+    /**
+     * Sets the factor of the event's velocity which is added to velocities of spawned particles.
+     *
+     * @param inheritVelocity the factor, 0 to not inherit velocity.
+     */
+    public void setInheritVelocity(float inheritVelocity) {
+        this.inheritVelocity = inheritVelocity;
+    }
+
+    /**
+     * Gets the factor of the event's velocity which is added to velocities of spawned particles.
+     *
+     * @return the factor.
+     */
+    public float getInheritVelocity() {
+        return inheritVelocity;
+    }
+}
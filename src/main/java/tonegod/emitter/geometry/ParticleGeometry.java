@@ -10,7 +10,8 @@ import org.jetbrains.annotations.NotNull;
 import tonegod.emitter.ParticleEmitterNode;
 
 /**
- * The implementation of the {@link Geometry} for using in the {@link ParticleEmitterNode}.
+ * The implementation of the {@link Geometry} for using in the {@link ParticleEmitterNode}. It's drawn as one
+ * instance, so the instanced particles data mesh is drawn by the {@link ParticleInstancedGeometry}.
  *
  * @author JavaSaBr
  */
@@ -0,0 +1,52 @@
+package tonegod.emitter.geometry;
+
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.instancing.InstancedGeometry;
+import org.jetbrains.annotations.NotNull;
+import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.particle.ParticleDataInstancedMesh;
+
+/**
+ * The implementation of the {@link InstancedGeometry} to draw the {@link ParticleDataInstancedMesh} in the
+ * {@link ParticleEmitterNode}. The renderer draws only one instance of plain geometries, so this geometry passes the
+ * instance count of its mesh. The per-instance buffers are kept in the mesh, so this geometry doesn't have own
+ * instances data and is bounded and transformed as a plain geometry.
+ *
+ * @author JavaSaBr
+ */
+public class ParticleInstancedGeometry extends InstancedGeometry {
+
+    private static final VertexBuffer[] EMPTY_INSTANCE_DATA = new VertexBuffer[0];
+
+    public ParticleInstancedGeometry() {
+        setIgnoreTransform(false);
+    }
+
+    public ParticleInstancedGeometry(@NotNull String name) {
+        super(name);
+        setIgnoreTransform(false);
+    }
+
+    @Override
+    public int getActualNumInstances() {
+        Mesh mesh = getMesh();
+        return mesh == null ? 0 : mesh.getInstanceCount();
+    }
+
+    @Override
+    public @NotNull VertexBuffer[] getAllInstanceData() {
+        return EMPTY_INSTANCE_DATA;
+    }
+
+    @Override
+    protected void updateWorldBound() {
+
+        refreshFlags &= ~RF_BOUND;
+
+        // the instanced geometry merges bounds of its instances, but particles are bounded by the mesh
+        if (mesh != null && mesh.getBound() != null) {
+            worldBound = mesh.getBound().transform(worldTransform, worldBound);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package tonegod.emitter.influencers;
+
+import org.jetbrains.annotations.NotNull;
+import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.particle.ParticleStore;
+import tonegod.emitter.particle.ParticleTempVars;
+
+/**
+ * The interface for implementing particle influencers which can update a range of particles at once. The emitter
+ * node calls {@link #updateBatch(ParticleEmitterNode, ParticleStore, ParticleTempVars, int, int, int, float)} instead of
+ * {@link #update(ParticleEmitterNode, tonegod.emitter.particle.ParticleData, int, float)} for every particle.
+ *
+ * @author JavaSaBr
+ */
+public interface BatchParticleInfluencer<D> extends ParticleInfluencer<D> {
+
+    /**
+     * Updates state of the active particles in the range [from, to) of the store from this influencer. The
+     * particles which are not active should be skipped, they could be killed by a previous influencer. The temp
+     * objects belong to the calling worker, so they shouldn't be kept between calls.
+     *
+     * @param emitterNode the particle emitter node.
+     * @param store       the particles store.
+     * @param vars        the temp objects of the worker.
+     * @param dataId      the influencer's data id.
+     * @param from        the first index of the range (inclusive).
+     * @param to          the last index of the range (exclusive).
+     * @param tpf         the time since last frame.
+     */
+    void updateBatch(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore store,
+            @NotNull ParticleTempVars vars,
+            int dataId,
+            int from,
+            int to,
+            float tpf
+    );
+}
@@ -0,0 +1,23 @@
+package tonegod.emitter.influencers;
+
+import org.jetbrains.annotations.NotNull;
+import tonegod.emitter.ParticleEmitterNode;
+
+/**
+ * The interface for implementing particle influencers which can be updated from several threads. The emitter node
+ * updates particles in parallel or in a background thread only when all its influencers implement this interface
+ * and support it with their current settings, other influencers are always updated from the render thread.
+ *
+ * @author JavaSaBr
+ */
+public interface ParallelParticleInfluencer<D> extends ParticleInfluencer<D> {
+
+    /**
+     * Returns true if this influencer can update different particles of the emitter from several threads at the
+     * same time with its current settings.
+     *
+     * @param emitterNode the particle emitter node.
+     * @return true if this influencer supports parallel updating.
+     */
+    boolean isParallelUpdateSupported(@NotNull ParticleEmitterNode emitterNode);
+}
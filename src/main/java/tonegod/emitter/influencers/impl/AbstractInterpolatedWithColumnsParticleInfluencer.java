@@ -0,0 +1,232 @@
+package tonegod.emitter.influencers.impl;
+
+import com.jme3.export.InputCapsule;
+import com.jme3.export.JmeExporter;
+import com.jme3.export.JmeImporter;
+import com.jme3.export.OutputCapsule;
+import com.jme3.util.SafeArrayList;
+import org.jetbrains.annotations.NotNull;
+import tonegod.emitter.influencers.InterpolatedParticleInfluencer;
+import tonegod.emitter.influencers.ParticleInfluencer;
+import tonegod.emitter.interpolation.Interpolation;
+import tonegod.emitter.interpolation.InterpolationManager;
+
+import java.io.IOException;
+
+/**
+ * The base implementation of the {@link InterpolatedParticleInfluencer} which keeps the current step of particles
+ * in the columns {@link #STEP}, {@link #INTERVAL} and {@link #DURATION} of the store instead of data objects, see
+ * {@link AbstractInterpolatedParticleInfluencer} for the implementation with {@link BaseInterpolationData} objects.
+ *
+ * @author JavaSaBr
+ */
+public abstract class AbstractInterpolatedWithColumnsParticleInfluencer
+    extends AbstractWithColumnsParticleInfluencer<Void> implements InterpolatedParticleInfluencer<Void> {
+
+    /**
+     * The int column of the current step of particles.
+     */
+    protected static final int STEP = 0;
+
+    /**
+     * The float column of the time spent in the current step.
+     */
+    protected static final int INTERVAL = 0;
+
+    /**
+     * The float column of the duration of a step.
+     */
+    protected static final int DURATION = 1;
+
+    /**
+     * The count of int columns of interpolation, subclasses add their own columns after them.
+     */
+    protected static final int INTERPOLATION_INT_COLUMNS = 1;
+
+    /**
+     * The count of float columns of interpolation, subclasses add their own columns after them.
+     */
+    protected static final int INTERPOLATION_FLOAT_COLUMNS = 2;
+
+    /**
+     * The list of interpolations.
+     */
+    @NotNull
+    private SafeArrayList<Interpolation> interpolations;
+
+    /**
+     * The fixed duration.
+     */
+    private float fixedDuration;
+
+    /**
+     * The flag of cycling changing.
+     */
+    private boolean cycle;
+
+    public AbstractInterpolatedWithColumnsParticleInfluencer() {
+        this.interpolations = new SafeArrayList<>(Interpolation.class);
+    }
+
+    @Override
+    protected int getFloatColumnCount() {
+        return INTERPOLATION_FLOAT_COLUMNS;
+    }
+
+    @Override
+    protected int getIntColumnCount() {
+        return INTERPOLATION_INT_COLUMNS;
+    }
+
+    /**
+     * Update the interpolation.
+     *
+     * @param steps     the column of current steps.
+     * @param intervals the column of intervals.
+     * @param durations the column of durations.
+     * @param index     the particle's index.
+     * @param stepCount the count of steps.
+     */
+    protected void updateInterpolation(
+            @NotNull int[] steps,
+            @NotNull float[] intervals,
+            @NotNull float[] durations,
+            int index,
+            int stepCount
+    ) {
+
+        int step = steps[index] + 1;
+
+        if (step >= stepCount) {
+            step = 0;
+        }
+
+        steps[index] = step;
+        intervals[index] -= durations[index];
+    }
+
+    @Override
+    public final int getStepCount() {
+        return interpolations.size();
+    }
+
+    /**
+     * Add a new interpolation to the list.
+     *
+     * @param interpolation the interpolation
+     */
+    protected final void addInterpolation(@NotNull Interpolation interpolation) {
+        interpolations.add(interpolation);
+    }
+
+    /**
+     * Remove the interpolation from the list.
+     *
+     * @param index the index
+     */
+    protected final void removeInterpolation(int index) {
+        interpolations.remove(index);
+    }
+
+    /**
+     * Remove all interpolations from the list.
+     */
+    protected final void clearInterpolations() {
+        interpolations.clear();
+    }
+
+    @Override
+    public final boolean isCycle() {
+        return cycle;
+    }
+
+    /**
+     * Sets cycle.
+     *
+     * @param cycle the flag of cycling changing.
+     */
+    protected final void setCycle(boolean cycle) {
+        this.cycle = cycle;
+    }
+
+    @Override
+    public final void setFixedDuration(float fixedDuration) {
+        if (fixedDuration != 0) {
+            this.cycle = true;
+            this.fixedDuration = fixedDuration;
+        } else {
+            this.cycle = false;
+            this.fixedDuration = 0;
+        }
+    }
+
+    /**
+     * Returns the current duration used between frames for cycled animation
+     */
+    public final float getFixedDuration() {
+        return fixedDuration;
+    }
+
+    @Override
+    public final @NotNull Interpolation getInterpolation(int index) throws RuntimeException {
+        if (index < 0 || index >= interpolations.size()) {
+            throw new RuntimeException("The index " + index + " isn't correct.");
+        }
+        return interpolations.get(index);
+    }
+
+    @Override
+    public final void updateInterpolation(@NotNull Interpolation interpolation, int index) throws RuntimeException {
+        if (index < 0 || index >= interpolations.size()) {
+            throw new RuntimeException("The index " + index + " isn't correct.");
+        }
+        interpolations.set(index, interpolation);
+    }
+
+    @Override
+    public final @NotNull SafeArrayList<Interpolation> getInterpolations() {
+        return interpolations;
+    }
+
+    @Override
+    public void write(@NotNull JmeExporter exporter) throws IOException {
+        super.write(exporter);
+
+        int[] interpolationIds = new int[interpolations.size()];
+
+        for (int i = 0; i < interpolations.size(); i++) {
+            interpolationIds[i] = InterpolationManager.getId(interpolations.get(i));
+        }
+
+        OutputCapsule capsule = exporter.getCapsule(this);
+        capsule.write(interpolationIds, "interpolations", null);
+        capsule.write(cycle, "cycle", false);
+        capsule.write(fixedDuration, "fixedDuration", 0.125f);
+    }
+
+    @Override
+    public void read(@NotNull JmeImporter importer) throws IOException {
+        super.read(importer);
+
+        InputCapsule capsule = importer.getCapsule(this);
+        int[] interpolationIds = capsule.readIntArray("interpolations", null);
+
+        for (int id : interpolationIds) {
+            interpolations.add(InterpolationManager.getInterpolation(id));
+        }
+
+        cycle = capsule.readBoolean("cycle", false);
+        fixedDuration = capsule.readFloat("fixedDuration", 0.125f);
+    }
+
+    @Override
+    public @NotNull ParticleInfluencer clone() {
+        AbstractInterpolatedWithColumnsParticleInfluencer clone =
+                (AbstractInterpolatedWithColumnsParticleInfluencer) super.clone();
+        clone.interpolations = new SafeArrayList<>(Interpolation.class);
+        clone.interpolations.addAll(interpolations);
+        clone.cycle = cycle;
+        clone.fixedDuration = fixedDuration;
+        return clone;
+    }
+}
@@ -6,6 +6,7 @@ import com.jme3.export.JmeImporter;
 import com.jme3.export.OutputCapsule;
 import org.jetbrains.annotations.NotNull;
 import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.influencers.ParallelParticleInfluencer;
 import tonegod.emitter.influencers.ParticleInfluencer;
 import tonegod.emitter.particle.ParticleData;
 
@@ -16,7 +17,7 @@ import java.io.IOException;
  *
  * @author JavaSaBr
  */
-public abstract class AbstractParticleInfluencer<D> implements ParticleInfluencer<D> {
+public abstract class AbstractParticleInfluencer<D> implements ParallelParticleInfluencer<D> {
 
     /**
      * The flag of enabling this influencer.
@@ -65,6 +66,15 @@ public abstract class AbstractParticleInfluencer<D> implements ParticleInfluence
     ) {
     }
 
+    /**
+     * Returns false by default, influencers which don't share any state between particles during updating should
+     * override it to allow parallel updating.
+     */
+    @Override
+    public boolean isParallelUpdateSupported(@NotNull ParticleEmitterNode emitterNode) {
+        return false;
+    }
+
     /**
      * Handle first initializing this influencer.
      *
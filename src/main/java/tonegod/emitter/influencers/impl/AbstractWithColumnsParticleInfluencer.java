@@ -0,0 +1,115 @@
+package tonegod.emitter.influencers.impl;
+
+import org.jetbrains.annotations.NotNull;
+import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.particle.ParticleData;
+
+/**
+ * The base class to implement a particle influencer which keeps its per-particle state in typed columns of the
+ * {@link tonegod.emitter.particle.ParticleStore}. The influencer declares the count of float and int columns which
+ * it needs and reads them by its data id from the store.
+ *
+ * @author JavaSaBr
+ */
+public abstract class AbstractWithColumnsParticleInfluencer<D> extends AbstractParticleInfluencer<D> {
+
+    @Override
+    public boolean isUsedDataObject() {
+        return false;
+    }
+
+    @Override
+    public void createData(@NotNull ParticleEmitterNode emitterNode, @NotNull ParticleData particleData, int dataId) {
+        super.createData(emitterNode, particleData, dataId);
+        particleData.getStore().reserveColumns(dataId, getFloatColumnCount(), getIntColumnCount());
+    }
+
+    /**
+     * Gets the count of float columns of per-particle state of this influencer.
+     *
+     * @return the count of float columns.
+     */
+    protected int getFloatColumnCount() {
+        return 0;
+    }
+
+    /**
+     * Gets the count of int columns of per-particle state of this influencer.
+     *
+     * @return the count of int columns.
+     */
+    protected int getIntColumnCount() {
+        return 0;
+    }
+
+    @Override
+    public void reset(@NotNull ParticleEmitterNode emitterNode, @NotNull ParticleData particleData, int dataId) {
+        resetImpl(emitterNode, particleData, dataId);
+    }
+
+    @Override
+    public void initialize(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleData particleData,
+            int dataId
+    ) {
+        super.initialize(emitterNode, particleData, dataId);
+        initializeImpl(emitterNode, particleData, dataId);
+    }
+
+    @Override
+    public void update(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleData particleData,
+            int dataId,
+            float tpf
+    ) {
+        if (isEnabled()) {
+            updateImpl(emitterNode, particleData, dataId, tpf);
+        }
+    }
+
+    /**
+     * Resets the particle data to be used from this influencer in the next time.
+     *
+     * @param emitterNode  the emitter node.
+     * @param particleData the particle data.
+     * @param dataId       the influencer's data id.
+     */
+    protected void resetImpl(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleData particleData,
+            int dataId
+    ) {
+    }
+
+    /**
+     * Initializes the particle data to be used from this this influencer.
+     *
+     * @param emitterNode  the emitter node.
+     * @param particleData the particle data.
+     * @param dataId       the influencer's data id.
+     */
+    protected void initializeImpl(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleData particleData,
+            int dataId
+    ) {
+    }
+
+    /**
+     * Updates the particle data.
+     *
+     * @param emitterNode  the emitter node.
+     * @param particleData the particle data.
+     * @param dataId       the influencer's data id.
+     * @param tpf          the tpf.
+     */
+    protected void updateImpl(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleData particleData,
+            int dataId,
+            float tpf
+    ) {
+    }
+}
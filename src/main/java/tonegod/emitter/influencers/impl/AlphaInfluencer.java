@@ -5,14 +5,16 @@ import com.jme3.export.InputCapsule;
 import com.jme3.export.JmeExporter;
 import com.jme3.export.JmeImporter;
 import com.jme3.export.OutputCapsule;
-import com.jme3.math.FastMath;
 import com.jme3.util.SafeArrayList;
 import org.jetbrains.annotations.NotNull;
 import tonegod.emitter.Messages;
 import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.influencers.BatchParticleInfluencer;
 import tonegod.emitter.influencers.ParticleInfluencer;
 import tonegod.emitter.interpolation.Interpolation;
 import tonegod.emitter.particle.ParticleData;
+import tonegod.emitter.particle.ParticleStore;
+import tonegod.emitter.particle.ParticleTempVars;
 
 import java.io.IOException;
 
@@ -21,7 +23,8 @@ import java.io.IOException;
  *
  * @author t0neg0d, JavaSaBr
  */
-public final class AlphaInfluencer extends AbstractInterpolatedParticleInfluencer<BaseInterpolationData> {
+public final class AlphaInfluencer extends AbstractInterpolatedWithColumnsParticleInfluencer
+    implements BatchParticleInfluencer<Void> {
 
     /**
      * The list of alphas.
@@ -29,11 +32,6 @@ public final class AlphaInfluencer extends AbstractInterpolatedParticleInfluence
     @NotNull
     private SafeArrayList<Float> alphas;
 
-    /**
-     * The start alpha.
-     */
-    private float startAlpha;
-
     /**
      * The flag of using random start alpha.
      */
@@ -41,7 +39,6 @@ public final class AlphaInfluencer extends AbstractInterpolatedParticleInfluence
 
     public AlphaInfluencer() {
         this.alphas = new SafeArrayList<>(Float.class);
-        this.startAlpha = 1;
     }
 
     @Override
@@ -50,35 +47,90 @@ public final class AlphaInfluencer extends AbstractInterpolatedParticleInfluence
     }
 
     @Override
-    public @NotNull BaseInterpolationData newDataObject() {
-        return new BaseInterpolationData();
+    public boolean isParallelUpdateSupported(@NotNull ParticleEmitterNode emitterNode) {
+        return true;
     }
 
     @Override
     protected void updateImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull BaseInterpolationData data,
+            int dataId,
             float tpf
     ) {
 
-        data.interval += tpf;
+        ParticleStore store = particleData.getStore();
+
+        updateAlpha(store, particleData.index, store.getIntColumn(dataId, STEP),
+                store.getFloatColumn(dataId, INTERVAL), store.getFloatColumn(dataId, DURATION), tpf);
 
-        if (data.index >= alphas.size()) {
-            data.index = 0;
+        super.updateImpl(emitterNode, particleData, dataId, tpf);
+    }
+
+    @Override
+    public void updateBatch(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore store,
+            @NotNull ParticleTempVars vars,
+            int dataId,
+            int from,
+            int to,
+            float tpf
+    ) {
+
+        if (!isEnabled()) {
+            return;
         }
 
-        if (data.interval >= data.duration) {
-            updateInterpolation(data, getAlphas());
+        boolean[] active = store.active;
+        int[] steps = store.getIntColumn(dataId, STEP);
+        float[] intervals = store.getFloatColumn(dataId, INTERVAL);
+        float[] durations = store.getFloatColumn(dataId, DURATION);
+
+        for (int i = from; i < to; i++) {
+            if (active[i]) {
+                updateAlpha(store, i, steps, intervals, durations, tpf);
+            }
+        }
+    }
+
+    /**
+     * Updates alpha of the particle.
+     *
+     * @param store     the particles store.
+     * @param index     the particle's index.
+     * @param steps     the column of current steps.
+     * @param intervals the column of intervals.
+     * @param durations the column of durations.
+     * @param tpf       the time per frame.
+     */
+    private void updateAlpha(
+            @NotNull ParticleStore store,
+            int index,
+            @NotNull int[] steps,
+            @NotNull float[] intervals,
+            @NotNull float[] durations,
+            float tpf
+    ) {
+
+        intervals[index] += tpf;
+
+        if (steps[index] >= alphas.size()) {
+            steps[index] = 0;
+        }
+
+        if (intervals[index] >= durations[index]) {
+            updateInterpolation(steps, intervals, durations, index, alphas.size());
         }
 
-        Interpolation interpolation = data.interpolation;
         SafeArrayList<Float> alphas = getAlphas();
         Float[] alphasArray = alphas.getArray();
-        int alphaIndex = data.index;
+        int alphaIndex = steps[index];
 
-        blend = interpolation.apply(data.interval / data.duration);
-        startAlpha = alphasArray[alphaIndex];
+        Interpolation interpolation = getInterpolations().getArray()[alphaIndex];
+
+        float blend = interpolation.apply(intervals[index] / durations[index]);
+        float startAlpha = alphasArray[alphaIndex];
 
         float endAlpha;
 
@@ -88,9 +140,7 @@ public final class AlphaInfluencer extends AbstractInterpolatedParticleInfluence
             endAlpha = alphasArray[alphaIndex + 1];
         }
 
-        particleData.alpha = interpolateLinear(blend, startAlpha, endAlpha);
-
-        super.updateImpl(emitterNode, particleData, data, tpf);
+        store.alpha[index] = interpolateLinear(blend, startAlpha, endAlpha);
     }
 
     @Override
@@ -112,25 +162,28 @@ public final class AlphaInfluencer extends AbstractInterpolatedParticleInfluence
     protected void initializeImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull BaseInterpolationData data
+            int dataId
     ) {
 
         SafeArrayList<Interpolation> interpolations = getInterpolations();
+        ParticleStore store = particleData.getStore();
+        int index = particleData.index;
+        int step;
 
         if (isRandomStartAlpha()) {
-            data.index = FastMath.nextRandomInt(0, interpolations.size() - 1);
+            step = store.nextRandomInt(index, 0, interpolations.size() - 1);
         } else {
-            data.index = 0;
+            step = 0;
         }
 
-        data.interval = 0F;
-        data.duration = isCycle() ? getFixedDuration() : particleData.startLife / ((float) interpolations.size() - 1);
-
-        particleData.alpha = alphas.get(data.index);
+        store.getIntColumn(dataId, STEP)[index] = step;
+        store.getFloatColumn(dataId, INTERVAL)[index] = 0F;
+        store.getFloatColumn(dataId, DURATION)[index] = isCycle() ? getFixedDuration() :
+                particleData.getStartLife() / ((float) interpolations.size() - 1);
 
-        data.interpolation = interpolations.get(data.index);
+        store.alpha[index] = alphas.get(step);
 
-        super.initializeImpl(emitterNode, particleData, data);
+        super.initializeImpl(emitterNode, particleData, dataId);
     }
 
     /**
@@ -146,10 +199,10 @@ public final class AlphaInfluencer extends AbstractInterpolatedParticleInfluence
     public void resetImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull BaseInterpolationData data
+            int dataId
     ) {
-        particleData.alpha = 0;
-        super.resetImpl(emitterNode, particleData, data);
+        particleData.getStore().alpha[particleData.index] = 0;
+        super.resetImpl(emitterNode, particleData, dataId);
     }
 
     /**
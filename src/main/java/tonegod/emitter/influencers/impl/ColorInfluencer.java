@@ -1,15 +1,17 @@
 package tonegod.emitter.influencers.impl;
 
-import static com.jme3.math.FastMath.nextRandomInt;
 import com.jme3.export.*;
 import com.jme3.math.ColorRGBA;
 import com.jme3.util.SafeArrayList;
 import org.jetbrains.annotations.NotNull;
 import tonegod.emitter.Messages;
 import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.influencers.BatchParticleInfluencer;
 import tonegod.emitter.influencers.ParticleInfluencer;
 import tonegod.emitter.interpolation.Interpolation;
 import tonegod.emitter.particle.ParticleData;
+import tonegod.emitter.particle.ParticleStore;
+import tonegod.emitter.particle.ParticleTempVars;
 
 import java.io.IOException;
 
@@ -18,7 +20,8 @@ import java.io.IOException;
  *
  * @author t0neg0d, JavaSaBr
  */
-public final class ColorInfluencer extends AbstractInterpolatedParticleInfluencer<BaseInterpolationData> {
+public final class ColorInfluencer extends AbstractInterpolatedWithColumnsParticleInfluencer
+    implements BatchParticleInfluencer<Void> {
 
     /**
      * The list of colors.
@@ -32,18 +35,6 @@ public final class ColorInfluencer extends AbstractInterpolatedParticleInfluence
     @NotNull
     private transient final ColorRGBA resetColor;
 
-    /**
-     * The start color.
-     */
-    @NotNull
-    private final ColorRGBA startColor;
-
-    /**
-     * The end color.
-     */
-    @NotNull
-    private final ColorRGBA endColor;
-
     /**
      * The flag of using random start color.
      */
@@ -60,8 +51,6 @@ public final class ColorInfluencer extends AbstractInterpolatedParticleInfluence
     public ColorInfluencer() {
         this.colors = new SafeArrayList<>(ColorRGBA.class);
         this.resetColor = new ColorRGBA(0, 0, 0, 0);
-        this.startColor = new ColorRGBA(ColorRGBA.Red);
-        this.endColor = new ColorRGBA(ColorRGBA.Yellow);
     }
 
     @Override
@@ -70,44 +59,106 @@ public final class ColorInfluencer extends AbstractInterpolatedParticleInfluence
     }
 
     @Override
-    public @NotNull BaseInterpolationData newDataObject() {
-        return new BaseInterpolationData();
+    public boolean isParallelUpdateSupported(@NotNull ParticleEmitterNode emitterNode) {
+        return true;
     }
 
     @Override
     protected void updateImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull BaseInterpolationData data,
+            int dataId,
             float tpf
     ) {
 
-        data.interval += tpf;
+        ParticleTempVars vars = particleData.getTempVars();
+        ParticleStore store = particleData.getStore();
+
+        updateColor(store, particleData.index, store.getIntColumn(dataId, STEP),
+                store.getFloatColumn(dataId, INTERVAL), store.getFloatColumn(dataId, DURATION),
+                vars.color1, vars.color2, tpf);
 
-        if (data.index >= colors.size()) {
-            data.index = 0;
+        super.updateImpl(emitterNode, particleData, dataId, tpf);
+    }
+
+    @Override
+    public void updateBatch(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore store,
+            @NotNull ParticleTempVars vars,
+            int dataId,
+            int from,
+            int to,
+            float tpf
+    ) {
+
+        if (!isEnabled()) {
+            return;
         }
 
-        if (data.interval >= data.duration) {
-            updateInterpolation(data, getColors());
+        boolean[] active = store.active;
+        int[] steps = store.getIntColumn(dataId, STEP);
+        float[] intervals = store.getFloatColumn(dataId, INTERVAL);
+        float[] durations = store.getFloatColumn(dataId, DURATION);
+        ColorRGBA startColor = vars.color1;
+        ColorRGBA endColor = vars.color2;
+
+        for (int i = from; i < to; i++) {
+            if (active[i]) {
+                updateColor(store, i, steps, intervals, durations, startColor, endColor, tpf);
+            }
+        }
+    }
+
+    /**
+     * Updates color of the particle.
+     *
+     * @param store      the particles store.
+     * @param index      the particle's index.
+     * @param steps      the column of current steps.
+     * @param intervals  the column of intervals.
+     * @param durations  the column of durations.
+     * @param startColor the temp start color.
+     * @param endColor   the temp end color.
+     * @param tpf        the time per frame.
+     */
+    private void updateColor(
+            @NotNull ParticleStore store,
+            int index,
+            @NotNull int[] steps,
+            @NotNull float[] intervals,
+            @NotNull float[] durations,
+            @NotNull ColorRGBA startColor,
+            @NotNull ColorRGBA endColor,
+            float tpf
+    ) {
+
+        intervals[index] += tpf;
+
+        if (steps[index] >= colors.size()) {
+            steps[index] = 0;
+        }
+
+        if (intervals[index] >= durations[index]) {
+            updateInterpolation(steps, intervals, durations, index, colors.size());
         }
 
-        Interpolation interpolation = data.interpolation;
         SafeArrayList<ColorRGBA> colors = getColors();
         ColorRGBA[] array = colors.getArray();
+        int step = steps[index];
 
-        blend = interpolation.apply(data.interval / data.duration);
-        startColor.set(array[data.index]);
+        Interpolation interpolation = getInterpolations().getArray()[step];
 
-        if (data.index == colors.size() - 1) {
+        float blend = interpolation.apply(intervals[index] / durations[index]);
+        startColor.set(array[step]);
+
+        if (step == colors.size() - 1) {
             endColor.set(array[0]);
         } else {
-            endColor.set(array[data.index + 1]);
+            endColor.set(array[step + 1]);
         }
 
-        particleData.color.interpolateLocal(startColor, endColor, blend);
-
-        super.updateImpl(emitterNode, particleData, data, tpf);
+        store.setColor(index, startColor.interpolateLocal(endColor, blend));
     }
 
     @Override
@@ -129,34 +180,38 @@ public final class ColorInfluencer extends AbstractInterpolatedParticleInfluence
     protected void initializeImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull BaseInterpolationData data
+            int dataId
     ) {
 
         SafeArrayList<Interpolation> interpolations = getInterpolations();
+        ParticleStore store = particleData.getStore();
+        int index = particleData.index;
+        int step;
 
         if (isRandomStartColor()) {
-            data.index = nextRandomInt(0, colors.size() - 1);
+            step = store.nextRandomInt(index, 0, colors.size() - 1);
         } else {
-            data.index = 0;
+            step = 0;
         }
 
-        data.interval = 0F;
-        data.duration = isCycle() ? getFixedDuration() : particleData.startLife / ((float) interpolations.size() - 1);
-        data.interpolation = interpolations.get(data.index);
+        store.getIntColumn(dataId, STEP)[index] = step;
+        store.getFloatColumn(dataId, INTERVAL)[index] = 0F;
+        store.getFloatColumn(dataId, DURATION)[index] = isCycle() ? getFixedDuration() :
+                particleData.getStartLife() / ((float) interpolations.size() - 1);
 
-        particleData.color.set(colors.get(data.index));
+        store.setColor(index, colors.get(step));
 
-        super.initializeImpl(emitterNode, particleData, data);
+        super.initializeImpl(emitterNode, particleData, dataId);
     }
 
     @Override
     protected void resetImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull BaseInterpolationData data
+            int dataId
     ) {
-        particleData.color.set(resetColor);
-        super.resetImpl(emitterNode, particleData, data);
+        particleData.getStore().setColor(particleData.index, resetColor);
+        super.resetImpl(emitterNode, particleData, dataId);
     }
 
     /**
@@ -1,16 +1,17 @@
 package tonegod.emitter.influencers.impl;
 
-import static tonegod.emitter.util.RandomUtils.getRandom;
-import static tonegod.emitter.util.RandomUtils.nextRandomInt;
 import com.jme3.export.*;
 import com.jme3.math.Vector3f;
 import com.jme3.util.SafeArrayList;
 import org.jetbrains.annotations.NotNull;
 import tonegod.emitter.Messages;
 import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.influencers.BatchParticleInfluencer;
 import tonegod.emitter.influencers.ParticleInfluencer;
 import tonegod.emitter.interpolation.Interpolation;
 import tonegod.emitter.particle.ParticleData;
+import tonegod.emitter.particle.ParticleStore;
+import tonegod.emitter.particle.ParticleTempVars;
 
 import java.io.IOException;
 
@@ -19,7 +20,8 @@ import java.io.IOException;
  *
  * @author t0neg0d, JavaSaBr
  */
-public class DestinationInfluencer extends AbstractInterpolatedParticleInfluencer<BaseInterpolationData> {
+public class DestinationInfluencer extends AbstractInterpolatedWithColumnsParticleInfluencer
+    implements BatchParticleInfluencer<Void> {
 
     /**
      * The list of destinations.
@@ -33,17 +35,6 @@ public class DestinationInfluencer extends AbstractInterpolatedParticleInfluence
     @NotNull
     private SafeArrayList<Float> weights;
 
-    /**
-     * The destination direction.
-     */
-    @NotNull
-    private final Vector3f destinationDir;
-
-    /**
-     * The weight value.
-     */
-    private float weight;
-
     /**
      * The flag of using random start destination.
      */
@@ -52,8 +43,6 @@ public class DestinationInfluencer extends AbstractInterpolatedParticleInfluence
     public DestinationInfluencer() {
         this.destinations = new SafeArrayList<>(Vector3f.class);
         this.weights = new SafeArrayList<>(Float.class);
-        this.destinationDir = new Vector3f();
-        this.weight = 1F;
     }
 
     @Override
@@ -62,48 +51,106 @@ public class DestinationInfluencer extends AbstractInterpolatedParticleInfluence
     }
 
     @Override
-    public @NotNull BaseInterpolationData newDataObject() {
-        return new BaseInterpolationData();
+    public boolean isParallelUpdateSupported(@NotNull ParticleEmitterNode emitterNode) {
+        return true;
     }
 
     @Override
     protected void updateImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull BaseInterpolationData data,
+            int dataId,
+            float tpf
+    ) {
+
+        ParticleStore store = particleData.getStore();
+
+        updateVelocity(store, particleData.index, store.getIntColumn(dataId, STEP),
+                store.getFloatColumn(dataId, INTERVAL), store.getFloatColumn(dataId, DURATION),
+                particleData.getTempVars(), tpf);
+
+        super.updateImpl(emitterNode, particleData, dataId, tpf);
+    }
+
+    @Override
+    public void updateBatch(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore store,
+            @NotNull ParticleTempVars vars,
+            int dataId,
+            int from,
+            int to,
             float tpf
     ) {
 
-        data.interval += tpf;
+        if (!isEnabled()) {
+            return;
+        }
+
+        boolean[] active = store.active;
+        int[] steps = store.getIntColumn(dataId, STEP);
+        float[] intervals = store.getFloatColumn(dataId, INTERVAL);
+        float[] durations = store.getFloatColumn(dataId, DURATION);
+
+        for (int i = from; i < to; i++) {
+            if (active[i]) {
+                updateVelocity(store, i, steps, intervals, durations, vars, tpf);
+            }
+        }
+    }
+
+    /**
+     * Updates velocity of the particle to move it to the current destination.
+     *
+     * @param store     the particles store.
+     * @param index     the particle's index.
+     * @param steps     the column of current steps.
+     * @param intervals the column of intervals.
+     * @param durations the column of durations.
+     * @param vars      the temp objects.
+     * @param tpf       the time per frame.
+     */
+    private void updateVelocity(
+            @NotNull ParticleStore store,
+            int index,
+            @NotNull int[] steps,
+            @NotNull float[] intervals,
+            @NotNull float[] durations,
+            @NotNull ParticleTempVars vars,
+            float tpf
+    ) {
+
+        intervals[index] += tpf;
 
-        if (data.index >= destinations.size()) {
-            data.index = 0;
+        if (steps[index] >= destinations.size()) {
+            steps[index] = 0;
         }
 
-        if (data.interval >= data.duration) {
-            updateInterpolation(data, getDestinations());
+        if (intervals[index] >= durations[index]) {
+            updateInterpolation(steps, intervals, durations, index, destinations.size());
         }
 
-        Interpolation interpolation = data.interpolation;
-        Vector3f position = particleData.getPosition();
+        Vector3f position = store.getPosition(index, vars.vect1);
+        Vector3f destinationDir = vars.vect2;
 
-        int destinationIndex = data.index;
+        int destinationIndex = steps[index];
         Vector3f destination = destinations.get(destinationIndex);
+        Interpolation interpolation = getInterpolations().getArray()[destinationIndex];
 
         float dist = position.distance(destination);
 
-        blend = interpolation.apply(data.interval / data.duration);
+        float blend = interpolation.apply(intervals[index] / durations[index]);
 
         //TODO recheck
         // destinationDir.set(destination.subtract(particleData.position));
         destination.subtract(position, destinationDir);
         destinationDir.multLocal(dist);
 
-        weight = weights.get(destinationIndex);
+        float weight = weights.get(destinationIndex);
 
-        particleData.velocity.interpolateLocal(destinationDir, blend * tpf * (weight * 10));
-
-        super.updateImpl(emitterNode, particleData, data, tpf);
+        Vector3f velocity = store.getVelocity(index, vars.vect3)
+            .interpolateLocal(destinationDir, blend * tpf * (weight * 10));
+        store.setVelocity(index, velocity);
     }
 
     @Override
@@ -120,21 +167,25 @@ public class DestinationInfluencer extends AbstractInterpolatedParticleInfluence
     protected void initializeImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull BaseInterpolationData data
+            int dataId
     ) {
 
+        ParticleStore store = particleData.getStore();
+        int index = particleData.index;
+        int step;
+
         if (isRandomStartDestination()) {
-            data.index = nextRandomInt(getRandom(), 0, destinations.size() - 1);
+            step = store.nextRandomInt(index, 0, destinations.size() - 1);
         } else {
-            data.index = 0;
+            step = 0;
         }
 
-        SafeArrayList<Interpolation> interpolations = getInterpolations();
-        data.interval = 0f;
-        data.duration = isCycle() ? getFixedDuration() : particleData.startLife / ((float) destinations.size());
-        data.interpolation = interpolations.get(data.index);
+        store.getIntColumn(dataId, STEP)[index] = step;
+        store.getFloatColumn(dataId, INTERVAL)[index] = 0f;
+        store.getFloatColumn(dataId, DURATION)[index] = isCycle() ? getFixedDuration() :
+                particleData.getStartLife() / ((float) destinations.size());
 
-        super.initializeImpl(emitterNode, particleData, data);
+        super.initializeImpl(emitterNode, particleData, dataId);
     }
 
     /**
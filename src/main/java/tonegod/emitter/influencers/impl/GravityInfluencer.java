@@ -6,11 +6,14 @@ import com.jme3.export.JmeImporter;
 import com.jme3.export.OutputCapsule;
 import com.jme3.math.Vector3f;
 import org.jetbrains.annotations.NotNull;
-import tonegod.emitter.EmitterMesh;
+import tonegod.emitter.EmitterShape;
 import tonegod.emitter.Messages;
 import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.influencers.BatchParticleInfluencer;
 import tonegod.emitter.influencers.ParticleInfluencer;
 import tonegod.emitter.particle.ParticleData;
+import tonegod.emitter.particle.ParticleStore;
+import tonegod.emitter.particle.ParticleTempVars;
 
 import java.io.IOException;
 
@@ -19,7 +22,7 @@ import java.io.IOException;
  *
  * @author t0neg0d, JavaSaBr
  */
-public class GravityInfluencer extends AbstractWithoutDataParticleInfluencer {
+public class GravityInfluencer extends AbstractWithoutDataParticleInfluencer implements BatchParticleInfluencer<Void> {
 
     /**
      * The enum Gravity alignment.
@@ -67,12 +70,6 @@ public class GravityInfluencer extends AbstractWithoutDataParticleInfluencer {
         }
     }
 
-    /**
-     * The vector for storing results.
-     */
-    @NotNull
-    private final transient Vector3f store;
-
     /**
      * The gravity vector.
      */
@@ -98,7 +95,6 @@ public class GravityInfluencer extends AbstractWithoutDataParticleInfluencer {
     public GravityInfluencer() {
         this.alignment = GravityAlignment.WORLD;
         this.gravity = new Vector3f(0, 1f, 0);
-        this.store = new Vector3f();
         this.magnitude = 1;
     }
 
@@ -107,6 +103,11 @@ public class GravityInfluencer extends AbstractWithoutDataParticleInfluencer {
         return Messages.PARTICLE_INFLUENCER_GRAVITY;
     }
 
+    @Override
+    public boolean isParallelUpdateSupported(@NotNull ParticleEmitterNode emitterNode) {
+        return true;
+    }
+
     @Override
     protected void updateImpl(
             @NotNull ParticleEmitterNode emitterNode,
@@ -114,58 +115,117 @@ public class GravityInfluencer extends AbstractWithoutDataParticleInfluencer {
             float tpf
     ) {
 
-        if (emitterNode.isStaticParticles()) {
-            super.updateImpl(emitterNode, particleData, tpf);
+        if (!emitterNode.isStaticParticles()) {
+            applyGravity(emitterNode, particleData.getStore(), particleData.index, particleData.getTempVars().vect1, tpf);
+        }
+
+        super.updateImpl(emitterNode, particleData, tpf);
+    }
+
+    @Override
+    public void updateBatch(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore store,
+            @NotNull ParticleTempVars vars,
+            int dataId,
+            int from,
+            int to,
+            float tpf
+    ) {
+
+        if (!isEnabled() || emitterNode.isStaticParticles()) {
             return;
         }
 
-        Vector3f velocity = particleData.getVelocity();
-        Vector3f store = getStore();
+        boolean[] active = store.active;
+
+        if (getAlignment() == GravityAlignment.WORLD) {
+
+            Vector3f gravity = getGravity();
+
+            float gravityX = -gravity.x * tpf;
+            float gravityY = -gravity.y * tpf;
+            float gravityZ = -gravity.z * tpf;
+
+            float[] velX = store.velX;
+            float[] velY = store.velY;
+            float[] velZ = store.velZ;
+
+            for (int i = from; i < to; i++) {
+                if (active[i]) {
+                    velX[i] += gravityX;
+                    velY[i] += gravityY;
+                    velZ[i] += gravityZ;
+                }
+            }
+
+            return;
+        }
+
+        Vector3f temp = vars.vect1;
+
+        for (int i = from; i < to; i++) {
+            if (active[i]) {
+                applyGravity(emitterNode, store, i, temp, tpf);
+            }
+        }
+    }
+
+    /**
+     * Applies gravity to velocity of the particle.
+     *
+     * @param emitterNode   the emitter node.
+     * @param particleStore the particles store.
+     * @param index         the particle's index.
+     * @param store         the temp vector.
+     * @param tpf           the time per frame.
+     */
+    private void applyGravity(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore particleStore,
+            int index,
+            @NotNull Vector3f store,
+            float tpf
+    ) {
 
         switch (getAlignment()) {
             case WORLD: {
-                store.set(getGravity()).multLocal(tpf);
-                velocity.subtractLocal(store);
+                store.set(getGravity()).multLocal(tpf).negateLocal();
                 break;
             }
             case REVERSE_VELOCITY: {
-                store.set(particleData.getReversedVelocity()).multLocal(tpf);
-                velocity.addLocal(store);
+                store.set(particleStore.revVelX[index], particleStore.revVelY[index], particleStore.revVelZ[index])
+                    .multLocal(tpf);
                 break;
             }
             case EMISSION_POINT: {
 
-                EmitterMesh emitterShape = emitterNode.getEmitterShape();
-                emitterShape.setNext(particleData.triangleIndex);
+                particleStore.getSpawnPoint(index, store);
 
-                if (emitterNode.isRandomEmissionPoint()) {
-                    store.set(emitterShape.getNextTranslation()
-                        .addLocal(particleData.getRandomOffset()));
-                } else {
-                    store.set(emitterShape.getNextTranslation())
-                        .subtractLocal(particleData.getPosition())
-                        .multLocal(particleData.getInitialLength() * getMagnitude())
+                if (!emitterNode.isRandomEmissionPoint()) {
+                    store.subtractLocal(particleStore.posX[index], particleStore.posY[index], particleStore.posZ[index])
+                        .multLocal(particleStore.initialLength[index] * getMagnitude())
                         .multLocal(tpf);
                 }
 
-                velocity.addLocal(store);
                 break;
             }
             case EMITTER_CENTER: {
 
-                EmitterMesh emitterShape = emitterNode.getEmitterShape();
+                EmitterShape emitterShape = emitterNode.getEmitterShape();
 
-                store.set(emitterShape.getMesh().getBound().getCenter())
-                    .subtractLocal(particleData.getPosition())
-                    .multLocal(particleData.getInitialLength() * getMagnitude())
+                store.set(emitterShape.getCenter())
+                    .subtractLocal(particleStore.posX[index], particleStore.posY[index], particleStore.posZ[index])
+                    .multLocal(particleStore.initialLength[index] * getMagnitude())
                     .multLocal(tpf);
 
-                velocity.addLocal(store);
                 break;
             }
         }
 
-        super.updateImpl(emitterNode, particleData, tpf);
+        particleStore.velX[index] += store.x;
+        particleStore.velY[index] += store.y;
+        particleStore.velZ[index] += store.z;
     }
 
     @Override
@@ -174,11 +234,13 @@ public class GravityInfluencer extends AbstractWithoutDataParticleInfluencer {
         @NotNull ParticleData particleData
     ) {
 
-        store.set(particleData.getVelocity())
-                .negateLocal()
-                .multLocal(magnitude);
+        ParticleStore particleStore = particleData.getStore();
+
+        int index = particleData.index;
 
-        particleData.reversedVelocity.set(store);
+        particleStore.revVelX[index] = -particleStore.velX[index] * magnitude;
+        particleStore.revVelY[index] = -particleStore.velY[index] * magnitude;
+        particleStore.revVelZ[index] = -particleStore.velZ[index] * magnitude;
 
         super.initializeImpl(emitterNode, particleData);
     }
@@ -248,15 +310,6 @@ public class GravityInfluencer extends AbstractWithoutDataParticleInfluencer {
         return gravity;
     }
 
-    /**
-     * Gets the store vector.
-     *
-     * @return the store vector.
-     */
-    protected final @NotNull Vector3f getStore() {
-        return store;
-    }
-
     @Override
     public void write(@NotNull JmeExporter exporter) throws IOException {
         super.write(exporter);
@@ -8,31 +8,20 @@ import com.jme3.math.Vector3f;
 import org.jetbrains.annotations.NotNull;
 import tonegod.emitter.Messages;
 import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.influencers.BatchParticleInfluencer;
 import tonegod.emitter.influencers.ParticleInfluencer;
 import tonegod.emitter.particle.ParticleData;
-import tonegod.emitter.util.RandomUtils;
+import tonegod.emitter.particle.ParticleStore;
+import tonegod.emitter.particle.ParticleTempVars;
 
 import java.io.IOException;
-import java.util.Random;
 
 /**
  * The implementation of the {@link ParticleInfluencer} for impulse influence to particles.
  *
  * @author t0neg0d, JavaSaBr
  */
-public class ImpulseInfluencer extends AbstractWithoutDataParticleInfluencer {
-
-    /**
-     * The temp vector.
-     */
-    @NotNull
-    private final transient Vector3f temp;
-
-    /**
-     * The temp velocity store.
-     */
-    @NotNull
-    private final transient Vector3f velocityStore;
+public class ImpulseInfluencer extends AbstractWithoutDataParticleInfluencer implements BatchParticleInfluencer<Void> {
 
     /**
      * The chance.
@@ -50,8 +39,6 @@ public class ImpulseInfluencer extends AbstractWithoutDataParticleInfluencer {
     private float strength;
 
     public ImpulseInfluencer() {
-        this.temp = new Vector3f();
-        this.velocityStore = new Vector3f();
         this.chance = 0.02f;
         this.magnitude = 0.2f;
         this.strength = 3;
@@ -62,34 +49,74 @@ public class ImpulseInfluencer extends AbstractWithoutDataParticleInfluencer {
         return Messages.PARTICLE_INFLUENCER_IMPULSE;
     }
 
+    @Override
+    public boolean isParallelUpdateSupported(@NotNull ParticleEmitterNode emitterNode) {
+        return true;
+    }
+
     @Override
     protected void updateImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
             float tpf
     ) {
+        applyImpulse(particleData.getStore(), particleData.index, particleData.getTempVars(), tpf);
+        super.updateImpl(emitterNode, particleData, tpf);
+    }
+
+    @Override
+    public void updateBatch(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore store,
+            @NotNull ParticleTempVars vars,
+            int dataId,
+            int from,
+            int to,
+            float tpf
+    ) {
 
-        Random random = RandomUtils.getRandom();
-        if (random.nextFloat() <= 1 - (chance + tpf)) {
+        if (!isEnabled()) {
             return;
         }
 
-        velocityStore.set(particleData.velocity);
+        boolean[] active = store.active;
+
+        for (int i = from; i < to; i++) {
+            if (active[i]) {
+                applyImpulse(store, i, vars, tpf);
+            }
+        }
+    }
+
+    /**
+     * Applies a random impulse to velocity of the particle.
+     *
+     * @param store the particles store.
+     * @param index the particle's index.
+     * @param vars  the temp objects.
+     * @param tpf   the time per frame.
+     */
+    private void applyImpulse(@NotNull ParticleStore store, int index, @NotNull ParticleTempVars vars, float tpf) {
+
+        if (store.nextRandomFloat(index) <= 1 - (chance + tpf)) {
+            return;
+        }
 
-        temp.set(random.nextFloat() * strength,
-            random.nextFloat() * strength,
-            random.nextFloat() * strength);
+        Vector3f velocityStore = store.getVelocity(index, vars.vect1);
+        Vector3f temp = vars.vect2.set(store.nextRandomFloat(index) * strength,
+            store.nextRandomFloat(index) * strength,
+            store.nextRandomFloat(index) * strength);
 
-        if (random.nextBoolean()) temp.x = -temp.x;
-        if (random.nextBoolean()) temp.y = -temp.y;
-        if (random.nextBoolean()) temp.z = -temp.z;
+        if (store.nextRandomBoolean(index)) temp.x = -temp.x;
+        if (store.nextRandomBoolean(index)) temp.y = -temp.y;
+        if (store.nextRandomBoolean(index)) temp.z = -temp.z;
 
         temp.multLocal(velocityStore.length());
         velocityStore.interpolateLocal(temp, magnitude);
 
-        particleData.velocity.interpolateLocal(velocityStore, magnitude);
-
-        super.updateImpl(emitterNode, particleData, tpf);
+        store.getVelocity(index, temp)
+            .interpolateLocal(velocityStore, magnitude);
+        store.setVelocity(index, temp);
     }
 
     /**
@@ -6,7 +6,6 @@ import com.jme3.export.InputCapsule;
 import com.jme3.export.JmeExporter;
 import com.jme3.export.JmeImporter;
 import com.jme3.export.OutputCapsule;
-import com.jme3.math.FastMath;
 import com.jme3.math.Quaternion;
 import com.jme3.math.Triangle;
 import com.jme3.math.Vector3f;
@@ -14,14 +13,16 @@ import com.jme3.renderer.queue.GeometryList;
 import com.jme3.renderer.queue.OpaqueComparator;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.shape.Quad;
-import com.jme3.util.clone.Cloner;
-import com.jme3.util.clone.JmeCloneable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import tonegod.emitter.Messages;
 import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.influencers.BatchParticleInfluencer;
 import tonegod.emitter.influencers.ParticleInfluencer;
 import tonegod.emitter.particle.ParticleData;
+import tonegod.emitter.particle.ParticleEventBuffer;
+import tonegod.emitter.particle.ParticleStore;
+import tonegod.emitter.particle.ParticleTempVars;
 
 import java.io.IOException;
 
@@ -30,57 +31,18 @@ import java.io.IOException;
  *
  * @author t0neg0d, JavaSaBr
  */
-public class PhysicsInfluencer extends AbstractWithDataParticleInfluencer<PhysicsInfluencer.PhysicsInfluencerData> {
+public class PhysicsInfluencer extends AbstractWithColumnsParticleInfluencer<Void>
+    implements BatchParticleInfluencer<Void> {
 
-    protected static class PhysicsInfluencerData implements JmeCloneable {
-
-        /**
-         * The flag.
-         */
-        public boolean collision;
-
-        /**
-         * The interval.
-         */
-        public float interval;
-
-        private PhysicsInfluencerData() {
-        }
-
-        @Override
-        public @NotNull Object jmeClone() {
-            try {
-                return super.clone();
-            } catch (CloneNotSupportedException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        @Override
-        public void cloneFields(@NotNull Cloner cloner, @NotNull Object original) {
-        }
-
-        @Override
-        public boolean equals(final Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            final PhysicsInfluencerData that = (PhysicsInfluencerData) o;
-            if (collision != that.collision) return false;
-            return Float.compare(that.interval, interval) == 0;
-        }
-
-        @Override
-        public int hashCode() {
-            int result = (collision ? 1 : 0);
-            result = 31 * result + (interval != +0.0f ? Float.floatToIntBits(interval) : 0);
-            return result;
-        }
+    /**
+     * The int column of the flag of a collision.
+     */
+    private static final int COLLISION = 0;
 
-        @Override
-        public String toString() {
-            return "PhysicsInfluencerData{" + "collision=" + collision + ", interval=" + interval + '}';
-        }
-    }
+    /**
+     * The float column of the time spent after a collision.
+     */
+    private static final int COLLISION_INTERVAL = 0;
 
     /**
      * The list of reactions on collisions.
@@ -196,6 +158,12 @@ public class PhysicsInfluencer extends AbstractWithDataParticleInfluencer<Physic
     @NotNull
     private final Vector3f tempVec2;
 
+    /**
+     * The particle's velocity.
+     */
+    @NotNull
+    private final Vector3f velocity;
+
     /**
      * The collision result.
      */
@@ -240,6 +208,7 @@ public class PhysicsInfluencer extends AbstractWithDataParticleInfluencer<Physic
         this.normal = new Vector3f();
         this.tempVec = new Vector3f();
         this.tempVec2 = new Vector3f();
+        this.velocity = new Vector3f();
         this.collisionReaction = CollisionReaction.BOUNCE;
         this.collisionThreshold = 0.1f;
         this.restitution = 0.5f;
@@ -250,8 +219,13 @@ public class PhysicsInfluencer extends AbstractWithDataParticleInfluencer<Physic
     }
 
     @Override
-    public @NotNull PhysicsInfluencerData newDataObject() {
-        return new PhysicsInfluencerData();
+    protected int getFloatColumnCount() {
+        return COLLISION_INTERVAL + 1;
+    }
+
+    @Override
+    protected int getIntColumnCount() {
+        return COLLISION + 1;
     }
 
     @Override
@@ -259,25 +233,81 @@ public class PhysicsInfluencer extends AbstractWithDataParticleInfluencer<Physic
         return Messages.PARTICLE_INFLUENCER_PHYSICS;
     }
 
+    @Override
+    public boolean isParallelUpdateSupported(@NotNull ParticleEmitterNode emitterNode) {
+        // collisions are checked using the shared temp geometry and results
+        return false;
+    }
+
     @Override
     protected void updateImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull PhysicsInfluencer.PhysicsInfluencerData data,
+            int dataId,
             float tpf
     ) {
 
-        if (!data.collision) {
-            findCollisions(emitterNode, particleData, data, tpf);
-        } else {
-            data.interval += tpf;
-            if (data.interval >= collisionThreshold) {
-                data.collision = false;
-                data.interval = 0;
+        ParticleStore store = particleData.getStore();
+
+        updateCollision(emitterNode, store, particleData.index, store.getIntColumn(dataId, COLLISION),
+                store.getFloatColumn(dataId, COLLISION_INTERVAL), tpf);
+
+        super.updateImpl(emitterNode, particleData, dataId, tpf);
+    }
+
+    @Override
+    public void updateBatch(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore store,
+            @NotNull ParticleTempVars vars,
+            int dataId,
+            int from,
+            int to,
+            float tpf
+    ) {
+
+        if (!isEnabled()) {
+            return;
+        }
+
+        boolean[] active = store.active;
+        int[] collisions = store.getIntColumn(dataId, COLLISION);
+        float[] intervals = store.getFloatColumn(dataId, COLLISION_INTERVAL);
+
+        for (int i = from; i < to; i++) {
+            if (active[i]) {
+                updateCollision(emitterNode, store, i, collisions, intervals, tpf);
             }
         }
+    }
 
-        super.updateImpl(emitterNode, particleData, data, tpf);
+    /**
+     * Updates collision state of the particle.
+     *
+     * @param emitterNode the emitter node.
+     * @param store       the particles store.
+     * @param index       the particle's index.
+     * @param collisions  the column of collision flags.
+     * @param intervals   the column of intervals after collisions.
+     * @param tpf         the tpf.
+     */
+    private void updateCollision(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore store,
+            int index,
+            @NotNull int[] collisions,
+            @NotNull float[] intervals,
+            float tpf
+    ) {
+        if (collisions[index] == 0) {
+            findCollisions(emitterNode, store, index, collisions, tpf);
+        } else {
+            intervals[index] += tpf;
+            if (intervals[index] >= collisionThreshold) {
+                collisions[index] = 0;
+                intervals[index] = 0;
+            }
+        }
     }
 
     /**
@@ -292,15 +322,17 @@ public class PhysicsInfluencer extends AbstractWithDataParticleInfluencer<Physic
     /**
      * Finds collisions.
      *
-     * @param emitterNode  the emitter node.
-     * @param particleData the particle data.
-     * @param data         the influence's data.
-     * @param tpf          the tpf.
+     * @param emitterNode   the emitter node.
+     * @param particleStore the particles store.
+     * @param index         the particle's index.
+     * @param collisions    the column of collision flags.
+     * @param tpf           the tpf.
      */
     private void findCollisions(
             @NotNull ParticleEmitterNode emitterNode,
-            @NotNull ParticleData particleData,
-            @NotNull PhysicsInfluencerData data,
+            @NotNull ParticleStore particleStore,
+            int index,
+            @NotNull int[] collisions,
             float tpf
     ) {
 
@@ -316,7 +348,7 @@ public class PhysicsInfluencer extends AbstractWithDataParticleInfluencer<Physic
                     results.clear();
                 }
 
-                updateCollisionShape(emitterNode, particleData, tpf);
+                updateCollisionShape(emitterNode, particleStore, index, tpf);
 
                 geometry.collideWith(geom.getWorldBound(), results);
 
@@ -324,10 +356,12 @@ public class PhysicsInfluencer extends AbstractWithDataParticleInfluencer<Physic
                     continue;
                 }
 
-                Vector3f velocity = particleData.velocity;
+                Vector3f velocity = particleStore.getVelocity(index, this.velocity);
 
                 result = results.getClosestCollision();
 
+                emitterNode.notifyParticleEvent(ParticleEventBuffer.EVENT_COLLISION, index);
+
                 switch (collisionReaction) {
                     case BOUNCE: {
 
@@ -340,18 +374,19 @@ public class PhysicsInfluencer extends AbstractWithDataParticleInfluencer<Physic
                                 .subtract(velocity, tempVec2))
                                 .negateLocal().normalizeLocal();
 
-                        length = velocity.length() * (restitution - 0.1f) + (FastMath.nextRandomFloat() * 0.2f);
+                        length = velocity.length() * (restitution - 0.1f) + (particleStore.nextRandomFloat(index) * 0.2f);
 
                         velocity.set(reflect).multLocal(length);
-                        data.collision = true;
+                        particleStore.setVelocity(index, velocity);
+                        collisions[index] = 1;
                         break;
                     }
                     case STICK: {
-                        velocity.set(0, 0, 0);
+                        particleStore.setVelocity(index, Vector3f.ZERO);
                         break;
                     }
                     case DESTROY: {
-                        emitterNode.killParticle(particleData);
+                        emitterNode.killParticle(index);
                         break;
                     }
                 }
@@ -366,37 +401,39 @@ public class PhysicsInfluencer extends AbstractWithDataParticleInfluencer<Physic
     protected void initializeImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull PhysicsInfluencer.PhysicsInfluencerData data
+            int dataId
     ) {
 
-        data.collision = false;
-        data.interval = 0;
+        ParticleStore store = particleData.getStore();
+
+        store.getIntColumn(dataId, COLLISION)[particleData.index] = 0;
+        store.getFloatColumn(dataId, COLLISION_INTERVAL)[particleData.index] = 0;
 
-        super.initializeImpl(emitterNode, particleData, data);
+        super.initializeImpl(emitterNode, particleData, dataId);
     }
 
     /**
      * Updates collision shape.
      *
-     * @param emitterNode  the emitter node.
-     * @param particleData the particle data.
-     * @param tpf          the tpf.
+     * @param emitterNode   the emitter node.
+     * @param particleStore the particles store.
+     * @param index         the particle's index.
+     * @param tpf           the tpf.
      */
     private void updateCollisionShape(
             @NotNull ParticleEmitterNode emitterNode,
-            @NotNull ParticleData particleData,
+            @NotNull ParticleStore particleStore,
+            int index,
             float tpf
     ) {
 
-        Vector3f translation = tempVec.set(particleData.position)
+        Vector3f translation = particleStore.getPosition(index, tempVec)
                 .addLocal(emitterNode.getLocalTranslation());
 
-        Vector3f angles = particleData.angles;
-
-        quaternion.fromAngles(angles.x, angles.y, angles.z);
+        quaternion.fromAngles(particleStore.angleX[index], particleStore.angleY[index], particleStore.angleZ[index]);
         geom.setLocalTranslation(translation);
         geom.setLocalRotation(quaternion);
-        geom.setLocalScale(particleData.size);
+        geom.setLocalScale(particleStore.sizeX[index], particleStore.sizeY[index], particleStore.sizeZ[index]);
         geom.updateLogicalState(tpf);
         geom.updateGeometricState();
         geom.updateModelBound();
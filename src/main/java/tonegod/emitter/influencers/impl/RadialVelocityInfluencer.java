@@ -6,62 +6,30 @@ import com.jme3.export.JmeImporter;
 import com.jme3.export.OutputCapsule;
 import com.jme3.math.Quaternion;
 import com.jme3.math.Vector3f;
-import com.jme3.util.clone.Cloner;
-import com.jme3.util.clone.JmeCloneable;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
-import tonegod.emitter.EmitterMesh;
+import tonegod.emitter.EmitterShape;
 import tonegod.emitter.Messages;
 import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.influencers.BatchParticleInfluencer;
 import tonegod.emitter.influencers.ParticleInfluencer;
 import tonegod.emitter.particle.ParticleData;
-import tonegod.emitter.util.RandomUtils;
+import tonegod.emitter.particle.ParticleStore;
+import tonegod.emitter.particle.ParticleTempVars;
 
 import java.io.IOException;
-import java.util.Random;
 
 /**
  * The implementation of the {@link ParticleInfluencer} to radial rotation particles.
  *
  * @author t0neg0d, JavaSaBr
  */
-public class RadialVelocityInfluencer extends AbstractWithDataParticleInfluencer<RadialVelocityInfluencer.RadialVelocityData> {
+public class RadialVelocityInfluencer extends AbstractWithColumnsParticleInfluencer<Void>
+    implements BatchParticleInfluencer<Void> {
 
-    protected static class RadialVelocityData implements JmeCloneable {
-
-        private float tangentForce;
-
-        @Override
-        public @NotNull Object jmeClone() {
-            try {
-                return super.clone();
-            } catch (CloneNotSupportedException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        @Override
-        public void cloneFields(@NotNull Cloner cloner, @NotNull Object original) {
-        }
-
-        @Override
-        public boolean equals(@Nullable Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            final RadialVelocityData that = (RadialVelocityData) o;
-            return Float.compare(that.tangentForce, tangentForce) == 0;
-        }
-
-        @Override
-        public int hashCode() {
-            return (tangentForce != +0.0f ? Float.floatToIntBits(tangentForce) : 0);
-        }
-
-        @Override
-        public String toString() {
-            return "RadialVelocityData{" + "tangentForce=" + tangentForce + '}';
-        }
-    }
+    /**
+     * The float column of the tangent force of a particle.
+     */
+    private static final int TANGENT_FORCE = 0;
 
     /**
      * The list of radial pull alignments.
@@ -193,48 +161,6 @@ public class RadialVelocityInfluencer extends AbstractWithDataParticleInfluencer
         }
     }
 
-    /**
-     * The tangent.
-     */
-    @NotNull
-    private final Vector3f tangent;
-
-    /**
-     * The vector store.
-     */
-    @NotNull
-    private final Vector3f store;
-
-    /**
-     * The up vector.
-     */
-    @NotNull
-    private final Vector3f up;
-
-    /**
-     * The left vector.
-     */
-    @NotNull
-    private final Vector3f left;
-
-    /**
-     * The vector for storing up vector.
-     */
-    @NotNull
-    private final Vector3f upStore;
-
-    /**
-     * The temp store vector.
-     */
-    @NotNull
-    private final Vector3f tempStore;
-
-    /**
-     * The inverse rotation.
-     */
-    @NotNull
-    private final Quaternion inverseRotation;
-
     /**
      * The radial pull alignment.
      */
@@ -269,13 +195,6 @@ public class RadialVelocityInfluencer extends AbstractWithDataParticleInfluencer
     private boolean randomDirection;
 
     public RadialVelocityInfluencer() {
-        this.tangent = new Vector3f();
-        this.store = new Vector3f();
-        this.up = Vector3f.UNIT_Y.clone();
-        this.left = new Vector3f();
-        this.upStore = new Vector3f();
-        this.tempStore = new Vector3f();
-        this.inverseRotation = new Quaternion();
         this.pullAlignment = RadialPullAlignment.EMISSION_POINT;
         this.pullCenter = RadialPullCenter.ABSOLUTE;
         this.upAlignment = RadialUpAlignment.UNIT_Y;
@@ -289,30 +208,94 @@ public class RadialVelocityInfluencer extends AbstractWithDataParticleInfluencer
     }
 
     @Override
-    public @NotNull RadialVelocityInfluencer.RadialVelocityData newDataObject() {
-        return new RadialVelocityData();
+    public boolean isParallelUpdateSupported(@NotNull ParticleEmitterNode emitterNode) {
+        return true;
+    }
+
+    @Override
+    protected int getFloatColumnCount() {
+        return TANGENT_FORCE + 1;
     }
 
     @Override
     protected void updateImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull RadialVelocityInfluencer.RadialVelocityData data,
+            int dataId,
+            float tpf
+    ) {
+
+        ParticleStore store = particleData.getStore();
+
+        updateVelocity(emitterNode, store, particleData.index, store.getFloatColumn(dataId, TANGENT_FORCE),
+                particleData.getTempVars(), tpf);
+
+        super.updateImpl(emitterNode, particleData, dataId, tpf);
+    }
+
+    @Override
+    public void updateBatch(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore store,
+            @NotNull ParticleTempVars vars,
+            int dataId,
+            int from,
+            int to,
             float tpf
     ) {
 
-        EmitterMesh emitterShape = emitterNode.getEmitterShape();
-        Quaternion localRotation = emitterNode.getLocalRotation();
+        if (!isEnabled()) {
+            return;
+        }
 
-        processPullAlignment(particleData, emitterNode, emitterShape);
-        processCenter(particleData);
+        boolean[] active = store.active;
+        float[] tangentForces = store.getFloatColumn(dataId, TANGENT_FORCE);
 
-        store.subtractLocal(particleData.getPosition())
+        for (int i = from; i < to; i++) {
+            if (active[i]) {
+                updateVelocity(emitterNode, store, i, tangentForces, vars, tpf);
+            }
+        }
+    }
+
+    /**
+     * Updates velocity of the particle to move it around the pull center.
+     *
+     * @param emitterNode   the emitter node.
+     * @param particleStore the particles store.
+     * @param index         the particle's index.
+     * @param tangentForces the column of tangent forces.
+     * @param vars          the temp objects.
+     * @param tpf           the time per frame.
+     */
+    private void updateVelocity(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore particleStore,
+            int index,
+            @NotNull float[] tangentForces,
+            @NotNull ParticleTempVars vars,
+            float tpf
+    ) {
+
+        EmitterShape emitterShape = emitterNode.getEmitterShape();
+        Quaternion localRotation = emitterNode.getSimulationRotation();
+
+        Vector3f store = vars.vect1;
+        Vector3f up = vars.vect2;
+        Vector3f left = vars.vect3;
+        Vector3f tangent = vars.vect4;
+        Vector3f upStore = vars.vect5;
+        Vector3f tempStore = vars.vect6;
+
+        processPullAlignment(particleStore, index, emitterShape, store);
+        processCenter(particleStore, index, store);
+
+        store.subtractLocal(particleStore.posX[index], particleStore.posY[index], particleStore.posZ[index])
             .normalizeLocal()
-            .multLocal(particleData.getInitialLength() * radialPull)
+            .multLocal(particleStore.initialLength[index] * radialPull)
             .multLocal(tpf);
 
-        processUpAlignment(emitterNode, emitterShape);
+        processUpAlignment(particleStore, index, emitterNode, vars);
 
         up.set(store).crossLocal(upStore)
             .normalizeLocal()
@@ -324,27 +307,33 @@ public class RadialVelocityInfluencer extends AbstractWithDataParticleInfluencer
         tangent.set(store)
             .crossLocal(left)
             .normalizeLocal()
-            .multLocal(data.tangentForce)
+            .multLocal(tangentForces[index])
             .multLocal(tpf);
 
-        particleData.velocity.subtractLocal(tangent);
-        particleData.velocity.addLocal(store.mult(radialPull, tempStore));
+        store.mult(radialPull, tempStore)
+            .subtractLocal(tangent);
 
-        super.updateImpl(emitterNode, particleData, data, tpf);
+        particleStore.velX[index] += tempStore.x;
+        particleStore.velY[index] += tempStore.y;
+        particleStore.velZ[index] += tempStore.z;
     }
 
     /**
      * Handle up alignment.
      */
     private void processUpAlignment(
+            @NotNull ParticleStore particleStore,
+            int index,
             @NotNull ParticleEmitterNode emitterNode,
-            @NotNull EmitterMesh emitterShape
+            @NotNull ParticleTempVars vars
     ) {
 
+        Vector3f upStore = vars.vect5;
+
         switch (getRadialUpAlignment()) {
             case NORMAL: {
-                inverseRotation.set(emitterNode.getLocalRotation()).inverseLocal();
-                upStore.set(inverseRotation.mult(upStore.set(emitterShape.getNormal()), tempStore));
+                Quaternion inverseRotation = vars.quat1.set(emitterNode.getSimulationRotation()).inverseLocal();
+                upStore.set(inverseRotation.mult(particleStore.getSpawnNormal(index, upStore), vars.vect6));
                 break;
             }
             case UNIT_X: {
@@ -365,21 +354,21 @@ public class RadialVelocityInfluencer extends AbstractWithDataParticleInfluencer
     /**
      * Handle pull center.
      */
-    private void processCenter(@NotNull ParticleData particleData) {
+    private void processCenter(@NotNull ParticleStore particleStore, int index, @NotNull Vector3f store) {
         switch (getRadialPullCenter()) {
             case ABSOLUTE: {
                 break;
             }
             case POSITION_X: {
-                store.setX(particleData.position.x);
+                store.setX(particleStore.posX[index]);
                 break;
             }
             case POSITION_Y: {
-                store.setY(particleData.position.y);
+                store.setY(particleStore.posY[index]);
                 break;
             }
             case POSITION_Z: {
-                store.setZ(particleData.position.z);
+                store.setZ(particleStore.posZ[index]);
                 break;
             }
         }
@@ -389,27 +378,19 @@ public class RadialVelocityInfluencer extends AbstractWithDataParticleInfluencer
      * Handle pull alignment.
      */
     private void processPullAlignment(
-            @NotNull ParticleData particleData,
-            @NotNull ParticleEmitterNode emitterNode,
-            @NotNull EmitterMesh emitterShape
+            @NotNull ParticleStore particleStore,
+            int index,
+            @NotNull EmitterShape emitterShape,
+            @NotNull Vector3f store
     ) {
 
         switch (getRadialPullAlignment()) {
             case EMISSION_POINT: {
-
-                emitterShape.setNext(particleData.triangleIndex);
-
-                if (emitterNode.isRandomEmissionPoint()) {
-                    store.set(emitterShape.getNextTranslation()
-                            .addLocal(particleData.getRandomOffset()));
-                } else {
-                    store.set(emitterShape.getNextTranslation());
-                }
-
+                particleStore.getSpawnPoint(index, store);
                 break;
             }
             case EMITTER_CENTER: {
-                store.set(emitterShape.getMesh().getBound().getCenter());
+                store.set(emitterShape.getCenter());
                 break;
             }
         }
@@ -419,23 +400,19 @@ public class RadialVelocityInfluencer extends AbstractWithDataParticleInfluencer
     protected void initializeImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull RadialVelocityInfluencer.RadialVelocityData data
+            int dataId
     ) {
 
-        if (!isRandomDirection()) {
-            data.tangentForce = tangentForce;
-            return;
-        }
-
-        Random random = RandomUtils.getRandom();
+        ParticleStore store = particleData.getStore();
+        int index = particleData.index;
 
-        if (random.nextBoolean()) {
-            data.tangentForce = tangentForce;
+        if (!isRandomDirection() || store.nextRandomBoolean(index)) {
+            store.getFloatColumn(dataId, TANGENT_FORCE)[index] = tangentForce;
         } else {
-            data.tangentForce = -tangentForce;
+            store.getFloatColumn(dataId, TANGENT_FORCE)[index] = -tangentForce;
         }
 
-        super.initializeImpl(emitterNode, particleData, data);
+        super.initializeImpl(emitterNode, particleData, dataId);
     }
 
     /**
@@ -1,82 +1,55 @@
 package tonegod.emitter.influencers.impl;
 
+import static com.jme3.math.FastMath.interpolateLinear;
 import com.jme3.export.*;
 import com.jme3.math.FastMath;
 import com.jme3.math.Vector3f;
 import com.jme3.util.SafeArrayList;
-import com.jme3.util.clone.Cloner;
 import org.jetbrains.annotations.NotNull;
 import tonegod.emitter.Messages;
 import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.influencers.BatchParticleInfluencer;
 import tonegod.emitter.influencers.ParticleInfluencer;
 import tonegod.emitter.interpolation.Interpolation;
 import tonegod.emitter.particle.ParticleData;
-import tonegod.emitter.util.RandomUtils;
+import tonegod.emitter.particle.ParticleStore;
+import tonegod.emitter.particle.ParticleTempVars;
 
 import java.io.IOException;
-import java.util.Random;
 
 /**
  * The implementation of the {@link ParticleInfluencer} to rotation particles.
  *
  * @author t0neg0d, JavaSaBr
  */
-public final class RotationInfluencer extends AbstractInterpolatedParticleInfluencer<RotationInfluencer.RotationInfluencerData> {
-
-    protected static class RotationInfluencerData extends BaseInterpolationData {
-
-        /**
-         * The rotation angle speed per axis (in radians).
-         */
-        @NotNull
-        public Vector3f speed;
-
-        /**
-         * The start rotation speed.
-         */
-        @NotNull
-        public Vector3f startSpeed;
-
-        /**
-         * The end rotation speed.
-         */
-        @NotNull
-        public Vector3f endSpeed;
-
-        /**
-         * The direction each axis' rotation will rotate in
-         */
-        public boolean rotateDirectionX;
-
-        /**
-         * The rotate direction Y.
-         */
-        public boolean rotateDirectionY;
-
-        /**
-         * The rotate direction Z.
-         */
-        public boolean rotateDirectionZ;
-
-        private RotationInfluencerData() {
-            this.speed = new Vector3f();
-            this.startSpeed = new Vector3f();
-            this.endSpeed = new Vector3f();
-            this.rotateDirectionX = true;
-            this.rotateDirectionY = true;
-            this.rotateDirectionZ = true;
-        }
+public final class RotationInfluencer extends AbstractInterpolatedWithColumnsParticleInfluencer
+    implements BatchParticleInfluencer<Void> {
 
-        @Override
-        public void cloneFields(@NotNull Cloner cloner, @NotNull Object original
-        ) {
-            super.cloneFields(cloner, original);
+    /**
+     * The int column of the flags of rotate directions per axis.
+     */
+    private static final int DIRECTIONS = INTERPOLATION_INT_COLUMNS;
 
-            speed = cloner.clone(speed);
-            startSpeed = cloner.clone(startSpeed);
-            endSpeed = cloner.clone(endSpeed);
-        }
-    }
+    /**
+     * The flags of rotate directions per axis.
+     */
+    private static final int DIRECTION_X = 1;
+    private static final int DIRECTION_Y = 1 << 1;
+    private static final int DIRECTION_Z = 1 << 2;
+
+    /**
+     * The float columns of the start rotation speed.
+     */
+    private static final int START_SPEED_X = INTERPOLATION_FLOAT_COLUMNS;
+    private static final int START_SPEED_Y = INTERPOLATION_FLOAT_COLUMNS + 1;
+    private static final int START_SPEED_Z = INTERPOLATION_FLOAT_COLUMNS + 2;
+
+    /**
+     * The float columns of the end rotation speed.
+     */
+    private static final int END_SPEED_X = INTERPOLATION_FLOAT_COLUMNS + 3;
+    private static final int END_SPEED_Y = INTERPOLATION_FLOAT_COLUMNS + 4;
+    private static final int END_SPEED_Z = INTERPOLATION_FLOAT_COLUMNS + 5;
 
     /**
      * The list of speeds.
@@ -90,12 +63,6 @@ public final class RotationInfluencer extends AbstractInterpolatedParticleInflue
     @NotNull
     private final Vector3f speedFactor;
 
-    /**
-     * The store vector.
-     */
-    @NotNull
-    private final Vector3f store;
-
     /**
      * The flag of using random direction.
      */
@@ -129,7 +96,6 @@ public final class RotationInfluencer extends AbstractInterpolatedParticleInflue
     public RotationInfluencer() {
         this.speeds = new SafeArrayList<>(Vector3f.class);
         this.speedFactor = Vector3f.ZERO.clone();
-        this.store = new Vector3f();
         this.randomDirection = true;
         this.randomSpeed = true;
         this.direction = true;
@@ -141,79 +107,172 @@ public final class RotationInfluencer extends AbstractInterpolatedParticleInflue
     }
 
     @Override
-    public @NotNull RotationInfluencer.RotationInfluencerData newDataObject() {
-        return new RotationInfluencerData();
+    public boolean isParallelUpdateSupported(@NotNull ParticleEmitterNode emitterNode) {
+        return true;
+    }
+
+    @Override
+    protected int getFloatColumnCount() {
+        return END_SPEED_Z + 1;
+    }
+
+    @Override
+    protected int getIntColumnCount() {
+        return DIRECTIONS + 1;
     }
 
     @Override
     protected void updateImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull RotationInfluencer.RotationInfluencerData data,
+            int dataId,
             float tpf
     ) {
 
-        Vector3f rotationSpeed = data.speed;
+        ParticleStore store = particleData.getStore();
+        int index = particleData.index;
 
-        if (speeds.size() > 1) {
+        float blend = updateBlend(store, dataId, index, store.getIntColumn(dataId, STEP),
+                store.getFloatColumn(dataId, INTERVAL), store.getFloatColumn(dataId, DURATION), tpf);
 
-            if (data.index >= speeds.size()) {
-                data.index = 0;
-            }
+        store.angleX[index] += interpolateLinear(blend, store.getFloatColumn(dataId, START_SPEED_X)[index],
+                store.getFloatColumn(dataId, END_SPEED_X)[index]) * tpf;
+        store.angleY[index] += interpolateLinear(blend, store.getFloatColumn(dataId, START_SPEED_Y)[index],
+                store.getFloatColumn(dataId, END_SPEED_Y)[index]) * tpf;
+        store.angleZ[index] += interpolateLinear(blend, store.getFloatColumn(dataId, START_SPEED_Z)[index],
+                store.getFloatColumn(dataId, END_SPEED_Z)[index]) * tpf;
+
+        super.updateImpl(emitterNode, particleData, dataId, tpf);
+    }
+
+    @Override
+    public void updateBatch(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore store,
+            @NotNull ParticleTempVars vars,
+            int dataId,
+            int from,
+            int to,
+            float tpf
+    ) {
 
-            data.interval += tpf;
+        if (!isEnabled()) {
+            return;
+        }
 
-            if (data.interval >= data.duration) {
-                updateRotation(data);
+        boolean[] active = store.active;
+        int[] steps = store.getIntColumn(dataId, STEP);
+        float[] intervals = store.getFloatColumn(dataId, INTERVAL);
+        float[] durations = store.getFloatColumn(dataId, DURATION);
+        float[] startSpeedX = store.getFloatColumn(dataId, START_SPEED_X);
+        float[] startSpeedY = store.getFloatColumn(dataId, START_SPEED_Y);
+        float[] startSpeedZ = store.getFloatColumn(dataId, START_SPEED_Z);
+        float[] endSpeedX = store.getFloatColumn(dataId, END_SPEED_X);
+        float[] endSpeedY = store.getFloatColumn(dataId, END_SPEED_Y);
+        float[] endSpeedZ = store.getFloatColumn(dataId, END_SPEED_Z);
+        float[] angleX = store.angleX;
+        float[] angleY = store.angleY;
+        float[] angleZ = store.angleZ;
+
+        for (int i = from; i < to; i++) {
+
+            if (!active[i]) {
+                continue;
             }
 
-            Interpolation interpolation = data.interpolation;
+            float blend = updateBlend(store, dataId, i, steps, intervals, durations, tpf);
+
+            angleX[i] += interpolateLinear(blend, startSpeedX[i], endSpeedX[i]) * tpf;
+            angleY[i] += interpolateLinear(blend, startSpeedY[i], endSpeedY[i]) * tpf;
+            angleZ[i] += interpolateLinear(blend, startSpeedZ[i], endSpeedZ[i]) * tpf;
+        }
+    }
+
+    /**
+     * Updates the interpolation step of the particle and calculates the blend between its start and end rotation
+     * speeds. The blend is always 0 when this influencer has only one speed.
+     *
+     * @param store     the particles store.
+     * @param dataId    the influencer's data id.
+     * @param index     the particle's index.
+     * @param steps     the column of current steps.
+     * @param intervals the column of intervals.
+     * @param durations the column of durations.
+     * @param tpf       the time per frame.
+     * @return the blend between the start and end rotation speeds.
+     */
+    private float updateBlend(
+            @NotNull ParticleStore store,
+            int dataId,
+            int index,
+            @NotNull int[] steps,
+            @NotNull float[] intervals,
+            @NotNull float[] durations,
+            float tpf
+    ) {
+
+        if (speeds.size() < 2) {
+            return 0F;
+        }
 
-            blend = interpolation.apply(data.interval / data.duration);
+        if (steps[index] >= speeds.size()) {
+            steps[index] = 0;
+        }
 
-            Vector3f startSpeed = data.startSpeed;
-            Vector3f endSpeed = data.endSpeed;
+        intervals[index] += tpf;
 
-            rotationSpeed.interpolateLocal(startSpeed, endSpeed, blend);
+        if (intervals[index] >= durations[index]) {
+            updateRotation(store, dataId, index, steps, intervals, durations);
         }
 
-        particleData.angles.addLocal(rotationSpeed.mult(tpf, store));
+        Interpolation interpolation = getInterpolations().getArray()[steps[index]];
 
-        super.updateImpl(emitterNode, particleData, data, tpf);
+        return interpolation.apply(intervals[index] / durations[index]);
     }
 
     /**
      * Update a rotation.
      *
-     * @param data the influencer's data.
-     */
-    private void updateRotation(RotationInfluencerData data) {
+     * @param store     the particles store.
+     * @param dataId    the influencer's data id.
+     * @param index     the particle's index.
+     * @param steps     the column of current steps.
+     * @param intervals the column of intervals.
+     * @param durations the column of durations.
+     */
+    private void updateRotation(
+            @NotNull ParticleStore store,
+            int dataId,
+            int index,
+            @NotNull int[] steps,
+            @NotNull float[] intervals,
+            @NotNull float[] durations
+    ) {
 
-        data.index++;
+        int step = steps[index] + 1;
 
         if (!isCycle()) {
-            if (data.index == speeds.size() - 1) {
-                data.index = 0;
+            if (step == speeds.size() - 1) {
+                step = 0;
             }
         } else {
-            if (data.index == speeds.size()) {
-                data.index = 0;
+            if (step == speeds.size()) {
+                step = 0;
             }
         }
 
-        nextRotationSpeed(data, data.index, data.startSpeed);
+        nextRotationSpeed(store, dataId, index, step, START_SPEED_X);
 
-        int index = data.index + 1;
+        int next = step + 1;
 
-        if (index == speeds.size()) {
-            index = 0;
+        if (next == speeds.size()) {
+            next = 0;
         }
 
-        nextRotationSpeed(data, index, data.endSpeed);
+        nextRotationSpeed(store, dataId, index, next, END_SPEED_X);
 
-        SafeArrayList<Interpolation> interpolations = getInterpolations();
-        data.interpolation = interpolations.get(data.index);
-        data.interval -= data.duration;
+        steps[index] = step;
+        intervals[index] -= durations[index];
     }
 
     @Override
@@ -230,38 +289,40 @@ public final class RotationInfluencer extends AbstractInterpolatedParticleInflue
     protected void initializeImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull RotationInfluencer.RotationInfluencerData data
+            int dataId
     ) {
 
-        data.index = 0;
-        data.interval = 0f;
-        data.duration = isCycle() ? getFixedDuration() : particleData.startLife / ((float) speeds.size() - 1);
+        ParticleStore store = particleData.getStore();
+        int index = particleData.index;
+
+        store.getIntColumn(dataId, STEP)[index] = 0;
+        store.getFloatColumn(dataId, INTERVAL)[index] = 0f;
+        store.getFloatColumn(dataId, DURATION)[index] = isCycle() ? getFixedDuration() :
+                particleData.getStartLife() / ((float) speeds.size() - 1);
+
+        int directions = DIRECTION_X | DIRECTION_Y | DIRECTION_Z;
 
         if (isRandomDirection()) {
-            Random random = RandomUtils.getRandom();
-            data.rotateDirectionX = random.nextBoolean();
-            data.rotateDirectionY = random.nextBoolean();
-            data.rotateDirectionZ = random.nextBoolean();
+            directions = (store.nextRandomBoolean(index) ? DIRECTION_X : 0) |
+                    (store.nextRandomBoolean(index) ? DIRECTION_Y : 0) |
+                    (store.nextRandomBoolean(index) ? DIRECTION_Z : 0);
         }
 
-        nextRotationSpeed(data, data.index, data.startSpeed);
+        store.getIntColumn(dataId, DIRECTIONS)[index] = directions;
 
-        data.speed.set(data.startSpeed);
+        nextRotationSpeed(store, dataId, index, 0, START_SPEED_X);
 
         if (speeds.size() > 1) {
-            nextRotationSpeed(data, data.index + 1, data.endSpeed);
+            nextRotationSpeed(store, dataId, index, 1, END_SPEED_X);
         }
 
-        SafeArrayList<Interpolation> interpolations = getInterpolations();
-        data.interpolation = interpolations.get(data.index);
-
         if (isRandomStartRotationX() || isRandomStartRotationY() || isRandomStartRotationZ()) {
             calculateRandomAngles(particleData);
         } else {
-            particleData.angles.set(0, 0, 0);
+            particleData.getStore().setAngles(particleData.index, 0, 0, 0);
         }
 
-        super.initializeImpl(emitterNode, particleData, data);
+        super.initializeImpl(emitterNode, particleData, dataId);
     }
 
     /**
@@ -271,51 +332,65 @@ public final class RotationInfluencer extends AbstractInterpolatedParticleInflue
      */
     private void calculateRandomAngles(@NotNull ParticleData particleData) {
 
-        Random random = RandomUtils.getRandom();
-        float x = randomStartRotationX ? random.nextFloat() * FastMath.TWO_PI : 0;
-        float y = randomStartRotationY ? random.nextFloat() * FastMath.TWO_PI : 0;
-        float z = randomStartRotationZ ? random.nextFloat() * FastMath.TWO_PI : 0;
+        ParticleStore store = particleData.getStore();
+        int index = particleData.index;
+
+        float x = randomStartRotationX ? store.nextRandomFloat(index) * FastMath.TWO_PI : 0;
+        float y = randomStartRotationY ? store.nextRandomFloat(index) * FastMath.TWO_PI : 0;
+        float z = randomStartRotationZ ? store.nextRandomFloat(index) * FastMath.TWO_PI : 0;
 
-        particleData.angles.set(x, y, z);
+        store.setAngles(index, x, y, z);
     }
 
     /**
      * Calculates a next rotation speed.
      *
-     * @param data  the influencer's data.
-     * @param index the index.
-     * @param store the store vector.
+     * @param store   the particles store.
+     * @param dataId  the influencer's data id.
+     * @param index   the particle's index.
+     * @param step    the step of the speed.
+     * @param columnX the first float column to store the speed.
      */
     private void nextRotationSpeed(
-            @NotNull RotationInfluencerData data,
+            @NotNull ParticleStore store,
+            int dataId,
             int index,
-            @NotNull Vector3f store
+            int step,
+            int columnX
     ) {
 
-        store.set(speeds.get(index));
+        Vector3f speed = speeds.get(step);
+
+        float x = speed.x;
+        float y = speed.y;
+        float z = speed.z;
 
         if (isRandomSpeed()) {
-            Random random = RandomUtils.getRandom();
-            store.set(random.nextFloat() * store.x,
-                    random.nextFloat() * store.y,
-                    random.nextFloat() * store.z);
+            x *= store.nextRandomFloat(index);
+            y *= store.nextRandomFloat(index);
+            z *= store.nextRandomFloat(index);
         }
 
         if (isRandomDirection()) {
-            store.x = data.rotateDirectionX ? store.x : -store.x;
-            store.y = data.rotateDirectionY ? store.y : -store.y;
-            store.z = data.rotateDirectionZ ? store.z : -store.z;
+            int directions = store.getIntColumn(dataId, DIRECTIONS)[index];
+            x = (directions & DIRECTION_X) != 0 ? x : -x;
+            y = (directions & DIRECTION_Y) != 0 ? y : -y;
+            z = (directions & DIRECTION_Z) != 0 ? z : -z;
         }
+
+        store.getFloatColumn(dataId, columnX)[index] = x;
+        store.getFloatColumn(dataId, columnX + 1)[index] = y;
+        store.getFloatColumn(dataId, columnX + 2)[index] = z;
     }
 
     @Override
     protected void resetImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull RotationInfluencer.RotationInfluencerData data
+            int dataId
     ) {
-        particleData.angles.set(0, 0, 0);
-        super.resetImpl(emitterNode, particleData, data);
+        particleData.getStore().setAngles(particleData.index, 0, 0, 0);
+        super.resetImpl(emitterNode, particleData, dataId);
     }
 
     /**
@@ -1,68 +1,48 @@
 package tonegod.emitter.influencers.impl;
 
+import static com.jme3.math.FastMath.interpolateLinear;
 import com.jme3.export.*;
 import com.jme3.math.Vector3f;
 import com.jme3.util.SafeArrayList;
-import com.jme3.util.clone.Cloner;
 import org.jetbrains.annotations.NotNull;
 import tonegod.emitter.Messages;
 import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.influencers.BatchParticleInfluencer;
 import tonegod.emitter.influencers.ParticleInfluencer;
 import tonegod.emitter.interpolation.Interpolation;
 import tonegod.emitter.particle.ParticleData;
-import tonegod.emitter.util.RandomUtils;
+import tonegod.emitter.particle.ParticleStore;
+import tonegod.emitter.particle.ParticleTempVars;
 
 import java.io.IOException;
-import java.util.Random;
 
 /**
  * The implementation of the {@link ParticleInfluencer} to change size of particles.
  *
  * @author t0neg0d, JavaSaBr
  */
-public final class SizeInfluencer extends AbstractInterpolatedParticleInfluencer<SizeInfluencer.SizeInfluencerData> {
+public final class SizeInfluencer extends AbstractInterpolatedWithColumnsParticleInfluencer
+    implements BatchParticleInfluencer<Void> {
 
-    protected static class SizeInfluencerData extends BaseInterpolationData {
-
-        /**
-         * The start size.
-         */
-        @NotNull
-        public Vector3f startSize;
-
-        /**
-         * The end size.
-         */
-        @NotNull
-        public Vector3f endSize;
-
-        private SizeInfluencerData() {
-            this.startSize = new Vector3f(1, 1, 1);
-            this.endSize = new Vector3f(0, 0, 0);
-        }
-
-        @Override
-        public void cloneFields(@NotNull Cloner cloner, @NotNull Object original) {
-            super.cloneFields(cloner, original);
-
-            startSize = cloner.clone(startSize);
-            endSize = cloner.clone(endSize);
-        }
-    }
+    /**
+     * The float columns of the start size.
+     */
+    private static final int START_SIZE_X = INTERPOLATION_FLOAT_COLUMNS;
+    private static final int START_SIZE_Y = INTERPOLATION_FLOAT_COLUMNS + 1;
+    private static final int START_SIZE_Z = INTERPOLATION_FLOAT_COLUMNS + 2;
 
     /**
-     * The list of sizes.
+     * The float columns of the end size.
      */
-    @NotNull
-    private SafeArrayList<Vector3f> sizes;
+    private static final int END_SIZE_X = INTERPOLATION_FLOAT_COLUMNS + 3;
+    private static final int END_SIZE_Y = INTERPOLATION_FLOAT_COLUMNS + 4;
+    private static final int END_SIZE_Z = INTERPOLATION_FLOAT_COLUMNS + 5;
 
     /**
-     * The vectors for temp calculating.
+     * The list of sizes.
      */
     @NotNull
-    private final Vector3f tempV3a;
-    @NotNull
-    private final Vector3f tempV3b;
+    private SafeArrayList<Vector3f> sizes;
 
     /**
      * The random size tolerance value.
@@ -84,8 +64,6 @@ public final class SizeInfluencer extends AbstractInterpolatedParticleInfluencer
 
     public SizeInfluencer() {
         this.sizes = new SafeArrayList<>(Vector3f.class);
-        this.tempV3a = new Vector3f();
-        this.tempV3b = new Vector3f();
         this.randomSizeTolerance = 0.5f;
     }
 
@@ -95,54 +73,121 @@ public final class SizeInfluencer extends AbstractInterpolatedParticleInfluencer
     }
 
     @Override
-    public @NotNull SizeInfluencer.SizeInfluencerData newDataObject() {
-        return new SizeInfluencerData();
+    public boolean isParallelUpdateSupported(@NotNull ParticleEmitterNode emitterNode) {
+        return true;
+    }
+
+    @Override
+    protected int getFloatColumnCount() {
+        return END_SIZE_Z + 1;
     }
 
     @Override
     protected void updateImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull SizeInfluencer.SizeInfluencerData data,
+            int dataId,
             float tpf
     ) {
 
-        data.interval += tpf;
+        ParticleStore store = particleData.getStore();
+        int index = particleData.index;
 
-        if (data.index >= sizes.size()) {
-            data.index = 0;
-        }
+        float blend = updateBlend(store, dataId, index, store.getIntColumn(dataId, STEP),
+                store.getFloatColumn(dataId, INTERVAL), store.getFloatColumn(dataId, DURATION),
+                particleData.getTempVars(), tpf);
+
+        store.sizeX[index] = interpolateLinear(blend, store.getFloatColumn(dataId, START_SIZE_X)[index],
+                store.getFloatColumn(dataId, END_SIZE_X)[index]);
+        store.sizeY[index] = interpolateLinear(blend, store.getFloatColumn(dataId, START_SIZE_Y)[index],
+                store.getFloatColumn(dataId, END_SIZE_Y)[index]);
+        store.sizeZ[index] = interpolateLinear(blend, store.getFloatColumn(dataId, START_SIZE_Z)[index],
+                store.getFloatColumn(dataId, END_SIZE_Z)[index]);
+
+        super.updateImpl(emitterNode, particleData, dataId, tpf);
+    }
 
-        if (data.interval >= data.duration) {
-            updateSize(data, particleData);
+    @Override
+    public void updateBatch(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore store,
+            @NotNull ParticleTempVars vars,
+            int dataId,
+            int from,
+            int to,
+            float tpf
+    ) {
+
+        if (!isEnabled()) {
+            return;
         }
 
-        Interpolation interpolation = data.interpolation;
+        boolean[] active = store.active;
+        int[] steps = store.getIntColumn(dataId, STEP);
+        float[] intervals = store.getFloatColumn(dataId, INTERVAL);
+        float[] durations = store.getFloatColumn(dataId, DURATION);
+        float[] startSizeX = store.getFloatColumn(dataId, START_SIZE_X);
+        float[] startSizeY = store.getFloatColumn(dataId, START_SIZE_Y);
+        float[] startSizeZ = store.getFloatColumn(dataId, START_SIZE_Z);
+        float[] endSizeX = store.getFloatColumn(dataId, END_SIZE_X);
+        float[] endSizeY = store.getFloatColumn(dataId, END_SIZE_Y);
+        float[] endSizeZ = store.getFloatColumn(dataId, END_SIZE_Z);
+        float[] sizeX = store.sizeX;
+        float[] sizeY = store.sizeY;
+        float[] sizeZ = store.sizeZ;
+
+        for (int i = from; i < to; i++) {
+
+            if (!active[i]) {
+                continue;
+            }
 
-        blend = interpolation.apply(data.interval / data.duration);
-        particleData.size.interpolateLocal(data.startSize, data.endSize, blend);
+            float blend = updateBlend(store, dataId, i, steps, intervals, durations, vars, tpf);
 
-        super.updateImpl(emitterNode, particleData, data, tpf);
+            sizeX[i] = interpolateLinear(blend, startSizeX[i], endSizeX[i]);
+            sizeY[i] = interpolateLinear(blend, startSizeY[i], endSizeY[i]);
+            sizeZ[i] = interpolateLinear(blend, startSizeZ[i], endSizeZ[i]);
+        }
     }
 
     /**
-     * Updates the particle's size.
+     * Updates the interpolation step of the particle and calculates the blend between its start and end sizes.
      *
-     * @param data the influencer's data.
-     * @param particleData the particle's data.
+     * @param store     the particles store.
+     * @param dataId    the influencer's data id.
+     * @param index     the particle's index.
+     * @param steps     the column of current steps.
+     * @param intervals the column of intervals.
+     * @param durations the column of durations.
+     * @param vars      the temp objects.
+     * @param tpf       the time per frame.
+     * @return the blend between the start and end sizes.
      */
-    private void updateSize(@NotNull SizeInfluencerData data, @NotNull ParticleData particleData) {
-        data.index++;
+    private float updateBlend(
+            @NotNull ParticleStore store,
+            int dataId,
+            int index,
+            @NotNull int[] steps,
+            @NotNull float[] intervals,
+            @NotNull float[] durations,
+            @NotNull ParticleTempVars vars,
+            float tpf
+    ) {
+
+        intervals[index] += tpf;
 
-        if (data.index >= sizes.size()) {
-            data.index = 0;
+        if (steps[index] >= sizes.size()) {
+            steps[index] = 0;
         }
 
-        calculateNextSizeRange(data, particleData);
+        if (intervals[index] >= durations[index]) {
+            updateInterpolation(steps, intervals, durations, index, sizes.size());
+            calculateNextSizeRange(store, dataId, index, steps[index], vars);
+        }
 
-        SafeArrayList<Interpolation> interpolations = getInterpolations();
-        data.interpolation = interpolations.get(data.index);
-        data.interval -= data.duration;
+        Interpolation interpolation = getInterpolations().getArray()[steps[index]];
+
+        return interpolation.apply(intervals[index] / durations[index]);
     }
 
     @Override
@@ -164,84 +209,112 @@ public final class SizeInfluencer extends AbstractInterpolatedParticleInfluencer
     protected void initializeImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull SizeInfluencer.SizeInfluencerData data
+            int dataId
     ) {
 
         SafeArrayList<Interpolation> interpolations = getInterpolations();
+        ParticleStore store = particleData.getStore();
+        int index = particleData.index;
 
-        data.index = 0;
-        data.interval = 0F;
-        data.duration = isCycle() ? getFixedDuration() :
-            particleData.startLife / ((float) interpolations.size() - 1 - data.index);
-
-        calculateNextSizeRange(data, particleData);
+        store.getIntColumn(dataId, STEP)[index] = 0;
+        store.getFloatColumn(dataId, INTERVAL)[index] = 0F;
+        store.getFloatColumn(dataId, DURATION)[index] = isCycle() ? getFixedDuration() :
+            particleData.getStartLife() / ((float) interpolations.size() - 1);
 
-        data.interpolation = interpolations.get(data.index);
+        calculateNextSizeRange(store, dataId, index, 0, particleData.getTempVars());
 
-        super.initializeImpl(emitterNode, particleData, data);
+        super.initializeImpl(emitterNode, particleData, dataId);
     }
 
     /**
      * Calculates next size.
      *
-     * @param data the influencer's data.
-     * @param particleData the particle's data.
+     * @param store  the particles store.
+     * @param dataId the influencer's data id.
+     * @param index  the particle's index.
+     * @param step   the current step.
+     * @param vars   the temp objects.
      */
-    private void calculateNextSizeRange(@NotNull SizeInfluencerData data, @NotNull ParticleData particleData) {
+    private void calculateNextSizeRange(
+            @NotNull ParticleStore store,
+            int dataId,
+            int index,
+            int step,
+            @NotNull ParticleTempVars vars
+    ) {
 
         SafeArrayList<Vector3f> sizes = getSizes();
+        Vector3f startSize = vars.vect1;
+        Vector3f endSize = vars.vect2;
 
-        if (data.index == 0) {
+        if (step == 0) {
 
-            data.startSize.set(sizes.get(data.index));
+            startSize.set(sizes.get(step));
 
             if (isRandomSize()) {
-                final Random random = RandomUtils.getRandom();
-                tempV3a.set(data.startSize);
-                tempV3b.set(tempV3a).multLocal(randomSizeTolerance);
-                tempV3a.subtractLocal(tempV3b);
-                tempV3b.multLocal(random.nextFloat());
-                tempV3a.addLocal(tempV3b);
-                data.startSize.set(tempV3a);
+                applyRandomTolerance(store, index, startSize, vars.vect3);
             }
 
         } else {
-            data.startSize.set(data.endSize);
+            startSize.set(store.getFloatColumn(dataId, END_SIZE_X)[index],
+                    store.getFloatColumn(dataId, END_SIZE_Y)[index],
+                    store.getFloatColumn(dataId, END_SIZE_Z)[index]);
         }
 
         if (sizes.size() > 1) {
 
-            if (data.index == sizes.size() - 1) {
-                data.endSize.set(sizes.get(0));
+            if (step == sizes.size() - 1) {
+                endSize.set(sizes.get(0));
             } else {
-                data.endSize.set(sizes.get(data.index + 1));
+                endSize.set(sizes.get(step + 1));
             }
 
             if (isRandomSize()) {
-                Random random = RandomUtils.getRandom();
-                tempV3a.set(data.endSize);
-                tempV3b.set(tempV3a).multLocal(randomSizeTolerance);
-                tempV3a.subtractLocal(tempV3b);
-                tempV3b.multLocal(random.nextFloat());
-                tempV3a.addLocal(tempV3b);
-                data.endSize.set(tempV3a);
+                applyRandomTolerance(store, index, endSize, vars.vect3);
             }
 
         } else {
-            data.endSize.set(data.startSize);
+            endSize.set(startSize);
         }
 
-        particleData.size.set(data.startSize);
+        store.getFloatColumn(dataId, START_SIZE_X)[index] = startSize.x;
+        store.getFloatColumn(dataId, START_SIZE_Y)[index] = startSize.y;
+        store.getFloatColumn(dataId, START_SIZE_Z)[index] = startSize.z;
+        store.getFloatColumn(dataId, END_SIZE_X)[index] = endSize.x;
+        store.getFloatColumn(dataId, END_SIZE_Y)[index] = endSize.y;
+        store.getFloatColumn(dataId, END_SIZE_Z)[index] = endSize.z;
+
+        store.setSize(index, startSize);
+    }
+
+    /**
+     * Applies the random size tolerance to the size.
+     *
+     * @param store the particles store.
+     * @param index the particle's index.
+     * @param size  the size.
+     * @param temp  the temp vector.
+     */
+    private void applyRandomTolerance(
+            @NotNull ParticleStore store,
+            int index,
+            @NotNull Vector3f size,
+            @NotNull Vector3f temp
+    ) {
+        temp.set(size).multLocal(randomSizeTolerance);
+        size.subtractLocal(temp);
+        temp.multLocal(store.nextRandomFloat(index));
+        size.addLocal(temp);
     }
 
     @Override
     protected void resetImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull SizeInfluencer.SizeInfluencerData data
+            int dataId
     ) {
-        particleData.size.set(1, 1, 1);
-        super.resetImpl(emitterNode, particleData, data);
+        particleData.getStore().setSize(particleData.index, Vector3f.UNIT_XYZ);
+        super.resetImpl(emitterNode, particleData, dataId);
     }
 
     /**
@@ -9,8 +9,11 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import tonegod.emitter.Messages;
 import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.influencers.BatchParticleInfluencer;
 import tonegod.emitter.influencers.ParticleInfluencer;
 import tonegod.emitter.particle.ParticleData;
+import tonegod.emitter.particle.ParticleStore;
+import tonegod.emitter.particle.ParticleTempVars;
 
 import java.io.IOException;
 
@@ -19,7 +22,8 @@ import java.io.IOException;
  *
  * @author t0neg0d, JavaSaBr
  */
-public class SpriteInfluencer extends AbstractInterpolatedParticleInfluencer<BaseInterpolationData> {
+public class SpriteInfluencer extends AbstractInterpolatedWithColumnsParticleInfluencer
+    implements BatchParticleInfluencer<Void> {
 
     /**
      * The frame sequence.
@@ -53,85 +57,147 @@ public class SpriteInfluencer extends AbstractInterpolatedParticleInfluencer<Bas
     }
 
     @Override
-    public @NotNull BaseInterpolationData newDataObject() {
-        return new BaseInterpolationData();
+    public boolean isParallelUpdateSupported(@NotNull ParticleEmitterNode emitterNode) {
+        return true;
     }
 
     @Override
     protected void updateImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull BaseInterpolationData data,
+            int dataId,
             float tpf
     ) {
 
-        if (!isAnimate()) {
-            super.updateImpl(emitterNode, particleData, data, tpf);
-            return;
+        if (isAnimate()) {
+            ParticleStore store = particleData.getStore();
+            updateAnimation(emitterNode, store, particleData.index, store.getIntColumn(dataId, STEP),
+                    store.getFloatColumn(dataId, INTERVAL), store.getFloatColumn(dataId, DURATION), tpf);
         }
 
-        data.interval += tpf;
+        super.updateImpl(emitterNode, particleData, dataId, tpf);
+    }
+
+    @Override
+    public void updateBatch(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore store,
+            @NotNull ParticleTempVars vars,
+            int dataId,
+            int from,
+            int to,
+            float tpf
+    ) {
+
+        if (!isEnabled() || !isAnimate()) {
+            return;
+        }
 
-        float targetInterval = isCycle() ? (getFixedDuration() / 100F) : data.duration;
+        boolean[] active = store.active;
+        int[] steps = store.getIntColumn(dataId, STEP);
+        float[] intervals = store.getFloatColumn(dataId, INTERVAL);
+        float[] durations = store.getFloatColumn(dataId, DURATION);
 
-        if (data.interval >= targetInterval) {
-            updateFrame(emitterNode, data, particleData, targetInterval);
+        for (int i = from; i < to; i++) {
+            if (active[i]) {
+                updateAnimation(emitterNode, store, i, steps, intervals, durations, tpf);
+            }
         }
+    }
+
+    /**
+     * Updates the sprite animation of the particle.
+     *
+     * @param emitterNode the emitter node.
+     * @param store       the particles store.
+     * @param index       the particle's index.
+     * @param steps       the column of current steps.
+     * @param intervals   the column of intervals.
+     * @param durations   the column of durations.
+     * @param tpf         the time per frame.
+     */
+    private void updateAnimation(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull ParticleStore store,
+            int index,
+            @NotNull int[] steps,
+            @NotNull float[] intervals,
+            @NotNull float[] durations,
+            float tpf
+    ) {
 
-        super.updateImpl(emitterNode, particleData, data, tpf);
+        intervals[index] += tpf;
+
+        float targetInterval = isCycle() ? (getFixedDuration() / 100F) : durations[index];
+
+        if (intervals[index] >= targetInterval) {
+            updateFrame(emitterNode, steps, store, index);
+            intervals[index] -= targetInterval;
+        }
     }
 
     /**
      * Updates a frame for the particle.
      *
-     * @param data           influencer's data.
-     * @param particleData   the particle's data.
-     * @param targetInterval the target interval.
+     * @param emitterNode the emitter node.
+     * @param steps       the column of current steps.
+     * @param store       the particles store.
+     * @param index       the particle's index.
      */
     private void updateFrame(
             @NotNull ParticleEmitterNode emitterNode,
-            @NotNull BaseInterpolationData data,
-            @NotNull ParticleData particleData,
-            float targetInterval
+            @NotNull int[] steps,
+            @NotNull ParticleStore store,
+            int index
     ) {
 
+        int[] spriteCol = store.spriteCol;
+        int[] spriteRow = store.spriteRow;
+
         if (frameSequence == null) {
 
-            particleData.spriteCol++;
+            spriteCol[index]++;
 
-            if (particleData.spriteCol == emitterNode.getSpriteColCount()) {
-                particleData.spriteCol = 0;
-                particleData.spriteRow++;
+            if (spriteCol[index] == emitterNode.getSpriteColCount()) {
+                spriteCol[index] = 0;
+                spriteRow[index]++;
 
-                if (particleData.spriteRow == emitterNode.getSpriteRowCount()) {
-                    particleData.spriteRow = 0;
+                if (spriteRow[index] == emitterNode.getSpriteRowCount()) {
+                    spriteRow[index] = 0;
                 }
             }
 
         } else {
 
-            data.index++;
+            int step = steps[index] + 1;
 
-            if (data.index == frameSequence.length) {
-                data.index = 0;
+            if (step == frameSequence.length) {
+                step = 0;
             }
 
-            int frame = frameSequence[data.index];
+            steps[index] = step;
 
-            particleData.spriteRow = (int) FastMath.floor(frame / emitterNode.getSpriteRowCount()) - 2;
-            particleData.spriteCol = frame % emitterNode.getSpriteColCount();
-        }
+            int frame = frameSequence[step];
 
-        data.interval -= targetInterval;
+            spriteRow[index] = (int) FastMath.floor(frame / emitterNode.getSpriteRowCount()) - 2;
+            spriteCol[index] = frame % emitterNode.getSpriteColCount();
+        }
     }
 
     @Override
     protected void initializeImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull BaseInterpolationData data
+            int dataId
     ) {
 
+        ParticleStore store = particleData.getStore();
+        int[] spriteCol = store.spriteCol;
+        int[] spriteRow = store.spriteRow;
+        int[] steps = store.getIntColumn(dataId, STEP);
+
+        int index = particleData.index;
+
         int spriteRowCount = emitterNode.getSpriteRowCount();
         int spriteColCount = emitterNode.getSpriteColCount();
 
@@ -144,23 +210,23 @@ public class SpriteInfluencer extends AbstractInterpolatedParticleInfluencer<Bas
 
         if (isRandomStartImage()) {
             if (frameSequence == null) {
-                data.index = FastMath.nextRandomInt(0, totalFrames - 1);
-                particleData.spriteRow = (int) FastMath.floor(data.index / spriteRowCount) - 1;
-                particleData.spriteCol = data.index % spriteColCount;
+                steps[index] = store.nextRandomInt(index, 0, totalFrames - 1);
+                spriteRow[index] = (int) FastMath.floor(steps[index] / spriteRowCount) - 1;
+                spriteCol[index] = steps[index] % spriteColCount;
             } else {
-                data.index = FastMath.nextRandomInt(0, frameSequence.length - 1);
-                particleData.spriteRow = (int) FastMath.floor(frameSequence[data.index] / spriteRowCount) - 1;
-                particleData.spriteCol = frameSequence[data.index] % spriteColCount;
+                steps[index] = store.nextRandomInt(index, 0, frameSequence.length - 1);
+                spriteRow[index] = (int) FastMath.floor(frameSequence[steps[index]] / spriteRowCount) - 1;
+                spriteCol[index] = frameSequence[steps[index]] % spriteColCount;
             }
         } else {
             if (frameSequence != null) {
-                data.index = frameSequence[0];
-                particleData.spriteRow = (int) FastMath.floor(frameSequence[data.index] / spriteRowCount) - 2;
-                particleData.spriteCol = frameSequence[data.index] % spriteColCount;
+                steps[index] = frameSequence[0];
+                spriteRow[index] = (int) FastMath.floor(frameSequence[steps[index]] / spriteRowCount) - 2;
+                spriteCol[index] = frameSequence[steps[index]] % spriteColCount;
             } else {
-                data.index = 0;
-                particleData.spriteRow = 0;
-                particleData.spriteCol = 0;
+                steps[index] = 0;
+                spriteRow[index] = 0;
+                spriteCol[index] = 0;
             }
         }
 
@@ -168,32 +234,40 @@ public class SpriteInfluencer extends AbstractInterpolatedParticleInfluencer<Bas
             return;
         }
 
-        data.interval = 0;
+        store.getFloatColumn(dataId, INTERVAL)[index] = 0;
 
         if (isCycle()) {
             return;
         }
 
+        float[] durations = store.getFloatColumn(dataId, DURATION);
+
         if (frameSequence == null) {
-            data.duration = particleData.startLife / (float) totalFrames;
+            durations[index] = particleData.getStartLife() / (float) totalFrames;
         } else {
-            data.duration = particleData.startLife / (float) frameSequence.length;
+            durations[index] = particleData.getStartLife() / (float) frameSequence.length;
         }
 
-        super.initializeImpl(emitterNode, particleData, data);
+        super.initializeImpl(emitterNode, particleData, dataId);
     }
 
     @Override
     protected void resetImpl(
             @NotNull ParticleEmitterNode emitterNode,
             @NotNull ParticleData particleData,
-            @NotNull BaseInterpolationData data
+            int dataId
     ) {
 
-        particleData.spriteCol = 0;
-        particleData.spriteRow = 0;
+        ParticleStore store = particleData.getStore();
+        int[] spriteCol = store.spriteCol;
+        int[] spriteRow = store.spriteRow;
+
+        int index = particleData.index;
+
+        spriteCol[index] = 0;
+        spriteRow[index] = 0;
 
-        super.resetImpl(emitterNode, particleData, data);
+        super.resetImpl(emitterNode, particleData, dataId);
     }
 
     /**
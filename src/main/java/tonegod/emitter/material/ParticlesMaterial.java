@@ -25,6 +25,11 @@ public class ParticlesMaterial {
      */
     public static final String PROP_QUADRATIC = "Quadratic";
 
+    /**
+     * The constant PROP_INSTANCING.
+     */
+    public static final String PROP_INSTANCING = "Instancing";
+
     /**
      * The material of particles.
      */
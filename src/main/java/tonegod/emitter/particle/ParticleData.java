@@ -1,172 +1,73 @@
 package tonegod.emitter.particle;
 
-import com.jme3.math.ColorRGBA;
-import com.jme3.math.FastMath;
 import com.jme3.math.Vector3f;
-import com.jme3.util.clone.Cloner;
-import com.jme3.util.clone.JmeCloneable;
 import org.jetbrains.annotations.NotNull;
-import tonegod.emitter.EmitterMesh;
+import tonegod.emitter.EmitterShape;
 import tonegod.emitter.ParticleEmitterNode;
 import tonegod.emitter.influencers.ParticleInfluencer;
 import tonegod.emitter.interpolation.Interpolation;
-
-import java.util.Arrays;
+import tonegod.emitter.util.RandomUtils;
 
 /**
- * The particle objectData class.
+ * The particle objectData class. It's a light cursor over the {@link ParticleStore}, all particle's state is
+ * stored in the columns of the store by the current {@link #index}.
  *
  * @author t0neg0d, JavaSaBr
  */
-public final class ParticleData implements Cloneable, JmeCloneable {
-
-    @NotNull
-    private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
-
-    /**
-     * The color.
-     */
-    @NotNull
-    public ColorRGBA color;
-
-    /**
-     * The object data map.
-     */
-    @NotNull
-    private Object[] data;
-
-    /**
-     * The initial position.
-     */
-    @NotNull
-    public Vector3f initialPosition;
-
-    /**
-     * The random offset.
-     */
-    @NotNull
-    public Vector3f randomOffset;
+public final class ParticleData {
 
     /**
-     * The particle's size.
+     * The particles store.
      */
     @NotNull
-    public Vector3f size;
+    private final ParticleStore store;
 
     /**
-     * The particle's velocity.
-     */
-    @NotNull
-    public Vector3f velocity;
-
-    /**
-     * The reverses particle's velocity.
-     */
-    @NotNull
-    public Vector3f reversedVelocity;
-
-    /**
-     * The current particle's position.
-     */
-    @NotNull
-    public Vector3f position;
-
-    /**
-     * The rotation angles per axis (in radians).
+     * The temp vector.
      */
     @NotNull
-    public Vector3f angles;
+    private final Vector3f tempV3;
 
     /**
-     * The UP vector.
+     * The offset direction of the edge emission point.
      */
     @NotNull
-    public Vector3f upVec;
+    private final Vector3f edgeDirection;
 
     /**
-     * The temp vector.
+     * The temp objects of influencers.
      */
     @NotNull
-    public Vector3f tempV3;
-
-    /**
-     * The force at which the particle was emitted
-     */
-    public float force;
-
-    /**
-     * The life, in seconds.
-     */
-    public float life;
-
-    /**
-     * The total particle lifespan.
-     */
-    public float startLife;
-
-    /**
-     * The current blend value.
-     */
-    public float blend;
-
-    /**
-     * The interpolated blend value.
-     */
-    public float interpBlend;
-
-    /**
-     * The index of the emitter shape's mesh triangle the particle was emitted from
-     */
-    public int triangleIndex;
-
-    /**
-     * The initial length.
-     */
-    public float initialLength;
-
-    /**
-     * The alpha.
-     */
-    public float alpha;
-
-    /**
-     * The sprite columns.
-     */
-    public int spriteCol;
-
-    /**
-     * The sprite rows.
-     */
-    public int spriteRow;
+    private final ParticleTempVars tempVars;
 
     /**
      * The particles index
      */
     public int index;
 
+    public ParticleData(@NotNull ParticleStore store) {
+        this.store = store;
+        this.tempV3 = new Vector3f();
+        this.edgeDirection = new Vector3f();
+        this.tempVars = new ParticleTempVars();
+    }
+
     /**
-     * The activity state of this particle.
+     * Gets the particles store.
+     *
+     * @return the particles store.
      */
-    private boolean active;
-
-    private ParticleData() {
-        this.data = EMPTY_OBJECT_ARRAY;
-        this.color = new ColorRGBA(1, 1, 1, 1);
-        this.size = new Vector3f(1f, 1f, 1f);
-        this.velocity = new Vector3f();
-        this.reversedVelocity = new Vector3f();
-        this.position = new Vector3f();
-        this.alpha = 1;
-        this.initialPosition = new Vector3f();
-        this.randomOffset = new Vector3f();
-        this.angles = new Vector3f();
-        this.upVec = new Vector3f(0, 1, 0);
-        this.tempV3 = new Vector3f();
+    public @NotNull ParticleStore getStore() {
+        return store;
     }
 
-    public ParticleData(@NotNull ParticleEmitterNode emitterNode) {
-        this();
-        emitterNode.onCreated(this);
+    /**
+     * Gets the temp objects which influencers can use while processing this cursor.
+     *
+     * @return the temp objects.
+     */
+    public @NotNull ParticleTempVars getTempVars() {
+        return tempVars;
     }
 
     /**
@@ -176,11 +77,7 @@ public final class ParticleData implements Cloneable, JmeCloneable {
      * @param defaultDataSize the default data size.
      */
     public void reserveDataSlot(int dataId, int defaultDataSize) {
-        if (data == EMPTY_OBJECT_ARRAY) {
-            data = new Object[Math.max(defaultDataSize, dataId + 1)];
-        } else if (dataId >= data.length) {
-            data = Arrays.copyOf(data, dataId + 1);
-        }
+        store.reserveDataSlot(dataId, defaultDataSize);
     }
 
     /**
@@ -216,18 +113,7 @@ public final class ParticleData implements Cloneable, JmeCloneable {
      * @param data   the data.
      */
     public void setData(int dataId, @NotNull Object data) {
-        this.data[dataId] = data;
-    }
-
-    /**
-     * Removes data by the data id.
-     *
-     * @param dataId the data id.
-     */
-    public void removeData(int dataId) {
-        if (data.length > dataId) {
-            data[dataId] = null;
-        }
+        store.setData(dataId, index, data);
     }
 
     /**
@@ -237,7 +123,7 @@ public final class ParticleData implements Cloneable, JmeCloneable {
      * @return true if data is exist by the data id.
      */
     public boolean hasData(int dataId) {
-        return data.length > dataId && data[dataId] != null;
+        return store.hasData(dataId, index);
     }
 
     /**
@@ -248,12 +134,7 @@ public final class ParticleData implements Cloneable, JmeCloneable {
      * @return the exist data or null.
      */
     public @NotNull <T> T getData(int dataId) {
-        return (T) data[dataId];
-    }
-
-    @Override
-    public @NotNull ParticleData clone() throws CloneNotSupportedException {
-        return (ParticleData) super.clone();
+        return store.getData(dataId, index);
     }
 
     /**
@@ -264,8 +145,13 @@ public final class ParticleData implements Cloneable, JmeCloneable {
      */
     public void update(@NotNull ParticleEmitterNode emitterNode, float tpf) {
 
+        ParticleStore store = getStore();
+        int index = this.index;
+
         if (!emitterNode.isStaticParticles()) {
-            life -= tpf;
+
+            float life = store.life[index] - tpf;
+            store.life[index] = life;
 
             if (life <= 0) {
                 reset(emitterNode);
@@ -274,27 +160,51 @@ public final class ParticleData implements Cloneable, JmeCloneable {
 
             Interpolation interpolation = emitterNode.getInterpolation();
 
-            blend = 1.0f * (startLife - life) / startLife;
-            interpBlend = interpolation.apply(blend);
+            float startLife = store.startLife[index];
+            float blend = 1.0f * (startLife - life) / startLife;
+
+            store.blend[index] = blend;
+            store.interpBlend[index] = interpolation.apply(blend);
         }
 
         emitterNode.updateInfluencers(this, tpf);
 
-        tempV3.set(velocity).multLocal(tpf);
-        position.addLocal(tempV3);
+        // the particle could be killed by an influencer
+        if (!store.active[index]) {
+            return;
+        }
+
+        store.posX[index] += store.velX[index] * tpf;
+        store.posY[index] += store.velY[index] * tpf;
+        store.posZ[index] += store.velZ[index] * tpf;
 
-        // TODO: Test this!
         if (emitterNode.isStaticParticles()) {
+            updateStaticPosition(emitterNode);
+        }
+    }
 
-            EmitterMesh emitterShape = emitterNode.getEmitterShape();
-            emitterShape.setNext(triangleIndex);
+    /**
+     * Moves this static particle to its emission point on the emitter shape.
+     *
+     * @param emitterNode the emitter node.
+     */
+    public void updateStaticPosition(@NotNull ParticleEmitterNode emitterNode) {
 
-            if (emitterNode.isRandomEmissionPoint()) {
-                position.set(emitterShape.getNextTranslation().addLocal(randomOffset));
-            } else {
-                position.set(emitterShape.getNextTranslation());
-            }
-        }
+        ParticleStore store = getStore();
+        int index = this.index;
+
+        store.posX[index] = store.spawnX[index];
+        store.posY[index] = store.spawnY[index];
+        store.posZ[index] = store.spawnZ[index];
+    }
+
+    /**
+     * Gets the total particle lifespan.
+     *
+     * @return the total particle lifespan.
+     */
+    public float getStartLife() {
+        return store.startLife[index];
     }
 
     /**
@@ -303,7 +213,7 @@ public final class ParticleData implements Cloneable, JmeCloneable {
      * @return the initial length.
      */
     public float getInitialLength() {
-        return initialLength;
+        return store.initialLength[index];
     }
 
     /**
@@ -312,123 +222,135 @@ public final class ParticleData implements Cloneable, JmeCloneable {
      * @param emitterNode the emitter node.
      */
     public void initialize(@NotNull ParticleEmitterNode emitterNode) {
+        spawn(emitterNode, edgeDirection);
+        emitterNode.initializeInfluencers(this);
+        finishSpawn(edgeDirection);
+    }
+
+    /**
+     * Activates the particle and initializes its own state from the emitter before initializing influencers.
+     *
+     * @param emitterNode   the emitter node.
+     * @param edgeDirection the vector to store the offset direction of the edge emission point.
+     */
+    public void spawn(@NotNull ParticleEmitterNode emitterNode, @NotNull Vector3f edgeDirection) {
 
         emitterNode.notifyParticleActivated();
 
-        setActive(true);
+        ParticleStore store = getStore();
+        int index = this.index;
+
+        store.active[index] = true;
+        store.randomState[index] = RandomUtils.streamSeed(emitterNode.getRandomSeed(), index,
+                emitterNode.nextSpawnCounter());
 
         float lifeMin = emitterNode.getLifeMin();
         float lifeMax = emitterNode.getLifeMax();
 
-        blend = 0;
-        size.set(1, 1, 1);
+        store.blend[index] = 0;
+        store.sizeX[index] = 1;
+        store.sizeY[index] = 1;
+        store.sizeZ[index] = 1;
+
+        float startLife;
 
         if (lifeMin != lifeMax) {
-            startLife = (lifeMax - lifeMin) * FastMath.nextRandomFloat() + lifeMin;
+            startLife = (lifeMax - lifeMin) * store.nextRandomFloat(index) + lifeMin;
         } else {
             startLife = lifeMax;
         }
 
-        life = startLife;
+        store.startLife[index] = startLife;
+        store.life[index] = startLife;
 
         float forceMin = emitterNode.getForceMin();
         float forceMax = emitterNode.getForceMax();
+        float force;
 
         if (forceMin != forceMax) {
-            force = (forceMax - forceMin) * FastMath.nextRandomFloat() + forceMin;
+            force = (forceMax - forceMin) * store.nextRandomFloat(index) + forceMin;
         } else {
             force = forceMax;
         }
 
-        EmitterMesh emitterShape = emitterNode.getEmitterShape();
+        store.force[index] = force;
+
+        EmitterShape emitterShape = emitterNode.getEmitterShape();
         emitterShape.setNext();
 
-        triangleIndex = emitterShape.getTriangleIndex();
+        store.triangleIndex[index] = emitterShape.getTriangleIndex();
+
+        Vector3f translation = emitterShape.getNextTranslation();
 
         if (!emitterNode.isRandomEmissionPoint()) {
-            position.set(emitterShape.getNextTranslation());
+            store.setPosition(index, translation);
         } else {
-            randomOffset.set(emitterShape.calcRandomTranslation());
-            position.set(emitterShape.getNextTranslation().add(randomOffset));
+
+            Vector3f randomOffset = emitterShape.calcRandomTranslation();
+
+            store.offsetX[index] = randomOffset.x;
+            store.offsetY[index] = randomOffset.y;
+            store.offsetZ[index] = randomOffset.z;
+            store.posX[index] = translation.x + randomOffset.x;
+            store.posY[index] = translation.y + randomOffset.y;
+            store.posZ[index] = translation.z + randomOffset.z;
         }
 
-        velocity.set(emitterShape.calcNextDirection())
+        Vector3f normal = emitterShape.getNormal();
+
+        store.spawnX[index] = store.posX[index];
+        store.spawnY[index] = store.posY[index];
+        store.spawnZ[index] = store.posZ[index];
+        store.normalX[index] = normal.x;
+        store.normalY[index] = normal.y;
+        store.normalZ[index] = normal.z;
+
+        Vector3f velocity = tempV3.set(emitterShape.calcNextDirection())
                 .normalizeLocal()
                 .multLocal(force);
 
-        initialLength = velocity.length();
-        initialPosition.set(emitterNode.getWorldTranslation());
+        store.setVelocity(index, velocity);
+        store.initialLength[index] = velocity.length();
 
-        emitterNode.initializeInfluencers(this);
+        Vector3f worldTranslation = emitterNode.getSimulationTranslation();
+
+        store.initPosX[index] = worldTranslation.x;
+        store.initPosY[index] = worldTranslation.y;
+        store.initPosZ[index] = worldTranslation.z;
 
         switch (emitterNode.getEmissionPoint()) {
             case EDGE_BOTTOM: {
-                tempV3.set(emitterShape.calcNextDirection()).normalizeLocal();
-                tempV3.multLocal(size.getY());
-                position.addLocal(tempV3);
+                edgeDirection.set(emitterShape.calcNextDirection()).normalizeLocal();
                 break;
             }
             case EDGE_TOP: {
-                tempV3.set(emitterShape.calcNextDirection()).normalizeLocal();
-                tempV3.multLocal(size.getY());
-                position.subtractLocal(tempV3);
+                edgeDirection.set(emitterShape.calcNextDirection()).normalizeLocal().negateLocal();
                 break;
             }
+            default: {
+                edgeDirection.set(Vector3f.ZERO);
+            }
         }
     }
 
     /**
-     * Gets the particle's size.
+     * Finishes initializing the particle after initializing influencers.
      *
-     * @return the particle's size.
+     * @param edgeDirection the offset direction of the edge emission point.
      */
-    public @NotNull Vector3f getSize() {
-        return size;
-    }
+    public void finishSpawn(@NotNull Vector3f edgeDirection) {
 
-    /**
-     * Gets the particle's angles.
-     *
-     * @return the particle's angles.
-     */
-    public @NotNull Vector3f getAngles() {
-        return angles;
-    }
+        ParticleStore store = getStore();
+        int index = this.index;
 
-    /**
-     * Gets the particle's velocity.
-     *
-     * @return the particle's velocity.
-     */
-    public @NotNull Vector3f getVelocity() {
-        return velocity;
-    }
+        float sizeY = store.sizeY[index];
 
-    /**
-     * Gets the reversed particle's velocity.
-     *
-     * @return the reversed particle's velocity.
-     */
-    public @NotNull Vector3f getReversedVelocity() {
-        return reversedVelocity;
-    }
-
-    /**
-     * Gets the particle's position.
-     *
-     * @return the particle's position.
-     */
-    public @NotNull Vector3f getPosition() {
-        return position;
-    }
-
-    /**
-     * Gets the random offset.
-     *
-     * @return the random offset.
-     */
-    public @NotNull Vector3f getRandomOffset() {
-        return randomOffset;
+        store.posX[index] += edgeDirection.x * sizeY;
+        store.posY[index] += edgeDirection.y * sizeY;
+        store.posZ[index] += edgeDirection.z * sizeY;
+        store.prevPosX[index] = store.posX[index];
+        store.prevPosY[index] = store.posY[index];
+        store.prevPosZ[index] = store.posZ[index];
     }
 
     /**
@@ -437,34 +359,16 @@ public final class ParticleData implements Cloneable, JmeCloneable {
      * @param emitterNode the emitter node.
      */
     public void reset(@NotNull ParticleEmitterNode emitterNode) {
-        setActive(false);
-        emitterNode.notifyParticleDeactivated();
-        emitterNode.resetInfluencers(this);
-        emitterNode.setNextIndex(index);
-    }
 
-    @Override
-    public Object jmeClone() {
-        try {
-            return super.clone();
-        } catch (CloneNotSupportedException e) {
-            throw new RuntimeException(e);
+        if (store.life[index] <= 0 && !emitterNode.isStaticParticles()) {
+            emitterNode.notifyParticleEvent(ParticleEventBuffer.EVENT_DEATH, index);
+        } else {
+            emitterNode.notifyParticleEvent(ParticleEventBuffer.EVENT_KILL, index);
         }
-    }
 
-    @Override
-    public void cloneFields(@NotNull Cloner cloner, @NotNull Object original) {
-        data = data.length > 0 ? cloner.clone(data) : data;
-        color = cloner.clone(color);
-        initialPosition = cloner.clone(initialPosition);
-        randomOffset = cloner.clone(randomOffset);
-        size = cloner.clone(size);
-        velocity = cloner.clone(velocity);
-        reversedVelocity = cloner.clone(reversedVelocity);
-        position = cloner.clone(position);
-        angles = cloner.clone(angles);
-        upVec = cloner.clone(upVec);
-        tempV3 = cloner.clone(tempV3);
+        store.active[index] = false;
+        emitterNode.resetInfluencers(this);
+        emitterNode.notifyParticleDeactivated(index);
     }
 
     /**
@@ -473,15 +377,6 @@ public final class ParticleData implements Cloneable, JmeCloneable {
      * @return true if this particle is active.
      */
     public boolean isActive() {
-        return active;
-    }
-
-    /**
-     * Sets true if this particle is active.
-     *
-     * @param active  true if this particle is active.
-     */
-    private void setActive(boolean active) {
-        this.active = active;
+        return store.active[index];
     }
-}
\ No newline at end of file
+}
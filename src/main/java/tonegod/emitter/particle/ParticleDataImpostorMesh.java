@@ -152,6 +152,12 @@ public class ParticleDataImpostorMesh extends RotatedParticleDataMesh {
         q33.fromAngleAxis(33f * 2f * FastMath.DEG_TO_RAD, Vector3f.UNIT_Y);
     }
 
+    @Override
+    protected int getMaxCapacity() {
+        // the particles are addressed by unsigned short indexes
+        return 65536 / 12;
+    }
+
     @Override
     public void setImagesXY(int imagesX, int imagesY) {
         super.setImagesXY(imagesX, imagesY);
@@ -163,11 +169,13 @@ public class ParticleDataImpostorMesh extends RotatedParticleDataMesh {
 
     @Override
     public void updateParticleData(
-            @NotNull ParticleData[] particles,
+            @NotNull ParticleSnapshot snapshot,
             @NotNull Camera camera,
             @NotNull Matrix3f inverseRotation
     ) {
 
+        ParticleStore store = snapshot.getStore();
+
         ParticleEmitterNode emitterNode = getEmitterNode();
         Vector3f worldTranslation = emitterNode.getWorldTranslation();
         BillboardMode billboardMode = emitterNode.getBillboardMode();
@@ -186,123 +194,113 @@ public class ParticleDataImpostorMesh extends RotatedParticleDataMesh {
         colors.clear();
         texcoords.clear();
 
-        for (ParticleData particleData : particles) {
-
-            if (particleData.life == 0 || !particleData.isActive()) {
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
+        int count = snapshot.getActiveParticleCount();
+        int capacity = store.getCapacity();
+        float alpha = snapshot.getInterpolationAlpha();
+
+        for (int n = 0, i = snapshot.getActiveParticleStart(); n < count; n++, i++) {
+
+            if (i == capacity) {
+                i = 0;
+            }
+
+            updateRotation(store, i, billboardMode, camera);
+
+            if (emitterNode.isVelocityStretching()) {
+                Vector3f velocity = store.getVelocity(i, this.velocity);
+                up.multLocal(velocity.length() * emitterNode.getVelocityStretchFactor());
+            }
+
+            up.multLocal(store.sizeY[i]);
+            left.multLocal(store.sizeX[i]);
+
+            rotStore.fromAngleAxis(store.angleY[i], left);
+            left.set(rotStore.mult(left, tempV1));
+            up.set(rotStore.mult(up, tempV1));
+
+            rotStore.fromAngleAxis(store.angleX[i], up);
+            left.set(rotStore.mult(left, tempV1));
+            up.set(rotStore.mult(up, tempV1));
+
+            rotStore.fromAngleAxis(store.angleZ[i], dir);
+            left.set(rotStore.mult(left, tempV1));
+            up.set(rotStore.mult(up, tempV1));
+
+            if (emitterNode.isParticlesFollowEmitter()) {
+                store.getPosition(i, alpha, tempV2);
             } else {
 
-                updateRotation(particleData, billboardMode, camera);
-
-                particleData.upVec.set(up);
-
-                if (emitterNode.isVelocityStretching()) {
-                    Vector3f velocity = particleData.getVelocity();
-                    up.multLocal(velocity.length() * emitterNode.getVelocityStretchFactor());
-                }
-
-                up.multLocal(particleData.size.y);
-                left.multLocal(particleData.size.x);
-
-                rotStore.fromAngleAxis(particleData.angles.y, left);
-                left.set(rotStore.mult(left, tempV1));
-                up.set(rotStore.mult(up, tempV1));
-
-                rotStore.fromAngleAxis(particleData.angles.x, up);
-                left.set(rotStore.mult(left, tempV1));
-                up.set(rotStore.mult(up, tempV1));
-
-                rotStore.fromAngleAxis(particleData.angles.z, dir);
-                left.set(rotStore.mult(left, tempV1));
-                up.set(rotStore.mult(up, tempV1));
-
-                if (emitterNode.isParticlesFollowEmitter()) {
-                    tempV2.set(particleData.position);
-                } else {
-
-                    Vector3f subtract = worldTranslation
-                            .subtract(particleData.initialPosition, tempV1);
-
-                    tempV2.set(particleData.position)
-                            .subtractLocal(subtract);//.divide(8f));
-                }
-
-                q33.fromAngleAxis(33f * 2f * FastMath.DEG_TO_RAD, up);
-                left33.set(q33.mult(left, tempV1));
-                left66.set(q33.mult(left33, tempV1));
-
-                temp1V3.set(tempV2.x + left.x + up.x, tempV2.y + left.y + up.y, tempV2.z + left.z + up.z);
-                temp2V3.set(tempV2.x - left.x + up.x, tempV2.y - left.y + up.y, tempV2.z - left.z + up.z);
-                temp3V3.set(tempV2.x + left.x - up.x, tempV2.y + left.y - up.y, tempV2.z + left.z - up.z);
-                temp4V3.set(tempV2.x - left.x - up.x, tempV2.y - left.y - up.y, tempV2.z - left.z - up.z);
-                temp1aV3.set(tempV2.x + left33.x + up.x, tempV2.y + left33.y + up.y, tempV2.z + left33.z + up.z);
-                temp2aV3.set(tempV2.x - left33.x + up.x, tempV2.y - left33.y + up.y, tempV2.z - left33.z + up.z);
-                temp3aV3.set(tempV2.x + left33.x - up.x, tempV2.y + left33.y - up.y, tempV2.z + left33.z - up.z);
-                temp4aV3.set(tempV2.x - left33.x - up.x, tempV2.y - left33.y - up.y, tempV2.z - left33.z - up.z);
-                temp1bV3.set(tempV2.x + left66.x + up.x, tempV2.y + left66.y + up.y, tempV2.z + left66.z + up.z);
-                temp2bV3.set(tempV2.x - left66.x + up.x, tempV2.y - left66.y + up.y, tempV2.z - left66.z + up.z);
-                temp3bV3.set(tempV2.x + left66.x - up.x, tempV2.y + left66.y - up.y, tempV2.z + left66.z - up.z);
-                temp4bV3.set(tempV2.x - left66.x - up.x, tempV2.y - left66.y - up.y, tempV2.z - left66.z - up.z);
-
-                // Face 1
-                positions.put(temp1V3.x)
-                        .put(temp1V3.y)
-                        .put(temp1V3.z);
-                positions.put(temp2V3.x)
-                        .put(temp2V3.y)
-                        .put(temp2V3.z);
-                positions.put(temp3V3.x)
-                        .put(temp3V3.y)
-                        .put(temp3V3.z);
-                positions.put(temp4V3.x)
-                        .put(temp4V3.y)
-                        .put(temp4V3.z);
-
-
-                // Face 2
-                positions.put(temp1aV3.x)
-                        .put(temp1aV3.y)
-                        .put(temp1aV3.z);
-                positions.put(temp2aV3.x)
-                        .put(temp2aV3.y)
-                        .put(temp2aV3.z);
-                positions.put(temp3aV3.x)
-                        .put(temp3aV3.y)
-                        .put(temp3aV3.z);
-                positions.put(temp4aV3.x)
-                        .put(temp4aV3.y)
-                        .put(temp4aV3.z);
-
-                // Face 3
-                positions.put(temp1bV3.x)
-                        .put(temp1bV3.y)
-                        .put(temp1bV3.z);
-                positions.put(temp2bV3.x)
-                        .put(temp2bV3.y)
-                        .put(temp2bV3.z);
-                positions.put(temp3bV3.x)
-                        .put(temp3bV3.y)
-                        .put(temp3bV3.z);
-                positions.put(temp4bV3.x)
-                        .put(temp4bV3.y)
-                        .put(temp4bV3.z);
+                Vector3f subtract = tempV1.set(worldTranslation)
+                        .subtractLocal(store.initPosX[i], store.initPosY[i], store.initPosZ[i]);
+
+                store.getPosition(i, alpha, tempV2)
+                        .subtractLocal(subtract);//.divide(8f));
             }
 
+            q33.fromAngleAxis(33f * 2f * FastMath.DEG_TO_RAD, up);
+            left33.set(q33.mult(left, tempV1));
+            left66.set(q33.mult(left33, tempV1));
+
+            temp1V3.set(tempV2.x + left.x + up.x, tempV2.y + left.y + up.y, tempV2.z + left.z + up.z);
+            temp2V3.set(tempV2.x - left.x + up.x, tempV2.y - left.y + up.y, tempV2.z - left.z + up.z);
+            temp3V3.set(tempV2.x + left.x - up.x, tempV2.y + left.y - up.y, tempV2.z + left.z - up.z);
+            temp4V3.set(tempV2.x - left.x - up.x, tempV2.y - left.y - up.y, tempV2.z - left.z - up.z);
+            temp1aV3.set(tempV2.x + left33.x + up.x, tempV2.y + left33.y + up.y, tempV2.z + left33.z + up.z);
+            temp2aV3.set(tempV2.x - left33.x + up.x, tempV2.y - left33.y + up.y, tempV2.z - left33.z + up.z);
+            temp3aV3.set(tempV2.x + left33.x - up.x, tempV2.y + left33.y - up.y, tempV2.z + left33.z - up.z);
+            temp4aV3.set(tempV2.x - left33.x - up.x, tempV2.y - left33.y - up.y, tempV2.z - left33.z - up.z);
+            temp1bV3.set(tempV2.x + left66.x + up.x, tempV2.y + left66.y + up.y, tempV2.z + left66.z + up.z);
+            temp2bV3.set(tempV2.x - left66.x + up.x, tempV2.y - left66.y + up.y, tempV2.z - left66.z + up.z);
+            temp3bV3.set(tempV2.x + left66.x - up.x, tempV2.y + left66.y - up.y, tempV2.z + left66.z - up.z);
+            temp4bV3.set(tempV2.x - left66.x - up.x, tempV2.y - left66.y - up.y, tempV2.z - left66.z - up.z);
+
+            // Face 1
+            positions.put(temp1V3.x)
+                    .put(temp1V3.y)
+                    .put(temp1V3.z);
+            positions.put(temp2V3.x)
+                    .put(temp2V3.y)
+                    .put(temp2V3.z);
+            positions.put(temp3V3.x)
+                    .put(temp3V3.y)
+                    .put(temp3V3.z);
+            positions.put(temp4V3.x)
+                    .put(temp4V3.y)
+                    .put(temp4V3.z);
+
+
+            // Face 2
+            positions.put(temp1aV3.x)
+                    .put(temp1aV3.y)
+                    .put(temp1aV3.z);
+            positions.put(temp2aV3.x)
+                    .put(temp2aV3.y)
+                    .put(temp2aV3.z);
+            positions.put(temp3aV3.x)
+                    .put(temp3aV3.y)
+                    .put(temp3aV3.z);
+            positions.put(temp4aV3.x)
+                    .put(temp4aV3.y)
+                    .put(temp4aV3.z);
+
+            // Face 3
+            positions.put(temp1bV3.x)
+                    .put(temp1bV3.y)
+                    .put(temp1bV3.z);
+            positions.put(temp2bV3.x)
+                    .put(temp2bV3.y)
+                    .put(temp2bV3.z);
+            positions.put(temp3bV3.x)
+                    .put(temp3bV3.y)
+                    .put(temp3bV3.z);
+            positions.put(temp4bV3.x)
+                    .put(temp4bV3.y)
+                    .put(temp4bV3.z);
+
             if (isUniqueTexCoords()) {
 
-                int imgX = particleData.spriteCol;
-                int imgY = particleData.spriteRow;
+                int imgX = store.spriteCol[i];
+                int imgY = store.spriteRow[i];
 
                 float startX = 1f / getSpriteCols() * imgX;
                 float startY = 1f / getSpriteRows() * imgY;
@@ -325,8 +323,7 @@ public class ParticleDataImpostorMesh extends RotatedParticleDataMesh {
                 texcoords.put(endX).put(startY);
             }
 
-            particleData.color.a *= particleData.alpha;
-            int abgr = particleData.color.asIntABGR();
+            int abgr = store.getColorABGR(i);
             colors.putInt(abgr);
             colors.putInt(abgr);
             colors.putInt(abgr);
@@ -342,13 +339,13 @@ public class ParticleDataImpostorMesh extends RotatedParticleDataMesh {
         }
 
         //	this.setBuffer(VertexBuffer.Type.Position, 3, positions);
-        positions.clear();
-        colors.clear();
+        positions.flip();
+        colors.flip();
 
         if (!isUniqueTexCoords())
             texcoords.clear();
         else {
-            texcoords.clear();
+            texcoords.flip();
             tvb.updateData(texcoords);
         }
 
@@ -356,6 +353,7 @@ public class ParticleDataImpostorMesh extends RotatedParticleDataMesh {
         pvb.updateData(positions);
         cvb.updateData(colors);
 
+        setRenderedParticles(count, 18);
         updateBound();
     }
 
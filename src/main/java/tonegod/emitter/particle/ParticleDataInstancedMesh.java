@@ -0,0 +1,303 @@
+package tonegod.emitter.particle;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.math.Matrix3f;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.VertexBuffer.Format;
+import com.jme3.scene.VertexBuffer.Usage;
+import com.jme3.util.BufferUtils;
+import com.jme3.util.clone.Cloner;
+import org.jetbrains.annotations.NotNull;
+import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.geometry.ParticleInstancedGeometry;
+import tonegod.emitter.material.ParticlesMaterial;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * The implementation of data mesh which draws one static quad per particle by hardware instancing. Only per-instance
+ * buffers are written every frame, the quads are turned to the camera and rotated by the vertex shader, so the
+ * material should support the define of instancing, see {@link ParticlesMaterial#PROP_INSTANCING}. Particles are
+ * always facing the camera and are rotated only around the view direction, the renderer should support mesh
+ * instancing. The emitter draws this mesh by the {@link ParticleInstancedGeometry}, because plain geometries are
+ * drawn as one instance.
+ *
+ * @author JavaSaBr
+ */
+public final class ParticleDataInstancedMesh extends ParticleDataMesh {
+
+    /**
+     * The per-instance buffer of particles centers (xyz) and rotation angles around the view direction (w).
+     */
+    public static final VertexBuffer.Type CENTER_BUFFER = VertexBuffer.Type.TexCoord2;
+
+    /**
+     * The per-instance buffer of particles half sizes (xy) and offsets of sprite frames in texture coords (zw).
+     */
+    public static final VertexBuffer.Type SIZE_BUFFER = VertexBuffer.Type.TexCoord3;
+
+    /**
+     * The per-instance buffer of particles colors.
+     */
+    public static final VertexBuffer.Type COLOR_BUFFER = VertexBuffer.Type.Color;
+
+    /**
+     * The particle's position.
+     */
+    @NotNull
+    private Vector3f position;
+
+    /**
+     * The particle's velocity.
+     */
+    @NotNull
+    private Vector3f velocity;
+
+    /**
+     * The min corner of particles bounds.
+     */
+    @NotNull
+    private Vector3f min;
+
+    /**
+     * The max corner of particles bounds.
+     */
+    @NotNull
+    private Vector3f max;
+
+    public ParticleDataInstancedMesh() {
+        this.position = new Vector3f();
+        this.velocity = new Vector3f();
+        this.min = new Vector3f();
+        this.max = new Vector3f();
+    }
+
+    @Override
+    public void initialize(@NotNull ParticleEmitterNode emitterNode, int numParticles) {
+        super.initialize(emitterNode, numParticles);
+
+        setMode(Mode.Triangles);
+
+        // corners of the quad in the order of the tri mesh
+        FloatBuffer pb = BufferUtils.createFloatBuffer(
+                -1F, 1F, 0F,
+                1F, 1F, 0F,
+                -1F, -1F, 0F,
+                1F, -1F, 0F
+        );
+
+        prepareVertexBuffer(VertexBuffer.Type.Position, Usage.Static, 3, Format.Float, pb);
+        prepareVertexBuffer(VertexBuffer.Type.TexCoord, Usage.Static, 2, Format.Float, createTexCoords(1, 1));
+
+        ShortBuffer ib = BufferUtils.createShortBuffer(new short[]{1, 0, 2, 1, 2, 3});
+
+        prepareVertexBuffer(VertexBuffer.Type.Index, Usage.Static, 3, Format.UnsignedShort, ib);
+
+        prepareInstanceBuffer(CENTER_BUFFER, 4, Format.Float, BufferUtils.createFloatBuffer(numParticles * 4));
+        prepareInstanceBuffer(SIZE_BUFFER, 4, Format.Float, BufferUtils.createFloatBuffer(numParticles * 4));
+        prepareInstanceBuffer(COLOR_BUFFER, 4, Format.UnsignedByte, BufferUtils.createByteBuffer(numParticles * 4));
+
+        getBuffer(COLOR_BUFFER).setNormalized(true);
+
+        updateCounts();
+    }
+
+    /**
+     * Creates texture coords of the quad which cover one sprite frame.
+     *
+     * @param imagesX the count of sprite columns.
+     * @param imagesY the count of sprite rows.
+     * @return the texture coords.
+     */
+    private static @NotNull FloatBuffer createTexCoords(int imagesX, int imagesY) {
+
+        float width = 1F / imagesX;
+        float height = 1F / imagesY;
+
+        return BufferUtils.createFloatBuffer(
+                0F, height,
+                width, height,
+                0F, 0F,
+                width, 0F
+        );
+    }
+
+    /**
+     * Sets the data to the vertex buffer of the type.
+     *
+     * @param type       the type of the buffer.
+     * @param usage      the usage of the buffer.
+     * @param components the count of components per element.
+     * @param format     the format of components.
+     * @param data       the data.
+     */
+    private void prepareVertexBuffer(
+            @NotNull VertexBuffer.Type type,
+            @NotNull Usage usage,
+            int components,
+            @NotNull Format format,
+            @NotNull Buffer data
+    ) {
+
+        VertexBuffer vertexBuffer = getBuffer(type);
+
+        if (vertexBuffer != null) {
+            vertexBuffer.updateData(data);
+        } else {
+            vertexBuffer = new VertexBuffer(type);
+            vertexBuffer.setupData(usage, components, format, data);
+            setBuffer(vertexBuffer);
+        }
+    }
+
+    /**
+     * Sets the data to the per-instance buffer of the type.
+     *
+     * @param type       the type of the buffer.
+     * @param components the count of components per particle.
+     * @param format     the format of components.
+     * @param data       the data.
+     */
+    private void prepareInstanceBuffer(
+            @NotNull VertexBuffer.Type type,
+            int components,
+            @NotNull Format format,
+            @NotNull Buffer data
+    ) {
+        prepareVertexBuffer(type, Usage.Stream, components, format, data);
+        getBuffer(type).setInstanced(true);
+    }
+
+    @Override
+    public void setImagesXY(int imagesX, int imagesY) {
+        super.setImagesXY(imagesX, imagesY);
+        getBuffer(VertexBuffer.Type.TexCoord).updateData(createTexCoords(imagesX, imagesY));
+    }
+
+    @Override
+    public void updateParticleData(
+            @NotNull ParticleSnapshot snapshot,
+            @NotNull Camera camera,
+            @NotNull Matrix3f inverseRotation
+    ) {
+
+        ParticleStore store = snapshot.getStore();
+
+        ParticleEmitterNode emitterNode = getEmitterNode();
+        Vector3f worldTranslation = emitterNode.getWorldTranslation();
+        boolean followEmitter = emitterNode.isParticlesFollowEmitter();
+        boolean velocityStretching = emitterNode.isVelocityStretching();
+        float velocityStretchFactor = emitterNode.getVelocityStretchFactor();
+
+        float frameWidth = 1F / emitterNode.getSpriteColCount();
+        float frameHeight = 1F / emitterNode.getSpriteRowCount();
+
+        VertexBuffer centerBuffer = getBuffer(CENTER_BUFFER);
+        VertexBuffer sizeBuffer = getBuffer(SIZE_BUFFER);
+        VertexBuffer colorBuffer = getBuffer(COLOR_BUFFER);
+
+        FloatBuffer centers = (FloatBuffer) centerBuffer.getData();
+        FloatBuffer sizes = (FloatBuffer) sizeBuffer.getData();
+        ByteBuffer colors = (ByteBuffer) colorBuffer.getData();
+
+        centers.clear();
+        sizes.clear();
+        colors.clear();
+
+        Vector3f position = this.position;
+        Vector3f min = this.min.set(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+        Vector3f max = this.max.set(Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY);
+
+        float maxSize = 0F;
+
+        int count = snapshot.getActiveParticleCount();
+        int capacity = store.getCapacity();
+        float alpha = snapshot.getInterpolationAlpha();
+
+        for (int n = 0, i = snapshot.getActiveParticleStart(); n < count; n++, i++) {
+
+            if (i == capacity) {
+                i = 0;
+            }
+
+            store.getPosition(i, alpha, position);
+
+            if (!followEmitter) {
+                position.subtractLocal(worldTranslation)
+                        .addLocal(store.initPosX[i], store.initPosY[i], store.initPosZ[i]);
+            }
+
+            float sizeX = store.sizeX[i];
+            float sizeY = store.sizeY[i];
+
+            if (velocityStretching) {
+                sizeY *= store.getVelocity(i, velocity).length() * velocityStretchFactor;
+            }
+
+            centers.put(position.x).put(position.y).put(position.z).put(store.angleZ[i]);
+            sizes.put(sizeX).put(sizeY)
+                    .put(frameWidth * store.spriteCol[i])
+                    .put(frameHeight * store.spriteRow[i]);
+            colors.putInt(store.getColorABGR(i));
+
+            min.minLocal(position);
+            max.maxLocal(position);
+            maxSize = Math.max(maxSize, Math.max(Math.abs(sizeX), Math.abs(sizeY)));
+        }
+
+        centers.flip();
+        sizes.flip();
+        colors.flip();
+
+        // force renderer to re-send data to GPU
+        centerBuffer.updateData(centers);
+        sizeBuffer.updateData(sizes);
+        colorBuffer.updateData(colors);
+
+        // the instance count is taken from the limits of per-instance buffers, the emitter draws this mesh by
+        // the instanced geometry which passes the count to the renderer
+        VertexBuffer indexBuffer = getBuffer(VertexBuffer.Type.Index);
+        Buffer indices = indexBuffer.getData();
+        indices.clear();
+        indices.limit(count > 0 ? 6 : 0);
+        indexBuffer.updateData(indices);
+
+        updateCounts();
+
+        // the bound is calculated from centers, because the static quad doesn't show where particles are
+        if (count > 0) {
+            // the rotated quad fits in the circle with the radius of the diagonal
+            float extent = maxSize * 1.4142135F;
+            min.subtractLocal(extent, extent, extent);
+            max.addLocal(extent, extent, extent);
+        } else {
+            min.set(Vector3f.ZERO);
+            max.set(Vector3f.ZERO);
+        }
+
+        if (getBound() instanceof BoundingBox) {
+            ((BoundingBox) getBound()).setMinMax(min, max);
+        } else {
+            setBound(new BoundingBox(min, max));
+        }
+    }
+
+    @Override
+    public void updateBound() {
+        // the bound is updated with the particles data
+    }
+
+    @Override
+    public void cloneFields(@NotNull Cloner cloner, @NotNull Object original) {
+        super.cloneFields(cloner, original);
+        position = cloner.clone(position);
+        velocity = cloner.clone(velocity);
+        min = cloner.clone(min);
+        max = cloner.clone(max);
+    }
+}
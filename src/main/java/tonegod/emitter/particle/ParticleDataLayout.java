@@ -0,0 +1,285 @@
+package tonegod.emitter.particle;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * The registry of typed columns of influencers per-particle state. Every influencer declares the count of float and
+ * int columns which it needs and gets the offsets of its first columns in the shared blocks of columns of the
+ * {@link ParticleStore} by its data id, so the state of a particle is a plain access to a primitive array.
+ *
+ * @author JavaSaBr
+ */
+public final class ParticleDataLayout implements Cloneable {
+
+    @NotNull
+    private static final int[] EMPTY_INTS = new int[0];
+
+    @NotNull
+    private static final boolean[] EMPTY_FLAGS = new boolean[0];
+
+    /**
+     * The offsets of the first float column by data id, -1 if the data id doesn't have float columns.
+     */
+    @NotNull
+    private int[] floatOffsets;
+
+    /**
+     * The counts of float columns by data id.
+     */
+    @NotNull
+    private int[] floatCounts;
+
+    /**
+     * The offsets of the first int column by data id, -1 if the data id doesn't have int columns.
+     */
+    @NotNull
+    private int[] intOffsets;
+
+    /**
+     * The counts of int columns by data id.
+     */
+    @NotNull
+    private int[] intCounts;
+
+    /**
+     * The flags of used float columns.
+     */
+    @NotNull
+    private boolean[] usedFloatColumns;
+
+    /**
+     * The flags of used int columns.
+     */
+    @NotNull
+    private boolean[] usedIntColumns;
+
+    public ParticleDataLayout() {
+        this.floatOffsets = EMPTY_INTS;
+        this.floatCounts = EMPTY_INTS;
+        this.intOffsets = EMPTY_INTS;
+        this.intCounts = EMPTY_INTS;
+        this.usedFloatColumns = EMPTY_FLAGS;
+        this.usedIntColumns = EMPTY_FLAGS;
+    }
+
+    /**
+     * Reserves the columns for the data id, the exist columns of the data id are kept if they have the same counts.
+     *
+     * @param dataId     the data id.
+     * @param floatCount the count of float columns.
+     * @param intCount   the count of int columns.
+     * @return true if the layout was changed.
+     */
+    public boolean reserve(int dataId, int floatCount, int intCount) {
+
+        if (floatCount < 0 || intCount < 0) {
+            throw new IllegalArgumentException("The count of columns can't be negative.");
+        }
+
+        if (dataId < floatOffsets.length && floatCounts[dataId] == floatCount && intCounts[dataId] == intCount) {
+            return false;
+        }
+
+        release(dataId);
+        ensureDataIds(dataId + 1);
+
+        if (floatCount > 0) {
+            usedFloatColumns = ensureColumns(usedFloatColumns, floatCount);
+            floatOffsets[dataId] = allocate(usedFloatColumns, floatCount);
+            floatCounts[dataId] = floatCount;
+        }
+
+        if (intCount > 0) {
+            usedIntColumns = ensureColumns(usedIntColumns, intCount);
+            intOffsets[dataId] = allocate(usedIntColumns, intCount);
+            intCounts[dataId] = intCount;
+        }
+
+        return true;
+    }
+
+    /**
+     * Releases the columns of the data id.
+     *
+     * @param dataId the data id.
+     */
+    public void release(int dataId) {
+
+        if (dataId >= floatOffsets.length) {
+            return;
+        }
+
+        if (floatCounts[dataId] > 0) {
+            int offset = floatOffsets[dataId];
+            Arrays.fill(usedFloatColumns, offset, offset + floatCounts[dataId], false);
+        }
+
+        if (intCounts[dataId] > 0) {
+            int offset = intOffsets[dataId];
+            Arrays.fill(usedIntColumns, offset, offset + intCounts[dataId], false);
+        }
+
+        floatOffsets[dataId] = -1;
+        floatCounts[dataId] = 0;
+        intOffsets[dataId] = -1;
+        intCounts[dataId] = 0;
+    }
+
+    /**
+     * Moves the columns from the previous data id to the new data id, the columns themselves are not copied.
+     *
+     * @param prevDataId the previous data id.
+     * @param newDataId  the new data id.
+     */
+    public void move(int prevDataId, int newDataId) {
+
+        release(newDataId);
+
+        if (prevDataId >= floatOffsets.length) {
+            return;
+        }
+
+        ensureDataIds(newDataId + 1);
+
+        floatOffsets[newDataId] = floatOffsets[prevDataId];
+        floatCounts[newDataId] = floatCounts[prevDataId];
+        intOffsets[newDataId] = intOffsets[prevDataId];
+        intCounts[newDataId] = intCounts[prevDataId];
+
+        floatOffsets[prevDataId] = -1;
+        floatCounts[prevDataId] = 0;
+        intOffsets[prevDataId] = -1;
+        intCounts[prevDataId] = 0;
+    }
+
+    /**
+     * Gets the offset of the first float column of the data id.
+     *
+     * @param dataId the data id.
+     * @return the offset or -1.
+     */
+    public int getFloatOffset(int dataId) {
+        return floatOffsets[dataId];
+    }
+
+    /**
+     * Gets the offset of the first int column of the data id.
+     *
+     * @param dataId the data id.
+     * @return the offset or -1.
+     */
+    public int getIntOffset(int dataId) {
+        return intOffsets[dataId];
+    }
+
+    /**
+     * Returns true if the float column is used by some data id.
+     *
+     * @param column the column.
+     * @return true if the column is used.
+     */
+    public boolean isFloatColumnUsed(int column) {
+        return column < usedFloatColumns.length && usedFloatColumns[column];
+    }
+
+    /**
+     * Returns true if the int column is used by some data id.
+     *
+     * @param column the column.
+     * @return true if the column is used.
+     */
+    public boolean isIntColumnUsed(int column) {
+        return column < usedIntColumns.length && usedIntColumns[column];
+    }
+
+    /**
+     * Gets the size of the block of float columns.
+     *
+     * @return the count of float columns including unused ones.
+     */
+    public int getFloatColumnCount() {
+        return usedFloatColumns.length;
+    }
+
+    /**
+     * Gets the size of the block of int columns.
+     *
+     * @return the count of int columns including unused ones.
+     */
+    public int getIntColumnCount() {
+        return usedIntColumns.length;
+    }
+
+    private void ensureDataIds(int count) {
+
+        int prevLength = floatOffsets.length;
+
+        if (count <= prevLength) {
+            return;
+        }
+
+        floatOffsets = Arrays.copyOf(floatOffsets, count);
+        floatCounts = Arrays.copyOf(floatCounts, count);
+        intOffsets = Arrays.copyOf(intOffsets, count);
+        intCounts = Arrays.copyOf(intCounts, count);
+
+        Arrays.fill(floatOffsets, prevLength, count, -1);
+        Arrays.fill(intOffsets, prevLength, count, -1);
+    }
+
+    /**
+     * Ensures that the block has a free range of the count of columns at the end at least.
+     */
+    private static @NotNull boolean[] ensureColumns(@NotNull boolean[] used, int count) {
+
+        if (findFree(used, count) >= 0) {
+            return used;
+        }
+
+        int free = 0;
+
+        for (int i = used.length - 1; i >= 0 && !used[i]; i--) {
+            free++;
+        }
+
+        return Arrays.copyOf(used, used.length + count - free);
+    }
+
+    private static int allocate(@NotNull boolean[] used, int count) {
+        int offset = findFree(used, count);
+        Arrays.fill(used, offset, offset + count, true);
+        return offset;
+    }
+
+    private static int findFree(@NotNull boolean[] used, int count) {
+
+        for (int i = 0, free = 0; i < used.length; i++) {
+
+            free = used[i] ? 0 : free + 1;
+
+            if (free == count) {
+                return i - count + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public @NotNull ParticleDataLayout clone() {
+        try {
+            ParticleDataLayout clone = (ParticleDataLayout) super.clone();
+            clone.floatOffsets = floatOffsets.clone();
+            clone.floatCounts = floatCounts.clone();
+            clone.intOffsets = intOffsets.clone();
+            clone.intCounts = intCounts.clone();
+            clone.usedFloatColumns = usedFloatColumns.clone();
+            clone.usedIntColumns = usedIntColumns.clone();
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
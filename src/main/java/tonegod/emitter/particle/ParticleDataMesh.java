@@ -10,6 +10,7 @@ import com.jme3.util.clone.Cloner;
 import org.jetbrains.annotations.NotNull;
 import tonegod.emitter.ParticleEmitterNode;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 
@@ -40,6 +41,16 @@ public abstract class ParticleDataMesh extends Mesh {
      */
     private boolean uniqueTexCoords;
 
+    /**
+     * The count of particles in the rendered range.
+     */
+    private int renderedParticles;
+
+    /**
+     * The count of particles which the buffers of this mesh can hold.
+     */
+    private int capacity;
+
     public ParticleDataMesh() {
         this.imagesX = 1;
         this.imagesY = 1;
@@ -100,6 +111,40 @@ public abstract class ParticleDataMesh extends Mesh {
      */
     public void initialize(@NotNull ParticleEmitterNode emitterNode, int numParticles) {
         this.emitterNode = emitterNode;
+        this.renderedParticles = numParticles;
+        this.capacity = numParticles;
+    }
+
+    /**
+     * Changes the max count of particles of this mesh. The buffers are grown geometrically and aren't reallocated
+     * when the count is reduced. The buffers aren't copied, because the range of active particles is written from
+     * the particles state on every update.
+     *
+     * @param numParticles the new max count of particles.
+     */
+    public void resize(int numParticles) {
+
+        if (numParticles <= capacity) {
+            return;
+        }
+
+        int grown = capacity + (capacity >> 1);
+
+        if (grown < numParticles || grown > getMaxCapacity()) {
+            grown = numParticles;
+        }
+
+        initialize(emitterNode, grown);
+        setImagesXY(imagesX, imagesY);
+    }
+
+    /**
+     * Gets the max count of particles which the buffers of this mesh can address, it limits geometric growth.
+     *
+     * @return the max count of particles.
+     */
+    protected int getMaxCapacity() {
+        return Integer.MAX_VALUE;
     }
 
     /**
@@ -119,17 +164,43 @@ public abstract class ParticleDataMesh extends Mesh {
     /**
      * Update the particle visual data. Typically called every frame.
      *
-     * @param particles       the particles
+     * @param snapshot        the particles state to render
      * @param camera          the camera
      * @param inverseRotation the inverse rotation
      */
     public abstract void updateParticleData(
-            @NotNull ParticleData[] particles,
+            @NotNull ParticleSnapshot snapshot,
             @NotNull Camera camera,
             @NotNull Matrix3f inverseRotation
     );
 
 
+    /**
+     * Limits the rendered range of this mesh to the first particles. The buffers which are written per particle
+     * should be already limited by the caller.
+     *
+     * @param count              the count of particles to render.
+     * @param indicesPerParticle the count of indexes per particle.
+     */
+    protected void setRenderedParticles(int count, int indicesPerParticle) {
+
+        if (renderedParticles == count) {
+            return;
+        }
+
+        VertexBuffer indexBuffer = getBuffer(VertexBuffer.Type.Index);
+
+        if (indexBuffer != null) {
+            Buffer indices = indexBuffer.getData();
+            indices.clear();
+            indices.limit(count * indicesPerParticle);
+            indexBuffer.updateData(indices);
+        }
+
+        renderedParticles = count;
+        updateCounts();
+    }
+
     /**
      * Get an emitter node.
      *
@@ -1,6 +1,7 @@
 package tonegod.emitter.particle;
 
 import com.jme3.math.Matrix3f;
+import com.jme3.math.Vector3f;
 import com.jme3.renderer.Camera;
 import com.jme3.scene.Mesh;
 import com.jme3.scene.VertexBuffer;
@@ -20,8 +21,15 @@ import java.nio.FloatBuffer;
  */
 public final class ParticleDataPointMesh extends ParticleDataMesh {
 
+    /**
+     * The particle's position.
+     */
+    @NotNull
+    private final Vector3f position;
+
     public ParticleDataPointMesh() {
         super();
+        this.position = new Vector3f();
     }
 
     @Override
@@ -63,11 +71,13 @@ public final class ParticleDataPointMesh extends ParticleDataMesh {
 
     @Override
     public void updateParticleData(
-            @NotNull ParticleData[] particles,
+            @NotNull ParticleSnapshot snapshot,
             @NotNull Camera camera,
             @NotNull Matrix3f inverseRotation
     ) {
 
+        ParticleStore store = snapshot.getStore();
+
         VertexBuffer pvb = getBuffer(VertexBuffer.Type.Position);
         FloatBuffer positions = (FloatBuffer) pvb.getData();
 
@@ -83,24 +93,33 @@ public final class ParticleDataPointMesh extends ParticleDataMesh {
         //float sizeScale = emitter.getWorldScale().x;
 
         // update data in vertex buffers
-        positions.rewind();
-        colors.rewind();
-        sizes.rewind();
-        texcoords.rewind();
+        positions.clear();
+        colors.clear();
+        sizes.clear();
+        texcoords.clear();
+
+        int count = snapshot.getActiveParticleCount();
+        int capacity = store.getCapacity();
+        float alpha = snapshot.getInterpolationAlpha();
+
+        for (int n = 0, i = snapshot.getActiveParticleStart(); n < count; n++, i++) {
+
+            if (i == capacity) {
+                i = 0;
+            }
 
-        for (ParticleData particleData : particles) {
+            Vector3f position = store.getPosition(i, alpha, this.position);
 
-            positions.put(particleData.position.x)
-                    .put(particleData.position.y)
-                    .put(particleData.position.z);
+            positions.put(position.x)
+                    .put(position.y)
+                    .put(position.z);
 
-            sizes.put(particleData.size.x); // * worldSace);
+            sizes.put(store.sizeX[i]); // * worldSace);
 
-            particleData.color.a *= particleData.alpha;
-            colors.putInt(particleData.color.asIntABGR());
+            colors.putInt(store.getColorABGR(i));
 
-            int imgX = particleData.spriteCol; //particleData.imageIndex % imagesX;
-            int imgY = particleData.spriteRow; //(particleData.imageIndex - imgX) / imagesY;
+            int imgX = store.spriteCol[i]; //particleData.imageIndex % imagesX;
+            int imgY = store.spriteRow[i]; //(particleData.imageIndex - imgX) / imagesY;
 
             float startX = ((float) imgX) / getSpriteCols();
             float startY = ((float) imgY) / getSpriteRows();
@@ -121,6 +140,7 @@ public final class ParticleDataPointMesh extends ParticleDataMesh {
         svb.updateData(sizes);
         tvb.updateData(texcoords);
 
+        setRenderedParticles(count, 1);
         updateBound();
     }
 
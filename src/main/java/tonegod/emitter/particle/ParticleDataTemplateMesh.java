@@ -70,6 +70,12 @@ public final class ParticleDataTemplateMesh extends RotatedParticleDataMesh {
         return Objects.requireNonNull(template);
     }
 
+    @Override
+    protected int getMaxCapacity() {
+        // the particles are addressed by unsigned short indexes
+        return 65536 / Math.max(templateVerts.capacity() / 3, 1);
+    }
+
     @Override
     public void initialize(@NotNull ParticleEmitterNode emitterNode, int numParticles) {
         super.initialize(emitterNode, numParticles);
@@ -165,57 +171,64 @@ public final class ParticleDataTemplateMesh extends RotatedParticleDataMesh {
 
     @Override
     public void updateParticleData(
-            @NotNull ParticleData[] particles,
+            @NotNull ParticleSnapshot snapshot,
             @NotNull Camera camera,
             @NotNull Matrix3f inverseRotation
     ) {
 
+        ParticleStore store = snapshot.getStore();
+
         ParticleEmitterNode emitterNode = getEmitterNode();
         BillboardMode billboardMode = emitterNode.getBillboardMode();
         Vector3f worldTranslation = emitterNode.getWorldTranslation();
 
-        for (int i = 0; i < particles.length; i++) {
+        int count = snapshot.getActiveParticleCount();
+        int capacity = store.getCapacity();
+        float alpha = snapshot.getInterpolationAlpha();
 
-            ParticleData particleData = particles[i];
+        finVerts.clear();
+        finNormals.clear();
+        finColors.clear();
 
-            int offset = templateVerts.capacity() * i;
-            int colorOffset = templateColors.capacity() * i;
+        for (int n = 0, i = snapshot.getActiveParticleStart(); n < count; n++, i++) {
 
-            if (particleData.life == 0 || !particleData.isActive()) {
-                for (int x = 0; x < templateVerts.capacity(); x += 3) {
-                    finVerts.put(offset + x, 0);
-                    finVerts.put(offset + x + 1, 0);
-                    finVerts.put(offset + x + 2, 0);
-                }
-            } else {
-                for (int x = 0; x < templateVerts.capacity(); x += 3) {
+            if (i == capacity) {
+                i = 0;
+            }
+
+            Vector3f position = store.getPosition(i, alpha, this.position);
+
+            int offset = templateVerts.capacity() * n;
+            int colorOffset = templateColors.capacity() * n;
 
-                    updateRotation(particleData, billboardMode, camera);
+            for (int x = 0; x < templateVerts.capacity(); x += 3) {
 
-                    tempV1.set(templateVerts.get(x), templateVerts.get(x + 1), templateVerts.get(x + 2));
-                    tempV1.set(rotStore.mult(tempV1, tempV2));
-                    tempV1.multLocal(particleData.size);
+                updateRotation(store, i, billboardMode, camera);
 
-                    rotStore.fromAngles(particleData.angles.x, particleData.angles.y, particleData.angles.z);
-                    tempV1.set(rotStore.mult(tempV1, tempV2));
+                tempV1.set(templateVerts.get(x), templateVerts.get(x + 1), templateVerts.get(x + 2));
+                tempV1.set(rotStore.mult(tempV1, tempV2));
+                tempV1.multLocal(store.sizeX[i], store.sizeY[i], store.sizeZ[i]);
 
-                    tempV1.addLocal(particleData.position);
+                rotStore.fromAngles(store.angleX[i], store.angleY[i], store.angleZ[i]);
+                tempV1.set(rotStore.mult(tempV1, tempV2));
 
-                    if (!emitterNode.isParticlesFollowEmitter()) {
-                        tempV1.subtractLocal(worldTranslation.subtract(particleData.initialPosition, tempV2));//.divide(8f));
-                    }
+                tempV1.addLocal(position);
 
-                    finVerts.put(offset + x, tempV1.getX());
-                    finVerts.put(offset + x + 1, tempV1.getY());
-                    finVerts.put(offset + x + 2, tempV1.getZ());
+                if (!emitterNode.isParticlesFollowEmitter()) {
+                    tempV1.subtractLocal(tempV2.set(worldTranslation)
+                            .subtractLocal(store.initPosX[i], store.initPosY[i], store.initPosZ[i]));//.divide(8f));
                 }
+
+                finVerts.put(offset + x, tempV1.getX());
+                finVerts.put(offset + x + 1, tempV1.getY());
+                finVerts.put(offset + x + 2, tempV1.getZ());
             }
 
             if (emitterNode.isApplyLightingTransform()) {
                 for (int v = 0; v < templateNormals.capacity(); v += 3) {
 
                     tempV1.set(templateNormals.get(v), templateNormals.get(v + 1), templateNormals.get(v + 2));
-                    rotStore.fromAngles(particleData.angles.x, particleData.angles.y, particleData.angles.z);
+                    rotStore.fromAngles(store.angleX[i], store.angleY[i], store.angleZ[i]);
                     rotStore.toRotationMatrix(mat3);
 
                     float vx = tempV1.x, vy = tempV1.y, vz = tempV1.z;
@@ -231,13 +244,17 @@ public final class ParticleDataTemplateMesh extends RotatedParticleDataMesh {
             }
 
             for (int v = 0; v < templateColors.capacity(); v += 4) {
-                finColors.put(colorOffset + v, particleData.color.r)
-                        .put(colorOffset + v + 1, particleData.color.g)
-                        .put(colorOffset + v + 2, particleData.color.b)
-                        .put(colorOffset + v + 3, particleData.color.a * particleData.alpha);
+                finColors.put(colorOffset + v, store.colorR[i])
+                        .put(colorOffset + v + 1, store.colorG[i])
+                        .put(colorOffset + v + 2, store.colorB[i])
+                        .put(colorOffset + v + 3, store.colorA[i] * store.alpha[i]);
             }
         }
 
+        finVerts.limit(count * templateVerts.capacity());
+        finNormals.limit(count * templateNormals.capacity());
+        finColors.limit(count * templateColors.capacity());
+
         setBuffer(VertexBuffer.Type.Position, 3, finVerts);
 
         if (emitterNode.isApplyLightingTransform()) {
@@ -245,6 +262,7 @@ public final class ParticleDataTemplateMesh extends RotatedParticleDataMesh {
         }
 
         setBuffer(VertexBuffer.Type.Color, 4, finColors);
+        setRenderedParticles(count, templateIndexes.size());
         updateBound();
     }
 
@@ -1,6 +1,5 @@
 package tonegod.emitter.particle;
 
-import com.jme3.math.ColorRGBA;
 import com.jme3.math.Matrix3f;
 import com.jme3.math.Vector3f;
 import com.jme3.renderer.Camera;
@@ -8,7 +7,6 @@ import com.jme3.scene.VertexBuffer;
 import com.jme3.scene.VertexBuffer.Format;
 import com.jme3.scene.VertexBuffer.Usage;
 import com.jme3.util.BufferUtils;
-import com.jme3.util.clone.Cloner;
 import org.jetbrains.annotations.NotNull;
 import tonegod.emitter.BillboardMode;
 import tonegod.emitter.ParticleEmitterNode;
@@ -24,16 +22,6 @@ import java.nio.ShortBuffer;
  */
 public final class ParticleDataTriMesh extends RotatedParticleDataMesh {
 
-    /**
-     * The Color.
-     */
-    @NotNull
-    protected ColorRGBA color;
-
-    public ParticleDataTriMesh() {
-        this.color = new ColorRGBA();
-    }
-
     @Override
     public void initialize(@NotNull ParticleEmitterNode emitterNode, int numParticles) {
         super.initialize(emitterNode, numParticles);
@@ -98,6 +86,12 @@ public final class ParticleDataTriMesh extends RotatedParticleDataMesh {
         updateCounts();
     }
 
+    @Override
+    protected int getMaxCapacity() {
+        // the particles are addressed by unsigned short indexes
+        return 65536 / 4;
+    }
+
     @Override
     public void setImagesXY(int imagesX, int imagesY) {
         super.setImagesXY(imagesX, imagesY);
@@ -110,11 +104,13 @@ public final class ParticleDataTriMesh extends RotatedParticleDataMesh {
 
     @Override
     public void updateParticleData(
-            @NotNull ParticleData[] particles,
+            @NotNull ParticleSnapshot snapshot,
             @NotNull Camera camera,
             @NotNull Matrix3f inverseRotation
     ) {
 
+        ParticleStore store = snapshot.getStore();
+
         ParticleEmitterNode emitterNode = getEmitterNode();
         Vector3f worldTranslation = emitterNode.getWorldTranslation();
         BillboardMode billboardMode = emitterNode.getBillboardMode();
@@ -133,76 +129,72 @@ public final class ParticleDataTriMesh extends RotatedParticleDataMesh {
         colors.clear();
         texcoords.clear();
 
-        for (final ParticleData particleData : particles) {
-            if (particleData.life == 0 || !particleData.isActive()) {
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
-                positions.put(0).put(0).put(0);
-            } else {
+        int count = snapshot.getActiveParticleCount();
+        int capacity = store.getCapacity();
+        float alpha = snapshot.getInterpolationAlpha();
 
-                updateRotation(particleData, billboardMode, camera);
+        for (int n = 0, i = snapshot.getActiveParticleStart(); n < count; n++, i++) {
 
-                particleData.upVec.set(up);
+            if (i == capacity) {
+                i = 0;
+            }
 
-                if (emitterNode.isVelocityStretching()) {
-                    Vector3f velocity = particleData.getVelocity();
-                    up.multLocal(velocity.length() * emitterNode.getVelocityStretchFactor());
-                }
+            updateRotation(store, i, billboardMode, camera);
 
-                Vector3f size = particleData.getSize();
-                Vector3f angles = particleData.getAngles();
+            if (emitterNode.isVelocityStretching()) {
+                Vector3f velocity = store.getVelocity(i, this.velocity);
+                up.multLocal(velocity.length() * emitterNode.getVelocityStretchFactor());
+            }
 
-                up.multLocal(size.y);
-                left.multLocal(size.x);
+            up.multLocal(store.sizeY[i]);
+            left.multLocal(store.sizeX[i]);
 
-                rotStore.fromAngleNormalAxis(angles.y, tempV3.set(left).normalizeLocal());
+            rotStore.fromAngleNormalAxis(store.angleY[i], tempV3.set(left).normalizeLocal());
 
-                left.set(rotStore.mult(left, tempV2));
-                up.set(rotStore.mult(up, tempV2));
+            left.set(rotStore.mult(left, tempV2));
+            up.set(rotStore.mult(up, tempV2));
 
-                rotStore.fromAngleNormalAxis(angles.x, tempV3.set(up).normalizeLocal());
+            rotStore.fromAngleNormalAxis(store.angleX[i], tempV3.set(up).normalizeLocal());
 
-                left.set(rotStore.mult(left, tempV2));
-                up.set(rotStore.mult(up, tempV2));
+            left.set(rotStore.mult(left, tempV2));
+            up.set(rotStore.mult(up, tempV2));
 
-                rotStore.fromAngleNormalAxis(angles.z, tempV3.set(dir).normalizeLocal());
+            rotStore.fromAngleNormalAxis(store.angleZ[i], tempV3.set(dir).normalizeLocal());
 
-                left.set(rotStore.mult(left, tempV2));
-                up.set(rotStore.mult(up, tempV2));
+            left.set(rotStore.mult(left, tempV2));
+            up.set(rotStore.mult(up, tempV2));
 
-                if (emitterNode.isParticlesFollowEmitter()) {
-                    tempV1.set(particleData.position);
-                } else {
+            if (emitterNode.isParticlesFollowEmitter()) {
+                store.getPosition(i, alpha, tempV1);
+            } else {
 
-                    Vector3f subtract = worldTranslation
-                            .subtract(particleData.initialPosition, tempV2);
+                Vector3f subtract = tempV2.set(worldTranslation)
+                        .subtractLocal(store.initPosX[i], store.initPosY[i], store.initPosZ[i]);
 
-                    tempV1.set(particleData.position)
-                            .subtractLocal(subtract);
-                }
+                store.getPosition(i, alpha, tempV1)
+                        .subtractLocal(subtract);
+            }
 
-                positions.put(tempV1.x + left.x + up.x)
-                        .put(tempV1.y + left.y + up.y)
-                        .put(tempV1.z + left.z + up.z);
+            positions.put(tempV1.x + left.x + up.x)
+                    .put(tempV1.y + left.y + up.y)
+                    .put(tempV1.z + left.z + up.z);
 
-                positions.put(tempV1.x - left.x + up.x)
-                        .put(tempV1.y - left.y + up.y)
-                        .put(tempV1.z - left.z + up.z);
+            positions.put(tempV1.x - left.x + up.x)
+                    .put(tempV1.y - left.y + up.y)
+                    .put(tempV1.z - left.z + up.z);
 
-                positions.put(tempV1.x + left.x - up.x)
-                        .put(tempV1.y + left.y - up.y)
-                        .put(tempV1.z + left.z - up.z);
+            positions.put(tempV1.x + left.x - up.x)
+                    .put(tempV1.y + left.y - up.y)
+                    .put(tempV1.z + left.z - up.z);
 
-                positions.put(tempV1.x - left.x - up.x)
-                        .put(tempV1.y - left.y - up.y)
-                        .put(tempV1.z - left.z - up.z);
-            }
+            positions.put(tempV1.x - left.x - up.x)
+                    .put(tempV1.y - left.y - up.y)
+                    .put(tempV1.z - left.z - up.z);
 
             if (isUniqueTexCoords()) {
 
-                float startX = 1f / emitterNode.getSpriteColCount() * particleData.spriteCol;
-                float startY = 1f / emitterNode.getSpriteRowCount() * particleData.spriteRow;
+                float startX = 1f / emitterNode.getSpriteColCount() * store.spriteCol[i];
+                float startY = 1f / emitterNode.getSpriteRowCount() * store.spriteRow[i];
 
                 float endX = startX + 1f / emitterNode.getSpriteColCount();
                 float endY = startY + 1f / emitterNode.getSpriteRowCount();
@@ -213,23 +205,20 @@ public final class ParticleDataTriMesh extends RotatedParticleDataMesh {
                 texcoords.put(endX).put(startY);
             }
 
-            color.set(particleData.color);
-            color.a *= particleData.alpha;
-
-            int abgr = color.asIntABGR();
+            int abgr = store.getColorABGR(i);
             colors.putInt(abgr);
             colors.putInt(abgr);
             colors.putInt(abgr);
             colors.putInt(abgr);
         }
 
-        positions.clear();
-        colors.clear();
+        positions.flip();
+        colors.flip();
 
         if (!isUniqueTexCoords()) {
             texcoords.clear();
         } else {
-            texcoords.clear();
+            texcoords.flip();
             tvb.updateData(texcoords);
         }
 
@@ -237,12 +226,8 @@ public final class ParticleDataTriMesh extends RotatedParticleDataMesh {
         pvb.updateData(positions);
         cvb.updateData(colors);
 
-        updateBound();
-    }
+        setRenderedParticles(count, 6);
 
-    @Override
-    public void cloneFields(@NotNull Cloner cloner, @NotNull Object original) {
-        super.cloneFields(cloner, original);
-        color = cloner.clone(color);
+        updateBound();
     }
 }
\ No newline at end of file
@@ -0,0 +1,210 @@
+package tonegod.emitter.particle;
+
+import com.jme3.math.Vector3f;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ring buffer of lifecycle events of particles of an emitter. Events are written by particles and influencers
+ * during simulation, the parallel update can write events from several threads at the same time. The buffer has a
+ * fixed capacity and doesn't allocate anything after creating, when it's overflowed the oldest events are overwritten.
+ *
+ * @author JavaSaBr
+ */
+public final class ParticleEventBuffer {
+
+    /**
+     * The event of a particle which reached the end of its life.
+     */
+    public static final int EVENT_DEATH = 1;
+
+    /**
+     * The event of a particle which was killed before the end of its life.
+     */
+    public static final int EVENT_KILL = 1 << 1;
+
+    /**
+     * The event of a particle which collided with a geometry.
+     */
+    public static final int EVENT_COLLISION = 1 << 2;
+
+    /**
+     * The mask of all types of events.
+     */
+    public static final int EVENT_ALL = EVENT_DEATH | EVENT_KILL | EVENT_COLLISION;
+
+    /**
+     * The types of events.
+     */
+    @NotNull
+    private final int[] types;
+
+    /**
+     * The indexes of particles of events.
+     */
+    @NotNull
+    private final int[] indexes;
+
+    /**
+     * The positions of particles of events in world space.
+     */
+    @NotNull
+    private final float[] posX, posY, posZ;
+
+    /**
+     * The velocities of particles of events.
+     */
+    @NotNull
+    private final float[] velX, velY, velZ;
+
+    /**
+     * The count of written events since the last clearing.
+     */
+    @NotNull
+    private final AtomicInteger written;
+
+    public ParticleEventBuffer(int capacity) {
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity " + capacity + " should be positive.");
+        }
+
+        this.types = new int[capacity];
+        this.indexes = new int[capacity];
+        this.posX = new float[capacity];
+        this.posY = new float[capacity];
+        this.posZ = new float[capacity];
+        this.velX = new float[capacity];
+        this.velY = new float[capacity];
+        this.velZ = new float[capacity];
+        this.written = new AtomicInteger();
+    }
+
+    /**
+     * Writes an event.
+     *
+     * @param type  the type of the event.
+     * @param index the particle's index.
+     * @param x     the x of the particle's position in world space.
+     * @param y     the y of the particle's position in world space.
+     * @param z     the z of the particle's position in world space.
+     * @param vx    the x of the particle's velocity.
+     * @param vy    the y of the particle's velocity.
+     * @param vz    the z of the particle's velocity.
+     */
+    public void write(int type, int index, float x, float y, float z, float vx, float vy, float vz) {
+
+        int slot = written.getAndIncrement() % types.length;
+
+        types[slot] = type;
+        indexes[slot] = index;
+        posX[slot] = x;
+        posY[slot] = y;
+        posZ[slot] = z;
+        velX[slot] = vx;
+        velY[slot] = vy;
+        velZ[slot] = vz;
+    }
+
+    /**
+     * Removes all events.
+     */
+    public void clear() {
+        written.set(0);
+    }
+
+    /**
+     * Gets the max count of events which this buffer can keep.
+     *
+     * @return the capacity.
+     */
+    public int getCapacity() {
+        return types.length;
+    }
+
+    /**
+     * Gets the count of events in this buffer.
+     *
+     * @return the count of events.
+     */
+    public int size() {
+        return Math.min(written.get(), types.length);
+    }
+
+    /**
+     * Returns true if this buffer doesn't have any events.
+     *
+     * @return true if this buffer is empty.
+     */
+    public boolean isEmpty() {
+        return written.get() == 0;
+    }
+
+    /**
+     * Gets the count of the oldest events which were overwritten since the last clearing.
+     *
+     * @return the count of lost events.
+     */
+    public int getLostCount() {
+        return Math.max(written.get() - types.length, 0);
+    }
+
+    /**
+     * Gets the type of the event.
+     *
+     * @param n the number of the event from the oldest one.
+     * @return the type of the event.
+     */
+    public int getType(int n) {
+        return types[toSlot(n)];
+    }
+
+    /**
+     * Gets the particle's index of the event. The index is taken when the event is written, dead particles are
+     * swap-removed after the update, so the index can refer to another particle or to a free slot when the events
+     * are dispatched. The event's position and velocity should be used instead of reading the store by this index.
+     *
+     * @param n the number of the event from the oldest one.
+     * @return the particle's index at the moment of the event.
+     */
+    public int getIndex(int n) {
+        return indexes[toSlot(n)];
+    }
+
+    /**
+     * Gets the particle's position of the event in world space.
+     *
+     * @param n     the number of the event from the oldest one.
+     * @param store the vector to store the result.
+     * @return the particle's position.
+     */
+    public @NotNull Vector3f getPosition(int n, @NotNull Vector3f store) {
+        int slot = toSlot(n);
+        return store.set(posX[slot], posY[slot], posZ[slot]);
+    }
+
+    /**
+     * Gets the particle's velocity of the event.
+     *
+     * @param n     the number of the event from the oldest one.
+     * @param store the vector to store the result.
+     * @return the particle's velocity.
+     */
+    public @NotNull Vector3f getVelocity(int n, @NotNull Vector3f store) {
+        int slot = toSlot(n);
+        return store.set(velX[slot], velY[slot], velZ[slot]);
+    }
+
+    private int toSlot(int n) {
+
+        int written = this.written.get();
+        int capacity = types.length;
+
+        if (n < 0 || n >= Math.min(written, capacity)) {
+            throw new IndexOutOfBoundsException("The event " + n + " is out of the buffer.");
+        }
+
+        return written <= capacity ? n : (written + n) % capacity;
+    }
+}
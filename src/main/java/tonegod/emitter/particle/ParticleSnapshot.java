@@ -0,0 +1,144 @@
+package tonegod.emitter.particle;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The state of particles which is used to build the particles mesh. In the synchronous mode it's a view of the
+ * emitter's store, in the asynchronous mode it's a copy of the active particles which was made by the simulation
+ * thread after a simulation step, so the mesh can be built while the next step is simulated.
+ *
+ * @author JavaSaBr
+ */
+public final class ParticleSnapshot {
+
+    /**
+     * The store with the particles state.
+     */
+    @Nullable
+    private ParticleStore store;
+
+    /**
+     * The index of the first active particle.
+     */
+    private int activeParticleStart;
+
+    /**
+     * The count of active particles.
+     */
+    private int activeParticleCount;
+
+    /**
+     * The blend factor between the previous and the current positions of particles.
+     */
+    private float interpolationAlpha;
+
+    public ParticleSnapshot() {
+        this.interpolationAlpha = 1F;
+    }
+
+    /**
+     * Makes this snapshot a view of the store.
+     *
+     * @param store               the store.
+     * @param activeParticleStart the index of the first active particle.
+     * @param activeParticleCount the count of active particles.
+     * @param interpolationAlpha  the blend factor of positions.
+     */
+    public void view(
+            @NotNull ParticleStore store,
+            int activeParticleStart,
+            int activeParticleCount,
+            float interpolationAlpha
+    ) {
+        this.store = store;
+        this.activeParticleStart = activeParticleStart;
+        this.activeParticleCount = activeParticleCount;
+        this.interpolationAlpha = interpolationAlpha;
+    }
+
+    /**
+     * Copies the active particles of the source store to own store of this snapshot.
+     *
+     * @param source              the source store.
+     * @param activeParticleStart the index of the first active particle.
+     * @param activeParticleCount the count of active particles.
+     * @param interpolationAlpha  the blend factor of positions.
+     */
+    public void copy(
+            @NotNull ParticleStore source,
+            int activeParticleStart,
+            int activeParticleCount,
+            float interpolationAlpha
+    ) {
+
+        int capacity = source.getCapacity();
+
+        if (store == null || store == source || store.getCapacity() != capacity) {
+            store = new ParticleStore(capacity);
+        }
+
+        int end = activeParticleStart + activeParticleCount;
+
+        if (end <= capacity) {
+            store.copyRenderState(source, activeParticleStart, end);
+        } else {
+            store.copyRenderState(source, activeParticleStart, capacity);
+            store.copyRenderState(source, 0, end - capacity);
+        }
+
+        this.activeParticleStart = activeParticleStart;
+        this.activeParticleCount = activeParticleCount;
+        this.interpolationAlpha = interpolationAlpha;
+    }
+
+    /**
+     * Returns true if this snapshot has particles state.
+     *
+     * @return true if this snapshot has particles state.
+     */
+    public boolean hasStore() {
+        return store != null;
+    }
+
+    /**
+     * Gets the store with the particles state.
+     *
+     * @return the store with the particles state.
+     */
+    public @NotNull ParticleStore getStore() {
+
+        if (store == null) {
+            throw new IllegalStateException("The snapshot doesn't have particles state yet.");
+        }
+
+        return store;
+    }
+
+    /**
+     * Gets the index of the first active particle, the active particles can wrap around the end of the store.
+     *
+     * @return the index of the first active particle.
+     */
+    public int getActiveParticleStart() {
+        return activeParticleStart;
+    }
+
+    /**
+     * Gets the count of active particles.
+     *
+     * @return the count of active particles.
+     */
+    public int getActiveParticleCount() {
+        return activeParticleCount;
+    }
+
+    /**
+     * Gets the blend factor between the previous and the current positions of particles.
+     *
+     * @return the blend factor.
+     */
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
+}
@@ -0,0 +1,1240 @@
+package tonegod.emitter.particle;
+
+import com.jme3.export.*;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector3f;
+import com.jme3.util.clone.Cloner;
+import com.jme3.util.clone.JmeCloneable;
+import org.jetbrains.annotations.NotNull;
+import tonegod.emitter.util.RandomUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The structure-of-arrays storage of particles state, every particle's field is kept in a primitive column
+ * indexed by the particle's index.
+ *
+ * @author JavaSaBr
+ */
+public final class ParticleStore implements Cloneable, JmeCloneable, Savable {
+
+    @NotNull
+    private static final Object[][] EMPTY_DATA = new Object[0][];
+
+    @NotNull
+    private static final float[][] EMPTY_FLOAT_COLUMNS = new float[0][];
+
+    @NotNull
+    private static final int[][] EMPTY_INT_COLUMNS = new int[0][];
+
+    /**
+     * The current particle's position.
+     */
+    @NotNull
+    public float[] posX, posY, posZ;
+
+    /**
+     * The particle's position before the last fixed simulation step.
+     */
+    @NotNull
+    public float[] prevPosX, prevPosY, prevPosZ;
+
+    /**
+     * The particle's velocity.
+     */
+    @NotNull
+    public float[] velX, velY, velZ;
+
+    /**
+     * The reversed particle's velocity.
+     */
+    @NotNull
+    public float[] revVelX, revVelY, revVelZ;
+
+    /**
+     * The emitter's world position at the moment of emitting.
+     */
+    @NotNull
+    public float[] initPosX, initPosY, initPosZ;
+
+    /**
+     * The random offset from the center of the emission triangle.
+     */
+    @NotNull
+    public float[] offsetX, offsetY, offsetZ;
+
+    /**
+     * The emission point on the emitter shape including the random offset, it's rotated and scaled by the emitter at
+     * the moment of emitting.
+     */
+    @NotNull
+    public float[] spawnX, spawnY, spawnZ;
+
+    /**
+     * The normal of the emission point, it's rotated by the emitter at the moment of emitting.
+     */
+    @NotNull
+    public float[] normalX, normalY, normalZ;
+
+    /**
+     * The particle's size.
+     */
+    @NotNull
+    public float[] sizeX, sizeY, sizeZ;
+
+    /**
+     * The rotation angles per axis (in radians).
+     */
+    @NotNull
+    public float[] angleX, angleY, angleZ;
+
+    /**
+     * The particle's color.
+     */
+    @NotNull
+    public float[] colorR, colorG, colorB, colorA;
+
+    /**
+     * The alpha.
+     */
+    @NotNull
+    public float[] alpha;
+
+    /**
+     * The life, in seconds.
+     */
+    @NotNull
+    public float[] life;
+
+    /**
+     * The total particle lifespan.
+     */
+    @NotNull
+    public float[] startLife;
+
+    /**
+     * The force at which the particle was emitted.
+     */
+    @NotNull
+    public float[] force;
+
+    /**
+     * The current blend value.
+     */
+    @NotNull
+    public float[] blend;
+
+    /**
+     * The interpolated blend value.
+     */
+    @NotNull
+    public float[] interpBlend;
+
+    /**
+     * The initial length of the velocity.
+     */
+    @NotNull
+    public float[] initialLength;
+
+    /**
+     * The sprite columns.
+     */
+    @NotNull
+    public int[] spriteCol;
+
+    /**
+     * The sprite rows.
+     */
+    @NotNull
+    public int[] spriteRow;
+
+    /**
+     * The index of the emitter shape's mesh triangle the particle was emitted from.
+     */
+    @NotNull
+    public int[] triangleIndex;
+
+    /**
+     * The state of the particle's random stream.
+     */
+    @NotNull
+    public long[] randomState;
+
+    /**
+     * The activity state of particles.
+     */
+    @NotNull
+    public boolean[] active;
+
+    /**
+     * The influencers data columns, the first index is the data id, the second one is the particle's index.
+     */
+    @NotNull
+    private Object[][] data;
+
+    /**
+     * The layout of typed columns of influencers.
+     */
+    @NotNull
+    private ParticleDataLayout layout;
+
+    /**
+     * The shared block of float columns of influencers, the first index is the column, the second one is the
+     * particle's index.
+     */
+    @NotNull
+    private float[][] floatColumns;
+
+    /**
+     * The shared block of int columns of influencers, the first index is the column, the second one is the
+     * particle's index.
+     */
+    @NotNull
+    private int[][] intColumns;
+
+    /**
+     * The capacity of this store, the arrays can be longer after reducing the capacity.
+     */
+    private int capacity;
+
+    public ParticleStore() {
+        this(0);
+    }
+
+    public ParticleStore(int capacity) {
+        this.capacity = capacity;
+        this.data = EMPTY_DATA;
+        this.layout = new ParticleDataLayout();
+        this.floatColumns = EMPTY_FLOAT_COLUMNS;
+        this.intColumns = EMPTY_INT_COLUMNS;
+        this.posX = new float[capacity];
+        this.posY = new float[capacity];
+        this.posZ = new float[capacity];
+        this.prevPosX = new float[capacity];
+        this.prevPosY = new float[capacity];
+        this.prevPosZ = new float[capacity];
+        this.velX = new float[capacity];
+        this.velY = new float[capacity];
+        this.velZ = new float[capacity];
+        this.revVelX = new float[capacity];
+        this.revVelY = new float[capacity];
+        this.revVelZ = new float[capacity];
+        this.initPosX = new float[capacity];
+        this.initPosY = new float[capacity];
+        this.initPosZ = new float[capacity];
+        this.offsetX = new float[capacity];
+        this.offsetY = new float[capacity];
+        this.offsetZ = new float[capacity];
+        this.spawnX = new float[capacity];
+        this.spawnY = new float[capacity];
+        this.spawnZ = new float[capacity];
+        this.normalX = new float[capacity];
+        this.normalY = new float[capacity];
+        this.normalZ = new float[capacity];
+        this.sizeX = new float[capacity];
+        this.sizeY = new float[capacity];
+        this.sizeZ = new float[capacity];
+        this.angleX = new float[capacity];
+        this.angleY = new float[capacity];
+        this.angleZ = new float[capacity];
+        this.colorR = new float[capacity];
+        this.colorG = new float[capacity];
+        this.colorB = new float[capacity];
+        this.colorA = new float[capacity];
+        this.alpha = new float[capacity];
+        this.life = new float[capacity];
+        this.startLife = new float[capacity];
+        this.force = new float[capacity];
+        this.blend = new float[capacity];
+        this.interpBlend = new float[capacity];
+        this.initialLength = new float[capacity];
+        this.spriteCol = new int[capacity];
+        this.spriteRow = new int[capacity];
+        this.triangleIndex = new int[capacity];
+        this.randomState = new long[capacity];
+        this.active = new boolean[capacity];
+
+        Arrays.fill(sizeX, 1F);
+        Arrays.fill(sizeY, 1F);
+        Arrays.fill(sizeZ, 1F);
+        Arrays.fill(colorR, 1F);
+        Arrays.fill(colorG, 1F);
+        Arrays.fill(colorB, 1F);
+        Arrays.fill(colorA, 1F);
+        Arrays.fill(alpha, 1F);
+    }
+
+    /**
+     * Gets the capacity of this store.
+     *
+     * @return the capacity of this store.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Changes the capacity of this store keeping the state of particles in the range [0, min(capacity, newCapacity)).
+     * The arrays are grown geometrically and aren't reallocated when the capacity is reduced, the state of particles
+     * in the added range is reset to the default state without influencers data.
+     *
+     * @param newCapacity the new capacity.
+     */
+    public void resize(int newCapacity) {
+
+        if (newCapacity < 0) {
+            throw new IllegalArgumentException("The capacity " + newCapacity + " can't be negative.");
+        }
+
+        int prevCapacity = capacity;
+        int kept = Math.min(prevCapacity, newCapacity);
+        int length = active.length;
+
+        if (newCapacity > length) {
+
+            length = Math.max(newCapacity, length + (length >> 1));
+
+            posX = grow(posX, length, kept);
+            posY = grow(posY, length, kept);
+            posZ = grow(posZ, length, kept);
+            prevPosX = grow(prevPosX, length, kept);
+            prevPosY = grow(prevPosY, length, kept);
+            prevPosZ = grow(prevPosZ, length, kept);
+            velX = grow(velX, length, kept);
+            velY = grow(velY, length, kept);
+            velZ = grow(velZ, length, kept);
+            revVelX = grow(revVelX, length, kept);
+            revVelY = grow(revVelY, length, kept);
+            revVelZ = grow(revVelZ, length, kept);
+            initPosX = grow(initPosX, length, kept);
+            initPosY = grow(initPosY, length, kept);
+            initPosZ = grow(initPosZ, length, kept);
+            offsetX = grow(offsetX, length, kept);
+            offsetY = grow(offsetY, length, kept);
+            offsetZ = grow(offsetZ, length, kept);
+            spawnX = grow(spawnX, length, kept);
+            spawnY = grow(spawnY, length, kept);
+            spawnZ = grow(spawnZ, length, kept);
+            normalX = grow(normalX, length, kept);
+            normalY = grow(normalY, length, kept);
+            normalZ = grow(normalZ, length, kept);
+            sizeX = grow(sizeX, length, kept);
+            sizeY = grow(sizeY, length, kept);
+            sizeZ = grow(sizeZ, length, kept);
+            angleX = grow(angleX, length, kept);
+            angleY = grow(angleY, length, kept);
+            angleZ = grow(angleZ, length, kept);
+            colorR = grow(colorR, length, kept);
+            colorG = grow(colorG, length, kept);
+            colorB = grow(colorB, length, kept);
+            colorA = grow(colorA, length, kept);
+            alpha = grow(alpha, length, kept);
+            life = grow(life, length, kept);
+            startLife = grow(startLife, length, kept);
+            force = grow(force, length, kept);
+            blend = grow(blend, length, kept);
+            interpBlend = grow(interpBlend, length, kept);
+            initialLength = grow(initialLength, length, kept);
+            spriteCol = grow(spriteCol, length, kept);
+            spriteRow = grow(spriteRow, length, kept);
+            triangleIndex = grow(triangleIndex, length, kept);
+            randomState = grow(randomState, length, kept);
+            active = grow(active, length, kept);
+
+            for (int i = 0; i < data.length; i++) {
+                if (data[i] != null) {
+                    data[i] = grow(data[i], length, kept);
+                }
+            }
+
+            for (int i = 0; i < floatColumns.length; i++) {
+                if (floatColumns[i] != null) {
+                    floatColumns[i] = grow(floatColumns[i], length, kept);
+                }
+            }
+
+            for (int i = 0; i < intColumns.length; i++) {
+                if (intColumns[i] != null) {
+                    intColumns[i] = grow(intColumns[i], length, kept);
+                }
+            }
+
+        } else if (newCapacity > prevCapacity) {
+            clear(prevCapacity, newCapacity);
+        }
+
+        if (newCapacity > prevCapacity) {
+            Arrays.fill(sizeX, prevCapacity, newCapacity, 1F);
+            Arrays.fill(sizeY, prevCapacity, newCapacity, 1F);
+            Arrays.fill(sizeZ, prevCapacity, newCapacity, 1F);
+            Arrays.fill(colorR, prevCapacity, newCapacity, 1F);
+            Arrays.fill(colorG, prevCapacity, newCapacity, 1F);
+            Arrays.fill(colorB, prevCapacity, newCapacity, 1F);
+            Arrays.fill(colorA, prevCapacity, newCapacity, 1F);
+            Arrays.fill(alpha, prevCapacity, newCapacity, 1F);
+        }
+
+        capacity = newCapacity;
+    }
+
+    /**
+     * Resets the state of particles in the range [from, to) to zeros without influencers data.
+     *
+     * @param from the first index (inclusive).
+     * @param to   the last index (exclusive).
+     */
+    private void clear(int from, int to) {
+
+        for (float[] column : new float[][]{posX, posY, posZ, prevPosX, prevPosY, prevPosZ, velX, velY, velZ,
+                revVelX, revVelY, revVelZ, initPosX, initPosY, initPosZ, offsetX, offsetY, offsetZ, spawnX, spawnY,
+                spawnZ, normalX, normalY, normalZ, angleX, angleY, angleZ, life, startLife, force, blend, interpBlend,
+                initialLength}) {
+            Arrays.fill(column, from, to, 0F);
+        }
+
+        Arrays.fill(spriteCol, from, to, 0);
+        Arrays.fill(spriteRow, from, to, 0);
+        Arrays.fill(triangleIndex, from, to, 0);
+        Arrays.fill(randomState, from, to, 0L);
+        Arrays.fill(active, from, to, false);
+
+        for (Object[] column : data) {
+            if (column != null) {
+                Arrays.fill(column, from, to, null);
+            }
+        }
+
+        for (float[] column : floatColumns) {
+            if (column != null) {
+                Arrays.fill(column, from, to, 0F);
+            }
+        }
+
+        for (int[] column : intColumns) {
+            if (column != null) {
+                Arrays.fill(column, from, to, 0);
+            }
+        }
+    }
+
+    /**
+     * Reserves a data column for the data id.
+     *
+     * @param dataId          the data id.
+     * @param defaultDataSize the default count of data columns.
+     */
+    public void reserveDataSlot(int dataId, int defaultDataSize) {
+
+        ensureDataColumns(dataId, defaultDataSize);
+
+        if (data[dataId] == null) {
+            data[dataId] = new Object[active.length];
+        }
+    }
+
+    private void ensureDataColumns(int dataId, int defaultDataSize) {
+        if (data == EMPTY_DATA) {
+            data = new Object[Math.max(defaultDataSize, dataId + 1)][];
+        } else if (dataId >= data.length) {
+            data = Arrays.copyOf(data, dataId + 1);
+        }
+    }
+
+    /**
+     * Returns true if data is exist by the data id for the particle.
+     *
+     * @param dataId the data id.
+     * @param index  the particle's index.
+     * @return true if data is exist.
+     */
+    public boolean hasData(int dataId, int index) {
+        return data.length > dataId && data[dataId] != null && data[dataId][index] != null;
+    }
+
+    /**
+     * Gets data by the data id for the particle.
+     *
+     * @param dataId the data id.
+     * @param index  the particle's index.
+     * @param <T>    the data's type.
+     * @return the exist data or null.
+     */
+    public <T> T getData(int dataId, int index) {
+        return (T) data[dataId][index];
+    }
+
+    /**
+     * Gets the whole data column by the data id, the data of a particle is stored by the particle's index.
+     *
+     * @param dataId the data id.
+     * @return the data column.
+     */
+    public @NotNull Object[] getDataColumn(int dataId) {
+        return data[dataId];
+    }
+
+    /**
+     * Sets data by the data id for the particle.
+     *
+     * @param dataId the data id.
+     * @param index  the particle's index.
+     * @param object the data.
+     */
+    public void setData(int dataId, int index, @NotNull Object object) {
+        data[dataId][index] = object;
+    }
+
+    /**
+     * Reserves typed columns for the data id, the exist columns are kept if they have the same counts.
+     *
+     * @param dataId     the data id.
+     * @param floatCount the count of float columns.
+     * @param intCount   the count of int columns.
+     */
+    public void reserveColumns(int dataId, int floatCount, int intCount) {
+
+        if (!layout.reserve(dataId, floatCount, intCount)) {
+            return;
+        }
+
+        if (floatColumns.length < layout.getFloatColumnCount()) {
+            floatColumns = Arrays.copyOf(floatColumns, layout.getFloatColumnCount());
+        }
+
+        if (intColumns.length < layout.getIntColumnCount()) {
+            intColumns = Arrays.copyOf(intColumns, layout.getIntColumnCount());
+        }
+
+        for (int i = 0; i < floatColumns.length; i++) {
+            if (floatColumns[i] == null && layout.isFloatColumnUsed(i)) {
+                floatColumns[i] = new float[active.length];
+            }
+        }
+
+        for (int i = 0; i < intColumns.length; i++) {
+            if (intColumns[i] == null && layout.isIntColumnUsed(i)) {
+                intColumns[i] = new int[active.length];
+            }
+        }
+    }
+
+    /**
+     * Gets the float column of the data id.
+     *
+     * @param dataId the data id.
+     * @param column the number of the column of the data id.
+     * @return the float column indexed by particle's index.
+     */
+    public @NotNull float[] getFloatColumn(int dataId, int column) {
+        return floatColumns[layout.getFloatOffset(dataId) + column];
+    }
+
+    /**
+     * Gets the int column of the data id.
+     *
+     * @param dataId the data id.
+     * @param column the number of the column of the data id.
+     * @return the int column indexed by particle's index.
+     */
+    public @NotNull int[] getIntColumn(int dataId, int column) {
+        return intColumns[layout.getIntOffset(dataId) + column];
+    }
+
+    /**
+     * Releases the typed columns which aren't used by any data id anymore.
+     */
+    private void releaseUnusedColumns() {
+
+        for (int i = 0; i < floatColumns.length; i++) {
+            if (!layout.isFloatColumnUsed(i)) {
+                floatColumns[i] = null;
+            }
+        }
+
+        for (int i = 0; i < intColumns.length; i++) {
+            if (!layout.isIntColumnUsed(i)) {
+                intColumns[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Moves the whole data column and typed columns from the previous data id to the new data id.
+     *
+     * @param prevDataId      the previous data id.
+     * @param newDataId       the new data id.
+     * @param defaultDataSize the default count of data columns.
+     */
+    public void moveData(int prevDataId, int newDataId, int defaultDataSize) {
+
+        layout.move(prevDataId, newDataId);
+        releaseUnusedColumns();
+
+        Object[] column = prevDataId < data.length ? data[prevDataId] : null;
+
+        if (column == null) {
+
+            if (data.length > newDataId) {
+                data[newDataId] = null;
+            }
+
+            return;
+        }
+
+        ensureDataColumns(newDataId, defaultDataSize);
+
+        data[newDataId] = column;
+        data[prevDataId] = null;
+    }
+
+    /**
+     * Removes the whole data column and typed columns by the data id.
+     *
+     * @param dataId the data id.
+     */
+    public void removeData(int dataId) {
+
+        layout.release(dataId);
+        releaseUnusedColumns();
+
+        if (data.length > dataId) {
+            data[dataId] = null;
+        }
+    }
+
+    /**
+     * Reverses the order of particles in the range [from, to) in place.
+     *
+     * @param from the first index (inclusive).
+     * @param to   the last index (exclusive).
+     */
+    public void reverse(int from, int to) {
+        for (int first = from, second = to - 1; first < second; first++, second--) {
+            swap(first, second);
+        }
+    }
+
+    /**
+     * Swaps all state of two particles including their influencers data.
+     *
+     * @param first  the first particle's index.
+     * @param second the second particle's index.
+     */
+    public void swap(int first, int second) {
+
+        swap(posX, first, second);
+        swap(posY, first, second);
+        swap(posZ, first, second);
+        swap(prevPosX, first, second);
+        swap(prevPosY, first, second);
+        swap(prevPosZ, first, second);
+        swap(velX, first, second);
+        swap(velY, first, second);
+        swap(velZ, first, second);
+        swap(revVelX, first, second);
+        swap(revVelY, first, second);
+        swap(revVelZ, first, second);
+        swap(initPosX, first, second);
+        swap(initPosY, first, second);
+        swap(initPosZ, first, second);
+        swap(offsetX, first, second);
+        swap(offsetY, first, second);
+        swap(offsetZ, first, second);
+        swap(spawnX, first, second);
+        swap(spawnY, first, second);
+        swap(spawnZ, first, second);
+        swap(normalX, first, second);
+        swap(normalY, first, second);
+        swap(normalZ, first, second);
+        swap(sizeX, first, second);
+        swap(sizeY, first, second);
+        swap(sizeZ, first, second);
+        swap(angleX, first, second);
+        swap(angleY, first, second);
+        swap(angleZ, first, second);
+        swap(colorR, first, second);
+        swap(colorG, first, second);
+        swap(colorB, first, second);
+        swap(colorA, first, second);
+        swap(alpha, first, second);
+        swap(life, first, second);
+        swap(startLife, first, second);
+        swap(force, first, second);
+        swap(blend, first, second);
+        swap(interpBlend, first, second);
+        swap(initialLength, first, second);
+        swap(spriteCol, first, second);
+        swap(spriteRow, first, second);
+        swap(triangleIndex, first, second);
+        swap(randomState, first, second);
+        swap(active, first, second);
+
+        for (Object[] column : data) {
+            if (column != null) {
+                swap(column, first, second);
+            }
+        }
+
+        for (float[] column : floatColumns) {
+            if (column != null) {
+                swap(column, first, second);
+            }
+        }
+
+        for (int[] column : intColumns) {
+            if (column != null) {
+                swap(column, first, second);
+            }
+        }
+    }
+
+    private static @NotNull float[] grow(@NotNull float[] array, int length, int count) {
+        float[] result = new float[length];
+        System.arraycopy(array, 0, result, 0, count);
+        return result;
+    }
+
+    private static @NotNull int[] grow(@NotNull int[] array, int length, int count) {
+        int[] result = new int[length];
+        System.arraycopy(array, 0, result, 0, count);
+        return result;
+    }
+
+    private static @NotNull long[] grow(@NotNull long[] array, int length, int count) {
+        long[] result = new long[length];
+        System.arraycopy(array, 0, result, 0, count);
+        return result;
+    }
+
+    private static @NotNull boolean[] grow(@NotNull boolean[] array, int length, int count) {
+        boolean[] result = new boolean[length];
+        System.arraycopy(array, 0, result, 0, count);
+        return result;
+    }
+
+    private static @NotNull Object[] grow(@NotNull Object[] array, int length, int count) {
+        Object[] result = new Object[length];
+        System.arraycopy(array, 0, result, 0, count);
+        return result;
+    }
+
+    private static void swap(@NotNull float[] array, int first, int second) {
+        float value = array[first];
+        array[first] = array[second];
+        array[second] = value;
+    }
+
+    private static void swap(@NotNull int[] array, int first, int second) {
+        int value = array[first];
+        array[first] = array[second];
+        array[second] = value;
+    }
+
+    private static void swap(@NotNull long[] array, int first, int second) {
+        long value = array[first];
+        array[first] = array[second];
+        array[second] = value;
+    }
+
+    private static void swap(@NotNull boolean[] array, int first, int second) {
+        boolean value = array[first];
+        array[first] = array[second];
+        array[second] = value;
+    }
+
+    private static void swap(@NotNull Object[] array, int first, int second) {
+        Object value = array[first];
+        array[first] = array[second];
+        array[second] = value;
+    }
+
+    /**
+     * Copies the particle's position to the vector.
+     *
+     * @param index  the particle's index.
+     * @param result the vector to store the result.
+     * @return the result vector.
+     */
+    public @NotNull Vector3f getPosition(int index, @NotNull Vector3f result) {
+        return result.set(posX[index], posY[index], posZ[index]);
+    }
+
+    /**
+     * Copies the particle's position blended between the previous and the current position to the vector.
+     *
+     * @param index  the particle's index.
+     * @param alpha  the blend factor, 0 is the previous position and 1 is the current position.
+     * @param result the vector to store the result.
+     * @return the result vector.
+     */
+    public @NotNull Vector3f getPosition(int index, float alpha, @NotNull Vector3f result) {
+
+        if (alpha >= 1F) {
+            return result.set(posX[index], posY[index], posZ[index]);
+        }
+
+        return result.set(prevPosX[index] + (posX[index] - prevPosX[index]) * alpha,
+                prevPosY[index] + (posY[index] - prevPosY[index]) * alpha,
+                prevPosZ[index] + (posZ[index] - prevPosZ[index]) * alpha);
+    }
+
+    /**
+     * Saves the current positions of particles in the range [from, to) as previous positions.
+     *
+     * @param from the first index (inclusive).
+     * @param to   the last index (exclusive).
+     */
+    public void savePositions(int from, int to) {
+        System.arraycopy(posX, from, prevPosX, from, to - from);
+        System.arraycopy(posY, from, prevPosY, from, to - from);
+        System.arraycopy(posZ, from, prevPosZ, from, to - from);
+    }
+
+    /**
+     * Copies the state which is used to render particles in the range [from, to) from the source store. The stores
+     * should have the same capacity.
+     *
+     * @param source the source store.
+     * @param from   the first index (inclusive).
+     * @param to     the last index (exclusive).
+     */
+    public void copyRenderState(@NotNull ParticleStore source, int from, int to) {
+
+        int length = to - from;
+
+        System.arraycopy(source.posX, from, posX, from, length);
+        System.arraycopy(source.posY, from, posY, from, length);
+        System.arraycopy(source.posZ, from, posZ, from, length);
+        System.arraycopy(source.prevPosX, from, prevPosX, from, length);
+        System.arraycopy(source.prevPosY, from, prevPosY, from, length);
+        System.arraycopy(source.prevPosZ, from, prevPosZ, from, length);
+        System.arraycopy(source.velX, from, velX, from, length);
+        System.arraycopy(source.velY, from, velY, from, length);
+        System.arraycopy(source.velZ, from, velZ, from, length);
+        System.arraycopy(source.initPosX, from, initPosX, from, length);
+        System.arraycopy(source.initPosY, from, initPosY, from, length);
+        System.arraycopy(source.initPosZ, from, initPosZ, from, length);
+        System.arraycopy(source.normalX, from, normalX, from, length);
+        System.arraycopy(source.normalY, from, normalY, from, length);
+        System.arraycopy(source.normalZ, from, normalZ, from, length);
+        System.arraycopy(source.sizeX, from, sizeX, from, length);
+        System.arraycopy(source.sizeY, from, sizeY, from, length);
+        System.arraycopy(source.sizeZ, from, sizeZ, from, length);
+        System.arraycopy(source.angleX, from, angleX, from, length);
+        System.arraycopy(source.angleY, from, angleY, from, length);
+        System.arraycopy(source.angleZ, from, angleZ, from, length);
+        System.arraycopy(source.colorR, from, colorR, from, length);
+        System.arraycopy(source.colorG, from, colorG, from, length);
+        System.arraycopy(source.colorB, from, colorB, from, length);
+        System.arraycopy(source.colorA, from, colorA, from, length);
+        System.arraycopy(source.alpha, from, alpha, from, length);
+        System.arraycopy(source.spriteCol, from, spriteCol, from, length);
+        System.arraycopy(source.spriteRow, from, spriteRow, from, length);
+        System.arraycopy(source.triangleIndex, from, triangleIndex, from, length);
+        System.arraycopy(source.active, from, active, from, length);
+    }
+
+    /**
+     * Copies the whole state of particles in the range [from, to) from the source store except influencers data.
+     * The stores should have the same capacity.
+     *
+     * @param source the source store.
+     * @param from   the first index (inclusive).
+     * @param to     the last index (exclusive).
+     */
+    public void copyState(@NotNull ParticleStore source, int from, int to) {
+
+        copyRenderState(source, from, to);
+
+        int length = to - from;
+
+        System.arraycopy(source.revVelX, from, revVelX, from, length);
+        System.arraycopy(source.revVelY, from, revVelY, from, length);
+        System.arraycopy(source.revVelZ, from, revVelZ, from, length);
+        System.arraycopy(source.offsetX, from, offsetX, from, length);
+        System.arraycopy(source.offsetY, from, offsetY, from, length);
+        System.arraycopy(source.offsetZ, from, offsetZ, from, length);
+        System.arraycopy(source.spawnX, from, spawnX, from, length);
+        System.arraycopy(source.spawnY, from, spawnY, from, length);
+        System.arraycopy(source.spawnZ, from, spawnZ, from, length);
+        System.arraycopy(source.life, from, life, from, length);
+        System.arraycopy(source.startLife, from, startLife, from, length);
+        System.arraycopy(source.force, from, force, from, length);
+        System.arraycopy(source.blend, from, blend, from, length);
+        System.arraycopy(source.interpBlend, from, interpBlend, from, length);
+        System.arraycopy(source.initialLength, from, initialLength, from, length);
+        System.arraycopy(source.randomState, from, randomState, from, length);
+    }
+
+    /**
+     * Sets the particle's position.
+     *
+     * @param index    the particle's index.
+     * @param position the new position.
+     */
+    public void setPosition(int index, @NotNull Vector3f position) {
+        posX[index] = position.x;
+        posY[index] = position.y;
+        posZ[index] = position.z;
+    }
+
+    /**
+     * Copies the particle's velocity to the vector.
+     *
+     * @param index  the particle's index.
+     * @param result the vector to store the result.
+     * @return the result vector.
+     */
+    public @NotNull Vector3f getVelocity(int index, @NotNull Vector3f result) {
+        return result.set(velX[index], velY[index], velZ[index]);
+    }
+
+    /**
+     * Sets the particle's velocity.
+     *
+     * @param index    the particle's index.
+     * @param velocity the new velocity.
+     */
+    public void setVelocity(int index, @NotNull Vector3f velocity) {
+        velX[index] = velocity.x;
+        velY[index] = velocity.y;
+        velZ[index] = velocity.z;
+    }
+
+    /**
+     * Copies the particle's emission point to the vector.
+     *
+     * @param index  the particle's index.
+     * @param result the vector to store the result.
+     * @return the result vector.
+     */
+    public @NotNull Vector3f getSpawnPoint(int index, @NotNull Vector3f result) {
+        return result.set(spawnX[index], spawnY[index], spawnZ[index]);
+    }
+
+    /**
+     * Copies the normal of the particle's emission point to the vector.
+     *
+     * @param index  the particle's index.
+     * @param result the vector to store the result.
+     * @return the result vector.
+     */
+    public @NotNull Vector3f getSpawnNormal(int index, @NotNull Vector3f result) {
+        return result.set(normalX[index], normalY[index], normalZ[index]);
+    }
+
+    /**
+     * Copies the particle's size to the vector.
+     *
+     * @param index  the particle's index.
+     * @param result the vector to store the result.
+     * @return the result vector.
+     */
+    public @NotNull Vector3f getSize(int index, @NotNull Vector3f result) {
+        return result.set(sizeX[index], sizeY[index], sizeZ[index]);
+    }
+
+    /**
+     * Sets the particle's size.
+     *
+     * @param index the particle's index.
+     * @param size  the new size.
+     */
+    public void setSize(int index, @NotNull Vector3f size) {
+        sizeX[index] = size.x;
+        sizeY[index] = size.y;
+        sizeZ[index] = size.z;
+    }
+
+    /**
+     * Copies the particle's rotation angles to the vector.
+     *
+     * @param index  the particle's index.
+     * @param result the vector to store the result.
+     * @return the result vector.
+     */
+    public @NotNull Vector3f getAngles(int index, @NotNull Vector3f result) {
+        return result.set(angleX[index], angleY[index], angleZ[index]);
+    }
+
+    /**
+     * Sets the particle's rotation angles.
+     *
+     * @param index the particle's index.
+     * @param x     the angle around X axis.
+     * @param y     the angle around Y axis.
+     * @param z     the angle around Z axis.
+     */
+    public void setAngles(int index, float x, float y, float z) {
+        angleX[index] = x;
+        angleY[index] = y;
+        angleZ[index] = z;
+    }
+
+    /**
+     * Sets the particle's color.
+     *
+     * @param index the particle's index.
+     * @param color the new color.
+     */
+    public void setColor(int index, @NotNull ColorRGBA color) {
+        colorR[index] = color.r;
+        colorG[index] = color.g;
+        colorB[index] = color.b;
+        colorA[index] = color.a;
+    }
+
+    /**
+     * Calculates the packed ABGR color of the particle with applied alpha.
+     *
+     * @param index the particle's index.
+     * @return the packed ABGR color.
+     */
+    public int getColorABGR(int index) {
+        return (((int) (colorA[index] * alpha[index] * 255) & 0xFF) << 24)
+                | (((int) (colorB[index] * 255) & 0xFF) << 16)
+                | (((int) (colorG[index] * 255) & 0xFF) << 8)
+                | ((int) (colorR[index] * 255) & 0xFF);
+    }
+
+    /**
+     * Gets the next random bits from the particle's stream.
+     *
+     * @param index the particle's index.
+     * @return the random bits.
+     */
+    public long nextRandomLong(int index) {
+        long state = randomState[index] + RandomUtils.GOLDEN_GAMMA;
+        randomState[index] = state;
+        return RandomUtils.mix64(state);
+    }
+
+    /**
+     * Gets the next random float in [0, 1) from the particle's stream.
+     *
+     * @param index the particle's index.
+     * @return the random float.
+     */
+    public float nextRandomFloat(int index) {
+        return RandomUtils.toFloat(nextRandomLong(index));
+    }
+
+    /**
+     * Gets the next random boolean from the particle's stream.
+     *
+     * @param index the particle's index.
+     * @return the random boolean.
+     */
+    public boolean nextRandomBoolean(int index) {
+        return nextRandomLong(index) < 0;
+    }
+
+    /**
+     * Gets the next random integer between min and max from the particle's stream.
+     *
+     * @param index the particle's index.
+     * @param min   the min (inclusive).
+     * @param max   the max (inclusive).
+     * @return the random integer.
+     */
+    public int nextRandomInt(int index, int min, int max) {
+        return (int) (nextRandomFloat(index) * (max - min + 1)) + min;
+    }
+
+    @Override
+    public void write(@NotNull JmeExporter exporter) throws IOException {
+
+        OutputCapsule capsule = exporter.getCapsule(this);
+        capsule.write(capacity, "capacity", 0);
+        capsule.write(posX, "posX", null);
+        capsule.write(posY, "posY", null);
+        capsule.write(posZ, "posZ", null);
+        capsule.write(prevPosX, "prevPosX", null);
+        capsule.write(prevPosY, "prevPosY", null);
+        capsule.write(prevPosZ, "prevPosZ", null);
+        capsule.write(velX, "velX", null);
+        capsule.write(velY, "velY", null);
+        capsule.write(velZ, "velZ", null);
+        capsule.write(revVelX, "revVelX", null);
+        capsule.write(revVelY, "revVelY", null);
+        capsule.write(revVelZ, "revVelZ", null);
+        capsule.write(initPosX, "initPosX", null);
+        capsule.write(initPosY, "initPosY", null);
+        capsule.write(initPosZ, "initPosZ", null);
+        capsule.write(offsetX, "offsetX", null);
+        capsule.write(offsetY, "offsetY", null);
+        capsule.write(offsetZ, "offsetZ", null);
+        capsule.write(spawnX, "spawnX", null);
+        capsule.write(spawnY, "spawnY", null);
+        capsule.write(spawnZ, "spawnZ", null);
+        capsule.write(normalX, "normalX", null);
+        capsule.write(normalY, "normalY", null);
+        capsule.write(normalZ, "normalZ", null);
+        capsule.write(sizeX, "sizeX", null);
+        capsule.write(sizeY, "sizeY", null);
+        capsule.write(sizeZ, "sizeZ", null);
+        capsule.write(angleX, "angleX", null);
+        capsule.write(angleY, "angleY", null);
+        capsule.write(angleZ, "angleZ", null);
+        capsule.write(colorR, "colorR", null);
+        capsule.write(colorG, "colorG", null);
+        capsule.write(colorB, "colorB", null);
+        capsule.write(colorA, "colorA", null);
+        capsule.write(alpha, "alpha", null);
+        capsule.write(life, "life", null);
+        capsule.write(startLife, "startLife", null);
+        capsule.write(force, "force", null);
+        capsule.write(blend, "blend", null);
+        capsule.write(interpBlend, "interpBlend", null);
+        capsule.write(initialLength, "initialLength", null);
+        capsule.write(spriteCol, "spriteCol", null);
+        capsule.write(spriteRow, "spriteRow", null);
+        capsule.write(triangleIndex, "triangleIndex", null);
+        capsule.write(randomState, "randomState", null);
+        capsule.write(active, "active", null);
+    }
+
+    @Override
+    public void read(@NotNull JmeImporter importer) throws IOException {
+
+        InputCapsule capsule = importer.getCapsule(this);
+        capacity = capsule.readInt("capacity", 0);
+        data = EMPTY_DATA;
+        layout = new ParticleDataLayout();
+        floatColumns = EMPTY_FLOAT_COLUMNS;
+        intColumns = EMPTY_INT_COLUMNS;
+        posX = capsule.readFloatArray("posX", new float[capacity]);
+        posY = capsule.readFloatArray("posY", new float[capacity]);
+        posZ = capsule.readFloatArray("posZ", new float[capacity]);
+        prevPosX = capsule.readFloatArray("prevPosX", new float[capacity]);
+        prevPosY = capsule.readFloatArray("prevPosY", new float[capacity]);
+        prevPosZ = capsule.readFloatArray("prevPosZ", new float[capacity]);
+        velX = capsule.readFloatArray("velX", new float[capacity]);
+        velY = capsule.readFloatArray("velY", new float[capacity]);
+        velZ = capsule.readFloatArray("velZ", new float[capacity]);
+        revVelX = capsule.readFloatArray("revVelX", new float[capacity]);
+        revVelY = capsule.readFloatArray("revVelY", new float[capacity]);
+        revVelZ = capsule.readFloatArray("revVelZ", new float[capacity]);
+        initPosX = capsule.readFloatArray("initPosX", new float[capacity]);
+        initPosY = capsule.readFloatArray("initPosY", new float[capacity]);
+        initPosZ = capsule.readFloatArray("initPosZ", new float[capacity]);
+        offsetX = capsule.readFloatArray("offsetX", new float[capacity]);
+        offsetY = capsule.readFloatArray("offsetY", new float[capacity]);
+        offsetZ = capsule.readFloatArray("offsetZ", new float[capacity]);
+        spawnX = capsule.readFloatArray("spawnX", new float[capacity]);
+        spawnY = capsule.readFloatArray("spawnY", new float[capacity]);
+        spawnZ = capsule.readFloatArray("spawnZ", new float[capacity]);
+        normalX = capsule.readFloatArray("normalX", new float[capacity]);
+        normalY = capsule.readFloatArray("normalY", new float[capacity]);
+        normalZ = capsule.readFloatArray("normalZ", new float[capacity]);
+        sizeX = capsule.readFloatArray("sizeX", new float[capacity]);
+        sizeY = capsule.readFloatArray("sizeY", new float[capacity]);
+        sizeZ = capsule.readFloatArray("sizeZ", new float[capacity]);
+        angleX = capsule.readFloatArray("angleX", new float[capacity]);
+        angleY = capsule.readFloatArray("angleY", new float[capacity]);
+        angleZ = capsule.readFloatArray("angleZ", new float[capacity]);
+        colorR = capsule.readFloatArray("colorR", new float[capacity]);
+        colorG = capsule.readFloatArray("colorG", new float[capacity]);
+        colorB = capsule.readFloatArray("colorB", new float[capacity]);
+        colorA = capsule.readFloatArray("colorA", new float[capacity]);
+        alpha = capsule.readFloatArray("alpha", new float[capacity]);
+        life = capsule.readFloatArray("life", new float[capacity]);
+        startLife = capsule.readFloatArray("startLife", new float[capacity]);
+        force = capsule.readFloatArray("force", new float[capacity]);
+        blend = capsule.readFloatArray("blend", new float[capacity]);
+        interpBlend = capsule.readFloatArray("interpBlend", new float[capacity]);
+        initialLength = capsule.readFloatArray("initialLength", new float[capacity]);
+        spriteCol = capsule.readIntArray("spriteCol", new int[capacity]);
+        spriteRow = capsule.readIntArray("spriteRow", new int[capacity]);
+        triangleIndex = capsule.readIntArray("triangleIndex", new int[capacity]);
+        randomState = capsule.readLongArray("randomState", new long[capacity]);
+        active = capsule.readBooleanArray("active", new boolean[capacity]);
+    }
+
+    @Override
+    public @NotNull ParticleStore jmeClone() {
+        try {
+            return (ParticleStore) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void cloneFields(@NotNull Cloner cloner, @NotNull Object original) {
+        posX = posX.clone();
+        posY = posY.clone();
+        posZ = posZ.clone();
+        prevPosX = prevPosX.clone();
+        prevPosY = prevPosY.clone();
+        prevPosZ = prevPosZ.clone();
+        velX = velX.clone();
+        velY = velY.clone();
+        velZ = velZ.clone();
+        revVelX = revVelX.clone();
+        revVelY = revVelY.clone();
+        revVelZ = revVelZ.clone();
+        initPosX = initPosX.clone();
+        initPosY = initPosY.clone();
+        initPosZ = initPosZ.clone();
+        offsetX = offsetX.clone();
+        offsetY = offsetY.clone();
+        offsetZ = offsetZ.clone();
+        spawnX = spawnX.clone();
+        spawnY = spawnY.clone();
+        spawnZ = spawnZ.clone();
+        normalX = normalX.clone();
+        normalY = normalY.clone();
+        normalZ = normalZ.clone();
+        sizeX = sizeX.clone();
+        sizeY = sizeY.clone();
+        sizeZ = sizeZ.clone();
+        angleX = angleX.clone();
+        angleY = angleY.clone();
+        angleZ = angleZ.clone();
+        colorR = colorR.clone();
+        colorG = colorG.clone();
+        colorB = colorB.clone();
+        colorA = colorA.clone();
+        alpha = alpha.clone();
+        life = life.clone();
+        startLife = startLife.clone();
+        force = force.clone();
+        blend = blend.clone();
+        interpBlend = interpBlend.clone();
+        initialLength = initialLength.clone();
+        spriteCol = spriteCol.clone();
+        spriteRow = spriteRow.clone();
+        triangleIndex = triangleIndex.clone();
+        randomState = randomState.clone();
+        active = active.clone();
+
+        layout = layout.clone();
+        floatColumns = floatColumns.clone();
+        intColumns = intColumns.clone();
+
+        for (int i = 0; i < floatColumns.length; i++) {
+            if (floatColumns[i] != null) {
+                floatColumns[i] = floatColumns[i].clone();
+            }
+        }
+
+        for (int i = 0; i < intColumns.length; i++) {
+            if (intColumns[i] != null) {
+                intColumns[i] = intColumns[i].clone();
+            }
+        }
+
+        if (data.length > 0) {
+
+            data = data.clone();
+
+            for (int i = 0; i < data.length; i++) {
+                if (data[i] != null) {
+                    data[i] = cloner.clone(data[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package tonegod.emitter.particle;
+
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
+
+/**
+ * The set of temp objects which are used by influencers during updating particles. Every {@link ParticleData}
+ * cursor has own instance, so particles of an emitter can be updated from several threads when each thread uses
+ * own cursor.
+ *
+ * @author JavaSaBr
+ */
+public final class ParticleTempVars {
+
+    /**
+     * The temp vectors.
+     */
+    public final Vector3f vect1 = new Vector3f();
+    public final Vector3f vect2 = new Vector3f();
+    public final Vector3f vect3 = new Vector3f();
+    public final Vector3f vect4 = new Vector3f();
+    public final Vector3f vect5 = new Vector3f();
+    public final Vector3f vect6 = new Vector3f();
+
+    /**
+     * The temp quaternion.
+     */
+    public final Quaternion quat1 = new Quaternion();
+
+    /**
+     * The temp colors.
+     */
+    public final ColorRGBA color1 = new ColorRGBA();
+    public final ColorRGBA color2 = new ColorRGBA();
+}
@@ -7,8 +7,6 @@ import com.jme3.renderer.Camera;
 import com.jme3.util.clone.Cloner;
 import org.jetbrains.annotations.NotNull;
 import tonegod.emitter.BillboardMode;
-import tonegod.emitter.EmitterMesh;
-import tonegod.emitter.ParticleEmitterNode;
 
 /**
  * The rotated particle data mesh.
@@ -59,6 +57,18 @@ public abstract class RotatedParticleDataMesh extends ParticleDataMesh {
     @NotNull
     protected Vector3f tempV3;
 
+    /**
+     * The particle's velocity.
+     */
+    @NotNull
+    protected Vector3f velocity;
+
+    /**
+     * The particle's position.
+     */
+    @NotNull
+    protected Vector3f position;
+
     /**
      * The Rot store.
      */
@@ -72,6 +82,8 @@ public abstract class RotatedParticleDataMesh extends ParticleDataMesh {
         this.tempV1 = new Vector3f();
         this.tempV2 = new Vector3f();
         this.tempV3 = new Vector3f();
+        this.velocity = new Vector3f();
+        this.position = new Vector3f();
         this.rotStore = new Quaternion();
         this.lock = new Vector3f(0, 0.99f, 0.01f);
     }
@@ -79,12 +91,14 @@ public abstract class RotatedParticleDataMesh extends ParticleDataMesh {
     /**
      * Update rotation of a particle.
      *
-     * @param particleData  the particle data.
+     * @param store         the particles store.
+     * @param index         the particle's index.
      * @param billboardMode the billboard mode.
      * @param camera        the camera.
      */
     protected void updateRotation(
-            @NotNull ParticleData particleData,
+            @NotNull ParticleStore store,
+            int index,
             @NotNull BillboardMode billboardMode,
             @NotNull Camera camera
     ) {
@@ -92,7 +106,7 @@ public abstract class RotatedParticleDataMesh extends ParticleDataMesh {
         switch (billboardMode) {
             case VELOCITY: {
 
-                Vector3f velocity = particleData.getVelocity();
+                Vector3f velocity = store.getVelocity(index, this.velocity);
 
                 if (isNotUnitY(velocity)) {
                     up.set(velocity).crossLocal(Vector3f.UNIT_Y).normalizeLocal();
@@ -106,7 +120,7 @@ public abstract class RotatedParticleDataMesh extends ParticleDataMesh {
             }
             case VELOCITY_Z_UP: {
 
-                Vector3f velocity = particleData.getVelocity();
+                Vector3f velocity = store.getVelocity(index, this.velocity);
 
                 if (isNotUnitY(velocity)) {
                     up.set(velocity).crossLocal(Vector3f.UNIT_Y).normalizeLocal();
@@ -125,7 +139,7 @@ public abstract class RotatedParticleDataMesh extends ParticleDataMesh {
             }
             case VELOCITY_Z_UP_Y_LEFT: {
 
-                Vector3f velocity = particleData.getVelocity();
+                Vector3f velocity = store.getVelocity(index, this.velocity);
 
                 up.set(velocity).crossLocal(Vector3f.UNIT_Y).normalizeLocal();
                 left.set(velocity).crossLocal(up).normalizeLocal();
@@ -141,14 +155,10 @@ public abstract class RotatedParticleDataMesh extends ParticleDataMesh {
             }
             case NORMAL: {
 
-                ParticleEmitterNode emitterNode = getEmitterNode();
-                EmitterMesh emitterShape = emitterNode.getEmitterShape();
-                emitterShape.setNext(particleData.triangleIndex);
-
-                tempV1.set(emitterShape.getNormal());
+                store.getSpawnNormal(index, tempV1);
 
                 if (Vector3f.UNIT_Y.equals(tempV1)) {
-                    tempV1.set(particleData.getVelocity());
+                    store.getVelocity(index, tempV1);
                 }
 
                 up.set(tempV1).crossLocal(Vector3f.UNIT_Y).normalizeLocal();
@@ -158,11 +168,7 @@ public abstract class RotatedParticleDataMesh extends ParticleDataMesh {
             }
             case NORMAL_Y_UP: {
 
-                ParticleEmitterNode emitterNode = getEmitterNode();
-                EmitterMesh emitterShape = emitterNode.getEmitterShape();
-                emitterShape.setNext(particleData.triangleIndex);
-
-                tempV1.set(particleData.getVelocity());
+                store.getVelocity(index, tempV1);
 
                 if (Vector3f.UNIT_Y.equals(tempV1)) {
                     tempV1.set(Vector3f.UNIT_X);
@@ -0,0 +1,225 @@
+package tonegod.emitter.shapes;
+
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.util.clone.Cloner;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tonegod.emitter.ParticleEmitterNode;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+/**
+ * The base implementation of emitter shapes which sample emission points and normals in closed form instead of
+ * looking up triangles of a mesh. Every selected point is a random point of the shape, so there is no random offset
+ * inside of a face. These shapes don't keep selected points, so {@link #setNext(int)} selects the center of the
+ * shape with its up normal.
+ *
+ * @author JavaSaBr
+ */
+public abstract class AbstractAnalyticEmitterShape extends AbstractEmitterShape {
+
+    /**
+     * The min size of meshes to show shapes, some of jME shapes don't accept zero sizes.
+     */
+    protected static final float MIN_MESH_SIZE = 0.001F;
+
+    /**
+     * The selected emission point.
+     */
+    @NotNull
+    private Vector3f translation;
+
+    /**
+     * The normal of the selected emission point.
+     */
+    @NotNull
+    private Vector3f normal;
+
+    /**
+     * The zero offset from the selected emission point.
+     */
+    @NotNull
+    private Vector3f randomTranslation;
+
+    /**
+     * The mesh to show this shape or null if it wasn't created yet.
+     */
+    @Nullable
+    private Mesh mesh;
+
+    public AbstractAnalyticEmitterShape() {
+        this.translation = new Vector3f();
+        this.normal = new Vector3f();
+        this.randomTranslation = new Vector3f();
+    }
+
+    /**
+     * Samples a random point with its normal in the space of this shape.
+     *
+     * @param random   the random.
+     * @param position the vector to store the point.
+     * @param normal   the vector to store the normal.
+     */
+    protected abstract void sampleLocal(@NotNull Random random, @NotNull Vector3f position, @NotNull Vector3f normal);
+
+    /**
+     * Creates the mesh to show this shape.
+     *
+     * @return the new mesh.
+     */
+    protected abstract @NotNull Mesh createMesh();
+
+    /**
+     * Rotates the mesh which is built along the Z axis to be along the Y axis and moves it up.
+     *
+     * @param mesh    the mesh.
+     * @param offsetY the offset by the Y axis.
+     * @return the same mesh.
+     */
+    protected static @NotNull Mesh rotateToUp(@NotNull Mesh mesh, float offsetY) {
+
+        FloatBuffer positions = (FloatBuffer) mesh.getBuffer(VertexBuffer.Type.Position).getData();
+        VertexBuffer normalBuffer = mesh.getBuffer(VertexBuffer.Type.Normal);
+        FloatBuffer normals = normalBuffer == null ? null : (FloatBuffer) normalBuffer.getData();
+
+        for (int i = 0, count = mesh.getVertexCount(); i < count; i++) {
+
+            float y = positions.get(i * 3 + 1);
+            float z = positions.get(i * 3 + 2);
+
+            positions.put(i * 3 + 1, z + offsetY);
+            positions.put(i * 3 + 2, -y);
+
+            if (normals != null) {
+                y = normals.get(i * 3 + 1);
+                z = normals.get(i * 3 + 2);
+                normals.put(i * 3 + 1, z);
+                normals.put(i * 3 + 2, -y);
+            }
+        }
+
+        mesh.updateBound();
+
+        return mesh;
+    }
+
+    /**
+     * Drops the mesh to show this shape, it should be called when parameters of this shape are changed.
+     */
+    protected void invalidateMesh() {
+        mesh = null;
+    }
+
+    @Override
+    public @NotNull Mesh getMesh() {
+
+        Mesh mesh = this.mesh;
+
+        if (mesh == null) {
+            mesh = createMesh();
+            this.mesh = mesh;
+        }
+
+        return mesh;
+    }
+
+    @Override
+    public @NotNull Vector3f getCenter() {
+        return Vector3f.ZERO;
+    }
+
+    @Override
+    public void setNext() {
+        ParticleEmitterNode emitterNode = getEmitterNode();
+        sampleLocal(emitterNode.getRandom(), translation, normal);
+        transform(emitterNode, translation, normal);
+    }
+
+    @Override
+    public void setNext(int index) {
+        translation.set(getCenter());
+        normal.set(Vector3f.UNIT_Y);
+        transform(getEmitterNode(), translation, normal);
+    }
+
+    @Override
+    public void sample(int count, @NotNull float[] positions, @NotNull float[] normals) {
+
+        ParticleEmitterNode emitterNode = getEmitterNode();
+        Random random = emitterNode.getRandom();
+
+        Vector3f position = this.translation;
+        Vector3f normal = this.normal;
+
+        for (int i = 0; i < count; i++) {
+
+            sampleLocal(random, position, normal);
+            transform(emitterNode, position, normal);
+
+            positions[i * 3] = position.x;
+            positions[i * 3 + 1] = position.y;
+            positions[i * 3 + 2] = position.z;
+            normals[i * 3] = normal.x;
+            normals[i * 3 + 1] = normal.y;
+            normals[i * 3 + 2] = normal.z;
+        }
+    }
+
+    /**
+     * Transforms the point and the normal by the rotation and the scale of the emitter node.
+     *
+     * @param emitterNode the emitter node.
+     * @param position    the point.
+     * @param normal      the normal.
+     */
+    private void transform(
+            @NotNull ParticleEmitterNode emitterNode,
+            @NotNull Vector3f position,
+            @NotNull Vector3f normal
+    ) {
+
+        Quaternion rotation = emitterNode.getSimulationRotation();
+        Vector3f scale = emitterNode.getSimulationScale();
+
+        if (scale.x != 1F || scale.y != 1F || scale.z != 1F) {
+            position.multLocal(scale);
+            normal.divideLocal(scale).normalizeLocal();
+        }
+
+        rotation.multLocal(position);
+        rotation.multLocal(normal);
+    }
+
+    @Override
+    public int getTriangleIndex() {
+        return 0;
+    }
+
+    @Override
+    public @NotNull Vector3f getNextTranslation() {
+        return translation;
+    }
+
+    @Override
+    public @NotNull Vector3f getNormal() {
+        return normal;
+    }
+
+    @Override
+    public @NotNull Vector3f calcRandomTranslation() {
+        return randomTranslation.set(0F, 0F, 0F);
+    }
+
+    @Override
+    public void cloneFields(@NotNull Cloner cloner, @NotNull Object original) {
+        super.cloneFields(cloner, original);
+        translation = cloner.clone(translation);
+        normal = cloner.clone(normal);
+        randomTranslation = cloner.clone(randomTranslation);
+        mesh = null;
+    }
+}
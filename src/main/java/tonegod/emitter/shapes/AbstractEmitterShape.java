@@ -0,0 +1,197 @@
+package tonegod.emitter.shapes;
+
+import static java.util.Objects.requireNonNull;
+import com.jme3.export.JmeExporter;
+import com.jme3.export.JmeImporter;
+import com.jme3.math.FastMath;
+import com.jme3.math.Quaternion;
+import com.jme3.math.Vector3f;
+import com.jme3.util.clone.Cloner;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tonegod.emitter.EmitterShape;
+import tonegod.emitter.ParticleEmitterNode;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * The base implementation of the {@link EmitterShape} which calculates directions of particles by the normal of the
+ * selected emission point.
+ *
+ * @author JavaSaBr
+ */
+public abstract class AbstractEmitterShape implements EmitterShape {
+
+    /**
+     * The emitter node.
+     */
+    @Nullable
+    protected ParticleEmitterNode emitterNode;
+
+    @NotNull
+    private Vector3f tempDirection;
+
+    @NotNull
+    private Vector3f tempDirection2;
+
+    @NotNull
+    private Quaternion tempQuaternion;
+
+    @NotNull
+    private Quaternion tempQuaternion2;
+
+    public AbstractEmitterShape() {
+        this.tempDirection = new Vector3f();
+        this.tempDirection2 = new Vector3f();
+        this.tempQuaternion = new Quaternion();
+        this.tempQuaternion2 = new Quaternion();
+    }
+
+    @Override
+    public void setEmitterNode(@NotNull ParticleEmitterNode emitterNode) {
+        this.emitterNode = emitterNode;
+    }
+
+    @Override
+    public @NotNull ParticleEmitterNode getEmitterNode() {
+        return requireNonNull(emitterNode);
+    }
+
+    @Override
+    public void update() {
+    }
+
+    @Override
+    public void sample(int count, @NotNull float[] positions, @NotNull float[] normals) {
+
+        for (int i = 0; i < count; i++) {
+
+            setNext();
+
+            Vector3f translation = getNextTranslation();
+            Vector3f offset = calcRandomTranslation();
+            Vector3f normal = getNormal();
+
+            positions[i * 3] = translation.x + offset.x;
+            positions[i * 3 + 1] = translation.y + offset.y;
+            positions[i * 3 + 2] = translation.z + offset.z;
+            normals[i * 3] = normal.x;
+            normals[i * 3 + 1] = normal.y;
+            normals[i * 3 + 2] = normal.z;
+        }
+    }
+
+    @Override
+    public @NotNull Vector3f calcNextDirection() {
+
+        ParticleEmitterNode emitterNode = getEmitterNode();
+
+        switch (emitterNode.getDirectionType()) {
+            case NORMAL: {
+                return tempDirection.set(getNormal());
+            }
+            case NORMAL_NEGATE: {
+                return tempDirection.set(getNormal()).negateLocal();
+            }
+            case RANDOM: {
+                return calcDirectionRandom();
+            }
+            case RANDOM_TANGENT: {
+                return calcDirectionRandomTangent();
+            }
+            case RANDOM_NORMAL_ALIGNED: {
+
+                Vector3f directionRandom = calcDirectionRandom();
+
+                if (directionRandom.dot(getNormal()) < 0) {
+                    directionRandom.negateLocal();
+                }
+
+                return directionRandom;
+            }
+            case RANDOM_NORMAL_NEGATE: {
+
+                Vector3f directionRandom = calcDirectionRandom();
+
+                if (directionRandom.dot(getNormal()) > 0) {
+                    directionRandom.negateLocal();
+                }
+
+                return directionRandom;
+            }
+            default: {
+                return tempDirection;
+            }
+        }
+    }
+
+    /**
+     * Calculates a random direction.
+     *
+     * @return the random direction.
+     */
+    private @NotNull Vector3f calcDirectionRandom() {
+
+        Random random = getEmitterNode().getRandom();
+
+        tempQuaternion.fromAngles(
+                random.nextFloat() * FastMath.TWO_PI,
+                random.nextFloat() * FastMath.TWO_PI,
+                random.nextFloat() * FastMath.TWO_PI
+        );
+        tempQuaternion.mult(Vector3f.UNIT_Y, tempDirection);
+
+        return tempDirection;
+    }
+
+    /**
+     * Calculates a direction random target.
+     *
+     * @return the direction random target.
+     */
+    private @NotNull Vector3f calcDirectionRandomTangent() {
+
+        Random random = getEmitterNode().getRandom();
+        Vector3f normal = getNormal();
+
+        tempQuaternion2.lookAt(normal, Vector3f.UNIT_Y);
+        tempQuaternion2.mult(Vector3f.UNIT_Y, tempDirection2);
+
+        tempQuaternion.fromAngleAxis(random.nextFloat() * 360 * FastMath.DEG_TO_RAD, normal);
+        tempQuaternion.mult(tempDirection2, tempDirection);
+
+        return tempDirection;
+    }
+
+    @Override
+    public AbstractEmitterShape clone() {
+        try {
+            return (AbstractEmitterShape) super.clone();
+        } catch (final CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public AbstractEmitterShape jmeClone() {
+        return clone();
+    }
+
+    @Override
+    public void cloneFields(@NotNull Cloner cloner, @NotNull Object original) {
+        emitterNode = cloner.clone(emitterNode);
+        tempDirection = cloner.clone(tempDirection);
+        tempDirection2 = cloner.clone(tempDirection2);
+        tempQuaternion = cloner.clone(tempQuaternion);
+        tempQuaternion2 = cloner.clone(tempQuaternion2);
+    }
+
+    @Override
+    public void write(@NotNull JmeExporter exporter) throws IOException {
+    }
+
+    @Override
+    public void read(@NotNull JmeImporter importer) throws IOException {
+    }
+}
@@ -0,0 +1,164 @@
+package tonegod.emitter.shapes;
+
+import com.jme3.export.InputCapsule;
+import com.jme3.export.JmeExporter;
+import com.jme3.export.JmeImporter;
+import com.jme3.export.OutputCapsule;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.shape.Box;
+import com.jme3.util.clone.Cloner;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * The box emitter shape with the center in the origin, particles are emitted from faces or from the volume of the
+ * box with normals of the nearest faces.
+ *
+ * @author JavaSaBr
+ */
+public class BoxEmitterShape extends AbstractAnalyticEmitterShape {
+
+    /**
+     * The half sizes of the box.
+     */
+    @NotNull
+    protected Vector3f extents;
+
+    /**
+     * The flag of emitting from the volume instead of faces.
+     */
+    protected boolean volume;
+
+    public BoxEmitterShape() {
+        this(new Vector3f(1F, 1F, 1F));
+    }
+
+    public BoxEmitterShape(@NotNull Vector3f extents) {
+        this.extents = new Vector3f();
+        setExtents(extents);
+    }
+
+    @Override
+    protected void sampleLocal(@NotNull Random random, @NotNull Vector3f position, @NotNull Vector3f normal) {
+
+        Vector3f extents = this.extents;
+
+        position.set(
+                extents.x * (2F * random.nextFloat() - 1F),
+                extents.y * (2F * random.nextFloat() - 1F),
+                extents.z * (2F * random.nextFloat() - 1F)
+        );
+
+        int axis;
+
+        if (volume) {
+
+            float x = extents.x > 0 ? FastMath.abs(position.x / extents.x) : 0F;
+            float y = extents.y > 0 ? FastMath.abs(position.y / extents.y) : 0F;
+            float z = extents.z > 0 ? FastMath.abs(position.z / extents.z) : 0F;
+
+            axis = x >= y && x >= z ? 0 : y >= z ? 1 : 2;
+
+        } else {
+
+            // faces are selected by their areas
+            float areaX = extents.y * extents.z;
+            float areaY = extents.x * extents.z;
+            float areaZ = extents.x * extents.y;
+            float value = random.nextFloat() * (areaX + areaY + areaZ);
+
+            axis = value < areaX ? 0 : value < areaX + areaY ? 1 : 2;
+
+            float sign = random.nextBoolean() ? 1F : -1F;
+
+            if (axis == 0) {
+                position.x = extents.x * sign;
+            } else if (axis == 1) {
+                position.y = extents.y * sign;
+            } else {
+                position.z = extents.z * sign;
+            }
+        }
+
+        if (axis == 0) {
+            normal.set(position.x < 0 ? -1F : 1F, 0F, 0F);
+        } else if (axis == 1) {
+            normal.set(0F, position.y < 0 ? -1F : 1F, 0F);
+        } else {
+            normal.set(0F, 0F, position.z < 0 ? -1F : 1F);
+        }
+    }
+
+    @Override
+    protected @NotNull Mesh createMesh() {
+        return new Box(extents.x, extents.y, extents.z);
+    }
+
+    /**
+     * Sets the half sizes of the box.
+     *
+     * @param extents the half sizes.
+     */
+    public void setExtents(@NotNull Vector3f extents) {
+
+        if (extents.x < 0 || extents.y < 0 || extents.z < 0) {
+            throw new IllegalArgumentException("The extents " + extents + " can't be negative.");
+        }
+
+        this.extents.set(extents);
+        invalidateMesh();
+    }
+
+    /**
+     * Gets the half sizes of the box.
+     *
+     * @return the half sizes.
+     */
+    public @NotNull Vector3f getExtents() {
+        return extents;
+    }
+
+    /**
+     * Sets true to emit particles from the volume instead of faces.
+     *
+     * @param volume true to emit particles from the volume.
+     */
+    public void setVolume(boolean volume) {
+        this.volume = volume;
+    }
+
+    /**
+     * Returns true if particles are emitted from the volume instead of faces.
+     *
+     * @return true if particles are emitted from the volume.
+     */
+    public boolean isVolume() {
+        return volume;
+    }
+
+    @Override
+    public void cloneFields(@NotNull Cloner cloner, @NotNull Object original) {
+        super.cloneFields(cloner, original);
+        extents = cloner.clone(extents);
+    }
+
+    @Override
+    public void write(@NotNull JmeExporter exporter) throws IOException {
+        super.write(exporter);
+        OutputCapsule capsule = exporter.getCapsule(this);
+        capsule.write(extents, "extents", null);
+        capsule.write(volume, "volume", false);
+    }
+
+    @Override
+    public void read(@NotNull JmeImporter importer) throws IOException {
+        super.read(importer);
+        InputCapsule capsule = importer.getCapsule(this);
+        setExtents((Vector3f) capsule.readSavable("extents", new Vector3f(1F, 1F, 1F)));
+        setVolume(capsule.readBoolean("volume", false));
+    }
+}
@@ -0,0 +1,172 @@
+package tonegod.emitter.shapes;
+
+import com.jme3.export.InputCapsule;
+import com.jme3.export.JmeExporter;
+import com.jme3.export.JmeImporter;
+import com.jme3.export.OutputCapsule;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.shape.Cylinder;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * The cone emitter shape with the apex in the origin and the base above it by the Y axis, particles are emitted from
+ * the lateral surface or from the volume of the cone with normals directed from the apex, so particles spray out of
+ * the cone with the {@link tonegod.emitter.EmitterMesh.DirectionType#NORMAL} direction type.
+ *
+ * @author JavaSaBr
+ */
+public class ConeEmitterShape extends AbstractAnalyticEmitterShape {
+
+    /**
+     * The center of the bounds.
+     */
+    @NotNull
+    private final Vector3f center;
+
+    /**
+     * The radius of the base.
+     */
+    protected float radius;
+
+    /**
+     * The height.
+     */
+    protected float height;
+
+    /**
+     * The flag of emitting from the volume instead of the surface.
+     */
+    protected boolean volume;
+
+    public ConeEmitterShape() {
+        this(1F, 1F);
+    }
+
+    public ConeEmitterShape(float radius, float height) {
+        this.center = new Vector3f();
+        setRadius(radius);
+        setHeight(height);
+    }
+
+    @Override
+    protected void sampleLocal(@NotNull Random random, @NotNull Vector3f position, @NotNull Vector3f normal) {
+
+        // the area of the lateral surface grows linearly by the height and the volume grows quadratically
+        float level = volume ? (float) Math.cbrt(random.nextFloat()) : FastMath.sqrt(random.nextFloat());
+        float distance = volume ? FastMath.sqrt(random.nextFloat()) : 1F;
+        float angle = random.nextFloat() * FastMath.TWO_PI;
+        float cos = FastMath.cos(angle);
+        float sin = FastMath.sin(angle);
+        float ring = radius * level * distance;
+
+        position.set(ring * cos, height * level, ring * sin);
+        normal.set(radius * distance * cos, height, radius * distance * sin);
+
+        if (normal.lengthSquared() > 0F) {
+            normal.normalizeLocal();
+        } else {
+            normal.set(Vector3f.UNIT_Y);
+        }
+    }
+
+    @Override
+    protected @NotNull Mesh createMesh() {
+        return rotateToUp(new Cylinder(2, 16, MIN_MESH_SIZE,
+                Math.max(radius, MIN_MESH_SIZE), Math.max(height, MIN_MESH_SIZE), true, false), height / 2F);
+    }
+
+    @Override
+    public @NotNull Vector3f getCenter() {
+        return center;
+    }
+
+    /**
+     * Sets the radius of the base.
+     *
+     * @param radius the radius.
+     */
+    public void setRadius(float radius) {
+
+        if (radius < 0) {
+            throw new IllegalArgumentException("The radius " + radius + " can't be negative.");
+        }
+
+        this.radius = radius;
+        invalidateMesh();
+    }
+
+    /**
+     * Gets the radius of the base.
+     *
+     * @return the radius.
+     */
+    public float getRadius() {
+        return radius;
+    }
+
+    /**
+     * Sets the height.
+     *
+     * @param height the height.
+     */
+    public void setHeight(float height) {
+
+        if (height < 0) {
+            throw new IllegalArgumentException("The height " + height + " can't be negative.");
+        }
+
+        this.height = height;
+        this.center.set(0F, height / 2F, 0F);
+        invalidateMesh();
+    }
+
+    /**
+     * Gets the height.
+     *
+     * @return the height.
+     */
+    public float getHeight() {
+        return height;
+    }
+
+    /**
+     * Sets true to emit particles from the volume instead of the surface.
+     *
+     * @param volume true to emit particles from the volume.
+     */
+    public void setVolume(boolean volume) {
+        this.volume = volume;
+    }
+
+    /**
+     * Returns true if particles are emitted from the volume instead of the surface.
+     *
+     * @return true if particles are emitted from the volume.
+     */
+    public boolean isVolume() {
+        return volume;
+    }
+
+    @Override
+    public void write(@NotNull JmeExporter exporter) throws IOException {
+        super.write(exporter);
+        OutputCapsule capsule = exporter.getCapsule(this);
+        capsule.write(radius, "radius", 1F);
+        capsule.write(height, "height", 1F);
+        capsule.write(volume, "volume", false);
+    }
+
+    @Override
+    public void read(@NotNull JmeImporter importer) throws IOException {
+        super.read(importer);
+        InputCapsule capsule = importer.getCapsule(this);
+        setRadius(capsule.readFloat("radius", 1F));
+        setHeight(capsule.readFloat("height", 1F));
+        setVolume(capsule.readBoolean("volume", false));
+    }
+}
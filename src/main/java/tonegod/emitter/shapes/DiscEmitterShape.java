@@ -0,0 +1,89 @@
+package tonegod.emitter.shapes;
+
+import com.jme3.export.InputCapsule;
+import com.jme3.export.JmeExporter;
+import com.jme3.export.JmeImporter;
+import com.jme3.export.OutputCapsule;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.shape.Cylinder;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * The flat disc emitter shape in the XZ plane with the center in the origin, particles are emitted from the disc with
+ * the up normal.
+ *
+ * @author JavaSaBr
+ */
+public class DiscEmitterShape extends AbstractAnalyticEmitterShape {
+
+    /**
+     * The radius.
+     */
+    protected float radius;
+
+    public DiscEmitterShape() {
+        this(1F);
+    }
+
+    public DiscEmitterShape(float radius) {
+        setRadius(radius);
+    }
+
+    @Override
+    protected void sampleLocal(@NotNull Random random, @NotNull Vector3f position, @NotNull Vector3f normal) {
+
+        float distance = radius * FastMath.sqrt(random.nextFloat());
+        float angle = random.nextFloat() * FastMath.TWO_PI;
+
+        position.set(distance * FastMath.cos(angle), 0F, distance * FastMath.sin(angle));
+        normal.set(Vector3f.UNIT_Y);
+    }
+
+    @Override
+    protected @NotNull Mesh createMesh() {
+        return rotateToUp(new Cylinder(2, 32, Math.max(radius, MIN_MESH_SIZE), MIN_MESH_SIZE, true), 0F);
+    }
+
+    /**
+     * Sets the radius.
+     *
+     * @param radius the radius.
+     */
+    public void setRadius(float radius) {
+
+        if (radius < 0) {
+            throw new IllegalArgumentException("The radius " + radius + " can't be negative.");
+        }
+
+        this.radius = radius;
+        invalidateMesh();
+    }
+
+    /**
+     * Gets the radius.
+     *
+     * @return the radius.
+     */
+    public float getRadius() {
+        return radius;
+    }
+
+    @Override
+    public void write(@NotNull JmeExporter exporter) throws IOException {
+        super.write(exporter);
+        OutputCapsule capsule = exporter.getCapsule(this);
+        capsule.write(radius, "radius", 1F);
+    }
+
+    @Override
+    public void read(@NotNull JmeImporter importer) throws IOException {
+        super.read(importer);
+        InputCapsule capsule = importer.getCapsule(this);
+        setRadius(capsule.readFloat("radius", 1F));
+    }
+}
@@ -0,0 +1,85 @@
+package tonegod.emitter.shapes;
+
+import com.jme3.export.InputCapsule;
+import com.jme3.export.JmeExporter;
+import com.jme3.export.JmeImporter;
+import com.jme3.export.OutputCapsule;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.shape.Line;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * The line emitter shape along the X axis with the center in the origin, particles are emitted from the line with
+ * the up normal.
+ *
+ * @author JavaSaBr
+ */
+public class LineEmitterShape extends AbstractAnalyticEmitterShape {
+
+    /**
+     * The length.
+     */
+    protected float length;
+
+    public LineEmitterShape() {
+        this(1F);
+    }
+
+    public LineEmitterShape(float length) {
+        setLength(length);
+    }
+
+    @Override
+    protected void sampleLocal(@NotNull Random random, @NotNull Vector3f position, @NotNull Vector3f normal) {
+        position.set(length * (random.nextFloat() - 0.5F), 0F, 0F);
+        normal.set(Vector3f.UNIT_Y);
+    }
+
+    @Override
+    protected @NotNull Mesh createMesh() {
+        float half = length / 2F;
+        return new Line(new Vector3f(-half, 0F, 0F), new Vector3f(half, 0F, 0F));
+    }
+
+    /**
+     * Sets the length.
+     *
+     * @param length the length.
+     */
+    public void setLength(float length) {
+
+        if (length < 0) {
+            throw new IllegalArgumentException("The length " + length + " can't be negative.");
+        }
+
+        this.length = length;
+        invalidateMesh();
+    }
+
+    /**
+     * Gets the length.
+     *
+     * @return the length.
+     */
+    public float getLength() {
+        return length;
+    }
+
+    @Override
+    public void write(@NotNull JmeExporter exporter) throws IOException {
+        super.write(exporter);
+        OutputCapsule capsule = exporter.getCapsule(this);
+        capsule.write(length, "length", 1F);
+    }
+
+    @Override
+    public void read(@NotNull JmeImporter importer) throws IOException {
+        super.read(importer);
+        InputCapsule capsule = importer.getCapsule(this);
+        setLength(capsule.readFloat("length", 1F));
+    }
+}
@@ -0,0 +1,114 @@
+package tonegod.emitter.shapes;
+
+import com.jme3.export.InputCapsule;
+import com.jme3.export.JmeExporter;
+import com.jme3.export.JmeImporter;
+import com.jme3.export.OutputCapsule;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.shape.Torus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * The flat ring emitter shape in the XZ plane with the center in the origin, particles are emitted from the area
+ * between the inner and the outer radiuses with normals directed from the center.
+ *
+ * @author JavaSaBr
+ */
+public class RingEmitterShape extends AbstractAnalyticEmitterShape {
+
+    /**
+     * The inner radius.
+     */
+    protected float innerRadius;
+
+    /**
+     * The outer radius.
+     */
+    protected float outerRadius;
+
+    public RingEmitterShape() {
+        this(0.5F, 1F);
+    }
+
+    public RingEmitterShape(float innerRadius, float outerRadius) {
+        setRadiuses(innerRadius, outerRadius);
+    }
+
+    @Override
+    protected void sampleLocal(@NotNull Random random, @NotNull Vector3f position, @NotNull Vector3f normal) {
+
+        float inner = innerRadius * innerRadius;
+        float outer = outerRadius * outerRadius;
+        float distance = FastMath.sqrt(random.nextFloat() * (outer - inner) + inner);
+        float angle = random.nextFloat() * FastMath.TWO_PI;
+        float cos = FastMath.cos(angle);
+        float sin = FastMath.sin(angle);
+
+        position.set(distance * cos, 0F, distance * sin);
+        normal.set(cos, 0F, sin);
+    }
+
+    @Override
+    protected @NotNull Mesh createMesh() {
+        float tube = (outerRadius - innerRadius) / 2F;
+        return rotateToUp(new Torus(32, 8, tube, innerRadius + tube), 0F);
+    }
+
+    /**
+     * Sets the inner and the outer radiuses.
+     *
+     * @param innerRadius the inner radius.
+     * @param outerRadius the outer radius.
+     */
+    public void setRadiuses(float innerRadius, float outerRadius) {
+
+        if (innerRadius < 0) {
+            throw new IllegalArgumentException("The inner radius " + innerRadius + " can't be negative.");
+        } else if (outerRadius < innerRadius) {
+            throw new IllegalArgumentException("The outer radius " + outerRadius +
+                    " can't be less than the inner radius " + innerRadius + ".");
+        }
+
+        this.innerRadius = innerRadius;
+        this.outerRadius = outerRadius;
+        invalidateMesh();
+    }
+
+    /**
+     * Gets the inner radius.
+     *
+     * @return the inner radius.
+     */
+    public float getInnerRadius() {
+        return innerRadius;
+    }
+
+    /**
+     * Gets the outer radius.
+     *
+     * @return the outer radius.
+     */
+    public float getOuterRadius() {
+        return outerRadius;
+    }
+
+    @Override
+    public void write(@NotNull JmeExporter exporter) throws IOException {
+        super.write(exporter);
+        OutputCapsule capsule = exporter.getCapsule(this);
+        capsule.write(innerRadius, "innerRadius", 0.5F);
+        capsule.write(outerRadius, "outerRadius", 1F);
+    }
+
+    @Override
+    public void read(@NotNull JmeImporter importer) throws IOException {
+        super.read(importer);
+        InputCapsule capsule = importer.getCapsule(this);
+        setRadiuses(capsule.readFloat("innerRadius", 0.5F), capsule.readFloat("outerRadius", 1F));
+    }
+}
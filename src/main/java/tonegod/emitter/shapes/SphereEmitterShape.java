@@ -0,0 +1,118 @@
+package tonegod.emitter.shapes;
+
+import com.jme3.export.InputCapsule;
+import com.jme3.export.JmeExporter;
+import com.jme3.export.JmeImporter;
+import com.jme3.export.OutputCapsule;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.shape.Sphere;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * The sphere emitter shape with the center in the origin, particles are emitted from the surface or from the volume
+ * of the sphere with normals directed from the center.
+ *
+ * @author JavaSaBr
+ */
+public class SphereEmitterShape extends AbstractAnalyticEmitterShape {
+
+    /**
+     * The radius.
+     */
+    protected float radius;
+
+    /**
+     * The flag of emitting from the volume instead of the surface.
+     */
+    protected boolean volume;
+
+    public SphereEmitterShape() {
+        this(1F);
+    }
+
+    public SphereEmitterShape(float radius) {
+        setRadius(radius);
+    }
+
+    @Override
+    protected void sampleLocal(@NotNull Random random, @NotNull Vector3f position, @NotNull Vector3f normal) {
+
+        float y = 1F - 2F * random.nextFloat();
+        float angle = random.nextFloat() * FastMath.TWO_PI;
+        float ring = FastMath.sqrt(Math.max(1F - y * y, 0F));
+
+        normal.set(ring * FastMath.cos(angle), y, ring * FastMath.sin(angle));
+
+        float distance = volume ? radius * (float) Math.cbrt(random.nextFloat()) : radius;
+
+        position.set(normal).multLocal(distance);
+    }
+
+    @Override
+    protected @NotNull Mesh createMesh() {
+        return new Sphere(16, 16, radius);
+    }
+
+    /**
+     * Sets the radius.
+     *
+     * @param radius the radius.
+     */
+    public void setRadius(float radius) {
+
+        if (radius < 0) {
+            throw new IllegalArgumentException("The radius " + radius + " can't be negative.");
+        }
+
+        this.radius = radius;
+        invalidateMesh();
+    }
+
+    /**
+     * Gets the radius.
+     *
+     * @return the radius.
+     */
+    public float getRadius() {
+        return radius;
+    }
+
+    /**
+     * Sets true to emit particles from the volume instead of the surface.
+     *
+     * @param volume true to emit particles from the volume.
+     */
+    public void setVolume(boolean volume) {
+        this.volume = volume;
+    }
+
+    /**
+     * Returns true if particles are emitted from the volume instead of the surface.
+     *
+     * @return true if particles are emitted from the volume.
+     */
+    public boolean isVolume() {
+        return volume;
+    }
+
+    @Override
+    public void write(@NotNull JmeExporter exporter) throws IOException {
+        super.write(exporter);
+        OutputCapsule capsule = exporter.getCapsule(this);
+        capsule.write(radius, "radius", 1F);
+        capsule.write(volume, "volume", false);
+    }
+
+    @Override
+    public void read(@NotNull JmeImporter importer) throws IOException {
+        super.read(importer);
+        InputCapsule capsule = importer.getCapsule(this);
+        setRadius(capsule.readFloat("radius", 1F));
+        setVolume(capsule.readBoolean("volume", false));
+    }
+}
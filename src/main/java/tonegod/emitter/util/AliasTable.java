@@ -0,0 +1,122 @@
+package tonegod.emitter.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+/**
+ * The table to sample indexes with probabilities proportional to their weights in constant time by Vose's alias
+ * method. Every column of the table has the probability to take its own index and the alias index to take
+ * otherwise.
+ *
+ * @author JavaSaBr
+ */
+public final class AliasTable {
+
+    /**
+     * The probabilities to take the own index of columns.
+     */
+    @NotNull
+    private final float[] probabilities;
+
+    /**
+     * The alias indexes of columns.
+     */
+    @NotNull
+    private final int[] aliases;
+
+    /**
+     * Builds the table by the weights, all indexes are equally likely if the sum of weights isn't positive.
+     *
+     * @param weights the non-negative weights of indexes.
+     */
+    public AliasTable(@NotNull float[] weights) {
+
+        int count = weights.length;
+
+        if (count < 1) {
+            throw new IllegalArgumentException("The weights can't be empty.");
+        }
+
+        double sum = 0;
+
+        for (float weight : weights) {
+
+            if (weight < 0) {
+                throw new IllegalArgumentException("The weight " + weight + " can't be negative.");
+            }
+
+            sum += weight;
+        }
+
+        this.probabilities = new float[count];
+        this.aliases = new int[count];
+
+        double[] scaled = new double[count];
+        int[] small = new int[count];
+        int[] large = new int[count];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < count; i++) {
+
+            scaled[i] = sum > 0 ? weights[i] * count / sum : 1D;
+
+            if (scaled[i] < 1D) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            probabilities[less] = (float) scaled[less];
+            aliases[less] = more;
+
+            scaled[more] = scaled[more] + scaled[less] - 1D;
+
+            if (scaled[more] < 1D) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // the rest columns are full up to rounding errors
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            probabilities[index] = 1F;
+            aliases[index] = index;
+        }
+
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            probabilities[index] = 1F;
+            aliases[index] = index;
+        }
+    }
+
+    /**
+     * Samples the next index.
+     *
+     * @param random the random.
+     * @return the sampled index.
+     */
+    public int sample(@NotNull Random random) {
+        int index = random.nextInt(probabilities.length);
+        return random.nextFloat() < probabilities[index] ? index : aliases[index];
+    }
+
+    /**
+     * Gets the count of indexes of this table.
+     *
+     * @return the count of indexes.
+     */
+    public int size() {
+        return probabilities.length;
+    }
+}
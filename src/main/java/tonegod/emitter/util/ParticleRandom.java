@@ -0,0 +1,88 @@
+package tonegod.emitter.util;
+
+import static tonegod.emitter.util.RandomUtils.GOLDEN_GAMMA;
+import static tonegod.emitter.util.RandomUtils.mix64;
+import static tonegod.emitter.util.RandomUtils.toFloat;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+/**
+ * The fast seedable SplitMix64 generator. Unlike {@link Random} it doesn't use atomic updates, so an instance
+ * shouldn't be shared between threads.
+ *
+ * @author JavaSaBr
+ */
+public final class ParticleRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The current state.
+     */
+    private long state;
+
+    public ParticleRandom() {
+        this(RandomUtils.newSeed());
+    }
+
+    public ParticleRandom(long seed) {
+        super(seed);
+        this.state = seed;
+    }
+
+    /**
+     * Creates a new generator with the same current state, both generators produce the same values from now.
+     *
+     * @return the copy of this generator.
+     */
+    public @NotNull ParticleRandom copy() {
+        return new ParticleRandom(state);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.state = seed;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public int nextInt(int bound) {
+
+        if (bound <= 0) {
+            throw new IllegalArgumentException("The bound " + bound + " should be positive.");
+        }
+
+        return (int) (((nextLong() >>> 33) * bound) >>> 31);
+    }
+
+    @Override
+    public float nextFloat() {
+        return toFloat(nextLong());
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+}
@@ -4,6 +4,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The utility class.
@@ -12,6 +13,60 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public class RandomUtils {
 
+    /**
+     * The increment of the SplitMix64 generator.
+     */
+    public static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The counter to make new seeds unique.
+     */
+    @NotNull
+    private static final AtomicLong SEED_UNIQUIFIER = new AtomicLong();
+
+    /**
+     * Creates a new unique seed.
+     *
+     * @return the new seed.
+     */
+    public static long newSeed() {
+        return mix64(System.nanoTime() ^ SEED_UNIQUIFIER.addAndGet(GOLDEN_GAMMA));
+    }
+
+    /**
+     * Mixes bits of the value by the SplitMix64 finalizer.
+     *
+     * @param value the value.
+     * @return the mixed value.
+     */
+    public static long mix64(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Calculates the initial state of a random stream by the seed, the particle's index and the spawn counter.
+     *
+     * @param seed    the emitter's seed.
+     * @param index   the particle's index.
+     * @param counter the spawn counter.
+     * @return the initial state of the stream.
+     */
+    public static long streamSeed(long seed, int index, long counter) {
+        return mix64(seed ^ mix64(counter * GOLDEN_GAMMA + index));
+    }
+
+    /**
+     * Converts the random bits to a float in [0, 1).
+     *
+     * @param bits the random bits.
+     * @return the float in [0, 1).
+     */
+    public static float toFloat(long bits) {
+        return (bits >>> 40) * 0x1.0p-24F;
+    }
+
     /**
      * Gets a random.
      *
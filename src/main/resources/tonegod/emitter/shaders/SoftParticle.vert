@@ -19,22 +19,63 @@ varying vec4 color;
     varying vec4 texCoord;
 #endif
 
+#if defined(POINT_SPRITE) || defined(INSTANCING)
+    uniform mat4 g_WorldViewMatrix;
+#endif
+
+#ifdef INSTANCING
+    uniform mat4 g_ProjectionMatrix;
+    // the center of the particle (xyz) and the rotation angle around the view direction (w)
+    attribute vec4 inTexCoord2;
+    // the half size of the particle (xy) and the offset of the sprite frame (zw)
+    attribute vec4 inTexCoord3;
+#endif
+
 #ifdef POINT_SPRITE
     const float SIZE_MULTIPLIER = 4.0;
-    uniform mat4 g_WorldViewMatrix;
     uniform mat4 g_WorldMatrix;
     uniform vec3 g_CameraPosition;
     uniform float m_Quadratic;
     attribute float inSize;
 #endif
 
+vec4 getPosition() {
+    #ifdef INSTANCING
+        return vec4(inTexCoord2.xyz, 1.0);
+    #else
+        return vec4(inPosition, 1.0);
+    #endif
+}
+
+vec4 transformPosition(in vec4 pos) {
+    #ifdef INSTANCING
+        // the corner of the quad is turned to the camera in the view space
+        float c = cos(inTexCoord2.w);
+        float s = sin(inTexCoord2.w);
+        vec2 corner = inPosition.xy * inTexCoord3.xy;
+        vec4 viewPos = g_WorldViewMatrix * pos;
+        viewPos.xy += vec2(corner.x * c + corner.y * s, corner.y * c - corner.x * s);
+        return g_ProjectionMatrix * viewPos;
+    #else
+        return g_WorldViewProjectionMatrix * pos;
+    #endif
+}
+
+vec4 getTexCoord() {
+    #ifdef INSTANCING
+        return vec4(inTexCoord.xy + inTexCoord3.zw, inTexCoord.zw);
+    #else
+        return inTexCoord;
+    #endif
+}
+
 void main() {
 
     #ifdef SOFT_PARTICLES
 
-        vec4 pos = vec4(inPosition, 1.0);
+        vec4 pos = getPosition();
 
-        gl_Position = g_WorldViewProjectionMatrix * pos;
+        gl_Position = transformPosition(pos);
         color = inColor;
 
         projPos = gl_Position.zw;
@@ -44,7 +85,7 @@ void main() {
         vPos = (gl_Position.xy / gl_Position.w + 1.0) / 2.0;
 
         #ifdef USE_TEXTURE
-            texCoord = inTexCoord;
+            texCoord = getTexCoord();
         #endif
 
         #ifdef POINT_SPRITE
@@ -59,14 +100,14 @@ void main() {
         #endif
     #else
 
-        vec4 pos = vec4(inPosition, 1.0);
+        vec4 pos = getPosition();
 
-        gl_Position = g_WorldViewProjectionMatrix * pos;
+        gl_Position = transformPosition(pos);
 
         color = inColor;
 
         #ifdef USE_TEXTURE
-            texCoord = inTexCoord;
+            texCoord = getTexCoord();
         #endif
 
         #ifdef POINT_SPRITE
@@ -0,0 +1,116 @@
+package tonegod.emitter.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.util.BufferUtils;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.util.AliasTable;
+
+import java.util.Random;
+
+/**
+ * The deterministic test of sampling indexes by their weights and of area-weighted emission faces.
+ *
+ * @author JavaSaBr
+ */
+public class AliasTableTest {
+
+    private static final int SAMPLES = 100_000;
+
+    private static final double EPSILON = 0.01;
+
+    @Test
+    public void testFrequencies() {
+
+        var weights = new float[]{1F, 2F, 3F, 4F, 0F, 10F};
+        var counts = sample(new AliasTable(weights), SAMPLES);
+
+        assertEquals(6, counts.length);
+        assertEquals(0, counts[4]);
+
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(weights[i] / 20D, (double) counts[i] / SAMPLES, EPSILON);
+        }
+    }
+
+    @Test
+    public void testAllZeroWeights() {
+
+        var counts = sample(new AliasTable(new float[]{0F, 0F, 0F, 0F}), SAMPLES);
+
+        for (var count : counts) {
+            assertEquals(0.25D, (double) count / SAMPLES, EPSILON);
+        }
+    }
+
+    @Test
+    public void testSingleWeight() {
+        assertEquals(1000, sample(new AliasTable(new float[]{0.5F}), 1000)[0]);
+        assertEquals(1000, sample(new AliasTable(new float[]{0F, 7F, 0F}), 1000)[1]);
+    }
+
+    @Test
+    public void testInvalidWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new float[0]));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new float[]{1F, -1F}));
+    }
+
+    @Test
+    public void testZeroAreaTriangles() {
+
+        var emitter = new ParticleEmitterNode(new DesktopAssetManager(true));
+        emitter.changeEmitterShapeMesh(createMesh());
+        emitter.setAreaWeightedEmission(true);
+        emitter.setRandomEmissionPoint(false);
+        emitter.setRandomSeed(42L);
+        emitter.setMaxParticles(8000);
+        emitter.emitAllParticles();
+
+        var store = emitter.getParticleStore();
+        var counts = new int[3];
+
+        for (int i = 0; i < store.getCapacity(); i++) {
+            counts[store.spawnX[i] < 2F ? 0 : store.spawnX[i] < 8F ? 1 : 2]++;
+        }
+
+        assertEquals(0, counts[1]);
+        assertEquals(0.25D, counts[0] / 8000D, EPSILON * 2);
+        assertEquals(0.75D, counts[2] / 8000D, EPSILON * 2);
+    }
+
+    private static @NotNull int[] sample(@NotNull AliasTable table, int samples) {
+
+        var random = new Random(42L);
+        var counts = new int[table.size()];
+
+        for (int i = 0; i < samples; i++) {
+            counts[table.sample(random)]++;
+        }
+
+        return counts;
+    }
+
+    /**
+     * Creates the mesh of the triangle with the area 1, the degenerated triangle and the triangle with the area 3.
+     */
+    private static @NotNull Mesh createMesh() {
+
+        var mesh = new Mesh();
+        mesh.setBuffer(VertexBuffer.Type.Position, 3, BufferUtils.createFloatBuffer(
+                0F, 0F, 0F, 1F, 0F, 0F, 0F, 2F, 0F,
+                5F, 0F, 0F, 5F, 1F, 0F, 5F, 2F, 0F,
+                10F, 0F, 0F, 13F, 0F, 0F, 10F, 2F, 0F
+        ));
+        mesh.setBuffer(VertexBuffer.Type.Normal, 3, BufferUtils.createFloatBuffer(new float[27]));
+        mesh.setBuffer(VertexBuffer.Type.Index, 3, BufferUtils.createShortBuffer(new short[]{0, 1, 2, 3, 4, 5, 6, 7, 8}));
+        mesh.updateCounts();
+        mesh.updateBound();
+
+        return mesh;
+    }
+}
@@ -0,0 +1,197 @@
+package tonegod.emitter.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.bounding.BoundingBox;
+import com.jme3.math.Matrix3f;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.instancing.InstancedGeometry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.particle.ParticleDataInstancedMesh;
+import tonegod.emitter.particle.ParticleDataTriMesh;
+import tonegod.emitter.particle.ParticleSnapshot;
+import tonegod.emitter.particle.ParticleStore;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * The headless test of per-instance buffers of the instanced particles mesh.
+ *
+ * @author JavaSaBr
+ */
+public class ParticleDataInstancedMeshTest {
+
+    private static final float EPSILON = 0.0001F;
+
+    @Test
+    public void testInstanceBuffers() {
+
+        var emitter = createEmitter();
+        var mesh = new ParticleDataInstancedMesh();
+
+        emitter.setSpriteCount(4, 2);
+        emitter.changeParticleMesh(mesh);
+        emitter.emitNumParticles(5);
+
+        var store = emitter.getParticleStore();
+        var start = emitter.getActiveParticleStart();
+
+        for (int n = 0; n < 5; n++) {
+            var i = (start + n) % store.getCapacity();
+            store.setPosition(i, new Vector3f(n, n * 2, -n));
+            store.prevPosX[i] = n;
+            store.prevPosY[i] = n * 2;
+            store.prevPosZ[i] = -n;
+            store.sizeX[i] = 0.5F + n;
+            store.sizeY[i] = 1.5F + n;
+            store.angleZ[i] = 0.1F * n;
+            store.spriteCol[i] = n % 4;
+            store.spriteRow[i] = n % 2;
+            store.colorR[i] = 0.2F * n;
+        }
+
+        update(emitter, mesh);
+
+        assertEquals(5, mesh.getInstanceCount());
+        assertEquals(6, mesh.getBuffer(VertexBuffer.Type.Index).getData().limit());
+        assertEquals(4, mesh.getVertexCount());
+
+        var centers = (FloatBuffer) mesh.getBuffer(ParticleDataInstancedMesh.CENTER_BUFFER).getData();
+        var sizes = (FloatBuffer) mesh.getBuffer(ParticleDataInstancedMesh.SIZE_BUFFER).getData();
+        var colors = (ByteBuffer) mesh.getBuffer(ParticleDataInstancedMesh.COLOR_BUFFER).getData();
+
+        assertTrue(mesh.getBuffer(ParticleDataInstancedMesh.CENTER_BUFFER).isInstanced());
+        assertEquals(5 * 4, centers.limit());
+        assertEquals(5 * 4, sizes.limit());
+        assertEquals(5 * 4, colors.limit());
+
+        var bound = (BoundingBox) mesh.getBound();
+
+        for (int n = 0; n < 5; n++) {
+
+            var i = (start + n) % store.getCapacity();
+            var center = new Vector3f(centers.get(n * 4), centers.get(n * 4 + 1), centers.get(n * 4 + 2));
+
+            assertEquals(n, center.x, EPSILON);
+            assertEquals(n * 2, center.y, EPSILON);
+            assertEquals(-n, center.z, EPSILON);
+            assertEquals(0.1F * n, centers.get(n * 4 + 3), EPSILON);
+            assertEquals(0.5F + n, sizes.get(n * 4), EPSILON);
+            assertEquals(1.5F + n, sizes.get(n * 4 + 1), EPSILON);
+            assertEquals((n % 4) / 4F, sizes.get(n * 4 + 2), EPSILON);
+            assertEquals((n % 2) / 2F, sizes.get(n * 4 + 3), EPSILON);
+            assertEquals(store.getColorABGR(i), colors.getInt(n * 4));
+            assertTrue(bound.intersects(center));
+        }
+
+        var texCoords = (FloatBuffer) mesh.getBuffer(VertexBuffer.Type.TexCoord).getData();
+
+        assertEquals(0.25F, texCoords.get(2), EPSILON);
+        assertEquals(0.5F, texCoords.get(1), EPSILON);
+    }
+
+    @Test
+    public void testNoParticles() {
+
+        var emitter = createEmitter();
+        var mesh = new ParticleDataInstancedMesh();
+
+        emitter.changeParticleMesh(mesh);
+        emitter.emitNumParticles(3);
+
+        update(emitter, mesh);
+
+        assertEquals(3, mesh.getInstanceCount());
+
+        emitter.killAllParticles();
+
+        update(emitter, mesh);
+
+        assertEquals(0, mesh.getBuffer(VertexBuffer.Type.Index).getData().limit());
+        assertEquals(0, mesh.getTriangleCount());
+    }
+
+    @Test
+    public void testResize() {
+
+        var emitter = createEmitter();
+        var mesh = new ParticleDataInstancedMesh();
+
+        emitter.changeParticleMesh(mesh);
+        emitter.setMaxParticles(100);
+        emitter.emitAllParticles();
+
+        update(emitter, mesh);
+
+        assertEquals(100, mesh.getInstanceCount());
+        assertEquals(6, mesh.getBuffer(VertexBuffer.Type.Index).getData().limit());
+    }
+
+    @Test
+    public void testInstancedGeometry() {
+
+        var emitter = createEmitter();
+        var mesh = new ParticleDataInstancedMesh();
+
+        emitter.changeParticleMesh(mesh);
+        emitter.emitNumParticles(7);
+
+        update(emitter, mesh);
+
+        var geometry = findInstancedGeometry(emitter);
+
+        assertNotNull(geometry);
+        assertSame(mesh, geometry.getMesh());
+        assertEquals(7, geometry.getActualNumInstances());
+        assertEquals(0, geometry.getAllInstanceData().length);
+        assertEquals(Spatial.CullHint.Always, emitter.getParticleGeometry().getLocalCullHint());
+
+        var clone = emitter.clone();
+        var clonedGeometry = findInstancedGeometry(clone);
+
+        assertNotNull(clonedGeometry);
+        assertSame(clone.getParticleGeometry().getMesh(), clonedGeometry.getMesh());
+
+        emitter.changeParticleMesh(new ParticleDataTriMesh());
+
+        assertNull(findInstancedGeometry(emitter));
+        assertEquals(Spatial.CullHint.Inherit, emitter.getParticleGeometry().getLocalCullHint());
+    }
+
+    private static @Nullable InstancedGeometry findInstancedGeometry(@NotNull ParticleEmitterNode emitter) {
+
+        for (var child : emitter.getParticleNode().getChildren()) {
+            if (child instanceof InstancedGeometry) {
+                return (InstancedGeometry) child;
+            }
+        }
+
+        return null;
+    }
+
+    private static @NotNull ParticleEmitterNode createEmitter() {
+        var emitter = new ParticleEmitterNode(new DesktopAssetManager(true));
+        emitter.setMaxParticles(10);
+        return emitter;
+    }
+
+    private static void update(@NotNull ParticleEmitterNode emitter, @NotNull ParticleDataInstancedMesh mesh) {
+
+        ParticleStore store = emitter.getParticleStore();
+        ParticleSnapshot snapshot = new ParticleSnapshot();
+        snapshot.view(store, emitter.getActiveParticleStart(), emitter.getActiveParticleCount(), 1F);
+
+        mesh.updateParticleData(snapshot, new Camera(640, 480), new Matrix3f());
+    }
+}
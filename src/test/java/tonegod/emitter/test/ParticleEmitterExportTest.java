@@ -0,0 +1,89 @@
+package tonegod.emitter.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.export.binary.BinaryExporter;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import tonegod.emitter.ParticleEmitterNode;
+
+/**
+ * The headless test of saving and loading emitters by the binary format.
+ *
+ * @author JavaSaBr
+ */
+public class ParticleEmitterExportTest {
+
+    @Test
+    public void testPrewarmedParticlesArePersisted() {
+
+        var assetManager = new DesktopAssetManager(true);
+
+        var emitter = createEmitter(assetManager);
+        emitter.setRandomSeed(0L);
+        emitter.setPersistParticles(true);
+        emitter.prewarm(1F, 0.1F);
+
+        assertTrue(emitter.getActiveParticleCount() > 0);
+
+        var loaded = BinaryExporter.saveAndLoad(assetManager, emitter);
+
+        // particles are restored by initializing, the prewarm by 0 seconds initializes the emitter
+        loaded.prewarm(0F, 0.1F);
+
+        assertTrue(loaded.isPersistParticles());
+        assertEquals(0L, loaded.getRandomSeed());
+        assertEquals(emitter.getActiveParticleCount(), loaded.getActiveParticleCount());
+
+        var store = emitter.getParticleStore();
+        var loadedStore = loaded.getParticleStore();
+
+        for (int n = 0; n < emitter.getActiveParticleCount(); n++) {
+
+            var i = getIndex(emitter, n);
+            var j = getIndex(loaded, n);
+
+            assertEquals(store.posX[i], loadedStore.posX[j]);
+            assertEquals(store.posY[i], loadedStore.posY[j]);
+            assertEquals(store.posZ[i], loadedStore.posZ[j]);
+            assertEquals(store.life[i], loadedStore.life[j]);
+            assertEquals(store.randomState[i], loadedStore.randomState[j]);
+        }
+
+        // the random streams of new particles continue from the saved counter
+        assertEquals(emitter.nextSpawnCounter(), loaded.nextSpawnCounter());
+    }
+
+    @Test
+    public void testSeedIsLoadedWithoutParticles() {
+
+        var assetManager = new DesktopAssetManager(true);
+
+        var emitter = createEmitter(assetManager);
+        emitter.setRandomSeed(5L);
+        emitter.prewarm(1F, 0.1F);
+
+        var loaded = BinaryExporter.saveAndLoad(assetManager, emitter);
+        loaded.prewarm(0F, 0.1F);
+
+        assertFalse(loaded.isPersistParticles());
+        assertEquals(5L, loaded.getRandomSeed());
+        assertEquals(0, loaded.getActiveParticleCount());
+        assertEquals(emitter.nextSpawnCounter(), loaded.nextSpawnCounter());
+    }
+
+    private static @NotNull ParticleEmitterNode createEmitter(@NotNull DesktopAssetManager assetManager) {
+        var emitter = new ParticleEmitterNode(assetManager);
+        emitter.setMaxParticles(100);
+        emitter.setEmissionsPerSecond(30);
+        emitter.setParticlesPerEmission(1);
+        emitter.setLifeMinMax(2F, 2F);
+        return emitter;
+    }
+
+    private static int getIndex(@NotNull ParticleEmitterNode emitter, int n) {
+        return (emitter.getActiveParticleStart() + n) % emitter.getParticleStore().getCapacity();
+    }
+}
@@ -0,0 +1,127 @@
+package tonegod.emitter.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.math.Vector3f;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import tonegod.emitter.ParticleEmitterNode;
+
+/**
+ * The headless test of simulating particles by fixed time steps.
+ *
+ * @author JavaSaBr
+ */
+public class ParticleFixedStepTest {
+
+    private static final float STEP = 0.1F;
+    private static final float DELTA = 0.00001F;
+
+    @Test
+    public void testFrameTimeIsAccumulated() {
+
+        var emitter = createEmitter();
+        var store = emitter.getParticleStore();
+        var index = emitParticle(emitter);
+        var life = store.life[index];
+
+        emitter.updateLogicalState(0.04F);
+        emitter.updateLogicalState(0.04F);
+
+        assertEquals(life, store.life[index]);
+        assertEquals(0.8F, emitter.getInterpolationAlpha(), DELTA);
+
+        emitter.updateLogicalState(0.04F);
+
+        assertEquals(life - STEP, store.life[index], DELTA);
+        assertEquals(0.2F, emitter.getInterpolationAlpha(), DELTA);
+    }
+
+    @Test
+    public void testStepsPerFrameAreLimited() {
+
+        var emitter = createEmitter();
+        emitter.setMaxSubSteps(2);
+
+        var store = emitter.getParticleStore();
+        var index = emitParticle(emitter);
+        var life = store.life[index];
+
+        emitter.updateLogicalState(0.55F);
+
+        assertEquals(life - 2 * STEP, store.life[index], DELTA);
+        assertEquals(0.5F, emitter.getInterpolationAlpha(), DELTA);
+
+        // the time which exceeded the limit isn't simulated by next frames
+        emitter.updateLogicalState(0.04F);
+
+        assertEquals(life - 2 * STEP, store.life[index], DELTA);
+        assertEquals(0.9F, emitter.getInterpolationAlpha(), DELTA);
+    }
+
+    @Test
+    public void testInterpolationAlphaBlendsPositions() {
+
+        var emitter = createEmitter();
+        var store = emitter.getParticleStore();
+        var index = emitParticle(emitter);
+        var startX = store.posX[index];
+
+        store.velX[index] = 1F;
+        store.velY[index] = 0F;
+        store.velZ[index] = 0F;
+
+        emitter.updateLogicalState(0.13F);
+
+        var alpha = emitter.getInterpolationAlpha();
+
+        assertEquals(0.3F, alpha, DELTA);
+        assertEquals(startX, store.prevPosX[index]);
+        assertEquals(startX + STEP, store.posX[index], DELTA);
+        assertEquals(startX + alpha * STEP, store.getPosition(index, alpha, new Vector3f()).x, DELTA);
+    }
+
+    @Test
+    public void testPreviousPositionsAreSavedForActiveParticles() {
+
+        var emitter = createEmitter();
+        var store = emitter.getParticleStore();
+        var index = emitParticle(emitter);
+        var free = (emitter.getActiveParticleStart() + 1) % store.getCapacity();
+
+        assertFalse(store.active[free]);
+
+        store.posX[free] = 5F;
+        store.prevPosX[free] = -5F;
+        store.posX[index] = 2F;
+        store.velX[index] = 1F;
+
+        emitter.updateLogicalState(STEP);
+
+        assertEquals(2F, store.prevPosX[index]);
+        assertEquals(-5F, store.prevPosX[free]);
+        assertEquals(5F, store.posX[free]);
+    }
+
+    private static @NotNull ParticleEmitterNode createEmitter() {
+        var emitter = new ParticleEmitterNode(new DesktopAssetManager(true));
+        emitter.setMaxParticles(10);
+        emitter.setLifeMinMax(10F, 10F);
+        emitter.setEmissionsPerSecond(0.1F);
+        emitter.setFixedTimeStep(STEP);
+        emitter.setEnabled(true);
+        return emitter;
+    }
+
+    /**
+     * Emits one particle, the emitter doesn't emit other particles by itself during these tests.
+     *
+     * @return the index of the particle.
+     */
+    private static int emitParticle(@NotNull ParticleEmitterNode emitter) {
+        emitter.emitNumParticles(1);
+        assertEquals(1, emitter.getActiveParticleCount());
+        return emitter.getActiveParticleStart();
+    }
+}
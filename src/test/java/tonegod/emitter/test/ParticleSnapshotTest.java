@@ -0,0 +1,131 @@
+package tonegod.emitter.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.math.Vector3f;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.influencers.impl.AlphaInfluencer;
+import tonegod.emitter.influencers.impl.ImpulseInfluencer;
+import tonegod.emitter.influencers.impl.RotationInfluencer;
+import tonegod.emitter.influencers.impl.SizeInfluencer;
+import tonegod.emitter.particle.ParticleSnapshot;
+import tonegod.emitter.particle.ParticleStore;
+
+/**
+ * The headless test of snapshots of particles which are rendered while the next step is simulated.
+ *
+ * @author JavaSaBr
+ */
+public class ParticleSnapshotTest {
+
+    private static final float TPF = 1F / 60F;
+
+    @Test
+    public void testCopyKeepsSpawnNormals() {
+
+        var store = new ParticleStore(8);
+
+        for (int i = 0; i < store.getCapacity(); i++) {
+            store.normalX[i] = i;
+            store.normalY[i] = 1F;
+            store.normalZ[i] = -i;
+            store.active[i] = true;
+        }
+
+        var snapshot = new ParticleSnapshot();
+
+        // the active range is wrapped around the end of the store
+        snapshot.copy(store, 6, 5, 1F);
+
+        var copy = snapshot.getStore();
+
+        for (int n = 0; n < 5; n++) {
+
+            var i = (6 + n) % store.getCapacity();
+
+            assertEquals(store.getSpawnNormal(i, new Vector3f()), copy.getSpawnNormal(i, new Vector3f()));
+        }
+    }
+
+    @Test
+    public void testAsyncStepPublishesRenderState() {
+
+        var emitter = new SnapshotEmitterNode();
+        emitter.addInfluencers(new AlphaInfluencer(), new ImpulseInfluencer(), new SizeInfluencer(),
+                new RotationInfluencer());
+        emitter.setMaxParticles(100);
+        emitter.setEmissionsPerSecond(300);
+        emitter.setLifeMinMax(0.5F, 1.5F);
+        emitter.setRandomSeed(42L);
+        emitter.setAsyncUpdate(true);
+        emitter.setEnabled(true);
+
+        assertTrue(emitter.isBackgroundUpdateSupported());
+
+        for (int i = 0; i < 10; i++) {
+            emitter.updateLogicalState(TPF);
+        }
+
+        // the last step publishes its snapshot before the task is completed
+        emitter.waitForSimulation();
+
+        var snapshot = emitter.getPublishedSnapshot();
+        var store = emitter.getParticleStore();
+        var copy = snapshot.getStore();
+
+        assertNotSame(store, copy);
+        assertTrue(emitter.getActiveParticleCount() > 0);
+        assertEquals(emitter.getActiveParticleStart(), snapshot.getActiveParticleStart());
+        assertEquals(emitter.getActiveParticleCount(), snapshot.getActiveParticleCount());
+        assertEquals(emitter.getInterpolationAlpha(), snapshot.getInterpolationAlpha());
+
+        for (int n = 0; n < snapshot.getActiveParticleCount(); n++) {
+
+            var i = (snapshot.getActiveParticleStart() + n) % store.getCapacity();
+
+            assertTrue(copy.active[i]);
+            assertEquals(store.posX[i], copy.posX[i]);
+            assertEquals(store.posY[i], copy.posY[i]);
+            assertEquals(store.posZ[i], copy.posZ[i]);
+            assertEquals(store.prevPosX[i], copy.prevPosX[i]);
+            assertEquals(store.prevPosY[i], copy.prevPosY[i]);
+            assertEquals(store.prevPosZ[i], copy.prevPosZ[i]);
+            assertEquals(store.velX[i], copy.velX[i]);
+            assertEquals(store.velY[i], copy.velY[i]);
+            assertEquals(store.velZ[i], copy.velZ[i]);
+            assertEquals(store.initPosX[i], copy.initPosX[i]);
+            assertEquals(store.initPosY[i], copy.initPosY[i]);
+            assertEquals(store.initPosZ[i], copy.initPosZ[i]);
+            assertEquals(store.normalX[i], copy.normalX[i]);
+            assertEquals(store.normalY[i], copy.normalY[i]);
+            assertEquals(store.normalZ[i], copy.normalZ[i]);
+            assertEquals(store.sizeX[i], copy.sizeX[i]);
+            assertEquals(store.sizeY[i], copy.sizeY[i]);
+            assertEquals(store.sizeZ[i], copy.sizeZ[i]);
+            assertEquals(store.angleX[i], copy.angleX[i]);
+            assertEquals(store.angleY[i], copy.angleY[i]);
+            assertEquals(store.angleZ[i], copy.angleZ[i]);
+            assertEquals(store.getColorABGR(i), copy.getColorABGR(i));
+            assertEquals(store.spriteCol[i], copy.spriteCol[i]);
+            assertEquals(store.spriteRow[i], copy.spriteRow[i]);
+        }
+    }
+
+    /**
+     * The emitter which exposes the snapshot published by its last simulation step.
+     */
+    private static final class SnapshotEmitterNode extends ParticleEmitterNode {
+
+        private SnapshotEmitterNode() {
+            super(new DesktopAssetManager(true));
+        }
+
+        private @NotNull ParticleSnapshot getPublishedSnapshot() {
+            return publishedSnapshot.get();
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package tonegod.emitter.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.jme3.asset.DesktopAssetManager;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.influencers.impl.AlphaInfluencer;
+import tonegod.emitter.influencers.impl.GravityInfluencer;
+import tonegod.emitter.influencers.impl.ImpulseInfluencer;
+import tonegod.emitter.influencers.impl.RotationInfluencer;
+import tonegod.emitter.influencers.impl.SizeInfluencer;
+import tonegod.emitter.particle.ParticleStore;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The headless test of layouts of active particles in the particles store.
+ *
+ * @author JavaSaBr
+ */
+public class ParticleStoreLayoutTest {
+
+    private static final float TPF = 1F / 60F;
+
+    @Test
+    public void testSwapRemoveKeepsSurvivors() {
+
+        var emitter = createEmitter(20);
+        emitter.setLifeMinMax(1F, 2F);
+        emitter.emitNumParticles(10);
+
+        markParticles(emitter);
+
+        var expected = getMarks(emitter);
+
+        for (var mark : new float[]{3F, 0F, 9F}) {
+
+            emitter.killParticle(findParticle(emitter, mark));
+            expected.remove(mark);
+
+            assertEquals(expected, getMarks(emitter));
+            assertActiveRange(emitter);
+        }
+
+        assertEquals(7, emitter.getActiveParticleCount());
+    }
+
+    @Test
+    public void testRingKillsKeepSurvivors() {
+
+        var emitter = createEmitter(10);
+        emitter.setLifeMinMax(2F, 2F);
+        emitter.emitNumParticles(6);
+
+        // the ring is wrapped around the end of the store
+        emitter.killParticle(getIndex(emitter, 0));
+        emitter.emitNumParticles(8);
+
+        markParticles(emitter);
+
+        var expected = getMarks(emitter);
+
+        // the oldest, the newest and then a particle in the middle of the ring
+        for (var mark : new float[]{0F, 9F, 4F, 5F}) {
+
+            emitter.killParticle(findParticle(emitter, mark));
+            expected.remove(mark);
+
+            assertEquals(expected, getMarks(emitter));
+            assertActiveRange(emitter);
+        }
+
+        assertEquals(6, emitter.getActiveParticleCount());
+    }
+
+    @Test
+    public void testResizeKeepsNewestParticles() {
+
+        var emitter = createEmitter(10);
+        emitter.setLifeMinMax(2F, 2F);
+        emitter.emitNumParticles(8);
+
+        markParticles(emitter);
+
+        emitter.setMaxParticles(20);
+
+        assertEquals(20, emitter.getParticleStore().getCapacity());
+        assertEquals(8, emitter.getActiveParticleCount());
+        assertEquals(createMarks(0, 8), getMarks(emitter));
+        assertActiveRange(emitter);
+
+        assertEquals(12, emitter.spawnBatch(20));
+
+        markParticles(emitter);
+
+        emitter.setMaxParticles(5);
+
+        assertEquals(5, emitter.getParticleStore().getCapacity());
+        assertEquals(5, emitter.getActiveParticleCount());
+        assertEquals(createMarks(15, 20), getMarks(emitter));
+        assertActiveRange(emitter);
+
+        emitter.setMaxParticles(4);
+
+        assertEquals(4, emitter.getActiveParticleCount());
+        assertEquals(createMarks(16, 20), getMarks(emitter));
+        assertActiveRange(emitter);
+    }
+
+    @Test
+    public void testResizeKeepsLongestLivingParticles() {
+
+        var emitter = createEmitter(10);
+        emitter.setLifeMinMax(1F, 2F);
+        emitter.emitNumParticles(8);
+
+        markParticles(emitter);
+
+        var store = emitter.getParticleStore();
+        var lives = new float[]{1.5F, 1.1F, 1.7F, 1.3F, 1.8F, 1.2F, 1.6F, 1.4F};
+
+        for (int n = 0; n < lives.length; n++) {
+            store.life[getIndex(emitter, n)] = lives[n];
+        }
+
+        emitter.setMaxParticles(4);
+
+        assertEquals(4, emitter.getActiveParticleCount());
+        assertEquals(Set.of(0F, 2F, 4F, 6F), getMarks(emitter));
+        assertActiveRange(emitter);
+    }
+
+    @Test
+    public void testResizeAfterDirectChainChange() {
+
+        var alpha = new AlphaInfluencer();
+        var size = new SizeInfluencer();
+
+        var emitter = createEmitter(10);
+        emitter.addInfluencer(alpha);
+        emitter.emitNumParticles(5);
+
+        emitter.getInfluencers().add(0, size);
+        emitter.setMaxParticles(20);
+        emitter.killAllParticles();
+
+        emitter.getInfluencers().remove(alpha);
+        emitter.emitNumParticles(5);
+
+        assertEquals(5, emitter.getActiveParticleCount());
+        assertEquals(0, emitter.getInfluencerDataId(0));
+    }
+
+    @Test
+    public void testParallelUpdateMatchesSequential() {
+
+        var sequential = createSimulatedEmitter(false);
+        var parallel = createSimulatedEmitter(true);
+
+        assertTrue(parallel.isBackgroundUpdateSupported());
+
+        for (int i = 0; i < 90; i++) {
+            sequential.updateLogicalState(TPF);
+            parallel.updateLogicalState(TPF);
+        }
+
+        assertEquals(sequential.getActiveParticleCount(), parallel.getActiveParticleCount());
+        assertTrue(sequential.getActiveParticleCount() > 64);
+
+        var first = sequential.getParticleStore();
+        var second = parallel.getParticleStore();
+
+        for (int n = 0; n < sequential.getActiveParticleCount(); n++) {
+
+            var i = getIndex(sequential, n);
+            var j = getIndex(parallel, n);
+
+            assertEquals(first.posX[i], second.posX[j]);
+            assertEquals(first.posY[i], second.posY[j]);
+            assertEquals(first.posZ[i], second.posZ[j]);
+            assertEquals(first.velY[i], second.velY[j]);
+            assertEquals(first.sizeX[i], second.sizeX[j]);
+            assertEquals(first.angleZ[i], second.angleZ[j]);
+            assertEquals(first.colorA[i], second.colorA[j]);
+            assertEquals(first.life[i], second.life[j]);
+        }
+    }
+
+    private static @NotNull ParticleEmitterNode createEmitter(int maxParticles) {
+        var emitter = new ParticleEmitterNode(new DesktopAssetManager(true));
+        emitter.setMaxParticles(maxParticles);
+        return emitter;
+    }
+
+    private static @NotNull ParticleEmitterNode createSimulatedEmitter(boolean parallel) {
+
+        var size = new SizeInfluencer();
+        size.setRandomSize(true);
+
+        var emitter = createEmitter(1000);
+        emitter.addInfluencers(new AlphaInfluencer(), new ImpulseInfluencer(), size, new RotationInfluencer(),
+                new GravityInfluencer());
+        emitter.setEmissionsPerSecond(300);
+        emitter.setLifeMinMax(0.5F, 1.5F);
+        emitter.setRandomEmissionPoint(true);
+        emitter.setRandomSeed(42L);
+        emitter.setParallelUpdate(parallel);
+        emitter.setParallelChunkSize(16);
+        emitter.setEnabled(true);
+
+        return emitter;
+    }
+
+    private static int getIndex(@NotNull ParticleEmitterNode emitter, int n) {
+        return (emitter.getActiveParticleStart() + n) % emitter.getParticleStore().getCapacity();
+    }
+
+    /**
+     * Marks active particles by their positions in the active range, the mark is kept in the spawn column which
+     * isn't changed after spawning.
+     */
+    private static void markParticles(@NotNull ParticleEmitterNode emitter) {
+
+        var store = emitter.getParticleStore();
+
+        for (int i = 0; i < store.getCapacity(); i++) {
+            store.spawnX[i] = -1F;
+        }
+
+        for (int n = 0; n < emitter.getActiveParticleCount(); n++) {
+            store.spawnX[getIndex(emitter, n)] = n;
+        }
+    }
+
+    private static @NotNull Set<Float> getMarks(@NotNull ParticleEmitterNode emitter) {
+
+        var store = emitter.getParticleStore();
+        var marks = new HashSet<Float>();
+
+        for (int n = 0; n < emitter.getActiveParticleCount(); n++) {
+            marks.add(store.spawnX[getIndex(emitter, n)]);
+        }
+
+        return marks;
+    }
+
+    private static @NotNull Set<Float> createMarks(int from, int to) {
+
+        var marks = new HashSet<Float>();
+
+        for (int i = from; i < to; i++) {
+            marks.add((float) i);
+        }
+
+        return marks;
+    }
+
+    private static int findParticle(@NotNull ParticleEmitterNode emitter, float mark) {
+
+        var store = emitter.getParticleStore();
+
+        for (int n = 0; n < emitter.getActiveParticleCount(); n++) {
+
+            var i = getIndex(emitter, n);
+
+            if (store.spawnX[i] == mark) {
+                return i;
+            }
+        }
+
+        throw new IllegalStateException("The particle " + mark + " isn't found.");
+    }
+
+    /**
+     * Checks that all particles in the active range are active and all particles out of it are not.
+     */
+    private static void assertActiveRange(@NotNull ParticleEmitterNode emitter) {
+
+        ParticleStore store = emitter.getParticleStore();
+        var count = emitter.getActiveParticleCount();
+        var active = 0;
+
+        for (int n = 0; n < count; n++) {
+            assertTrue(store.active[getIndex(emitter, n)]);
+        }
+
+        for (int i = 0; i < store.getCapacity(); i++) {
+            if (store.active[i]) {
+                active++;
+            }
+        }
+
+        assertEquals(count, active);
+    }
+}
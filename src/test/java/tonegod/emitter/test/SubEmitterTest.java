@@ -0,0 +1,78 @@
+package tonegod.emitter.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import com.jme3.asset.DesktopAssetManager;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import tonegod.emitter.ParticleEmitterNode;
+import tonegod.emitter.SubEmitter;
+import tonegod.emitter.particle.ParticleEventBuffer;
+
+/**
+ * The headless test of spawning particles of a child emitter at places of events of a parent emitter.
+ *
+ * @author JavaSaBr
+ */
+public class SubEmitterTest {
+
+    private static final float DELTA = 0.00001F;
+
+    @Test
+    public void testEventsMoveSpawnedParticles() {
+
+        var parent = new ParticleEmitterNode(new DesktopAssetManager(true));
+        var child = createChild();
+
+        // the twin spawns the same particles without events
+        var twin = createChild();
+
+        var subEmitter = new SubEmitter(child, ParticleEventBuffer.EVENT_DEATH);
+        subEmitter.setParticlesPerEvent(2);
+        subEmitter.setInheritVelocity(0.5F);
+
+        var events = new ParticleEventBuffer(4);
+        events.write(ParticleEventBuffer.EVENT_COLLISION, 0, -9F, -9F, -9F, 0F, 0F, 0F);
+        events.write(ParticleEventBuffer.EVENT_DEATH, 3, 5F, 6F, 7F, 2F, 0F, -4F);
+
+        subEmitter.onParticleEvents(parent, events);
+        twin.spawnBatch(2);
+
+        assertEquals(2, child.getActiveParticleCount());
+
+        var store = child.getParticleStore();
+        var expected = twin.getParticleStore();
+
+        for (int n = 0; n < child.getActiveParticleCount(); n++) {
+
+            var i = getIndex(child, n);
+            var j = getIndex(twin, n);
+
+            // the event's position is relative to the child emitter at (1, 2, 3)
+            assertEquals(expected.posX[j] + 4F, store.posX[i], DELTA);
+            assertEquals(expected.posY[j] + 4F, store.posY[i], DELTA);
+            assertEquals(expected.posZ[j] + 4F, store.posZ[i], DELTA);
+            assertEquals(store.posX[i], store.prevPosX[i]);
+            assertEquals(store.posY[i], store.prevPosY[i]);
+            assertEquals(store.posZ[i], store.prevPosZ[i]);
+            assertEquals(expected.spawnX[j] + 4F, store.spawnX[i], DELTA);
+            assertEquals(expected.spawnY[j] + 4F, store.spawnY[i], DELTA);
+            assertEquals(expected.spawnZ[j] + 4F, store.spawnZ[i], DELTA);
+            assertEquals(expected.velX[j] + 1F, store.velX[i], DELTA);
+            assertEquals(expected.velY[j], store.velY[i], DELTA);
+            assertEquals(expected.velZ[j] - 2F, store.velZ[i], DELTA);
+        }
+    }
+
+    private static @NotNull ParticleEmitterNode createChild() {
+        var emitter = new ParticleEmitterNode(new DesktopAssetManager(true));
+        emitter.setMaxParticles(10);
+        emitter.setRandomSeed(7L);
+        emitter.setLocalTranslation(1F, 2F, 3F);
+        emitter.updateGeometricState();
+        return emitter;
+    }
+
+    private static int getIndex(@NotNull ParticleEmitterNode emitter, int n) {
+        return (emitter.getActiveParticleStart() + n) % emitter.getParticleStore().getCapacity();
+    }
+}